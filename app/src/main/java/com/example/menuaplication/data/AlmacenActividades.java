@@ -0,0 +1,57 @@
+package com.example.menuaplication.data;
+
+import com.example.menuaplication.model.actividades.Actividad;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Motor de almacenamiento persistente usado por {@link RepositorioActividades}.
+ *
+ * <p>El repositorio mantiene siempre la lista en memoria; el motor solo se encarga de
+ * cargarla al iniciar y de persistir cada cambio individual. Existen dos implementaciones:</p>
+ * <ul>
+ * <li>{@link DiarioActividades}: instantánea binaria + diario de cambios en archivos.</li>
+ * <li>{@link BaseDatosActividades}: base de datos SQLite con una fila por actividad.</li>
+ * </ul>
+ *
+ * @author José Paladines
+ * @version 1.1
+ */
+public interface AlmacenActividades {
+
+    /**
+     * @return {@code true} si ya se persistieron datos alguna vez, aunque la lista guardada
+     * esté vacía; {@code false} solo antes de la primera {@link #escribirInstantanea}.
+     */
+    boolean hayDatos();
+
+    /**
+     * Lee todas las actividades persistidas.
+     *
+     * @return Lista de actividades.
+     * @throws IOException Si los datos no se pueden leer.
+     */
+    List<Actividad> cargar() throws IOException;
+
+    /**
+     * Persiste el estado actual de una actividad (alta o modificación).
+     *
+     * @param actividad Actividad a guardar.
+     */
+    void registrarGuardado(Actividad actividad);
+
+    /**
+     * Persiste la eliminación de una actividad.
+     *
+     * @param id ID de la actividad eliminada.
+     */
+    void registrarEliminacion(int id);
+
+    /**
+     * Reemplaza todos los datos persistidos por la lista indicada.
+     *
+     * @param lista Lista completa de actividades.
+     */
+    void escribirInstantanea(List<Actividad> lista);
+}
@@ -0,0 +1,626 @@
+package com.example.menuaplication.data;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+import android.util.Log;
+
+import com.example.menuaplication.model.actividades.Actividad;
+import com.example.menuaplication.model.actividades.ActividadAcademica;
+import com.example.menuaplication.model.actividades.ActividadPersonal;
+import com.example.menuaplication.model.actividades.Prioridad;
+import com.example.menuaplication.model.actividades.RegistroSesiones;
+import com.example.menuaplication.model.actividades.TecnicaEnfoque;
+import com.example.menuaplication.model.actividades.TipoAcademica;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Almacenamiento de actividades en una base de datos SQLite.
+ *
+ * <p>Cada actividad es una fila de la tabla {@code actividades} y cada sesión de enfoque
+ * una fila de {@code sesiones}. Así, modificar una actividad solo actualiza su fila y agrega
+ * las sesiones nuevas, sin reescribir nada más.</p>
+ *
+ * <p>La lista se filtra y ordena en memoria ({@link VistasOrdenadas}), así que la tabla no
+ * tiene índices secundarios: solo la clave primaria, que es lo único que consultan las
+ * escrituras.</p>
+ *
+ * <p>Las escrituras siguen el mismo esquema que {@link DiarioActividades}: el estado de la
+ * actividad se copia en el hilo que hace el cambio y se aplica en el canal del
+ * {@link DespachadorPersistencia}, agrupando en una sola transacción los cambios pendientes.
+ * Las consultas se ejecutan en ese mismo canal, por lo que siempre ven los cambios previos.</p>
+ *
+ * <p>Las fechas se guardan como segundos desde la época (UTC del {@link LocalDateTime},
+ * sin zona horaria), suficiente para la precisión de minutos con la que se crean.</p>
+ *
+ * <p>Los minutos invertidos (total y por técnica) se guardan en la fila de la actividad, así
+ * que al cargar no hace falta volver a sumar las sesiones. Cada guardado copia solo las
+ * sesiones nuevas o editadas (desde la primera editada) y reescribe esas filas; si el
+ * historial no cambió, no copia ninguna.</p>
+ *
+ * <p>Si la transacción falla, el lote vuelve a los pendientes (sin pisar los cambios
+ * registrados después) y el error se propaga al canal, que lo informa; el siguiente
+ * volcado lo vuelve a intentar.</p>
+ *
+ * <p>La tabla {@code metadatos} recuerda que la base ya se inicializó (importada desde los
+ * archivos o con los datos de prueba), para que una lista vaciada por el usuario no se
+ * vuelva a llenar al iniciar.</p>
+ *
+ * @author José Paladines
+ * @version 1.5
+ */
+public class BaseDatosActividades extends SQLiteOpenHelper implements AlmacenActividades {
+
+    private static final String TAG = "BaseDatosActividades";
+
+    /** Nombre del archivo de la base de datos (también identifica el canal de escritura). */
+    public static final String NOMBRE_BD = "actividades.db";
+
+    /**
+     * Versión del esquema.
+     * <ul>
+     * <li>1: versión inicial.</li>
+     * <li>2: totales del historial en {@code actividades} (minutos completados y por técnica).</li>
+     * <li>3: tabla {@code metadatos} con la marca de base inicializada.</li>
+     * <li>4: sin los índices de nombre, fecha, avance y tipo (la lista ya no se consulta en SQL).</li>
+     * </ul>
+     */
+    private static final int VERSION_BD = 4;
+
+    /** Índices de la versión 1, que se borran al actualizar a la 4. */
+    private static final String[] INDICES_OBSOLETOS = {
+            "idx_actividades_nombre", "idx_actividades_fecha", "idx_actividades_avance",
+            "idx_actividades_tipo_nombre", "idx_actividades_tipo_fecha", "idx_actividades_tipo_avance"};
+
+    /** Clave de {@code metadatos} presente una vez que se escribió la primera instantánea. */
+    private static final String CLAVE_INICIALIZADA = "inicializada";
+
+    private static final int TIPO_ACADEMICA = 1;
+    private static final int TIPO_PERSONAL = 2;
+
+    private static final Prioridad[] PRIORIDADES = Prioridad.values();
+    private static final TipoAcademica[] TIPOS_ACADEMICOS = TipoAcademica.values();
+    private static final TecnicaEnfoque[] TECNICAS = TecnicaEnfoque.values();
+
+    /**
+     * Columna con los minutos completados de cada técnica, en orden de ordinal.
+     * Agregar una técnica requiere una nueva versión del esquema que cree su columna.
+     */
+    private static final String[] COLUMNAS_TECNICA = new String[TECNICAS.length];
+
+    static {
+        for (int i = 0; i < TECNICAS.length; i++) {
+            COLUMNAS_TECNICA[i] = "minutos_" + TECNICAS[i].name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /** Columnas de la actividad sin el ID, en el orden de {@link Fila#enlazarColumnas}. */
+    private static final String[] COLUMNAS_DATOS = concatenar(new String[]{
+            "tipo", "nombre", "descripcion", "fecha_vencimiento", "prioridad", "porcentaje_avance",
+            "tiempo_estimado", "asignatura", "tipo_academica", "lugar", "minutos_completados"}, COLUMNAS_TECNICA);
+
+    private static final String COLUMNAS_ACTIVIDAD = "id, " + unir(COLUMNAS_DATOS, "");
+
+    private final DespachadorPersistencia despachador;
+
+    /** Cambios aún no aplicados, por ID. Un valor {@code null} indica una eliminación. */
+    private final Map<Integer, Fila> pendientes = new LinkedHashMap<>();
+
+    /**
+     * Sesiones de cada actividad ya enviadas al hilo escritor (aplicadas o pendientes), por ID.
+     * El siguiente guardado solo copia desde ahí. Se protege con {@link #pendientes}.
+     */
+    private final Map<Integer, Integer> sesionesEnviadas = new HashMap<>();
+
+    /** Escritor que aplica los pendientes; siempre la misma instancia para que se agrupe. */
+    private final DespachadorPersistencia.Escritor volcador = this::volcarPendientes;
+
+    /**
+     * @param context     Contexto de la aplicación.
+     * @param despachador Despachador en cuyo canal se ejecutan escrituras y consultas.
+     */
+    public BaseDatosActividades(Context context, DespachadorPersistencia despachador) {
+        super(context, NOMBRE_BD, null, VERSION_BD);
+        this.despachador = despachador;
+    }
+
+    // --- ESQUEMA ---
+
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        db.setForeignKeyConstraintsEnabled(true);
+        db.enableWriteAheadLogging();
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE actividades ("
+                + "id INTEGER PRIMARY KEY, "
+                + "tipo INTEGER NOT NULL, "
+                + "nombre TEXT, "
+                + "descripcion TEXT, "
+                + "fecha_vencimiento INTEGER, "
+                + "prioridad INTEGER, "
+                + "porcentaje_avance REAL NOT NULL, "
+                + "tiempo_estimado INTEGER NOT NULL, "
+                + "asignatura TEXT, "
+                + "tipo_academica INTEGER, "
+                + "lugar TEXT)");
+        crearColumnasDeTotales(db);
+
+        db.execSQL("CREATE TABLE sesiones ("
+                + "actividad_id INTEGER NOT NULL REFERENCES actividades(id) ON DELETE CASCADE, "
+                + "orden INTEGER NOT NULL, "
+                + "fecha_hora INTEGER, "
+                + "duracion INTEGER NOT NULL, "
+                + "tecnica INTEGER, "
+                + "completada INTEGER NOT NULL, "
+                + "PRIMARY KEY (actividad_id, orden)) WITHOUT ROWID");
+        crearTablaMetadatos(db);
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int versionAnterior, int versionNueva) {
+        if (versionAnterior < 2) {
+            crearColumnasDeTotales(db);
+            // Calcular una sola vez los totales de las sesiones que ya estaban guardadas
+            StringBuilder sql = new StringBuilder("UPDATE actividades SET minutos_completados = ")
+                    .append(sumaDeSesiones(null));
+            for (int i = 0; i < TECNICAS.length; i++) {
+                sql.append(", ").append(COLUMNAS_TECNICA[i]).append(" = ").append(sumaDeSesiones(i));
+            }
+            db.execSQL(sql.toString());
+        }
+        if (versionAnterior < 3) {
+            crearTablaMetadatos(db);
+            // Una base anterior ya pasó por la importación o los datos de prueba
+            marcarInicializada(db);
+        }
+        if (versionAnterior < 4) {
+            // Nadie los lee y cada escritura los mantenía
+            for (String indice : INDICES_OBSOLETOS) {
+                db.execSQL("DROP INDEX IF EXISTS " + indice);
+            }
+        }
+    }
+
+    /** Crea la tabla de pares clave-valor del almacenamiento (versión 3). */
+    private static void crearTablaMetadatos(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE metadatos (clave TEXT PRIMARY KEY, valor INTEGER) WITHOUT ROWID");
+    }
+
+    private static void marcarInicializada(SQLiteDatabase db) {
+        db.execSQL("INSERT OR REPLACE INTO metadatos (clave, valor) VALUES ('" + CLAVE_INICIALIZADA + "', 1)");
+    }
+
+    /** Agrega a {@code actividades} las columnas de totales del historial (versión 2). */
+    private static void crearColumnasDeTotales(SQLiteDatabase db) {
+        db.execSQL("ALTER TABLE actividades ADD COLUMN minutos_completados INTEGER NOT NULL DEFAULT 0");
+        for (String columna : COLUMNAS_TECNICA) {
+            db.execSQL("ALTER TABLE actividades ADD COLUMN " + columna + " INTEGER NOT NULL DEFAULT 0");
+        }
+    }
+
+    /** Subconsulta con los minutos completados de la actividad, opcionalmente de una técnica. */
+    private static String sumaDeSesiones(Integer tecnica) {
+        return "(SELECT COALESCE(SUM(duracion), 0) FROM sesiones "
+                + "WHERE sesiones.actividad_id = actividades.id AND completada = 1"
+                + (tecnica == null ? "" : " AND tecnica = " + tecnica) + ")";
+    }
+
+    // --- AlmacenActividades ---
+
+    /**
+     * @return {@code true} si la base de datos ya se inicializó, aunque hoy no tenga
+     * ninguna actividad (el usuario pudo borrarlas todas).
+     */
+    @Override
+    public boolean hayDatos() {
+        try {
+            return enCanal(() -> DatabaseUtils.queryNumEntries(getReadableDatabase(), "metadatos",
+                    "clave = ?", new String[]{CLAVE_INICIALIZADA}) > 0);
+        } catch (IOException e) {
+            Log.e(TAG, "Error al consultar " + NOMBRE_BD + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Lee todas las actividades con sus sesiones, en orden de ID.
+     *
+     * @return Lista de actividades.
+     * @throws IOException Si la base de datos no se puede leer.
+     */
+    @Override
+    public List<Actividad> cargar() throws IOException {
+        return enCanal(() -> {
+            SQLiteDatabase db = getReadableDatabase();
+            List<Actividad> lista = new ArrayList<>();
+            Map<Integer, Actividad> porId = new HashMap<>();
+
+            try (Cursor c = db.rawQuery("SELECT " + COLUMNAS_ACTIVIDAD + " FROM actividades ORDER BY id", null)) {
+                while (c.moveToNext()) {
+                    Actividad a = leerActividad(c);
+                    lista.add(a);
+                    porId.put(a.getId(), a);
+                }
+            }
+
+            try (Cursor c = db.rawQuery("SELECT actividad_id, fecha_hora, duracion, tecnica, completada "
+                    + "FROM sesiones ORDER BY actividad_id, orden", null)) {
+                while (c.moveToNext()) {
+                    Actividad a = porId.get(c.getInt(0));
+                    if (a == null) continue;
+                    a.cargarSesion(
+                            c.isNull(1) ? RegistroSesiones.SIN_FECHA : c.getLong(1),
+                            c.getInt(2),
+                            c.isNull(3) ? null : TECNICAS[c.getInt(3)],
+                            c.getInt(4) != 0);
+                }
+            }
+            synchronized (pendientes) {
+                for (Actividad a : lista) {
+                    sesionesEnviadas.put(a.getId(), a.getSesiones().tamano());
+                }
+            }
+            return lista;
+        });
+    }
+
+    /**
+     * Copia el estado de la actividad y encola su escritura. De las sesiones solo se copian
+     * las que el hilo escritor todavía no recibió y las editadas desde el último guardado;
+     * si la copia reemplaza a otra aún pendiente, empieza donde empezaba aquella.
+     */
+    @Override
+    public void registrarGuardado(Actividad actividad) {
+        RegistroSesiones sesiones = actividad.getSesiones();
+        synchronized (pendientes) {
+            int id = actividad.getId();
+            Integer enviadas = sesionesEnviadas.get(id);
+            int desde = Math.min(sesiones.tomarMenorModificada(), enviadas == null ? 0 : enviadas);
+            Fila anterior = pendientes.remove(id);
+            if (anterior != null) desde = Math.min(desde, anterior.primeraSesion());
+            pendientes.put(id, new Fila(actividad, Math.min(desde, sesiones.tamano())));
+            sesionesEnviadas.put(id, sesiones.tamano());
+        }
+        despachador.marcarSucio(NOMBRE_BD, volcador);
+    }
+
+    @Override
+    public void registrarEliminacion(int id) {
+        synchronized (pendientes) {
+            pendientes.remove(id);
+            pendientes.put(id, null);
+            sesionesEnviadas.remove(id);
+        }
+        despachador.marcarSucio(NOMBRE_BD, volcador);
+    }
+
+    /**
+     * Reemplaza todo el contenido de la base de datos por la lista indicada
+     * (datos de prueba o importación desde los archivos) y, en la misma transacción,
+     * la marca como inicializada.
+     */
+    @Override
+    public void escribirInstantanea(List<Actividad> lista) {
+        List<Fila> filas = new ArrayList<>(lista.size());
+        synchronized (pendientes) {
+            pendientes.clear();
+            sesionesEnviadas.clear();
+            for (Actividad a : lista) {
+                a.getSesiones().tomarMenorModificada(); // Se escriben todas
+                filas.add(new Fila(a, 0));
+                sesionesEnviadas.put(a.getId(), a.getSesiones().tamano());
+            }
+        }
+        despachador.marcarSucio(NOMBRE_BD, () -> {
+            SQLiteDatabase db = getWritableDatabase();
+            db.beginTransaction();
+            try {
+                db.delete("actividades", null, null);
+                for (Fila fila : filas) {
+                    fila.aplicar(db);
+                }
+                marcarInicializada(db);
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+        });
+    }
+
+    // --- LECTURAS ---
+
+    /**
+     * Ejecuta una lectura en el canal de la base de datos y espera su resultado.
+     * Antes aplica los cambios pendientes, así la lectura siempre ve el estado más reciente.
+     */
+    private <T> T enCanal(Callable<T> lectura) throws IOException {
+        try {
+            return despachador.enviar(NOMBRE_BD, () -> {
+                volcarPendientes();
+                return lectura.call();
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Lectura interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Error al leer " + NOMBRE_BD, e.getCause());
+        }
+    }
+
+    // --- ESCRITURA (hilo del canal) ---
+
+    /**
+     * Aplica todos los cambios pendientes en una sola transacción.
+     * Se ejecuta en el hilo escritor de {@link #NOMBRE_BD}. Si la transacción falla, el
+     * lote vuelve a pendientes sin pisar los cambios más nuevos y se relanza el error.
+     */
+    private void volcarPendientes() {
+        Map<Integer, Fila> lote;
+        synchronized (pendientes) {
+            if (pendientes.isEmpty()) return;
+            lote = new LinkedHashMap<>(pendientes);
+            pendientes.clear();
+        }
+
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (Map.Entry<Integer, Fila> cambio : lote.entrySet()) {
+                if (cambio.getValue() == null) {
+                    // Las sesiones se borran en cascada
+                    db.delete("actividades", "id = ?", new String[]{String.valueOf(cambio.getKey())});
+                } else {
+                    cambio.getValue().aplicar(db);
+                }
+            }
+            db.setTransactionSuccessful();
+        } catch (RuntimeException e) {
+            synchronized (pendientes) {
+                for (Map.Entry<Integer, Fila> cambio : lote.entrySet()) {
+                    devolver(cambio.getKey(), cambio.getValue());
+                }
+            }
+            throw e;
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Devuelve a pendientes un cambio que no se pudo aplicar. Si mientras tanto se registró
+     * otro para la misma actividad, manda el nuevo; pero si este empieza sus sesiones más
+     * adelante, se le antepone el fallido para que no queden sesiones sin escribir.
+     * Se llama con {@link #pendientes} tomado.
+     */
+    private void devolver(int id, Fila fallida) {
+        // Sin putIfAbsent: trataría una eliminación pendiente (valor null) como ausente
+        if (!pendientes.containsKey(id)) {
+            pendientes.put(id, fallida);
+            return;
+        }
+        Fila nueva = pendientes.get(id);
+        if (nueva != null && fallida != null && fallida.primeraSesion() < nueva.desde) {
+            nueva.previa = fallida;
+        }
+    }
+
+    // --- CONVERSIONES ---
+
+    private static Actividad leerActividad(Cursor c) {
+        String nombre = c.getString(2);
+        String descripcion = c.getString(3);
+        LocalDateTime fecha = c.isNull(4) ? null : aFecha(c.getLong(4));
+        Prioridad prioridad = c.isNull(5) ? null : PRIORIDADES[c.getInt(5)];
+        int tiempo = c.getInt(7);
+
+        Actividad a;
+        if (c.getInt(1) == TIPO_ACADEMICA) {
+            TipoAcademica tipo = c.isNull(9) ? null : TIPOS_ACADEMICOS[c.getInt(9)];
+            a = new ActividadAcademica(nombre, descripcion, fecha, prioridad, tiempo, c.getString(8), tipo);
+        } else {
+            a = new ActividadPersonal(nombre, descripcion, fecha, prioridad, tiempo, c.getString(10));
+        }
+        a.setId(c.getInt(0));
+        a.setPorcentajeAvance(c.getDouble(6));
+
+        // Totales guardados: las sesiones se cargan después sin volver a sumarlas
+        int[] porTecnica = new int[TECNICAS.length];
+        for (int i = 0; i < porTecnica.length; i++) {
+            porTecnica[i] = c.getInt(12 + i);
+        }
+        a.restaurarTotales(c.getInt(11), porTecnica);
+        return a;
+    }
+
+    private static long aSegundos(LocalDateTime fecha) {
+        return fecha.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /** Une las columnas con comas, agregando el sufijo a cada una (p. ej. {@code " = ?"}). */
+    private static String unir(String[] columnas, String sufijo) {
+        return unir(columnas, sufijo, false);
+    }
+
+    /**
+     * @param reemplazar {@code true} para poner solo el sufijo en lugar de cada columna
+     *                   (p. ej. los {@code ?} de un INSERT).
+     */
+    private static String unir(String[] columnas, String sufijo, boolean reemplazar) {
+        StringBuilder sb = new StringBuilder();
+        for (String columna : columnas) {
+            if (sb.length() > 0) sb.append(", ");
+            sb.append(reemplazar ? "" : columna).append(sufijo);
+        }
+        return sb.toString();
+    }
+
+    private static String[] concatenar(String[] a, String[] b) {
+        String[] r = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, r, a.length, b.length);
+        return r;
+    }
+
+    private static LocalDateTime aFecha(long segundos) {
+        return LocalDateTime.ofEpochSecond(segundos, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Copia del estado de una actividad tomada en el hilo que hace el cambio,
+     * para que el hilo escritor nunca lea el objeto mientras la UI lo modifica.
+     */
+    private static final class Fila {
+        final int id;
+        final int tipo;
+        final String nombre;
+        final String descripcion;
+        final LocalDateTime fechaVencimiento;
+        final Prioridad prioridad;
+        final double porcentajeAvance;
+        final int tiempoEstimado;
+        final String asignatura;
+        final TipoAcademica tipoAcademica;
+        final String lugar;
+        final int minutosCompletados;
+        final int[] minutosPorTecnica = new int[TECNICAS.length];
+
+        /** Primera sesión que se reescribe; las anteriores ya están en la base sin cambios. */
+        final int desde;
+
+        /** Sesiones desde {@link #desde} (la posición 0 es la sesión {@code desde}). */
+        final RegistroSesiones sesiones;
+
+        /**
+         * Cambio anterior que falló y cuyas sesiones empiezan antes de {@link #desde}; se
+         * escribe primero. Se protege con {@link #pendientes}.
+         */
+        Fila previa;
+
+        Fila(Actividad a, int desde) {
+            id = a.getId();
+            nombre = a.getNombre();
+            descripcion = a.getDescripcion();
+            fechaVencimiento = a.getFechaVencimiento();
+            prioridad = a.getPrioridad();
+            porcentajeAvance = a.getPorcentajeAvance();
+            tiempoEstimado = a.getTiempoEstimadoMinutos();
+            this.desde = desde;
+            sesiones = a.getSesiones().copiaDesde(desde);
+            minutosCompletados = a.getMinutosInvertidos();
+            for (int i = 0; i < TECNICAS.length; i++) {
+                minutosPorTecnica[i] = a.getMinutosInvertidos(TECNICAS[i]);
+            }
+            if (a instanceof ActividadAcademica) {
+                tipo = TIPO_ACADEMICA;
+                asignatura = ((ActividadAcademica) a).getAsignatura();
+                tipoAcademica = ((ActividadAcademica) a).getTipo();
+                lugar = null;
+            } else {
+                tipo = TIPO_PERSONAL;
+                asignatura = null;
+                tipoAcademica = null;
+                lugar = ((ActividadPersonal) a).getLugar();
+            }
+        }
+
+        /** @return Primera sesión que se reescribe, contando las de {@link #previa}. */
+        int primeraSesion() {
+            return previa == null ? desde : Math.min(desde, previa.primeraSesion());
+        }
+
+        /**
+         * Actualiza (o inserta) la fila de la actividad y reescribe sus sesiones a partir
+         * de {@link #desde} (las nuevas y las editadas).
+         */
+        void aplicar(SQLiteDatabase db) {
+            try (SQLiteStatement update = db.compileStatement("UPDATE actividades SET "
+                    + unir(COLUMNAS_DATOS, " = ?") + " WHERE id = ?")) {
+                enlazarColumnas(update, 1);
+                update.bindLong(COLUMNAS_DATOS.length + 1, id);
+                if (update.executeUpdateDelete() == 0) {
+                    try (SQLiteStatement insert = db.compileStatement("INSERT INTO actividades ("
+                            + COLUMNAS_ACTIVIDAD + ") VALUES (?, " + unir(COLUMNAS_DATOS, "?", true) + ")")) {
+                        insert.bindLong(1, id);
+                        enlazarColumnas(insert, 2);
+                        insert.executeInsert();
+                    }
+                }
+            }
+            escribirSesiones(db);
+        }
+
+        /** Reescribe las sesiones desde {@link #desde}, después de las de {@link #previa}. */
+        private void escribirSesiones(SQLiteDatabase db) {
+            if (previa != null) previa.escribirSesiones(db);
+            db.delete("sesiones", "actividad_id = ? AND orden >= ?",
+                    new String[]{String.valueOf(id), String.valueOf(desde)});
+            if (sesiones.estaVacio()) return;
+
+            try (SQLiteStatement insert = db.compileStatement("INSERT INTO sesiones "
+                    + "(actividad_id, orden, fecha_hora, duracion, tecnica, completada) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)")) {
+                for (int i = 0; i < sesiones.tamano(); i++) {
+                    insert.clearBindings();
+                    insert.bindLong(1, id);
+                    insert.bindLong(2, desde + i);
+                    if (sesiones.getSegundos(i) == RegistroSesiones.SIN_FECHA) {
+                        insert.bindNull(3);
+                    } else {
+                        insert.bindLong(3, sesiones.getSegundos(i));
+                    }
+                    insert.bindLong(4, sesiones.getDuracionMinutos(i));
+                    enlazarOrdinal(insert, 5, sesiones.getTecnica(i));
+                    insert.bindLong(6, sesiones.isCompletada(i) ? 1 : 0);
+                    insert.executeInsert();
+                }
+            }
+        }
+
+        /** Enlaza las columnas de {@link #COLUMNAS_DATOS} a partir de la posición indicada. */
+        private void enlazarColumnas(SQLiteStatement st, int desde) {
+            st.bindLong(desde, tipo);
+            enlazarTexto(st, desde + 1, nombre);
+            enlazarTexto(st, desde + 2, descripcion);
+            enlazarFecha(st, desde + 3, fechaVencimiento);
+            enlazarOrdinal(st, desde + 4, prioridad);
+            st.bindDouble(desde + 5, porcentajeAvance);
+            st.bindLong(desde + 6, tiempoEstimado);
+            enlazarTexto(st, desde + 7, asignatura);
+            enlazarOrdinal(st, desde + 8, tipoAcademica);
+            enlazarTexto(st, desde + 9, lugar);
+            st.bindLong(desde + 10, minutosCompletados);
+            for (int i = 0; i < minutosPorTecnica.length; i++) {
+                st.bindLong(desde + 11 + i, minutosPorTecnica[i]);
+            }
+        }
+
+        private static void enlazarTexto(SQLiteStatement st, int i, String valor) {
+            if (valor == null) st.bindNull(i); else st.bindString(i, valor);
+        }
+
+        private static void enlazarFecha(SQLiteStatement st, int i, LocalDateTime valor) {
+            if (valor == null) st.bindNull(i); else st.bindLong(i, aSegundos(valor));
+        }
+
+        private static void enlazarOrdinal(SQLiteStatement st, int i, Enum<?> valor) {
+            if (valor == null) st.bindNull(i); else st.bindLong(i, valor.ordinal());
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.menuaplication.data;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Bus de notificaciones de cambios de un repositorio.
+ *
+ * <p>El repositorio publica qué elemento cambió (por ID) y cómo: insertado, actualizado o
+ * eliminado. Las pantallas registradas reciben los cambios y actualizan solo esos elementos,
+ * en lugar de volver a pedir y reconstruir todo en {@code onResume}.</p>
+ *
+ * <ul>
+ * <li><b>Hilo principal:</b> los observadores siempre se llaman en el hilo principal,
+ * se publique desde donde se publique.</li>
+ * <li><b>Agrupación por fotograma:</b> los cambios publicados antes del siguiente fotograma
+ * se entregan juntos, en una sola llamada, con {@link Choreographer}.</li>
+ * <li><b>Fusión por ID:</b> varios cambios del mismo ID en el mismo lote se reducen a uno
+ * (p. ej. insertar y luego actualizar es una inserción; insertar y luego eliminar, nada).</li>
+ * </ul>
+ *
+ * @author José Paladines
+ * @version 1.0
+ */
+public class BusCambios {
+
+    /** Tipo de cambio de un elemento. */
+    public enum Tipo { INSERTADO, ACTUALIZADO, ELIMINADO }
+
+    /** Cambio de un elemento identificado por su ID. */
+    public static final class Cambio {
+        public final Tipo tipo;
+        public final int id;
+
+        Cambio(Tipo tipo, int id) {
+            this.tipo = tipo;
+            this.id = id;
+        }
+    }
+
+    /** Recibe los cambios de cada fotograma, en el hilo principal. */
+    public interface Observador {
+        void alCambiar(List<Cambio> cambios);
+    }
+
+    private final List<Observador> observadores = new CopyOnWriteArrayList<>();
+
+    /** Cambios del lote en curso, por ID, en orden de publicación. */
+    private final Map<Integer, Tipo> pendientes = new LinkedHashMap<>();
+
+    /** {@code true} si ya hay una entrega programada para el siguiente fotograma. */
+    private boolean programado = false;
+
+    private final Handler hiloPrincipal = new Handler(Looper.getMainLooper());
+
+    private final Choreographer.FrameCallback alDibujar = tiempo -> entregar();
+
+    /**
+     * Registra un observador. Debe quitarse con {@link #quitar} al destruir la pantalla.
+     *
+     * @param observador Observador a registrar.
+     */
+    public void registrar(Observador observador) {
+        observadores.add(observador);
+    }
+
+    /**
+     * @param observador Observador a quitar.
+     */
+    public void quitar(Observador observador) {
+        observadores.remove(observador);
+    }
+
+    /**
+     * Publica un cambio. Puede llamarse desde cualquier hilo.
+     *
+     * @param tipo Tipo de cambio.
+     * @param id   ID del elemento afectado.
+     */
+    public void publicar(Tipo tipo, int id) {
+        synchronized (pendientes) {
+            fusionar(tipo, id);
+            if (programado) return;
+            programado = true;
+        }
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            Choreographer.getInstance().postFrameCallback(alDibujar);
+        } else {
+            hiloPrincipal.post(() -> Choreographer.getInstance().postFrameCallback(alDibujar));
+        }
+    }
+
+    private void fusionar(Tipo tipo, int id) {
+        Tipo anterior = pendientes.remove(id);
+        Tipo resultado;
+        if (anterior == null) {
+            resultado = tipo;
+        } else if (anterior == Tipo.INSERTADO) {
+            // Si se elimina algo que nadie llegó a ver, no hay nada que notificar
+            if (tipo == Tipo.ELIMINADO) return;
+            resultado = Tipo.INSERTADO;
+        } else if (anterior == Tipo.ELIMINADO && tipo != Tipo.ELIMINADO) {
+            // Eliminado y vuelto a insertar: para quien lo veía, cambió
+            resultado = Tipo.ACTUALIZADO;
+        } else {
+            resultado = tipo;
+        }
+        pendientes.put(id, resultado);
+    }
+
+    /** Entrega el lote acumulado a los observadores (hilo principal). */
+    private void entregar() {
+        List<Cambio> lote;
+        synchronized (pendientes) {
+            programado = false;
+            if (pendientes.isEmpty()) return;
+            lote = new ArrayList<>(pendientes.size());
+            for (Map.Entry<Integer, Tipo> e : pendientes.entrySet()) {
+                lote.add(new Cambio(e.getValue(), e.getKey()));
+            }
+            pendientes.clear();
+        }
+        List<Cambio> soloLectura = Collections.unmodifiableList(lote);
+        for (Observador observador : observadores) {
+            observador.alCambiar(soloLectura);
+        }
+    }
+}
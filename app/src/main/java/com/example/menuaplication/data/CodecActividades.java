@@ -0,0 +1,373 @@
+package com.example.menuaplication.data;
+
+import com.example.menuaplication.model.actividades.Actividad;
+import com.example.menuaplication.model.actividades.ActividadAcademica;
+import com.example.menuaplication.model.actividades.ActividadPersonal;
+import com.example.menuaplication.model.actividades.Prioridad;
+import com.example.menuaplication.model.actividades.RegistroSesiones;
+import com.example.menuaplication.model.actividades.SesionEnfoque;
+import com.example.menuaplication.model.actividades.TecnicaEnfoque;
+import com.example.menuaplication.model.actividades.TipoAcademica;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Codificador binario compacto para {@link Actividad} y {@link SesionEnfoque}.
+ *
+ * <p>Reemplaza a la serialización de Java, que escribe descriptores de clase, grafos de
+ * {@link LocalDateTime} y nombres completos de enums en cada sesión. Este formato usa:</p>
+ * <ul>
+ * <li>Una cabecera con número mágico y versión de formato.</li>
+ * <li>Fechas como segundos epoch (las sesiones, como diferencia con la anterior).</li>
+ * <li>Enums por ordinal (0 reservado para {@code null}).</li>
+ * <li>Enteros como varints (LEB128, con zigzag para los que pueden ser negativos).</li>
+ * <li>Textos en UTF-8 precedidos por su longitud (0 reservado para {@code null}).</li>
+ * </ul>
+ *
+ * <p><b>Importante:</b> el orden de los valores de los enums forma parte del formato.
+ * Solo se pueden agregar valores nuevos al final.</p>
+ *
+ * @author José Paladines
+ * @version 1.1
+ */
+public final class CodecActividades {
+
+    /** Número mágico al inicio de cada archivo ("ACTV"). */
+    public static final int MAGICO = 0x41435456;
+
+    /**
+     * Versión actual del formato.
+     * <ul>
+     * <li>1: versión inicial.</li>
+     * <li>2: agrega los totales del historial (minutos completados y por técnica) antes de las sesiones.</li>
+     * </ul>
+     */
+    public static final int VERSION = 2;
+
+    /** Marca de tipo para {@link ActividadAcademica}. */
+    private static final int TIPO_ACADEMICA = 1;
+
+    /** Marca de tipo para {@link ActividadPersonal}. */
+    private static final int TIPO_PERSONAL = 2;
+
+    private static final Prioridad[] PRIORIDADES = Prioridad.values();
+    private static final TipoAcademica[] TIPOS_ACADEMICOS = TipoAcademica.values();
+    private static final TecnicaEnfoque[] TECNICAS = TecnicaEnfoque.values();
+
+    private CodecActividades() {
+    }
+
+    // --- CABECERA ---
+
+    /**
+     * Escribe el número mágico y la versión actual del formato.
+     *
+     * @param out Destino.
+     * @throws IOException Si falla la escritura.
+     */
+    public static void escribirCabecera(DataOutput out) throws IOException {
+        out.writeInt(MAGICO);
+        escribirVarInt(out, VERSION);
+    }
+
+    /**
+     * Lee y valida la cabecera.
+     *
+     * @param in Origen.
+     * @return La versión de formato con la que se escribieron los datos.
+     * @throws IOException Si no es un archivo de actividades o la versión es más nueva que la soportada.
+     */
+    public static int leerCabecera(DataInput in) throws IOException {
+        if (in.readInt() != MAGICO) {
+            throw new IOException("No es un archivo de actividades");
+        }
+        int version = leerVarInt(in);
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Versión de formato no soportada: " + version);
+        }
+        return version;
+    }
+
+    // --- LISTAS COMPLETAS ---
+
+    /**
+     * Escribe la cabecera seguida de la lista completa de actividades.
+     *
+     * @param out         Destino.
+     * @param actividades Actividades a guardar.
+     * @throws IOException Si falla la escritura.
+     */
+    public static void escribirLista(DataOutput out, List<Actividad> actividades) throws IOException {
+        escribirCabecera(out);
+        escribirVarInt(out, actividades.size());
+        for (Actividad a : actividades) {
+            escribirActividad(out, a);
+        }
+    }
+
+    /**
+     * Lee una lista escrita con {@link #escribirLista(DataOutput, List)}.
+     *
+     * @param in Origen.
+     * @return Las actividades en el mismo orden en que se guardaron.
+     * @throws IOException Si los datos están dañados.
+     */
+    public static List<Actividad> leerLista(DataInput in) throws IOException {
+        int version = leerCabecera(in);
+        int cantidad = leerVarInt(in);
+        List<Actividad> lista = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            lista.add(leerActividad(in, version));
+        }
+        return lista;
+    }
+
+    // --- ACTIVIDAD ---
+
+    /**
+     * Escribe una actividad (sin cabecera), incluido su historial de sesiones.
+     *
+     * @param out       Destino.
+     * @param actividad Actividad a codificar.
+     * @throws IOException Si falla la escritura o el tipo de actividad es desconocido.
+     */
+    public static void escribirActividad(DataOutput out, Actividad actividad) throws IOException {
+        if (actividad instanceof ActividadAcademica) {
+            out.writeByte(TIPO_ACADEMICA);
+        } else if (actividad instanceof ActividadPersonal) {
+            out.writeByte(TIPO_PERSONAL);
+        } else {
+            throw new IOException("Tipo de actividad desconocido: " + actividad.getClass().getName());
+        }
+
+        escribirVarInt(out, actividad.getId());
+        escribirTexto(out, actividad.getNombre());
+        escribirTexto(out, actividad.getDescripcion());
+        escribirFecha(out, actividad.getFechaVencimiento());
+        escribirEnum(out, actividad.getPrioridad());
+        out.writeDouble(actividad.getPorcentajeAvance());
+        escribirVarInt(out, actividad.getTiempoEstimadoMinutos());
+
+        if (actividad instanceof ActividadAcademica) {
+            ActividadAcademica ac = (ActividadAcademica) actividad;
+            escribirTexto(out, ac.getAsignatura());
+            escribirEnum(out, ac.getTipo());
+        } else {
+            escribirTexto(out, ((ActividadPersonal) actividad).getLugar());
+        }
+
+        // Totales del historial (desde la versión 2)
+        escribirVarInt(out, actividad.getMinutosInvertidos());
+        escribirVarInt(out, TECNICAS.length);
+        for (TecnicaEnfoque t : TECNICAS) {
+            escribirVarInt(out, actividad.getMinutosInvertidos(t));
+        }
+
+        RegistroSesiones sesiones = actividad.getSesiones();
+        escribirVarInt(out, sesiones.tamano());
+        long anterior = 0;
+        for (int i = 0; i < sesiones.tamano(); i++) {
+            anterior = escribirSesion(out, sesiones, i, anterior);
+        }
+    }
+
+    /**
+     * Lee una actividad escrita con {@link #escribirActividad(DataOutput, Actividad)}.
+     * El ID original se restaura; el contador global de IDs debe sincronizarse después.
+     *
+     * @param in      Origen.
+     * @param version Versión de formato leída de la cabecera.
+     * @return La actividad reconstruida.
+     * @throws IOException Si los datos están dañados.
+     */
+    public static Actividad leerActividad(DataInput in, int version) throws IOException {
+        int tipo = in.readUnsignedByte();
+        int id = leerVarInt(in);
+        String nombre = leerTexto(in);
+        String descripcion = leerTexto(in);
+        LocalDateTime vencimiento = leerFecha(in);
+        Prioridad prioridad = leerEnum(in, PRIORIDADES);
+        double avance = in.readDouble();
+        int estimado = leerVarInt(in);
+
+        Actividad actividad;
+        if (tipo == TIPO_ACADEMICA) {
+            String asignatura = leerTexto(in);
+            TipoAcademica tipoAcademica = leerEnum(in, TIPOS_ACADEMICOS);
+            actividad = new ActividadAcademica(nombre, descripcion, vencimiento, prioridad, estimado, asignatura, tipoAcademica);
+        } else if (tipo == TIPO_PERSONAL) {
+            String lugar = leerTexto(in);
+            actividad = new ActividadPersonal(nombre, descripcion, vencimiento, prioridad, estimado, lugar);
+        } else {
+            throw new IOException("Tipo de actividad desconocido: " + tipo);
+        }
+        actividad.setId(id);
+        actividad.setPorcentajeAvance(avance);
+
+        // Con totales guardados no se recalculan al leer cada sesión
+        boolean conTotales = version >= 2;
+        if (conTotales) {
+            int minutos = leerVarInt(in);
+            int[] porTecnica = new int[leerVarInt(in)];
+            for (int i = 0; i < porTecnica.length; i++) {
+                porTecnica[i] = leerVarInt(in);
+            }
+            actividad.restaurarTotales(minutos, porTecnica);
+        }
+
+        int cantidadSesiones = leerVarInt(in);
+        actividad.reservarSesiones(cantidadSesiones);
+        long anterior = 0;
+        for (int i = 0; i < cantidadSesiones; i++) {
+            anterior = leerSesion(in, actividad, anterior, conTotales);
+        }
+        return actividad;
+    }
+
+    // --- SESIÓN ---
+
+    /**
+     * Escribe una sesión. La fecha se guarda como diferencia (en segundos) con la sesión
+     * anterior, que normalmente es pequeña y ocupa pocos bytes.
+     *
+     * @return Segundos epoch de esta sesión, para codificar la siguiente.
+     */
+    private static long escribirSesion(DataOutput out, RegistroSesiones sesiones, int i, long anterior)
+            throws IOException {
+        long segundos = sesiones.getSegundos(i);
+        escribirVarLongZigZag(out, segundos - anterior);
+        escribirVarInt(out, sesiones.getDuracionMinutos(i));
+        // Técnica (ordinal + 1) y bandera de completada en un solo varint
+        TecnicaEnfoque t = sesiones.getTecnica(i);
+        int tecnica = t == null ? 0 : t.ordinal() + 1;
+        escribirVarInt(out, (tecnica << 1) | (sesiones.isCompletada(i) ? 1 : 0));
+        return segundos;
+    }
+
+    /**
+     * Lee una sesión y la agrega a la actividad sin crear objetos intermedios.
+     *
+     * @param conTotales {@code true} si los totales ya se restauraron y no deben sumarse.
+     * @return Segundos epoch de esta sesión, para decodificar la siguiente.
+     */
+    private static long leerSesion(DataInput in, Actividad actividad, long anterior, boolean conTotales)
+            throws IOException {
+        long segundos = anterior + leerVarLongZigZag(in);
+        int duracion = leerVarInt(in);
+        int banderas = leerVarInt(in);
+        int codigo = banderas >>> 1;
+        TecnicaEnfoque tecnica = codigo == 0 ? null : porOrdinal(TECNICAS, codigo - 1);
+        boolean completada = (banderas & 1) != 0;
+        if (conTotales) {
+            actividad.cargarSesion(segundos, duracion, tecnica, completada);
+        } else {
+            actividad.agregarSesion(segundos, duracion, tecnica, completada);
+        }
+        return segundos;
+    }
+
+    // --- PRIMITIVOS ---
+
+    /**
+     * Fecha como un byte de marca (0 = {@code null}, 1 = segundos, 2 = segundos + nanos)
+     * seguido de los segundos epoch (UTC) en zigzag.
+     */
+    private static void escribirFecha(DataOutput out, LocalDateTime fecha) throws IOException {
+        if (fecha == null) {
+            out.writeByte(0);
+            return;
+        }
+        out.writeByte(fecha.getNano() == 0 ? 1 : 2);
+        escribirVarLongZigZag(out, fecha.toEpochSecond(ZoneOffset.UTC));
+        if (fecha.getNano() != 0) escribirVarInt(out, fecha.getNano());
+    }
+
+    private static LocalDateTime leerFecha(DataInput in) throws IOException {
+        int marca = in.readUnsignedByte();
+        if (marca == 0) return null;
+        long segundos = leerVarLongZigZag(in);
+        int nanos = marca == 2 ? leerVarInt(in) : 0;
+        return LocalDateTime.ofEpochSecond(segundos, nanos, ZoneOffset.UTC);
+    }
+
+    private static void escribirEnum(DataOutput out, Enum<?> valor) throws IOException {
+        escribirVarInt(out, valor == null ? 0 : valor.ordinal() + 1);
+    }
+
+    private static <E extends Enum<E>> E leerEnum(DataInput in, E[] valores) throws IOException {
+        int codigo = leerVarInt(in);
+        return codigo == 0 ? null : porOrdinal(valores, codigo - 1);
+    }
+
+    private static <E> E porOrdinal(E[] valores, int ordinal) throws IOException {
+        if (ordinal < 0 || ordinal >= valores.length) {
+            throw new IOException("Ordinal fuera de rango: " + ordinal);
+        }
+        return valores[ordinal];
+    }
+
+    /** Texto UTF-8 precedido por (longitud en bytes + 1); 0 significa {@code null}. */
+    static void escribirTexto(DataOutput out, String texto) throws IOException {
+        if (texto == null) {
+            escribirVarInt(out, 0);
+            return;
+        }
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        escribirVarInt(out, bytes.length + 1);
+        out.write(bytes);
+    }
+
+    static String leerTexto(DataInput in) throws IOException {
+        int longitud = leerVarInt(in);
+        if (longitud == 0) return null;
+        byte[] bytes = new byte[longitud - 1];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Entero sin signo en formato LEB128 (7 bits por byte). */
+    static void escribirVarInt(DataOutput out, int valor) throws IOException {
+        while ((valor & ~0x7F) != 0) {
+            out.writeByte((valor & 0x7F) | 0x80);
+            valor >>>= 7;
+        }
+        out.writeByte(valor);
+    }
+
+    static int leerVarInt(DataInput in) throws IOException {
+        int resultado = 0;
+        for (int desplazamiento = 0; desplazamiento < 35; desplazamiento += 7) {
+            int b = in.readUnsignedByte();
+            resultado |= (b & 0x7F) << desplazamiento;
+            if ((b & 0x80) == 0) return resultado;
+        }
+        throw new IOException("Varint demasiado largo");
+    }
+
+    /** Entero largo con signo: zigzag (los negativos pequeños también ocupan poco) + LEB128. */
+    static void escribirVarLongZigZag(DataOutput out, long valor) throws IOException {
+        long v = (valor << 1) ^ (valor >> 63);
+        while ((v & ~0x7FL) != 0) {
+            out.writeByte((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.writeByte((int) v);
+    }
+
+    static long leerVarLongZigZag(DataInput in) throws IOException {
+        long v = 0;
+        for (int desplazamiento = 0; desplazamiento < 70; desplazamiento += 7) {
+            int b = in.readUnsignedByte();
+            v |= (long) (b & 0x7F) << desplazamiento;
+            if ((b & 0x80) == 0) return (v >>> 1) ^ -(v & 1);
+        }
+        throw new IOException("Varint demasiado largo");
+    }
+}
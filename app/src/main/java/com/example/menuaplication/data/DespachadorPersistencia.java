@@ -0,0 +1,234 @@
+package com.example.menuaplication.data;
+
+import android.app.Activity;
+import android.app.Application;
+import android.content.Context;
+import android.os.Bundle;
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Despachador de escrituras a disco compartido por los tres repositorios.
+ *
+ * <p>Los repositorios ya no escriben sus archivos en el hilo que hace el cambio (normalmente
+ * el hilo principal). En su lugar "marcan como sucio" su archivo y este despachador ejecuta
+ * la escritura en un hilo escritor dedicado a ese archivo.</p>
+ *
+ * <ul>
+ * <li><b>Un hilo por archivo:</b> cada archivo tiene su propio canal con un único hilo,
+ * así las escrituras de un mismo archivo nunca se ejecutan en paralelo ni se desordenan.</li>
+ * <li><b>Agrupación:</b> si un escritor ya está en cola, las marcas siguientes no encolan
+ * otra escritura; la que está pendiente tomará el estado más reciente al ejecutarse.</li>
+ * <li><b>Orden:</b> como cada escritura toma la instantánea en el momento de ejecutarse y el
+ * canal es secuencial, una instantánea antigua nunca puede sobrescribir a una más nueva.</li>
+ * </ul>
+ *
+ * <p>También permite ejecutar lecturas en el canal de un archivo ({@link #enviar}): como el
+ * canal es secuencial, la lectura ve todas las escrituras marcadas antes que ella.</p>
+ *
+ * <p>Al pasar la aplicación a segundo plano (se detiene la última Activity visible) se espera
+ * brevemente a que terminen las escrituras pendientes.</p>
+ *
+ * @author SRGM
+ * @version 1.1
+ */
+public class DespachadorPersistencia {
+
+    private static final String TAG = "DespachadorPersistencia";
+
+    /** Tiempo máximo que se espera a las escrituras pendientes al ir a segundo plano. */
+    private static final long ESPERA_AL_DETENER_MS = 500;
+
+    /**
+     * Tarea que escribe un archivo completo.
+     * Debe tomar la instantánea de los datos en el momento de ejecutarse.
+     */
+    public interface Escritor {
+        void escribir() throws IOException;
+    }
+
+    /** Instancia única de la clase (Singleton). */
+    private static DespachadorPersistencia instance;
+
+    /** Canales de escritura, uno por archivo. */
+    private final Map<String, Canal> canales = new HashMap<>();
+
+    /** Número de Activities iniciadas (para detectar el paso a segundo plano). */
+    private int activitiesIniciadas = 0;
+
+    private DespachadorPersistencia(Context context) {
+        Context app = context.getApplicationContext();
+        if (app instanceof Application) {
+            ((Application) app).registerActivityLifecycleCallbacks(new ObservadorCicloDeVida());
+        }
+    }
+
+    /**
+     * Obtiene la instancia única del despachador.
+     *
+     * @param context Contexto necesario para la primera inicialización.
+     * @return La instancia de {@link DespachadorPersistencia}.
+     */
+    public static synchronized DespachadorPersistencia getInstance(Context context) {
+        if (instance == null) {
+            instance = new DespachadorPersistencia(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Marca un archivo como modificado. Si el escritor no está ya en cola, se encola
+     * en el hilo del archivo; si ya lo está, la marca se agrupa con la pendiente.
+     *
+     * @param archivo  Nombre del archivo (identifica el canal).
+     * @param escritor Tarea que escribe el archivo. Debe ser siempre la misma instancia
+     *                 para que la agrupación funcione.
+     */
+    public void marcarSucio(String archivo, Escritor escritor) {
+        getCanal(archivo).marcar(escritor);
+    }
+
+    /**
+     * Ejecuta una tarea en el hilo del archivo, después de las escrituras ya encoladas.
+     *
+     * @param archivo Nombre del archivo (identifica el canal).
+     * @param tarea   Tarea a ejecutar (normalmente una consulta).
+     * @param <T>     Tipo del resultado.
+     * @return Resultado futuro de la tarea.
+     */
+    public <T> Future<T> enviar(String archivo, Callable<T> tarea) {
+        return getCanal(archivo).hilo.submit(tarea);
+    }
+
+    /**
+     * Bloquea hasta que todas las escrituras marcadas hasta ahora hayan terminado.
+     *
+     * @param timeoutMs Tiempo máximo de espera en milisegundos.
+     * @return {@code true} si todo se escribió a tiempo, {@code false} si se agotó el tiempo.
+     */
+    public boolean esperar(long timeoutMs) {
+        List<Future<?>> barreras = new ArrayList<>();
+        synchronized (canales) {
+            for (Canal canal : canales.values()) {
+                barreras.add(canal.hilo.submit(() -> { }));
+            }
+        }
+
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        try {
+            for (Future<?> barrera : barreras) {
+                long restante = limite - System.nanoTime();
+                barrera.get(Math.max(restante, 0), TimeUnit.NANOSECONDS);
+            }
+            return true;
+        } catch (Exception e) {
+            Log.e(TAG, "Escrituras pendientes sin terminar: " + e);
+            return false;
+        }
+    }
+
+    /**
+     * Escribe los bytes en un archivo temporal y lo renombra sobre el destino,
+     * para que un cierre abrupto nunca deje el archivo a medio escribir.
+     *
+     * @param destino Archivo final.
+     * @param datos   Contenido completo.
+     * @throws IOException Si no se puede escribir o renombrar.
+     */
+    public static void escribirAtomico(File destino, byte[] datos) throws IOException {
+        File temporal = new File(destino.getParentFile(), destino.getName() + ".tmp");
+        try (FileOutputStream fos = new FileOutputStream(temporal)) {
+            fos.write(datos);
+            fos.getFD().sync();
+        }
+        if (!temporal.renameTo(destino)) {
+            throw new IOException("No se pudo reemplazar " + destino.getName());
+        }
+    }
+
+    private Canal getCanal(String archivo) {
+        synchronized (canales) {
+            Canal canal = canales.get(archivo);
+            if (canal == null) {
+                canal = new Canal(archivo);
+                canales.put(archivo, canal);
+            }
+            return canal;
+        }
+    }
+
+    /**
+     * Hilo escritor de un archivo junto con los escritores que tiene en cola.
+     */
+    private static class Canal {
+        private final String archivo;
+        private final ExecutorService hilo;
+        private final Set<Escritor> enCola = new LinkedHashSet<>();
+
+        Canal(String archivo) {
+            this.archivo = archivo;
+            this.hilo = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "persistencia-" + archivo);
+                t.setPriority(Thread.NORM_PRIORITY - 1);
+                return t;
+            });
+        }
+
+        void marcar(Escritor escritor) {
+            synchronized (enCola) {
+                if (!enCola.add(escritor)) return; // Ya hay una escritura pendiente: se agrupa
+            }
+            hilo.execute(() -> {
+                // Se quita de la cola ANTES de escribir: una marca que llegue durante
+                // la escritura encola otra, que verá el estado más nuevo.
+                synchronized (enCola) {
+                    enCola.remove(escritor);
+                }
+                try {
+                    escritor.escribir();
+                } catch (IOException | RuntimeException e) {
+                    Log.e(TAG, "Error al escribir " + archivo + ": " + e.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * Cuenta las Activities iniciadas y, cuando se detiene la última, espera
+     * a que se terminen de escribir los cambios pendientes.
+     */
+    private class ObservadorCicloDeVida implements Application.ActivityLifecycleCallbacks {
+        @Override
+        public void onActivityStarted(Activity activity) {
+            activitiesIniciadas++;
+        }
+
+        @Override
+        public void onActivityStopped(Activity activity) {
+            activitiesIniciadas = Math.max(0, activitiesIniciadas - 1);
+            if (activitiesIniciadas == 0) {
+                esperar(ESPERA_AL_DETENER_MS);
+            }
+        }
+
+        @Override public void onActivityCreated(Activity activity, Bundle savedInstanceState) {}
+        @Override public void onActivityResumed(Activity activity) {}
+        @Override public void onActivityPaused(Activity activity) {}
+        @Override public void onActivitySaveInstanceState(Activity activity, Bundle outState) {}
+        @Override public void onActivityDestroyed(Activity activity) {}
+    }
+}
@@ -0,0 +1,436 @@
+package com.example.menuaplication.data;
+
+import android.util.Log;
+
+import com.example.menuaplication.model.actividades.Actividad;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Almacenamiento con diario (journal) para las actividades.
+ *
+ * <p>En lugar de reescribir la lista completa en cada cambio, cada mutación agrega un
+ * registro pequeño al final de un archivo de diario. Cuando el diario supera
+ * {@link #UMBRAL_COMPACTACION} bytes, se "pliega" sobre la instantánea (snapshot)
+ * completa y se borra.</p>
+ *
+ * <p>Archivos utilizados (codificados con {@link CodecActividades}):</p>
+ * <ul>
+ * <li><b>actividades_data.bin</b>: instantánea completa.</li>
+ * <li><b>actividades_diario.bin</b>: cabecera + registros de cambios posteriores a la instantánea.</li>
+ * </ul>
+ *
+ * <p>Si solo existen los archivos antiguos en serialización de Java
+ * (<b>actividades_data.ser</b> y <b>actividades_diario.log</b>), se migran una única vez
+ * al formato nuevo en la primera carga.</p>
+ *
+ * <p>Toda la escritura (registros y compactación) ocurre en el hilo escritor del
+ * {@link DespachadorPersistencia}. Los registros que llegan mientras el hilo está ocupado
+ * se agrupan: de varias modificaciones seguidas de una misma actividad solo se escribe la
+ * última. La compactación trabaja solo con archivos, nunca con los objetos vivos.</p>
+ *
+ * @author José Paladines
+ * @version 1.4
+ */
+public class DiarioActividades implements AlmacenActividades {
+
+    private static final String TAG = "DiarioActividades";
+
+    /** Nombre del archivo con la instantánea completa. */
+    private static final String NOMBRE_INSTANTANEA = "actividades_data.bin";
+
+    /** Nombre del archivo de diario activo. */
+    private static final String NOMBRE_DIARIO = "actividades_diario.bin";
+
+    /** Instantánea antigua en serialización de Java (solo se lee para migrar). */
+    private static final String NOMBRE_INSTANTANEA_LEGADO = "actividades_data.ser";
+
+    /** Diario antiguo con registros en serialización de Java (solo se lee para migrar). */
+    private static final String NOMBRE_DIARIO_LEGADO = "actividades_diario.log";
+
+    /** Tamaño (en bytes) a partir del cual el diario se compacta. */
+    private static final long UMBRAL_COMPACTACION = 256 * 1024;
+
+    /** Tipo de registro: alta o modificación de una actividad (contiene el objeto completo). */
+    private static final byte OP_GUARDAR = 1;
+
+    /** Tipo de registro: eliminación de una actividad (solo contiene el ID). */
+    private static final byte OP_ELIMINAR = 2;
+
+    private final File instantanea;
+    private final File diario;
+    private final File instantaneaLegado;
+    private final File diarioLegado;
+
+    private final DespachadorPersistencia despachador;
+
+    /**
+     * Registros aún no escritos, por ID de actividad. Un valor {@code null} indica eliminación.
+     * Guardar dos veces la misma actividad antes de escribir deja solo el último estado.
+     */
+    private final Map<Integer, byte[]> pendientes = new LinkedHashMap<>();
+
+    /** Escritor (siempre la misma instancia) que vuelca los registros pendientes. */
+    private final DespachadorPersistencia.Escritor volcador = this::volcarPendientes;
+
+    /** Flujo abierto en modo "append" sobre el diario. Solo lo usa el hilo escritor. */
+    private DataOutputStream salidaDiario;
+
+    /**
+     * Crea el diario sobre el directorio indicado.
+     *
+     * @param directorio  Carpeta donde viven los archivos de datos.
+     * @param despachador Despachador que ejecuta las escrituras en segundo plano.
+     */
+    public DiarioActividades(File directorio, DespachadorPersistencia despachador) {
+        this.instantanea = new File(directorio, NOMBRE_INSTANTANEA);
+        this.diario = new File(directorio, NOMBRE_DIARIO);
+        this.instantaneaLegado = new File(directorio, NOMBRE_INSTANTANEA_LEGADO);
+        this.diarioLegado = new File(directorio, NOMBRE_DIARIO_LEGADO);
+        this.despachador = despachador;
+    }
+
+    /**
+     * @return {@code true} si existe algún dato persistido (instantánea o diario).
+     */
+    @Override
+    public boolean hayDatos() {
+        return instantanea.exists() || diario.exists()
+                || instantaneaLegado.exists() || diarioLegado.exists();
+    }
+
+    /**
+     * Reconstruye la lista de actividades: lee la instantánea y luego reproduce
+     * en orden los registros del diario.
+     * Un registro incompleto al final (por un cierre abrupto) se descarta.
+     *
+     * @return Lista de actividades en su orden de inserción.
+     * @throws IOException Si la instantánea (nueva o antigua) no se puede leer.
+     */
+    @Override
+    public List<Actividad> cargar() throws IOException {
+        if (!instantanea.exists() && !diario.exists()
+                && (instantaneaLegado.exists() || diarioLegado.exists())) {
+            migrarFormatoAntiguo();
+        }
+        Map<Integer, Actividad> mapa = leerInstantanea();
+        reproducir(diario, mapa, false);
+        return new ArrayList<>(mapa.values());
+    }
+
+    /**
+     * Migración única desde la serialización de Java: lee la instantánea .ser y su diario,
+     * escribe la instantánea en el formato binario nuevo y borra los archivos antiguos.
+     * Se ejecuta en el hilo que carga (al iniciar), antes de cualquier escritura nueva.
+     */
+    @SuppressWarnings("unchecked")
+    private void migrarFormatoAntiguo() throws IOException {
+        Map<Integer, Actividad> mapa = new LinkedHashMap<>();
+        if (instantaneaLegado.exists()) {
+            try (ObjectInputStream ois = new ObjectInputStream(
+                    new BufferedInputStream(new FileInputStream(instantaneaLegado)))) {
+                for (Actividad a : (List<Actividad>) ois.readObject()) {
+                    mapa.put(a.getId(), a);
+                }
+            } catch (ClassNotFoundException e) {
+                throw new IOException("Instantánea antigua ilegible", e);
+            }
+        }
+        reproducir(diarioLegado, mapa, true);
+
+        escribirInstantaneaAtomica(new ArrayList<>(mapa.values()));
+        instantaneaLegado.delete();
+        diarioLegado.delete();
+        Log.d(TAG, "Migradas " + mapa.size() + " actividades al formato binario");
+    }
+
+    /**
+     * Encola en el diario el estado completo de una actividad (alta o modificación).
+     * La actividad se codifica aquí mismo para capturar su estado actual; la escritura
+     * del archivo ocurre en segundo plano.
+     *
+     * @param actividad Actividad a registrar.
+     */
+    @Override
+    public void registrarGuardado(Actividad actividad) {
+        try {
+            encolar(actividad.getId(), serializar(actividad));
+        } catch (IOException e) {
+            Log.e(TAG, "Error al codificar la actividad " + actividad.getId() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Encola en el diario la eliminación de una actividad.
+     *
+     * @param id ID de la actividad eliminada.
+     */
+    @Override
+    public void registrarEliminacion(int id) {
+        encolar(id, null);
+    }
+
+    /**
+     * Reemplaza todos los datos por la lista indicada: escribe una instantánea nueva
+     * y descarta el diario. Se usa al generar los datos de prueba iniciales.
+     * Como en {@link #registrarGuardado}, la lista se codifica aquí mismo: el hilo escritor
+     * solo recibe los bytes, nunca las actividades vivas que la UI puede seguir cambiando.
+     *
+     * @param lista Lista completa de actividades.
+     */
+    @Override
+    public void escribirInstantanea(List<Actividad> lista) {
+        final byte[] datos;
+        try {
+            datos = codificarLista(lista);
+        } catch (IOException e) {
+            Log.e(TAG, "Error al codificar la instantánea: " + e.getMessage());
+            return;
+        }
+        synchronized (pendientes) {
+            pendientes.clear();
+        }
+        despachador.marcarSucio(NOMBRE_INSTANTANEA, () -> {
+            cerrarDiario();
+            DespachadorPersistencia.escribirAtomico(instantanea, datos);
+            diario.delete();
+            Log.d(TAG, "Instantánea escrita en: " + instantanea.getAbsolutePath());
+        });
+    }
+
+    private void encolar(int id, byte[] datos) {
+        synchronized (pendientes) {
+            // remove + put: el registro queda al final, con el estado más reciente
+            pendientes.remove(id);
+            pendientes.put(id, datos);
+        }
+        despachador.marcarSucio(NOMBRE_INSTANTANEA, volcador);
+    }
+
+    // --- ESCRITURA (HILO ESCRITOR) ---
+
+    /**
+     * Escribe al final del diario todos los registros pendientes y, si el diario
+     * superó el umbral, lo compacta.
+     */
+    private void volcarPendientes() throws IOException {
+        List<Map.Entry<Integer, byte[]>> lote;
+        synchronized (pendientes) {
+            if (pendientes.isEmpty()) return;
+            lote = new ArrayList<>(pendientes.entrySet());
+            pendientes.clear();
+        }
+
+        DataOutputStream out = abrirDiario();
+        for (Map.Entry<Integer, byte[]> registro : lote) {
+            byte[] datos = registro.getValue();
+            out.writeByte(datos != null ? OP_GUARDAR : OP_ELIMINAR);
+            out.writeInt(registro.getKey());
+            out.writeInt(datos != null ? datos.length : 0);
+            if (datos != null) out.write(datos);
+        }
+        out.flush();
+
+        if (diario.length() >= UMBRAL_COMPACTACION) {
+            compactar();
+        }
+    }
+
+    /**
+     * Lee la instantánea, aplica el diario y escribe la nueva instantánea.
+     * Si el proceso muere entre el reemplazo de la instantánea y el borrado del diario,
+     * reproducir el diario otra vez es inofensivo (cada registro es el estado completo).
+     */
+    private void compactar() throws IOException {
+        cerrarDiario();
+        Map<Integer, Actividad> mapa = leerInstantanea();
+        reproducir(diario, mapa, false);
+        escribirInstantaneaAtomica(new ArrayList<>(mapa.values()));
+        diario.delete();
+        Log.d(TAG, "Diario compactado: " + mapa.size() + " actividades");
+    }
+
+    // --- LECTURA / ESCRITURA DE ARCHIVOS ---
+
+    private Map<Integer, Actividad> leerInstantanea() throws IOException {
+        Map<Integer, Actividad> mapa = new LinkedHashMap<>();
+        if (!instantanea.exists()) return mapa;
+
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(instantanea)))) {
+            for (Actividad a : CodecActividades.leerLista(in)) {
+                mapa.put(a.getId(), a);
+            }
+        }
+        return mapa;
+    }
+
+    /**
+     * Aplica sobre el mapa todos los registros completos del archivo de diario indicado.
+     * Si el final del archivo está dañado, lo recorta hasta el último registro válido
+     * para que los registros nuevos no queden escritos detrás de basura.
+     *
+     * @param legado {@code true} para el diario antiguo (sin cabecera, registros en
+     *               serialización de Java).
+     */
+    private void reproducir(File archivo, Map<Integer, Actividad> mapa, boolean legado) {
+        if (!archivo.exists()) return;
+
+        long validos = 0;
+        ContadorEntrada contador = null;
+        try (DataInputStream in = new DataInputStream(contador = new ContadorEntrada(
+                new BufferedInputStream(new FileInputStream(archivo))))) {
+            int version = legado ? 0 : CodecActividades.leerCabecera(in);
+            validos = contador.leidos;
+            while (true) {
+                byte op = in.readByte();
+                int id = in.readInt();
+                int longitud = in.readInt();
+                if (op == OP_GUARDAR) {
+                    byte[] datos = new byte[longitud];
+                    in.readFully(datos);
+                    mapa.put(id, legado ? deserializarLegado(datos) : decodificar(datos, version));
+                } else if (op == OP_ELIMINAR) {
+                    mapa.remove(id);
+                } else {
+                    Log.e(TAG, "Registro desconocido en " + archivo.getName() + ", se ignora el resto");
+                    break;
+                }
+                validos = contador.leidos;
+            }
+        } catch (EOFException fin) {
+            // Fin del diario (o registro truncado por un cierre abrupto)
+        } catch (IOException | ClassNotFoundException e) {
+            Log.e(TAG, "Error al reproducir " + archivo.getName() + ": " + e.getMessage());
+        }
+
+        if (!legado && validos < archivo.length()) {
+            try (RandomAccessFile raf = new RandomAccessFile(archivo, "rw")) {
+                raf.setLength(validos);
+            } catch (IOException e) {
+                Log.e(TAG, "No se pudo recortar " + archivo.getName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Codifica la instantánea y la escribe en un archivo temporal que luego se renombra,
+     * para que nunca quede una instantánea a medio escribir.
+     */
+    private void escribirInstantaneaAtomica(List<Actividad> lista) throws IOException {
+        DespachadorPersistencia.escribirAtomico(instantanea, codificarLista(lista));
+    }
+
+    private static byte[] codificarLista(List<Actividad> lista) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            CodecActividades.escribirLista(out, lista);
+        }
+        return bytes.toByteArray();
+    }
+
+    private DataOutputStream abrirDiario() throws IOException {
+        if (salidaDiario == null) {
+            // Los registros nuevos usan la versión actual del codec: un diario escrito con una
+            // versión anterior se compacta antes de seguir agregando
+            if (diario.length() > 0 && versionDelDiario() < CodecActividades.VERSION) {
+                compactar();
+            }
+            boolean nuevo = diario.length() == 0;
+            salidaDiario = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(diario, true)));
+            if (nuevo) {
+                CodecActividades.escribirCabecera(salidaDiario);
+            }
+        }
+        return salidaDiario;
+    }
+
+    private int versionDelDiario() {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(diario))) {
+            return CodecActividades.leerCabecera(in);
+        } catch (IOException e) {
+            // Cabecera ilegible: se compacta con lo que se pueda recuperar
+            return 0;
+        }
+    }
+
+    private void cerrarDiario() {
+        if (salidaDiario != null) {
+            try {
+                salidaDiario.close();
+            } catch (IOException e) {
+                Log.e(TAG, "Error al cerrar el diario: " + e.getMessage());
+            }
+            salidaDiario = null;
+        }
+    }
+
+    private static byte[] serializar(Actividad actividad) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            CodecActividades.escribirActividad(out, actividad);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Actividad decodificar(byte[] datos, int version) throws IOException {
+        return CodecActividades.leerActividad(new DataInputStream(new ByteArrayInputStream(datos)), version);
+    }
+
+    private static Actividad deserializarLegado(byte[] datos) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(datos))) {
+            return (Actividad) ois.readObject();
+        }
+    }
+
+    /**
+     * Flujo que cuenta los bytes entregados, para saber dónde termina el último registro válido.
+     */
+    private static class ContadorEntrada extends FilterInputStream {
+        long leidos = 0;
+
+        ContadorEntrada(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) leidos++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) leidos += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long saltados = super.skip(n);
+            leidos += saltados;
+            return saltados;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.menuaplication.data;
+
+import com.example.menuaplication.model.actividades.Actividad;
+import com.example.menuaplication.model.actividades.ActividadAcademica;
+import com.example.menuaplication.model.actividades.ActividadPersonal;
+
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Índice invertido para buscar actividades por texto.
+ *
+ * <p>Se indexan las palabras del nombre, la descripción, la asignatura (académicas) y el
+ * lugar (personales). Cada palabra se normaliza: minúsculas y sin tildes ni diéresis
+ * ("Estadística" y "estadistica" son la misma palabra, igual que "año" y "ano").</p>
+ *
+ * <p>Las palabras se guardan en un {@link TreeMap}, de modo que las que empiezan por un
+ * prefijo forman un rango contiguo: "esta" encuentra "estadistica" sin recorrer el resto.
+ * Una consulta con varias palabras devuelve las actividades que contienen todas ellas
+ * (cada una como prefijo).</p>
+ *
+ * <p>El repositorio lo actualiza con cada alta, cambio o eliminación, tocando solo las
+ * palabras de esa actividad. Los métodos están sincronizados para poder consultar desde
+ * un hilo en segundo plano mientras el hilo principal lo modifica.</p>
+ *
+ * @author José Paladines
+ * @version 1.0
+ */
+final class IndiceBusqueda {
+
+    /** Palabra normalizada → IDs de las actividades que la contienen. */
+    private final TreeMap<String, Set<Integer>> palabras = new TreeMap<>();
+
+    /** Palabras indexadas de cada actividad, para poder quitarlas. */
+    private final Map<Integer, Set<String>> porActividad = new HashMap<>();
+
+    /**
+     * Indexa una actividad, reemplazando lo que hubiera indexado con su ID.
+     *
+     * @param actividad Actividad con sus valores actuales.
+     */
+    synchronized void poner(Actividad actividad) {
+        quitar(actividad.getId());
+
+        Set<String> suyas = new HashSet<>();
+        agregarPalabras(actividad.getNombre(), suyas);
+        agregarPalabras(actividad.getDescripcion(), suyas);
+        if (actividad instanceof ActividadAcademica) {
+            agregarPalabras(((ActividadAcademica) actividad).getAsignatura(), suyas);
+        } else if (actividad instanceof ActividadPersonal) {
+            agregarPalabras(((ActividadPersonal) actividad).getLugar(), suyas);
+        }
+        if (suyas.isEmpty()) return;
+
+        porActividad.put(actividad.getId(), suyas);
+        for (String palabra : suyas) {
+            Set<Integer> ids = palabras.get(palabra);
+            if (ids == null) {
+                ids = new HashSet<>();
+                palabras.put(palabra, ids);
+            }
+            ids.add(actividad.getId());
+        }
+    }
+
+    /**
+     * @param id ID de la actividad a quitar del índice.
+     */
+    synchronized void quitar(int id) {
+        Set<String> suyas = porActividad.remove(id);
+        if (suyas == null) return;
+        for (String palabra : suyas) {
+            Set<Integer> ids = palabras.get(palabra);
+            ids.remove(id);
+            if (ids.isEmpty()) palabras.remove(palabra);
+        }
+    }
+
+    synchronized void limpiar() {
+        palabras.clear();
+        porActividad.clear();
+    }
+
+    /**
+     * Busca las actividades que contienen todas las palabras de la consulta, cada una
+     * como prefijo de alguna palabra indexada.
+     *
+     * @param consulta Texto escrito por el usuario.
+     * @return IDs encontrados (copia), o {@code null} si la consulta no tiene palabras.
+     */
+    synchronized Set<Integer> buscar(String consulta) {
+        Set<String> terminos = normalizarPalabras(consulta);
+        if (terminos.isEmpty()) return null;
+
+        Set<Integer> resultado = null;
+        for (String termino : terminos) {
+            Set<Integer> conPrefijo = new HashSet<>();
+            SortedMap<String, Set<Integer>> rango = palabras.subMap(termino, termino + Character.MAX_VALUE);
+            for (Set<Integer> ids : rango.values()) {
+                if (resultado == null) {
+                    conPrefijo.addAll(ids);
+                } else {
+                    for (Integer id : ids) {
+                        if (resultado.contains(id)) conPrefijo.add(id);
+                    }
+                }
+            }
+            resultado = conPrefijo;
+            if (resultado.isEmpty()) break;
+        }
+        return resultado;
+    }
+
+    private static void agregarPalabras(String texto, Set<String> destino) {
+        destino.addAll(normalizarPalabras(texto));
+    }
+
+    /**
+     * Separa un texto en palabras normalizadas: minúsculas, sin tildes ni otras marcas,
+     * cortando por todo lo que no sea letra o dígito.
+     *
+     * @param texto Texto original (puede ser {@code null}).
+     * @return Palabras distintas, en el orden en que aparecen.
+     */
+    static Set<String> normalizarPalabras(String texto) {
+        Set<String> resultado = new LinkedHashSet<>();
+        if (texto == null || texto.isEmpty()) return resultado;
+
+        String descompuesto = Normalizer.normalize(texto.toLowerCase(new Locale("es")), Normalizer.Form.NFD);
+        StringBuilder palabra = new StringBuilder();
+        for (int i = 0; i < descompuesto.length(); i++) {
+            char c = descompuesto.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) continue;
+            if (Character.isLetterOrDigit(c)) {
+                palabra.append(c);
+            } else if (palabra.length() > 0) {
+                resultado.add(palabra.toString());
+                palabra.setLength(0);
+            }
+        }
+        if (palabra.length() > 0) resultado.add(palabra.toString());
+        return resultado;
+    }
+}
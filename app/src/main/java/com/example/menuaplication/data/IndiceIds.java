@@ -0,0 +1,146 @@
+package com.example.menuaplication.data;
+
+import java.util.Arrays;
+
+/**
+ * Tabla hash de enteros primitivos que asocia el ID de una actividad con su posición
+ * en la lista del repositorio.
+ *
+ * <p>Usa direccionamiento abierto con sondeo lineal sobre dos arreglos {@code int[]}, así
+ * que no crea objetos {@code Integer} ni entradas por cada actividad. Las búsquedas,
+ * inserciones y eliminaciones son O(1) en promedio. Al eliminar se desplazan hacia atrás
+ * las claves siguientes del mismo grupo, por lo que no quedan "lápidas".</p>
+ *
+ * <p>No es segura para hilos: el repositorio la usa solo desde el hilo principal.</p>
+ *
+ * @author José Paladines
+ * @version 1.0
+ */
+final class IndiceIds {
+
+    /** Valor devuelto por {@link #obtener(int)} cuando el ID no existe. */
+    static final int NO_ENCONTRADO = -1;
+
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    private int[] claves;
+
+    /** Posición + 1; un 0 indica casilla libre. */
+    private int[] valores;
+
+    private int tamano;
+    private int mascara;
+
+    IndiceIds() {
+        asignarTablas(CAPACIDAD_INICIAL);
+    }
+
+    /**
+     * @param id ID de la actividad.
+     * @return Posición en la lista, o {@link #NO_ENCONTRADO}.
+     */
+    int obtener(int id) {
+        for (int i = casilla(id); valores[i] != 0; i = (i + 1) & mascara) {
+            if (claves[i] == id) return valores[i] - 1;
+        }
+        return NO_ENCONTRADO;
+    }
+
+    /**
+     * Asocia (o reasocia) un ID con una posición.
+     *
+     * @param id       ID de la actividad.
+     * @param posicion Posición en la lista (mayor o igual que 0).
+     */
+    void poner(int id, int posicion) {
+        int i = casilla(id);
+        while (valores[i] != 0) {
+            if (claves[i] == id) {
+                valores[i] = posicion + 1;
+                return;
+            }
+            i = (i + 1) & mascara;
+        }
+        claves[i] = id;
+        valores[i] = posicion + 1;
+        // Factor de carga máximo 0.5 para que los grupos de sondeo sean cortos
+        if (++tamano * 2 > claves.length) {
+            redimensionar(claves.length * 2);
+        }
+    }
+
+    /**
+     * Elimina un ID del índice.
+     *
+     * @param id ID de la actividad.
+     */
+    void quitar(int id) {
+        int i = casilla(id);
+        while (valores[i] != 0) {
+            if (claves[i] == id) {
+                desplazarHaciaAtras(i);
+                tamano--;
+                return;
+            }
+            i = (i + 1) & mascara;
+        }
+    }
+
+    /** Vacía el índice conservando la capacidad actual. */
+    void limpiar() {
+        Arrays.fill(valores, 0);
+        tamano = 0;
+    }
+
+    int tamano() {
+        return tamano;
+    }
+
+    /**
+     * Rellena el hueco dejado en {@code libre} moviendo hacia atrás las claves siguientes
+     * cuya casilla ideal no queda entre el hueco y su posición actual.
+     */
+    private void desplazarHaciaAtras(int libre) {
+        int i = libre;
+        while (true) {
+            i = (i + 1) & mascara;
+            if (valores[i] == 0) break;
+            int ideal = casilla(claves[i]);
+            // ¿La casilla ideal está cíclicamente en (libre, i]? Entonces la clave se queda
+            boolean sigueAlcanzable = libre <= i
+                    ? (libre < ideal && ideal <= i)
+                    : (libre < ideal || ideal <= i);
+            if (!sigueAlcanzable) {
+                claves[libre] = claves[i];
+                valores[libre] = valores[i];
+                libre = i;
+            }
+        }
+        valores[libre] = 0;
+    }
+
+    private void redimensionar(int capacidad) {
+        int[] viejasClaves = claves;
+        int[] viejosValores = valores;
+        asignarTablas(capacidad);
+        for (int i = 0; i < viejasClaves.length; i++) {
+            if (viejosValores[i] == 0) continue;
+            int j = casilla(viejasClaves[i]);
+            while (valores[j] != 0) j = (j + 1) & mascara;
+            claves[j] = viejasClaves[i];
+            valores[j] = viejosValores[i];
+        }
+    }
+
+    private void asignarTablas(int capacidad) {
+        claves = new int[capacidad];
+        valores = new int[capacidad];
+        mascara = capacidad - 1;
+    }
+
+    /** Mezcla los bits del ID (los IDs son consecutivos) antes de aplicar la máscara. */
+    private int casilla(int id) {
+        int h = id * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mascara;
+    }
+}
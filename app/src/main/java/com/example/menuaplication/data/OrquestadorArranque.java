@@ -0,0 +1,150 @@
+package com.example.menuaplication.data;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Coordina la carga inicial de los tres repositorios al abrir la aplicación.
+ *
+ * <p>Cada repositorio se carga en su propio hilo en segundo plano, en paralelo. En cuanto
+ * termina el repositorio crítico ({@link RepositorioActividades}, el que usa el menú
+ * principal) se avisa en el hilo principal para navegar; hidratación y sostenibilidad
+ * siguen cargándose en segundo plano y, si el usuario abre su pantalla antes de que
+ * terminen, {@code getInstance} simplemente espera a que acabe la carga en curso.</p>
+ *
+ * <p>Se mide cuánto tardó cada repositorio y se registra en el log (etiqueta
+ * {@value #TAG}) para detectar regresiones en el arranque en frío.</p>
+ *
+ * @author SRGM
+ * @version 1.0
+ */
+public class OrquestadorArranque {
+
+    private static final String TAG = "OrquestadorArranque";
+
+    /** Instancia única de la clase (Singleton). */
+    private static OrquestadorArranque instance;
+
+    private final Handler hiloPrincipal = new Handler(Looper.getMainLooper());
+
+    /** Tiempos de carga en milisegundos, por repositorio, en orden de finalización. */
+    private final Map<String, Long> tiemposCarga = new LinkedHashMap<>();
+
+    /** Acciones a ejecutar cuando los datos críticos estén listos. */
+    private final List<Runnable> alEstarListo = new ArrayList<>();
+
+    private boolean iniciado = false;
+    private boolean criticoListo = false;
+    private long inicioMs;
+
+    private OrquestadorArranque() {
+    }
+
+    /**
+     * Obtiene la instancia única del orquestador.
+     *
+     * @return La instancia de {@link OrquestadorArranque}.
+     */
+    public static synchronized OrquestadorArranque getInstance() {
+        if (instance == null) {
+            instance = new OrquestadorArranque();
+        }
+        return instance;
+    }
+
+    /**
+     * Lanza la carga en paralelo de los tres repositorios. Las llamadas posteriores
+     * (por ejemplo, al recrear el Splash al rotar) no vuelven a cargar nada.
+     *
+     * @param context Contexto de la aplicación.
+     */
+    public synchronized void iniciar(Context context) {
+        if (iniciado) return;
+        iniciado = true;
+        inicioMs = SystemClock.elapsedRealtime();
+
+        Context app = context.getApplicationContext();
+        // El despachador se crea aquí, en el hilo principal, para que su observador de ciclo
+        // de vida quede registrado antes de que arranque la primera Activity
+        DespachadorPersistencia.getInstance(app);
+
+        ExecutorService hilos = Executors.newFixedThreadPool(3, r -> {
+            Thread t = new Thread(r, "arranque");
+            t.setPriority(Thread.NORM_PRIORITY);
+            return t;
+        });
+
+        hilos.execute(() -> {
+            cargar("actividades", () -> RepositorioActividades.getInstance(app));
+            marcarCriticoListo();
+        });
+        hilos.execute(() -> cargar("hidratacion", () -> RepositorioHidratacion.getInstance(app)));
+        hilos.execute(() -> cargar("sostenibilidad", () -> RepositorioSostenibilidad.getInstance(app)));
+        hilos.shutdown();
+    }
+
+    /**
+     * Registra una acción a ejecutar en el hilo principal cuando los datos críticos estén
+     * cargados. Si ya lo están, se publica de inmediato.
+     *
+     * @param accion Acción (normalmente, navegar al menú principal).
+     */
+    public synchronized void cuandoEsteListo(Runnable accion) {
+        if (criticoListo) {
+            hiloPrincipal.post(accion);
+        } else {
+            alEstarListo.add(accion);
+        }
+    }
+
+    /**
+     * Cancela una acción registrada con {@link #cuandoEsteListo} que aún no se ejecutó.
+     *
+     * @param accion La misma instancia que se registró.
+     */
+    public synchronized void cancelar(Runnable accion) {
+        alEstarListo.remove(accion);
+        hiloPrincipal.removeCallbacks(accion);
+    }
+
+    /**
+     * @return Copia de los tiempos de carga (ms) medidos hasta ahora, por repositorio.
+     */
+    public synchronized Map<String, Long> getTiemposCarga() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(tiemposCarga));
+    }
+
+    private void cargar(String nombre, Runnable carga) {
+        long inicio = SystemClock.elapsedRealtime();
+        try {
+            carga.run();
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Error al cargar " + nombre + ": " + e.getMessage());
+        }
+        long duracion = SystemClock.elapsedRealtime() - inicio;
+        synchronized (this) {
+            tiemposCarga.put(nombre, duracion);
+        }
+        Log.i(TAG, "Carga de " + nombre + ": " + duracion + " ms");
+    }
+
+    private synchronized void marcarCriticoListo() {
+        criticoListo = true;
+        Log.i(TAG, "Datos críticos listos en " + (SystemClock.elapsedRealtime() - inicioMs) + " ms");
+        for (Runnable accion : alEstarListo) {
+            hiloPrincipal.post(accion);
+        }
+        alEstarListo.clear();
+    }
+}
@@ -6,20 +6,20 @@ import android.util.Log;
 import com.example.menuaplication.model.actividades.Actividad;
 import com.example.menuaplication.model.actividades.ActividadAcademica;
 import com.example.menuaplication.model.actividades.ActividadPersonal;
+import com.example.menuaplication.model.actividades.FiltroActividades;
+import com.example.menuaplication.model.actividades.OrdenActividades;
 import com.example.menuaplication.model.actividades.Prioridad;
 import com.example.menuaplication.model.actividades.SesionEnfoque;
 import com.example.menuaplication.model.actividades.TecnicaEnfoque;
 import com.example.menuaplication.model.actividades.TipoAcademica;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Clase encargada de la persistencia y gestión de datos de las actividades.
@@ -28,27 +28,57 @@ import java.util.List;
  *
  * Esta clase maneja:</p>
  * <ul>
- * <li>El almacenamiento local mediante serialización de objetos (archivo .ser).</li>
+ * <li>El almacenamiento local en una base de datos SQLite ({@link BaseDatosActividades}) o,
+ * alternativamente, en una instantánea binaria más un diario de cambios
+ * ({@link DiarioActividades} y {@link CodecActividades}).</li>
+ * <li>Las consultas filtradas y ordenadas de la lista ({@link #consultar}).</li>
  * <li>Operaciones CRUD (Crear, Leer, Actualizar, Eliminar) en memoria y disco.</li>
  * <li>La sincronización de IDs autoincrementales al reiniciar la app.</li>
+ * <li>Un índice ID → posición ({@link IndiceIds}) para buscar, reemplazar y eliminar por ID
+ * en tiempo constante.</li>
+ * <li>Vistas ya ordenadas por cada criterio de la lista ({@link VistasOrdenadas}), que se
+ * actualizan con cada cambio en O(log n), y un índice de vencimientos para saber qué
+ * actividades están vencidas, activas o próximas a vencer sin revisarlas todas.</li>
+ * <li>Un índice invertido para la búsqueda por texto ({@link IndiceBusqueda}).</li>
+ * <li>La notificación de cada cambio a las pantallas mediante un {@link BusCambios}.</li>
  * </ul>
  *
  * @author José Paladines
- * @version 1.0
+ * @version 1.6
  */
 public class RepositorioActividades {
 
+    private static final String TAG = "RepositorioActividades";
+
+    /** Motores de almacenamiento disponibles. */
+    private enum Motor { ARCHIVOS, SQLITE }
+
+    /** Motor usado por la aplicación. */
+    private static final Motor MOTOR = Motor.SQLITE;
+
     /** Instancia única de la clase (Singleton). */
     private static RepositorioActividades instance;
 
     /** Lista en memoria que contiene todas las actividades (Académicas y Personales). */
     private List<Actividad> listaActividades;
 
+    /** Posición de cada actividad en {@link #listaActividades}, por ID. */
+    private final IndiceIds indice = new IndiceIds();
+
+    /** Actividades ordenadas por cada criterio, para {@link #consultar}. */
+    private final VistasOrdenadas vistas = new VistasOrdenadas();
+
+    /** Palabras de cada actividad, para {@link #buscarIds}. */
+    private final IndiceBusqueda busqueda = new IndiceBusqueda();
+
+    /** Notifica a las pantallas qué actividades se insertaron, actualizaron o eliminaron. */
+    private final BusCambios cambios = new BusCambios();
+
     /** Contexto de la aplicación necesario para acceder al almacenamiento interno. */
     private Context context;
 
-    /** Nombre del archivo donde se guardan los datos serializados. */
-    private static final String NOMBRE_ARCHIVO = "actividades_data.ser";
+    /** Motor de almacenamiento: cada cambio persiste solo la actividad afectada. */
+    private AlmacenActividades almacen;
 
     /**
      * Constructor privado para evitar instanciación externa.
@@ -59,6 +89,15 @@ public class RepositorioActividades {
     private RepositorioActividades(Context context) {
         this.context = context.getApplicationContext();
         this.listaActividades = new ArrayList<>();
+        DespachadorPersistencia despachador = DespachadorPersistencia.getInstance(this.context);
+        DiarioActividades diario = new DiarioActividades(this.context.getExternalFilesDir(null), despachador);
+        if (MOTOR == Motor.SQLITE) {
+            BaseDatosActividades baseDatos = new BaseDatosActividades(this.context, despachador);
+            importarDesdeArchivos(diario, baseDatos);
+            this.almacen = baseDatos;
+        } else {
+            this.almacen = diario;
+        }
         cargarDesdeArchivo();
     }
 
@@ -69,7 +108,7 @@ public class RepositorioActividades {
      * @param context Contexto necesario para la primera inicialización.
      * @return La instancia de {@link RepositorioActividades}.
      */
-    public static RepositorioActividades getInstance(Context context) {
+    public static synchronized RepositorioActividades getInstance(Context context) {
         if (instance == null) {
             instance = new RepositorioActividades(context);
         }
@@ -84,7 +123,7 @@ public class RepositorioActividades {
      * @return La instancia existente.
      * @throws RuntimeException Si se llama antes de inicializar con contexto.
      */
-    public static RepositorioActividades getInstance() {
+    public static synchronized RepositorioActividades getInstance() {
         if (instance == null) {
             throw new RuntimeException("Debes inicializar el repositorio con getInstance(Context) primero");
         }
@@ -94,39 +133,39 @@ public class RepositorioActividades {
     // --- MÉTODOS DE ARCHIVOS ---
 
     /**
-     * Guarda la lista actual de actividades en el almacenamiento interno del dispositivo.
-     * Utiliza serialización de Java para escribir el objeto List completo.
+     * Copia una sola vez los datos guardados en archivos a la base de datos, si esta
+     * todavía no se inicializó. Los archivos no se borran: la marca de la base evita
+     * volver a importarlos aunque el usuario luego borre todas sus actividades.
      */
-    private void guardarEnArchivo() {
-        File archivo = new File(context.getExternalFilesDir(null), NOMBRE_ARCHIVO);
-        try (FileOutputStream fos = new FileOutputStream(archivo);
-             ObjectOutputStream oos = new ObjectOutputStream(fos)) {
-            oos.writeObject(listaActividades);
-            Log.d("RepositorioActividades", "Datos guardados en: " + archivo.getAbsolutePath());
-        } catch (IOException e) {
-            Log.e("RepositorioActividades", "Error al guardar: " + e.getMessage());
+    private static void importarDesdeArchivos(DiarioActividades diario, BaseDatosActividades baseDatos) {
+        try {
+            if (!baseDatos.hayDatos() && diario.hayDatos()) {
+                baseDatos.escribirInstantanea(diario.cargar());
+            }
+        } catch (IOException | RuntimeException e) {
+            Log.e(TAG, "Error al importar a la base de datos: " + e.getMessage());
         }
     }
 
     /**
-     * Carga la lista de actividades desde el archivo local.
-     * Si el archivo existe, deserializa los datos y actualiza el contador de IDs.
-     * Si no existe (primera ejecución), llama a {@link #inicializarApp()} para crear datos de prueba.
+     * Carga la lista de actividades desde el almacenamiento local
+     * (ver {@link AlmacenActividades}); después actualiza el contador de IDs.
+     * Si nunca se guardaron datos (primera ejecución) o están dañados, llama a
+     * {@link #inicializarApp()} para crear datos de prueba; una lista guardada vacía se respeta.
      */
-    @SuppressWarnings("unchecked")
     private void cargarDesdeArchivo() {
-        File archivo = new File(context.getExternalFilesDir(null), NOMBRE_ARCHIVO);
-        if (archivo.exists()) {
-            try (FileInputStream fis = new FileInputStream(archivo);
-                 ObjectInputStream ois = new ObjectInputStream(fis)) {
-
-                listaActividades = (List<Actividad>) ois.readObject();
+        if (almacen.hayDatos()) {
+            try {
+                listaActividades = almacen.cargar();
+                reconstruirIndice();
 
                 // --- CORRECCIÓN DEL ERROR DE IDs ---
                 // Calculamos cuál es el ID más alto actual y actualizamos el contador estático
                 actualizarContadorDeIds();
 
-            } catch (IOException | ClassNotFoundException e) {
+            } catch (IOException e) {
+                Log.e(TAG, "Error al cargar: " + e.getMessage());
+                listaActividades = new ArrayList<>();
                 inicializarApp();
             }
         } else {
@@ -152,6 +191,21 @@ public class RepositorioActividades {
         Actividad.setContadorIds(maxId + 1);
     }
 
+    /**
+     * Vuelve a calcular el índice de IDs, las vistas ordenadas y el índice de búsqueda
+     * a partir de la lista completa.
+     */
+    private void reconstruirIndice() {
+        indice.limpiar();
+        vistas.limpiar();
+        busqueda.limpiar();
+        for (int i = 0; i < listaActividades.size(); i++) {
+            indice.poner(listaActividades.get(i).getId(), i);
+            vistas.poner(listaActividades.get(i));
+            busqueda.poner(listaActividades.get(i));
+        }
+    }
+
     /**
      * Método auxiliar para generar datos de prueba (Mock Data) cuando la aplicación
      * se inicia por primera vez y no hay datos guardados.
@@ -190,7 +244,8 @@ public class RepositorioActividades {
                 Prioridad.ALTA, 120, "POO", TipoAcademica.EXAMEN
         ));
 
-        guardarEnArchivo();
+        reconstruirIndice();
+        almacen.escribirInstantanea(listaActividades);
 
         // También actualizamos el contador después de inicializar
         actualizarContadorDeIds();
@@ -199,57 +254,236 @@ public class RepositorioActividades {
     // --- MÉTODOS PÚBLICOS ---
 
     /**
-     * Obtiene la lista completa de actividades gestionadas.
+     * Obtiene la lista completa de actividades gestionadas (solo lectura).
+     * Los cambios deben hacerse con los métodos del repositorio para mantener el índice.
      * @return Lista de objetos {@link Actividad}.
      */
-    public List<Actividad> getListaActividades() { return listaActividades; }
+    public List<Actividad> getListaActividades() { return Collections.unmodifiableList(listaActividades); }
 
     /**
      * Alias para {@link #getListaActividades()}.
      * @return Lista de objetos {@link Actividad}.
      */
-    public List<Actividad> getActividades() { return listaActividades; }
+    public List<Actividad> getActividades() { return getListaActividades(); }
 
     /**
-     * Agrega una nueva actividad al repositorio y guarda los cambios en disco.
+     * Bus en el que se publican los cambios de actividades (inserción, actualización y
+     * eliminación, con su ID). Los observadores se llaman en el hilo principal, un lote por fotograma.
+     *
+     * @return El {@link BusCambios} del repositorio.
+     */
+    public BusCambios getBusCambios() {
+        return cambios;
+    }
+
+    /**
+     * Busca una actividad por su ID en tiempo constante.
+     *
+     * @param id ID de la actividad.
+     * @return La actividad, o {@code null} si no existe.
+     */
+    public Actividad buscarPorId(int id) {
+        int posicion = indice.obtener(id);
+        return posicion == IndiceIds.NO_ENCONTRADO ? null : listaActividades.get(posicion);
+    }
+
+    /**
+     * Agrega una nueva actividad al repositorio y registra el alta en el almacenamiento.
+     * Si ya existe una actividad con el mismo ID, la reemplaza.
      * @param actividad La nueva actividad a registrar.
      */
     public void agregarActividad(Actividad actividad) {
-        listaActividades.add(actividad);
-        guardarEnArchivo();
+        boolean nueva = reemplazarPorId(actividad);
+        almacen.registrarGuardado(actividad);
+        cambios.publicar(nueva ? BusCambios.Tipo.INSERTADO : BusCambios.Tipo.ACTUALIZADO, actividad.getId());
     }
 
     /**
      * Actualiza una actividad existente en la lista.
      * Busca la actividad por su ID único. Si la encuentra, la reemplaza con la versión modificada.
      * Si no la encuentra (caso raro), la agrega como nueva.
-     * Guarda los cambios en disco inmediatamente.
+     * Persiste solo el nuevo estado de esta actividad.
      *
      * @param actividadModificada Objeto actividad con los datos actualizados.
      */
     public void actualizarActividad(Actividad actividadModificada) {
-        boolean encontrado = false;
-        for (int i = 0; i < listaActividades.size(); i++) {
-            if (listaActividades.get(i).getId() == actividadModificada.getId()) {
-                listaActividades.set(i, actividadModificada);
-                encontrado = true;
-                break;
-            }
-        }
-        if (!encontrado) {
-            listaActividades.add(actividadModificada);
-        }
-        guardarEnArchivo();
+        boolean nueva = reemplazarPorId(actividadModificada);
+        almacen.registrarGuardado(actividadModificada);
+        cambios.publicar(nueva ? BusCambios.Tipo.INSERTADO : BusCambios.Tipo.ACTUALIZADO, actividadModificada.getId());
     }
 
     /**
      * Elimina una actividad del repositorio basándose en su ID.
-     * Guarda los cambios en disco inmediatamente.
+     * Persiste la eliminación.
      *
      * @param actividad La actividad a eliminar.
      */
     public void eliminarActividad(Actividad actividad) {
-        listaActividades.removeIf(a -> a.getId() == actividad.getId());
-        guardarEnArchivo();
+        eliminarPorId(actividad.getId());
+    }
+
+    /**
+     * Elimina una actividad por su ID en tiempo constante y persiste la eliminación.
+     * El hueco se rellena con la última actividad de la lista, por lo que el orden interno
+     * cambia; las pantallas siempre ordenan con {@link #consultar}.
+     *
+     * @param id ID de la actividad a eliminar.
+     * @return {@code true} si existía.
+     */
+    public boolean eliminarPorId(int id) {
+        int posicion = indice.obtener(id);
+        if (posicion == IndiceIds.NO_ENCONTRADO) return false;
+
+        int ultima = listaActividades.size() - 1;
+        Actividad movida = listaActividades.remove(ultima);
+        if (posicion != ultima) {
+            listaActividades.set(posicion, movida);
+            indice.poner(movida.getId(), posicion);
+        }
+        indice.quitar(id);
+        vistas.quitar(id);
+        busqueda.quitar(id);
+        almacen.registrarEliminacion(id);
+        cambios.publicar(BusCambios.Tipo.ELIMINADO, id);
+        return true;
+    }
+
+    /**
+     * Coloca la actividad en la posición de la que tenga su mismo ID, o al final si no hay ninguna.
+     *
+     * @return {@code true} si la actividad no existía.
+     */
+    private boolean reemplazarPorId(Actividad actividad) {
+        vistas.poner(actividad);
+        busqueda.poner(actividad);
+        int posicion = indice.obtener(actividad.getId());
+        if (posicion == IndiceIds.NO_ENCONTRADO) {
+            indice.poner(actividad.getId(), listaActividades.size());
+            listaActividades.add(actividad);
+            return true;
+        }
+        listaActividades.set(posicion, actividad);
+        return false;
+    }
+
+    /**
+     * Obtiene las actividades a mostrar en la lista: oculta las vencidas que no llegaron
+     * al 100%, aplica el filtro por tipo y respeta el criterio de orden indicado.
+     *
+     * <p>No se ordena nada: se recorre la vista ya ordenada por ese criterio
+     * ({@link VistasOrdenadas}) y solo se filtra. Las vencidas se obtienen de una vez
+     * del índice de vencimientos, en lugar de comparar la fecha de cada actividad.</p>
+     *
+     * @param filtro Filtro por tipo.
+     * @param orden  Criterio de ordenamiento.
+     * @param ahora  Momento de referencia para decidir qué está vencido.
+     * @return Nueva lista con las actividades visibles, en orden.
+     */
+    public List<Actividad> consultar(FiltroActividades filtro, OrdenActividades orden, LocalDateTime ahora) {
+        return consultar(filtro, orden, ahora, null);
+    }
+
+    /**
+     * Igual que {@link #consultar(FiltroActividades, OrdenActividades, LocalDateTime)}, pero
+     * mostrando solo las actividades con los IDs indicados (por ejemplo, el resultado de
+     * {@link #buscarIds}).
+     *
+     * @param filtro Filtro por tipo.
+     * @param orden  Criterio de ordenamiento.
+     * @param ahora  Momento de referencia para decidir qué está vencido.
+     * @param ids    IDs permitidos, o {@code null} para no restringir.
+     * @return Nueva lista con las actividades visibles, en orden.
+     */
+    public List<Actividad> consultar(FiltroActividades filtro, OrdenActividades orden, LocalDateTime ahora,
+                                     Set<Integer> ids) {
+        Set<Actividad> vencidas = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Actividad a : vistas.pendientesEntre(null, ahora)) {
+            vencidas.add(a);
+        }
+        List<Actividad> visibles = new ArrayList<>(listaActividades.size() - vencidas.size());
+        for (Actividad a : vistas.vista(orden)) {
+            if (filtro.acepta(a) && !vencidas.contains(a) && (ids == null || ids.contains(a.getId()))) {
+                visibles.add(a);
+            }
+        }
+        return visibles;
+    }
+
+    /**
+     * Busca actividades por texto en su nombre, descripción, asignatura o lugar, sin
+     * distinguir mayúsculas ni tildes. Cada palabra de la consulta puede ser el comienzo
+     * de una palabra (p. ej. "estad" encuentra "Estadística"); deben aparecer todas.
+     *
+     * <p>Puede llamarse desde un hilo en segundo plano.</p>
+     *
+     * @param consulta Texto a buscar.
+     * @return IDs de las actividades encontradas, o {@code null} si la consulta está vacía.
+     */
+    public Set<Integer> buscarIds(String consulta) {
+        return busqueda.buscar(consulta);
+    }
+
+    // --- VENCIMIENTOS ---
+    // Se responden con el índice de pendientes por fecha de VistasOrdenadas. Se mantiene al
+    // día con agregarActividad y actualizarActividad, que las pantallas llaman siempre después
+    // de setFechaVencimiento o setPorcentajeAvance.
+
+    /**
+     * Actividades vencidas: su fecha ya pasó y no llegaron al 100%.
+     *
+     * @param ahora Momento de referencia.
+     * @return Las vencidas, de la más antigua a la más reciente.
+     */
+    public List<Actividad> getVencidas(LocalDateTime ahora) {
+        return getPendientesEntre(null, ahora);
+    }
+
+    /**
+     * Actividades activas: no han llegado al 100% y todavía no vencen.
+     *
+     * @param ahora Momento de referencia.
+     * @return Las activas, de la que vence antes a la que vence después.
+     */
+    public List<Actividad> getActivas(LocalDateTime ahora) {
+        return getPendientesEntre(ahora, null);
+    }
+
+    /**
+     * Actividades sin completar que vencen en las próximas horas.
+     *
+     * @param ahora Momento de referencia.
+     * @param horas Tamaño de la ventana, en horas.
+     * @return Las que vencen en {@code [ahora, ahora + horas)}, de la más próxima a la más lejana.
+     */
+    public List<Actividad> getProximasAVencer(LocalDateTime ahora, int horas) {
+        return getPendientesEntre(ahora, ahora.plusHours(horas));
+    }
+
+    /**
+     * Actividades sin completar cuya fecha de vencimiento está en {@code [desde, hasta)}.
+     * Por ejemplo, las que vencieron entre dos momentos.
+     *
+     * @param desde Inicio del rango (inclusive), o {@code null} para no acotarlo.
+     * @param hasta Fin del rango (exclusivo), o {@code null} para no acotarlo.
+     * @return Las actividades del rango, por fecha de vencimiento.
+     */
+    public List<Actividad> getPendientesEntre(LocalDateTime desde, LocalDateTime hasta) {
+        List<Actividad> resultado = new ArrayList<>();
+        for (Actividad a : vistas.pendientesEntre(desde, hasta)) {
+            resultado.add(a);
+        }
+        return resultado;
+    }
+
+    /**
+     * Indica si una actividad está vencida: su fecha ya pasó y NO está al 100%.
+     * Las vencidas no se muestran en la lista.
+     *
+     * @param actividad Actividad a evaluar.
+     * @param ahora     Momento de referencia.
+     * @return {@code true} si está vencida.
+     */
+    public static boolean estaVencida(Actividad actividad, LocalDateTime ahora) {
+        return actividad.getFechaVencimiento().isBefore(ahora) && actividad.getPorcentajeAvance() < 100;
     }
-}
\ No newline at end of file
+}
@@ -1,63 +1,86 @@
 package com.example.menuaplication.data;
 
 import android.content.Context;
+import android.util.Log;
+
+import com.example.menuaplication.model.hidratacion.HistorialHidratacion;
 import com.example.menuaplication.model.hidratacion.RegistroAgua;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 /**
  * Clase encargada de la persistencia de datos relacionados con el control de hidratación.
  * Implementa el patrón Singleton para asegurar una única instancia de acceso a los datos
- * en toda la aplicación. Gestiona el almacenamiento local mediante serialización de objetos
- * en un archivo interno.
+ * en toda la aplicación.
  *
  * Almacena dos tipos principales de información:
  * - El historial de consumo de agua organizado por fechas.
  * - Las metas diarias de consumo personalizadas por fecha.
  *
+ * Los datos se guardan en un {@link HistorialHidratacion}, indexado por día de la época y con
+ * cada registro empaquetado como (minuto del día, ml) en un entero. Los métodos con fechas
+ * {@code "dd/MM/yyyy"} se mantienen como fachada de compatibilidad para las pantallas.
+ * El archivo antiguo {@code hidratacion_data.ser} se migra una sola vez al formato binario.
+ *
+ * Los totales por día y las sumas por rango de fechas se mantienen al agregar cada registro,
+ * así que las pantallas nunca vuelven a sumar los registros.
+ *
  * @author SRGM
- * @version 1.0
+ * @version 1.2
  */
 public class RepositorioHidratacion {
+
+    private static final String TAG = "RepositorioHidratacion";
+
     /** Instancia única de la clase (Singleton). */
     private static RepositorioHidratacion instance;
 
     /** Contexto de la aplicación necesario para acceder al sistema de archivos. */
     private Context context;
 
-    /** Nombre del archivo donde se serializan los datos. */
-    private static final String NOMBRE_ARCHIVO = "hidratacion_data.ser";
+    /** Nombre del archivo binario donde se guarda el historial. */
+    private static final String NOMBRE_ARCHIVO = "hidratacion_data.bin";
 
-    /**
-     * Mapa que almacena el historial de registros.
-     * Clave: Fecha (String). Valor: Lista de objetos {@link RegistroAgua}.
-     */
-    private Map<String, List<RegistroAgua>> historialAgua;
+    /** Nombre del archivo del formato antiguo (mapas serializados), solo para migrar. */
+    private static final String NOMBRE_ARCHIVO_ANTIGUO = "hidratacion_data.ser";
 
-    /**
-     * Mapa que almacena las metas diarias personalizadas.
-     * Clave: Fecha (String). Valor: Meta en ml (Integer).
-     */
-    private Map<String, Integer> metasDiarias;
+    /** Meta diaria usada cuando el día no tiene una personalizada. */
+    private static final int META_POR_DEFECTO = 2000;
+
+    /** Formato de las fechas de la fachada de compatibilidad (ej. "19/01/2026"). */
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("dd/MM/yyyy", Locale.US);
+
+    /** Escritor (siempre la misma instancia) que el despachador usa para guardar el archivo. */
+    private final DespachadorPersistencia.Escritor escritor = this::escribirArchivo;
+
+    /** Historial de registros y metas, por día de la época. */
+    private HistorialHidratacion historial = new HistorialHidratacion();
+
+    /** Notifica qué días cambiaron (ID = día de la época). */
+    private final BusCambios cambios = new BusCambios();
 
     /**
      * Constructor privado para prevenir instanciación directa.
-     * Inicializa las estructuras de datos y carga la información del archivo si existe.
+     * Carga la información del archivo si existe.
      *
      * @param context El contexto de la aplicación.
      */
     private RepositorioHidratacion(Context context) {
         this.context = context.getApplicationContext();
-        this.historialAgua = new HashMap<>();
-        this.metasDiarias = new HashMap<>();
         cargarDesdeArchivo();
     }
 
@@ -68,26 +91,136 @@ public class RepositorioHidratacion {
      * @param context El contexto desde donde se invoca (se usará getApplicationContext()).
      * @return La instancia única de {@link RepositorioHidratacion}.
      */
-    public static RepositorioHidratacion getInstance(Context context) {
+    public static synchronized RepositorioHidratacion getInstance(Context context) {
         if (instance == null) {
             instance = new RepositorioHidratacion(context);
         }
         return instance;
     }
 
-    // --- MÉTODOS PÚBLICOS (API) ---
+    // --- MÉTODOS PÚBLICOS (API POR DÍA DE LA ÉPOCA) ---
+
+    /**
+     * Agrega un registro de consumo y guarda los cambios.
+     *
+     * @param dia          Día de la época ({@link LocalDate#toEpochDay()}).
+     * @param minutoDelDia Minuto del día (0 a 1439).
+     * @param ml           Cantidad en mililitros.
+     */
+    public synchronized void agregarRegistro(int dia, int minutoDelDia, int ml) {
+        boolean existia = historial.indiceDe(dia) >= 0;
+        historial.agregar(dia, minutoDelDia, ml);
+        guardarEnArchivo(); // ¡Guardar automáticamente!
+        publicarCambio(dia, existia);
+    }
+
+    /**
+     * @param dia Día de la época.
+     * @return Número de registros de ese día.
+     */
+    public synchronized int getCantidadRegistros(int dia) {
+        return historial.getCantidadRegistros(dia);
+    }
+
+    /**
+     * @param dia    Día de la época.
+     * @param indice Posición del registro dentro del día.
+     * @return Registro empaquetado (ver {@link HistorialHidratacion#minutoDe} y {@link HistorialHidratacion#mlDe}).
+     */
+    public synchronized int getRegistro(int dia, int indice) {
+        return historial.getRegistro(dia, indice);
+    }
+
+    /**
+     * @param dia Día de la época.
+     * @return Meta del día en ml (la personalizada o la de por defecto, 2000 ml).
+     */
+    public synchronized int getMeta(int dia) {
+        int meta = historial.getMeta(dia);
+        return meta == HistorialHidratacion.SIN_META ? META_POR_DEFECTO : meta;
+    }
+
+    /**
+     * Establece y guarda una meta personalizada.
+     *
+     * @param dia  Día de la época.
+     * @param meta Meta en mililitros.
+     */
+    public synchronized void setMeta(int dia, int meta) {
+        boolean existia = historial.indiceDe(dia) >= 0;
+        historial.setMeta(dia, meta);
+        guardarEnArchivo(); // ¡Guardar automáticamente!
+        publicarCambio(dia, existia);
+    }
+
+    /**
+     * Bus en el que se publica cada día modificado (registro nuevo o meta), con el día de la época como ID.
+     *
+     * @return El {@link BusCambios} del repositorio.
+     */
+    public BusCambios getBusCambios() {
+        return cambios;
+    }
+
+    private void publicarCambio(int dia, boolean existia) {
+        cambios.publicar(existia ? BusCambios.Tipo.ACTUALIZADO : BusCambios.Tipo.INSERTADO, dia);
+    }
+
+    /**
+     * Total consumido en un día. No recorre los registros: el total se mantiene al agregar.
+     *
+     * @param dia Día de la época.
+     * @return Total en ml.
+     */
+    public synchronized int getTotal(int dia) {
+        return historial.getTotal(dia);
+    }
+
+    /**
+     * Porcentaje de la meta alcanzado en un día, limitado a 100.
+     *
+     * @param dia Día de la época.
+     * @return Porcentaje entre 0 y 100.
+     */
+    public synchronized int getPorcentajeMeta(int dia) {
+        int meta = getMeta(dia);
+        if (meta <= 0) return 0;
+        return (int) Math.min(100, (long) historial.getTotal(dia) * 100 / meta);
+    }
+
+    /**
+     * Total consumido entre dos fechas, ambas inclusive, en O(log n) mediante sumas de prefijos.
+     * Útil para resúmenes semanales o mensuales.
+     *
+     * @param inicio Primera fecha del rango.
+     * @param fin    Última fecha del rango.
+     * @return Suma en ml.
+     */
+    public synchronized long getTotalEnRango(LocalDate inicio, LocalDate fin) {
+        return historial.getTotalEnRango((int) inicio.toEpochDay(), (int) fin.toEpochDay());
+    }
+
+    // --- FACHADA DE COMPATIBILIDAD (FECHAS "dd/MM/yyyy") ---
 
     /**
      * Obtiene la lista de registros de agua para una fecha específica.
+     * Los objetos {@link RegistroAgua} se crean en el momento a partir de los datos empaquetados.
      *
      * @param fecha La fecha en formato String (ej. "19/01/2026").
      * @return Una lista de {@link RegistroAgua}. Si no hay registros, devuelve una lista vacía.
      */
-    public List<RegistroAgua> getRegistros(String fecha) {
-        if (historialAgua.containsKey(fecha)) {
-            return historialAgua.get(fecha);
+    public synchronized List<RegistroAgua> getRegistros(String fecha) {
+        Integer dia = aDia(fecha);
+        if (dia == null) return new ArrayList<>();
+
+        int cantidad = historial.getCantidadRegistros(dia);
+        List<RegistroAgua> lista = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            int registro = historial.getRegistro(dia, i);
+            lista.add(new RegistroAgua(HistorialHidratacion.mlDe(registro),
+                    formatearHora(HistorialHidratacion.minutoDe(registro)), fecha));
         }
-        return new ArrayList<>();
+        return lista;
     }
 
     /**
@@ -96,12 +229,10 @@ public class RepositorioHidratacion {
      * @param fecha    La fecha correspondiente al registro.
      * @param registro El objeto {@link RegistroAgua} con los detalles del consumo.
      */
-    public void agregarRegistro(String fecha, RegistroAgua registro) {
-        if (!historialAgua.containsKey(fecha)) {
-            historialAgua.put(fecha, new ArrayList<>());
-        }
-        historialAgua.get(fecha).add(registro);
-        guardarEnArchivo(); // ¡Guardar automáticamente!
+    public synchronized void agregarRegistro(String fecha, RegistroAgua registro) {
+        Integer dia = aDia(fecha);
+        if (dia == null) return;
+        agregarRegistro(dia, aMinutoDelDia(registro.getHora()), registro.getCantidadMl());
     }
 
     /**
@@ -111,11 +242,27 @@ public class RepositorioHidratacion {
      * @return La meta en mililitros. Si no se ha establecido una meta específica,
      * devuelve el valor por defecto de 2000 ml.
      */
-    public int getMeta(String fecha) {
-        if (metasDiarias.containsKey(fecha)) {
-            return metasDiarias.get(fecha);
-        }
-        return 2000; // Valor por defecto
+    public synchronized int getMeta(String fecha) {
+        Integer dia = aDia(fecha);
+        return dia == null ? META_POR_DEFECTO : getMeta((int) dia);
+    }
+
+    /**
+     * @param fecha La fecha consultada (ej. "19/01/2026").
+     * @return Total consumido ese día en ml.
+     */
+    public synchronized int getTotal(String fecha) {
+        Integer dia = aDia(fecha);
+        return dia == null ? 0 : getTotal((int) dia);
+    }
+
+    /**
+     * @param fecha La fecha consultada (ej. "19/01/2026").
+     * @return Porcentaje de la meta alcanzado ese día, entre 0 y 100.
+     */
+    public synchronized int getPorcentajeMeta(String fecha) {
+        Integer dia = aDia(fecha);
+        return dia == null ? 0 : getPorcentajeMeta((int) dia);
     }
 
     /**
@@ -124,66 +271,151 @@ public class RepositorioHidratacion {
      * @param fecha La fecha para la cual se establece la meta.
      * @param meta  La cantidad meta en mililitros.
      */
-    public void setMeta(String fecha, int meta) {
-        metasDiarias.put(fecha, meta);
-        guardarEnArchivo(); // ¡Guardar automáticamente!
+    public synchronized void setMeta(String fecha, int meta) {
+        Integer dia = aDia(fecha);
+        if (dia != null) setMeta((int) dia, meta);
+    }
+
+    // --- CONVERSIONES ---
+
+    /**
+     * Convierte una fecha {@code "dd/MM/yyyy"} en día de la época.
+     *
+     * @return El día, o {@code null} si la fecha no tiene el formato esperado.
+     */
+    private static Integer aDia(String fecha) {
+        try {
+            return (int) LocalDate.parse(fecha, FORMATO_FECHA).toEpochDay();
+        } catch (DateTimeParseException | NullPointerException e) {
+            Log.e(TAG, "Fecha inválida: " + fecha);
+            return null;
+        }
+    }
+
+    /**
+     * Convierte una hora de 12 horas ({@code "08:30 PM"}) en minuto del día.
+     * Si no se puede interpretar, devuelve 0 (medianoche).
+     */
+    static int aMinutoDelDia(String hora) {
+        try {
+            String[] partes = hora.trim().split("[: ]+");
+            int h = Integer.parseInt(partes[0]) % 12;
+            int m = Integer.parseInt(partes[1]);
+            if (partes.length > 2 && partes[2].equalsIgnoreCase("PM")) h += 12;
+            return h * 60 + m;
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Convierte un minuto del día en hora de 12 horas, con el mismo formato que
+     * usa el selector de hora de la pantalla ({@code "08:30 PM"}).
+     */
+    static String formatearHora(int minutoDelDia) {
+        int h = minutoDelDia / 60;
+        int hora12 = h % 12 == 0 ? 12 : h % 12;
+        return String.format(Locale.getDefault(), "%02d:%02d %s", hora12, minutoDelDia % 60, h < 12 ? "AM" : "PM");
     }
 
     // --- MÉTODOS DE ARCHIVOS (MAGIA OSCURA) ---
 
     /**
-     * Guarda el estado actual de los mapas de datos en el archivo local.
-     * Utiliza {@link ObjectOutputStream} para serializar los objetos.
+     * Marca el archivo como modificado. La escritura real ocurre en segundo plano
+     * mediante el {@link DespachadorPersistencia}.
      */
     private void guardarEnArchivo() {
-        File archivo = new File(context.getExternalFilesDir(null), NOMBRE_ARCHIVO);
-        try (FileOutputStream fos = new FileOutputStream(archivo);
-             ObjectOutputStream oos = new ObjectOutputStream(fos)) {
-            // Guardamos los dos mapas en orden
-            oos.writeObject(historialAgua);
-            oos.writeObject(metasDiarias);
-        } catch (IOException e) {
-            e.printStackTrace();
+        DespachadorPersistencia.getInstance(context).marcarSucio(NOMBRE_ARCHIVO, escritor);
+    }
+
+    /**
+     * Guarda el historial en el archivo local (hilo escritor).
+     * El historial se codifica en memoria mientras se tiene el candado del repositorio
+     * y el archivo se escribe después, ya sin bloquear a la interfaz.
+     */
+    private void escribirArchivo() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        synchronized (this) {
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                historial.escribir(out);
+            }
         }
+        File archivo = new File(context.getExternalFilesDir(null), NOMBRE_ARCHIVO);
+        DespachadorPersistencia.escribirAtomico(archivo, bytes.toByteArray());
     }
 
     /**
      * Carga los datos desde el archivo local a la memoria.
-     * Intenta leer los mapas en el mismo orden en que fueron guardados.
-     * Si el archivo no existe o ocurre un error de lectura/clase no encontrada,
-     * inicializa los mapas vacíos para evitar errores de ejecución (NullPointerException).
+     * Si solo existe el archivo del formato antiguo, lo migra; si no existe ninguno,
+     * crea los datos de prueba. Si ocurre un error de lectura, el historial queda vacío.
      */
-    @SuppressWarnings("unchecked")
     private void cargarDesdeArchivo() {
-        File archivo = new File(context.getExternalFilesDir(null), NOMBRE_ARCHIVO);
+        File directorio = context.getExternalFilesDir(null);
+        File archivo = new File(directorio, NOMBRE_ARCHIVO);
+        File antiguo = new File(directorio, NOMBRE_ARCHIVO_ANTIGUO);
+
         if (archivo.exists()) {
-            // SI EL ARCHIVO EXISTE: CARGAMOS LOS DATOS GUARDADOS
-
-            try (FileInputStream fis = new FileInputStream(archivo);
-                 ObjectInputStream ois = new ObjectInputStream(fis)) {
-                historialAgua = (Map<String, List<RegistroAgua>>) ois.readObject();
-                metasDiarias = (Map<String, Integer>) ois.readObject();
-            } catch (Exception e) {
-                historialAgua = new HashMap<>();
-                metasDiarias = new HashMap<>();
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(archivo)))) {
+                historial = HistorialHidratacion.leer(in);
+            } catch (IOException e) {
+                Log.e(TAG, "Error al cargar: " + e.getMessage());
+                historial = new HistorialHidratacion();
             }
-        }
-        else{
+        } else if (antiguo.exists()) {
+            migrarFormatoAntiguo(antiguo);
+        } else {
             inicializarDatosPrueba();
         }
     }
 
+    /**
+     * Convierte los mapas serializados del formato antiguo ({@code "dd/MM/yyyy"} → lista de
+     * {@link RegistroAgua} y {@code "dd/MM/yyyy"} → meta) al historial compacto, escribe el
+     * archivo nuevo y borra el antiguo.
+     */
+    @SuppressWarnings("unchecked")
+    private void migrarFormatoAntiguo(File antiguo) {
+        try (ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(new FileInputStream(antiguo)))) {
+            Map<String, List<RegistroAgua>> historialAgua = (Map<String, List<RegistroAgua>>) ois.readObject();
+            Map<String, Integer> metasDiarias = (Map<String, Integer>) ois.readObject();
+
+            for (Map.Entry<String, List<RegistroAgua>> e : historialAgua.entrySet()) {
+                Integer dia = aDia(e.getKey());
+                if (dia == null) continue;
+                for (RegistroAgua r : e.getValue()) {
+                    historial.agregar(dia, aMinutoDelDia(r.getHora()), r.getCantidadMl());
+                }
+            }
+            for (Map.Entry<String, Integer> e : metasDiarias.entrySet()) {
+                Integer dia = aDia(e.getKey());
+                if (dia != null && e.getValue() != null) historial.setMeta(dia, e.getValue());
+            }
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            Log.e(TAG, "Error al migrar " + NOMBRE_ARCHIVO_ANTIGUO + ": " + e.getMessage());
+            historial = new HistorialHidratacion();
+            return;
+        }
+
+        try {
+            escribirArchivo();
+            if (!antiguo.delete()) {
+                Log.e(TAG, "No se pudo borrar " + NOMBRE_ARCHIVO_ANTIGUO);
+            }
+        } catch (IOException e) {
+            // Se conserva el archivo antiguo; se volverá a migrar en el próximo arranque
+            Log.e(TAG, "Error al escribir " + NOMBRE_ARCHIVO + ": " + e.getMessage());
+        }
+    }
+
     /*
      * Método para inicializar 2 registros de agua el 19 de Enero
      */
     private void inicializarDatosPrueba() {
-        List<RegistroAgua> listaEnero19 = new ArrayList<>();
-        listaEnero19.add(new RegistroAgua(250, "08:00 AM", "19/01/2026"));
-        listaEnero19.add(new RegistroAgua(500, "10:00 AM", "19/01/2026"));
-
-        historialAgua.put("19/01/2026", listaEnero19);
+        int enero19 = (int) LocalDate.of(2026, 1, 19).toEpochDay();
+        historial.agregar(enero19, 8 * 60, 250);
+        historial.agregar(enero19, 10 * 60, 500);
 
         // Guardamos inmediatamente para que el archivo se cree
         guardarEnArchivo();
     }
-}
\ No newline at end of file
+}
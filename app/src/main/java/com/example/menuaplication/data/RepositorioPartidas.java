@@ -0,0 +1,188 @@
+package com.example.menuaplication.data;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.util.Log;
+
+import com.example.menuaplication.model.partidas.InstantaneaPartida;
+import com.example.menuaplication.model.partidas.JuegoGuardado;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Guarda la partida en curso de cada juego para reanudarla tras girar la pantalla, cerrar
+ * el juego o que el sistema mate la aplicación.
+ * <p>
+ * Cada juego tiene una ranura: un archivo {@code partida_<juego>.bin} con su última
+ * {@link InstantaneaPartida}. Las escrituras pasan por el {@link DespachadorPersistencia}
+ * (se agrupan y nunca bloquean a la interfaz), y la última instantánea de cada juego se
+ * conserva en memoria, así que volver a abrir un juego no lee el disco mientras la
+ * aplicación siga viva.
+ * </p>
+ * <p>
+ * Además, {@link #guardar(InstantaneaPartida, Bundle)} la copia en el {@code Bundle} de
+ * {@code onSaveInstanceState} (si es pequeña), de donde se restaura sin tocar el disco.
+ * </p>
+ *
+ * @author José Paladines
+ * @version 1.0
+ */
+public class RepositorioPartidas {
+
+    private static final String TAG = "RepositorioPartidas";
+
+    /** Clave de la instantánea en el {@code Bundle} de la Activity. */
+    private static final String CLAVE_ESTADO = "partida_en_curso";
+
+    /**
+     * Tamaño máximo para copiarla también al {@code Bundle} (los {@code Bundle} grandes
+     * fallan al guardarse); las más grandes, como un Buscaminas enorme, solo van al disco.
+     */
+    private static final int MAX_BYTES_BUNDLE = 32 * 1024;
+
+    /** Instancia única de la clase (Singleton). */
+    private static RepositorioPartidas instance;
+
+    private static final JuegoGuardado[] JUEGOS = JuegoGuardado.values();
+
+    private final File directorio;
+    private final DespachadorPersistencia despachador;
+
+    /** Última instantánea codificada de cada juego ({@code null} = sin partida guardada). */
+    private final byte[][] ranuras = new byte[JUEGOS.length][];
+
+    /** Si la ranura de cada juego ya se leyó del disco (o se escribió desde aquí). */
+    private final boolean[] cargadas = new boolean[JUEGOS.length];
+
+    /** Escritor de cada ranura (siempre la misma instancia, para que se agrupen). */
+    private final DespachadorPersistencia.Escritor[] escritores = new DespachadorPersistencia.Escritor[JUEGOS.length];
+
+    private RepositorioPartidas(Context context) {
+        Context app = context.getApplicationContext();
+        this.directorio = app.getFilesDir();
+        this.despachador = DespachadorPersistencia.getInstance(app);
+        for (JuegoGuardado juego : JUEGOS) {
+            escritores[juego.ordinal()] = () -> escribirRanura(juego);
+        }
+    }
+
+    /**
+     * Obtiene la instancia única del repositorio.
+     *
+     * @param context Contexto (se usará getApplicationContext()).
+     * @return La instancia única de {@link RepositorioPartidas}.
+     */
+    public static synchronized RepositorioPartidas getInstance(Context context) {
+        if (instance == null) {
+            instance = new RepositorioPartidas(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Guarda la partida en curso en su ranura y, si se indica, en el estado de la Activity.
+     *
+     * @param instantanea Partida a guardar.
+     * @param estado      {@code Bundle} de {@code onSaveInstanceState}, o {@code null}.
+     */
+    public void guardar(InstantaneaPartida instantanea, Bundle estado) {
+        byte[] datos = instantanea.codificar();
+        if (estado != null && datos.length <= MAX_BYTES_BUNDLE) {
+            estado.putByteArray(CLAVE_ESTADO, datos);
+        }
+        int i = instantanea.getJuego().ordinal();
+        synchronized (this) {
+            ranuras[i] = datos;
+            cargadas[i] = true;
+        }
+        despachador.marcarSucio(nombreArchivo(instantanea.getJuego()), escritores[i]);
+    }
+
+    /**
+     * Vacía la ranura de un juego (la partida terminó o se abandonó).
+     *
+     * @param juego Juego.
+     */
+    public void borrar(JuegoGuardado juego) {
+        int i = juego.ordinal();
+        synchronized (this) {
+            if (cargadas[i] && ranuras[i] == null) return;
+            ranuras[i] = null;
+            cargadas[i] = true;
+        }
+        despachador.marcarSucio(nombreArchivo(juego), escritores[i]);
+    }
+
+    /**
+     * Recupera la partida guardada de un juego: primero la del estado de la Activity y, si no
+     * hay, la de su ranura.
+     *
+     * @param juego  Juego.
+     * @param estado {@code Bundle} recibido en {@code onCreate}, o {@code null}.
+     * @return La instantánea, o {@code null} si no hay partida guardada o está dañada.
+     */
+    public InstantaneaPartida cargar(JuegoGuardado juego, Bundle estado) {
+        byte[] datos = estado != null ? estado.getByteArray(CLAVE_ESTADO) : null;
+        if (datos == null) datos = leerRanura(juego);
+        if (datos == null) return null;
+        try {
+            InstantaneaPartida instantanea = InstantaneaPartida.decodificar(datos);
+            return instantanea.getJuego() == juego ? instantanea : null;
+        } catch (IllegalArgumentException e) {
+            Log.e(TAG, "Partida guardada inválida de " + juego + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private byte[] leerRanura(JuegoGuardado juego) {
+        int i = juego.ordinal();
+        synchronized (this) {
+            if (cargadas[i]) return ranuras[i];
+        }
+        byte[] datos = null;
+        File archivo = new File(directorio, nombreArchivo(juego));
+        if (archivo.exists()) {
+            try (DataInputStream in = new DataInputStream(new FileInputStream(archivo))) {
+                datos = new byte[(int) archivo.length()];
+                in.readFully(datos);
+            } catch (IOException e) {
+                Log.e(TAG, "Error al leer " + archivo.getName() + ": " + e.getMessage());
+                datos = null;
+            }
+        }
+        synchronized (this) {
+            // Si mientras se leía se guardó o borró la partida, manda lo más reciente
+            if (!cargadas[i]) {
+                ranuras[i] = datos;
+                cargadas[i] = true;
+            }
+            return ranuras[i];
+        }
+    }
+
+    /**
+     * Escribe (o borra) el archivo de una ranura con su contenido actual (hilo escritor).
+     */
+    private void escribirRanura(JuegoGuardado juego) throws IOException {
+        byte[] datos;
+        synchronized (this) {
+            datos = ranuras[juego.ordinal()];
+        }
+        File archivo = new File(directorio, nombreArchivo(juego));
+        if (datos == null) {
+            if (archivo.exists() && !archivo.delete()) {
+                throw new IOException("No se pudo borrar " + archivo.getName());
+            }
+        } else {
+            DespachadorPersistencia.escribirAtomico(archivo, datos);
+        }
+    }
+
+    private static String nombreArchivo(JuegoGuardado juego) {
+        return "partida_" + juego.name().toLowerCase(Locale.ROOT) + ".bin";
+    }
+}
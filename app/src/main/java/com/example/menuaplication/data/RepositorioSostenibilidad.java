@@ -5,8 +5,10 @@ import com.example.menuaplication.model.sostenibilidad.RegistroSostenibilidad;
 import java.io.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.NavigableMap;
+import java.util.TreeMap;
 
 /**
  * Clase encargada de la gestión y persistencia de los datos de sostenibilidad.
@@ -17,11 +19,16 @@ import java.util.stream.Collectors;
  * almacenamiento interno del dispositivo mediante serialización de objetos.
  * </p>
  * <p>
+ * Los registros se mantienen en un mapa ordenado cuya clave es el día de la época
+ * ({@link LocalDate#toEpochDay()}): buscar un día es O(log n) y un rango de fechas es una
+ * vista del mapa, sin recorrer todos los registros. El archivo se escribe en orden de fecha.
+ * </p>
+ * <p>
  * Incluye lógica para inicializar datos por defecto para fechas específicas del año 2026.
  * </p>
  *
  * @author erwxn
- * @version 1.0
+ * @version 1.1
  */
 public class RepositorioSostenibilidad {
 
@@ -31,21 +38,26 @@ public class RepositorioSostenibilidad {
     /** Instancia única de la clase (Singleton). */
     private static RepositorioSostenibilidad instance;
 
-    /** Lista en memoria que mantiene los registros cargados. */
-    private List<RegistroSostenibilidad> registros;
+    /** Registros cargados en memoria, ordenados por fecha. Clave: día de la época. */
+    private final NavigableMap<Long, RegistroSostenibilidad> registros = new TreeMap<>();
 
     /** Contexto de la aplicación necesario para operaciones de entrada/salida de archivos. */
     private Context context;
 
+    /** Escritor (siempre la misma instancia) que el despachador usa para guardar el archivo. */
+    private final DespachadorPersistencia.Escritor escritor = this::escribirArchivo;
+
+    /** Notifica qué días se insertaron o actualizaron (ID = día de la época). */
+    private final BusCambios cambios = new BusCambios();
+
     /**
      * Constructor privado para prevenir la instanciación directa.
-     * Inicializa la lista, carga los datos del archivo y asegura la existencia de datos de prueba.
+     * Carga los datos del archivo y asegura la existencia de datos de prueba.
      *
      * @param context Contexto de la aplicación.
      */
     private RepositorioSostenibilidad(Context context) {
-        this.context = context;
-        this.registros = new ArrayList<>();
+        this.context = context.getApplicationContext();
         cargarDatos();
 
         // REQUERIMIENTO: Datos por defecto (17 y 18 de Enero 2026)
@@ -59,7 +71,7 @@ public class RepositorioSostenibilidad {
      * @param context Contexto de la aplicación.
      * @return La instancia única de {@link RepositorioSostenibilidad}.
      */
-    public static RepositorioSostenibilidad getInstance(Context context) {
+    public static synchronized RepositorioSostenibilidad getInstance(Context context) {
         if (instance == null) {
             instance = new RepositorioSostenibilidad(context);
         }
@@ -97,11 +109,8 @@ public class RepositorioSostenibilidad {
      * @param fecha La fecha {@link LocalDate} a buscar.
      * @return El objeto {@link RegistroSostenibilidad} encontrado, o {@code null} si no existe registro para esa fecha.
      */
-    public RegistroSostenibilidad obtenerRegistro(LocalDate fecha) {
-        for (RegistroSostenibilidad r : registros) {
-            if (r.getFecha().isEqual(fecha)) return r;
-        }
-        return null;
+    public synchronized RegistroSostenibilidad obtenerRegistro(LocalDate fecha) {
+        return registros.get(fecha.toEpochDay());
     }
 
     /**
@@ -110,18 +119,25 @@ public class RepositorioSostenibilidad {
      *
      * @param inicio Fecha de inicio del rango.
      * @param fin Fecha de fin del rango.
-     * @return Una lista de {@link RegistroSostenibilidad} que cumplen con el criterio de fecha.
+     * @return Una lista de {@link RegistroSostenibilidad} que cumplen con el criterio de fecha, en orden de fecha.
      */
-    public List<RegistroSostenibilidad> obtenerRegistrosEnRango(LocalDate inicio, LocalDate fin) {
-        List<RegistroSostenibilidad> resultado = new ArrayList<>();
-        for (RegistroSostenibilidad r : registros) {
-            // Verifica si la fecha es igual o posterior al inicio Y igual o anterior al fin
-            if ((r.getFecha().isEqual(inicio) || r.getFecha().isAfter(inicio)) &&
-                    (r.getFecha().isEqual(fin) || r.getFecha().isBefore(fin))) {
-                resultado.add(r);
-            }
-        }
-        return resultado;
+    public synchronized List<RegistroSostenibilidad> obtenerRegistrosEnRango(LocalDate inicio, LocalDate fin) {
+        return new ArrayList<>(vistaRango(inicio, fin).values());
+    }
+
+    /**
+     * Devuelve una vista de solo lectura (sin copiar) de los registros entre dos fechas, inclusive.
+     * La vista refleja los cambios posteriores; debe usarse desde el hilo principal,
+     * que es el único que modifica el repositorio.
+     *
+     * @param inicio Fecha de inicio del rango.
+     * @param fin Fecha de fin del rango.
+     * @return Mapa ordenado (clave: día de la época) con los registros del rango.
+     */
+    public synchronized NavigableMap<Long, RegistroSostenibilidad> vistaRango(LocalDate inicio, LocalDate fin) {
+        if (fin.isBefore(inicio)) return Collections.emptyNavigableMap();
+        return Collections.unmodifiableNavigableMap(
+                registros.subMap(inicio.toEpochDay(), true, fin.toEpochDay(), true));
     }
 
     /**
@@ -133,37 +149,60 @@ public class RepositorioSostenibilidad {
      *
      * @param nuevo El objeto {@link RegistroSostenibilidad} a guardar.
      */
-    public void guardarRegistro(RegistroSostenibilidad nuevo) {
-        RegistroSostenibilidad existente = obtenerRegistro(nuevo.getFecha());
-        if (existente != null) registros.remove(existente);
-
-        registros.add(nuevo);
+    public synchronized void guardarRegistro(RegistroSostenibilidad nuevo) {
+        long dia = nuevo.getFecha().toEpochDay();
+        RegistroSostenibilidad anterior = registros.put(dia, nuevo);
         guardarEnArchivo();
+        cambios.publicar(anterior == null ? BusCambios.Tipo.INSERTADO : BusCambios.Tipo.ACTUALIZADO, (int) dia);
+    }
+
+    /**
+     * Bus en el que se publica cada registro guardado, con el día de la época como ID.
+     *
+     * @return El {@link BusCambios} del repositorio.
+     */
+    public BusCambios getBusCambios() {
+        return cambios;
     }
 
     /**
-     * Serializa la lista completa de registros y la escribe en el almacenamiento interno del dispositivo.
+     * Marca el archivo como modificado para que el {@link DespachadorPersistencia}
+     * lo escriba en segundo plano.
      */
     private void guardarEnArchivo() {
-        try (FileOutputStream fos = context.openFileOutput(FILE_NAME, Context.MODE_PRIVATE);
-             ObjectOutputStream oos = new ObjectOutputStream(fos)) {
-            oos.writeObject(registros);
-        } catch (IOException e) {
-            e.printStackTrace();
+        DespachadorPersistencia.getInstance(context).marcarSucio(FILE_NAME, escritor);
+    }
+
+    /**
+     * Serializa la lista completa de registros, en orden de fecha, y la escribe en el
+     * almacenamiento interno del dispositivo (hilo escritor). El formato sigue siendo una
+     * {@link ArrayList}, compatible con los archivos anteriores.
+     * La serialización se hace con el candado del repositorio.
+     */
+    private void escribirArchivo() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        synchronized (this) {
+            try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+                oos.writeObject(new ArrayList<>(registros.values()));
+            }
         }
+        DespachadorPersistencia.escribirAtomico(new File(context.getFilesDir(), FILE_NAME), bytes.toByteArray());
     }
 
     /**
-     * Deserializa y carga la lista de registros desde el almacenamiento interno.
-     * Si el archivo no existe o ocurre un error de lectura, inicializa una lista vacía.
+     * Deserializa la lista de registros desde el almacenamiento interno y la indexa por fecha.
+     * Si una fecha aparece repetida (archivos antiguos), prevalece el último registro.
+     * Si el archivo no existe o ocurre un error de lectura, el repositorio queda vacío.
      */
     @SuppressWarnings("unchecked")
     private void cargarDatos() {
         try (FileInputStream fis = context.openFileInput(FILE_NAME);
              ObjectInputStream ois = new ObjectInputStream(fis)) {
-            registros = (ArrayList<RegistroSostenibilidad>) ois.readObject();
+            for (RegistroSostenibilidad r : (List<RegistroSostenibilidad>) ois.readObject()) {
+                registros.put(r.getFecha().toEpochDay(), r);
+            }
         } catch (Exception e) {
-            registros = new ArrayList<>();
+            registros.clear();
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,174 @@
+package com.example.menuaplication.data;
+
+import com.example.menuaplication.model.actividades.Actividad;
+import com.example.menuaplication.model.actividades.OrdenActividades;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Vistas de las actividades ya ordenadas por cada criterio de {@link OrdenActividades},
+ * mantenidas de forma incremental por {@link RepositorioActividades}.
+ *
+ * <p>Hay un árbol por criterio (nombre, fecha y avance); los órdenes descendentes recorren
+ * el mismo árbol al revés. Insertar, actualizar o quitar una actividad cuesta O(log n) por
+ * árbol, y cambiar de orden en la lista es solo elegir otro árbol: nunca se reordena todo.</p>
+ *
+ * <p>Un cuarto árbol guarda solo las actividades pendientes (avance menor al 100%) por fecha
+ * de vencimiento. Las vencidas, las próximas a vencer y las activas son rangos de ese árbol,
+ * que se localizan en O(log n) sin revisar el resto.</p>
+ *
+ * <p>Como las actividades se modifican en el mismo objeto, cada una se guarda con una copia
+ * ({@link Clave}) de los valores por los que se ordena; así se la puede encontrar y quitar
+ * del árbol aunque sus campos ya hayan cambiado. Los nombres se comparan con su
+ * {@link CollationKey}, calculada una sola vez por actividad.</p>
+ *
+ * <p>No es segura para hilos: se usa desde el hilo principal, igual que el repositorio.</p>
+ *
+ * @author José Paladines
+ * @version 1.1
+ */
+final class VistasOrdenadas {
+
+    /** Valores de orden de una actividad, copiados al ponerla en las vistas. */
+    private static final class Clave {
+        final Actividad actividad;
+        final int id;
+        final CollationKey nombre;
+        final LocalDateTime fecha;
+        final double avance;
+
+        Clave(Actividad actividad, Collator collator) {
+            this.actividad = actividad;
+            this.id = actividad.getId();
+            this.nombre = collator.getCollationKey(actividad.getNombre());
+            this.fecha = actividad.getFechaVencimiento();
+            this.avance = actividad.getPorcentajeAvance();
+        }
+
+        /** Clave de búsqueda: queda antes de cualquier actividad con esa fecha. */
+        Clave(LocalDateTime fecha) {
+            this.actividad = null;
+            this.id = Integer.MIN_VALUE;
+            this.nombre = null;
+            this.fecha = fecha;
+            this.avance = 0;
+        }
+
+        boolean pendiente() {
+            return avance < 100;
+        }
+    }
+
+    // Mismos criterios que OrdenActividades#comparador, desempatando por ID
+    private static final Comparator<Clave> POR_NOMBRE =
+            Comparator.<Clave, CollationKey>comparing(c -> c.nombre).thenComparingInt(c -> c.id);
+    private static final Comparator<Clave> POR_FECHA =
+            Comparator.<Clave, LocalDateTime>comparing(c -> c.fecha).thenComparingInt(c -> c.id);
+    private static final Comparator<Clave> POR_AVANCE =
+            Comparator.<Clave>comparingDouble(c -> c.avance).thenComparingInt(c -> c.id);
+
+    private final Collator collator = OrdenActividades.nuevoCollator();
+
+    private final Map<Integer, Clave> claves = new HashMap<>();
+    private final TreeSet<Clave> porNombre = new TreeSet<>(POR_NOMBRE);
+    private final TreeSet<Clave> porFecha = new TreeSet<>(POR_FECHA);
+    private final TreeSet<Clave> porAvance = new TreeSet<>(POR_AVANCE);
+
+    /** Solo las actividades pendientes (avance menor al 100%), por fecha de vencimiento. */
+    private final TreeSet<Clave> pendientesPorFecha = new TreeSet<>(POR_FECHA);
+
+    /**
+     * Pone una actividad en las vistas, o la recoloca si ya estaba.
+     *
+     * @param actividad Actividad con sus valores actuales.
+     */
+    void poner(Actividad actividad) {
+        quitar(actividad.getId());
+        Clave clave = new Clave(actividad, collator);
+        claves.put(clave.id, clave);
+        porNombre.add(clave);
+        porFecha.add(clave);
+        porAvance.add(clave);
+        if (clave.pendiente()) pendientesPorFecha.add(clave);
+    }
+
+    /**
+     * @param id ID de la actividad a quitar de las vistas.
+     */
+    void quitar(int id) {
+        Clave clave = claves.remove(id);
+        if (clave == null) return;
+        porNombre.remove(clave);
+        porFecha.remove(clave);
+        porAvance.remove(clave);
+        pendientesPorFecha.remove(clave);
+    }
+
+    void limpiar() {
+        claves.clear();
+        porNombre.clear();
+        porFecha.clear();
+        porAvance.clear();
+        pendientesPorFecha.clear();
+    }
+
+    /**
+     * Recorre las actividades en el orden indicado, sin copiar ni ordenar nada.
+     * No debe modificarse el repositorio mientras se recorre.
+     *
+     * @param orden Criterio de ordenamiento.
+     * @return Las actividades en ese orden.
+     */
+    Iterable<Actividad> vista(OrdenActividades orden) {
+        NavigableSet<Clave> arbol;
+        switch (orden) {
+            case FECHA_ASC:   arbol = porFecha; break;
+            case FECHA_DESC:  arbol = porFecha.descendingSet(); break;
+            case AVANCE_ASC:  arbol = porAvance; break;
+            case AVANCE_DESC: arbol = porAvance.descendingSet(); break;
+            default:          arbol = porNombre; break;
+        }
+        return actividadesDe(arbol);
+    }
+
+    /**
+     * Actividades pendientes (avance menor al 100%) que vencen en {@code [desde, hasta)},
+     * de la más próxima a la más lejana.
+     *
+     * @param desde Inicio del rango (inclusive), o {@code null} para no acotarlo.
+     * @param hasta Fin del rango (exclusivo), o {@code null} para no acotarlo.
+     * @return Las actividades del rango.
+     */
+    Iterable<Actividad> pendientesEntre(LocalDateTime desde, LocalDateTime hasta) {
+        NavigableSet<Clave> rango = pendientesPorFecha;
+        if (desde != null && hasta != null && !hasta.isAfter(desde)) return Collections.emptyList();
+        if (desde != null) rango = rango.tailSet(new Clave(desde), true);
+        if (hasta != null) rango = rango.headSet(new Clave(hasta), false);
+        return actividadesDe(rango);
+    }
+
+    private static Iterable<Actividad> actividadesDe(NavigableSet<Clave> arbol) {
+        return () -> new Iterator<Actividad>() {
+            private final Iterator<Clave> it = arbol.iterator();
+
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public Actividad next() {
+                return it.next().actividad;
+            }
+        };
+    }
+}
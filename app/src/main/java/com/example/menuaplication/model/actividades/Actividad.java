@@ -1,8 +1,12 @@
 package com.example.menuaplication.model.actividades;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * Clase abstracta base que representa una actividad genérica dentro de la aplicación.
@@ -13,15 +17,32 @@ import java.util.ArrayList;
  * <p>Esta clase gestiona automáticamente el estado de la actividad (Pendiente, En Progreso, Completada)
  * basándose en el porcentaje de avance.</p>
  *
+ * <p>El historial de sesiones se guarda por columnas en un {@link RegistroSesiones}. Para la
+ * serialización de Java (archivos .ser antiguos) se sigue usando el campo
+ * {@code historialSesiones} con una lista de {@link SesionEnfoque}, que solo existe
+ * mientras se lee o escribe.</p>
+ *
+ * <p>Los totales del historial (minutos completados, minutos por técnica y número de
+ * sesiones) se mantienen al agregar o editar cada sesión, así que consultarlos no recorre
+ * el historial. También se guardan junto con la actividad y se restauran al cargarla.</p>
+ *
  * @author José Paladines
- * @version 1.0
+ * @version 1.2
  */
 public abstract class Actividad implements Serializable {
 
+    /**
+     * Versión de serialización fijada al valor que Java calculaba antes de declararla,
+     * para poder seguir leyendo los archivos .ser antiguos durante la migración.
+     */
+    private static final long serialVersionUID = 933599557153581554L;
+
     // Lógica para ID Autoincremental
     /** Contador estático para generar identificadores únicos automáticamente. */
     private static int contadorIds = 1;
 
+    private static final TecnicaEnfoque[] TECNICAS = TecnicaEnfoque.values();
+
     /** Identificador único de la actividad. */
     protected int id;
 
@@ -46,8 +67,20 @@ public abstract class Actividad implements Serializable {
     /** Tiempo estimado en minutos que el usuario planea dedicar. */
     protected int tiempoEstimadoMinutos;
 
-    /** Lista que almacena el historial de sesiones de trabajo (Pomodoro/Deep Work) realizadas. */
-    protected ArrayList<SesionEnfoque> historialSesiones;
+    /** Historial de sesiones de trabajo (Pomodoro/Deep Work) realizadas, por columnas. */
+    protected transient RegistroSesiones sesiones;
+
+    /** Suma de la duración de las sesiones completadas. */
+    protected transient int minutosCompletados;
+
+    /** Minutos de sesiones completadas por técnica (índice = ordinal de {@link TecnicaEnfoque}). */
+    protected transient int[] minutosPorTecnica;
+
+    /**
+     * Forma serializada del historial (formato .ser antiguo). Vale {@code null} salvo durante
+     * {@link #writeObject} y {@link #readObject}.
+     */
+    private ArrayList<SesionEnfoque> historialSesiones;
 
     /**
      * Constructor principal para crear una nueva actividad.
@@ -68,7 +101,8 @@ public abstract class Actividad implements Serializable {
         this.tiempoEstimadoMinutos = tiempoEstimadoMinutos;
         this.estado = EstadoActividad.PENDIENTE;
         this.porcentajeAvance = 0.0;
-        this.historialSesiones = new ArrayList<>();
+        this.sesiones = new RegistroSesiones();
+        this.minutosPorTecnica = new int[TECNICAS.length];
     }
 
     /**
@@ -77,23 +111,98 @@ public abstract class Actividad implements Serializable {
      * @param sesion Objeto {@link SesionEnfoque} con los datos del tiempo trabajado.
      */
     public void agregarSesion(SesionEnfoque sesion) {
-        this.historialSesiones.add(sesion);
+        agregarSesion(RegistroSesiones.aSegundos(sesion.getFechaHora()), sesion.getDuracionMinutos(),
+                sesion.getTecnica(), sesion.isCompletada());
+    }
+
+    /**
+     * Agrega una sesión al historial sin crear objetos intermedios (usado al cargar).
+     *
+     * @param segundosEpoch Segundos desde la época (UTC) en que finalizó, o {@link RegistroSesiones#SIN_FECHA}.
+     * @param duracion      Duración en minutos.
+     * @param tecnica       Técnica usada.
+     * @param completada    True si el temporizador llegó a cero.
+     */
+    public void agregarSesion(long segundosEpoch, int duracion, TecnicaEnfoque tecnica, boolean completada) {
+        sesiones.agregar(segundosEpoch, duracion, tecnica, completada);
+        sumarATotales(duracion, tecnica, completada, 1);
+    }
+
+    /**
+     * Modifica una sesión ya registrada (la fecha no cambia) y ajusta los totales.
+     *
+     * @param indice     Posición de la sesión en el historial.
+     * @param duracion   Nueva duración en minutos.
+     * @param tecnica    Nueva técnica.
+     * @param completada Nuevo estado de completada.
+     */
+    public void editarSesion(int indice, int duracion, TecnicaEnfoque tecnica, boolean completada) {
+        sumarATotales(sesiones.getDuracionMinutos(indice), sesiones.getTecnica(indice), sesiones.isCompletada(indice), -1);
+        sesiones.modificar(indice, duracion, tecnica, completada);
+        sumarATotales(duracion, tecnica, completada, 1);
+    }
+
+    /**
+     * Agrega una sesión leída del almacenamiento sin tocar los totales, que se restauran
+     * aparte con {@link #restaurarTotales}.
+     *
+     * @param segundosEpoch Segundos desde la época (UTC) en que finalizó, o {@link RegistroSesiones#SIN_FECHA}.
+     * @param duracion      Duración en minutos.
+     * @param tecnica       Técnica usada.
+     * @param completada    True si el temporizador llegó a cero.
+     */
+    public void cargarSesion(long segundosEpoch, int duracion, TecnicaEnfoque tecnica, boolean completada) {
+        sesiones.agregar(segundosEpoch, duracion, tecnica, completada);
+    }
+
+    /**
+     * Restaura los totales guardados junto con la actividad.
+     *
+     * @param minutosCompletados Minutos de sesiones completadas.
+     * @param porTecnica         Minutos completados por ordinal de técnica (se ignoran los sobrantes).
+     */
+    public void restaurarTotales(int minutosCompletados, int[] porTecnica) {
+        this.minutosCompletados = minutosCompletados;
+        Arrays.fill(minutosPorTecnica, 0);
+        System.arraycopy(porTecnica, 0, minutosPorTecnica, 0, Math.min(porTecnica.length, minutosPorTecnica.length));
+    }
+
+    private void sumarATotales(int duracion, TecnicaEnfoque tecnica, boolean completada, int signo) {
+        if (!completada) return;
+        minutosCompletados += signo * duracion;
+        if (tecnica != null) minutosPorTecnica[tecnica.ordinal()] += signo * duracion;
+    }
+
+    /**
+     * Reserva espacio para las sesiones que se van a cargar.
+     *
+     * @param cantidad Número de sesiones esperado.
+     */
+    public void reservarSesiones(int cantidad) {
+        sesiones.asegurarCapacidad(cantidad);
     }
 
     /**
-     * Calcula el total de minutos invertidos en esta actividad sumando
-     * la duración de todas las sesiones completadas exitosamente.
+     * Total de minutos invertidos en esta actividad: la duración de todas las sesiones
+     * completadas exitosamente. Es un total mantenido, no recorre el historial.
      *
      * @return Total de minutos trabajados (entero).
      */
     public int getMinutosInvertidos() {
-        int total = 0;
-        for (SesionEnfoque s : historialSesiones) {
-            if (s.isCompletada()) {
-                total += s.getDuracionMinutos();
-            }
-        }
-        return total;
+        return minutosCompletados;
+    }
+
+    /**
+     * @param tecnica Técnica de enfoque.
+     * @return Minutos de sesiones completadas con esa técnica.
+     */
+    public int getMinutosInvertidos(TecnicaEnfoque tecnica) {
+        return minutosPorTecnica[tecnica.ordinal()];
+    }
+
+    /** @return Número de sesiones registradas (completadas o no). */
+    public int getCantidadSesiones() {
+        return sesiones.tamano();
     }
 
     // --- Getters ---
@@ -119,14 +228,24 @@ public abstract class Actividad implements Serializable {
     /** @return Los minutos estimados originalmente. */
     public int getTiempoEstimadoMinutos() { return tiempoEstimadoMinutos; }
 
-    /** @return La lista de sesiones de enfoque registradas. */
-    public ArrayList<SesionEnfoque> getHistorialSesiones() { return historialSesiones; }
+    /** @return El historial de sesiones de enfoque (solo lectura, por columnas). */
+    public RegistroSesiones getSesiones() { return sesiones; }
 
     /** @return El estado actual calculado de la actividad. */
     public EstadoActividad getEstado() { return estado; }
 
     // --- Setters (Nuevos para la edición) ---
 
+    /**
+     * Restaura el ID original al reconstruir la actividad desde el almacenamiento.
+     * No debe usarse para actividades nuevas (su ID lo asigna el constructor).
+     *
+     * @param id ID guardado.
+     */
+    public void setId(int id) {
+        this.id = id;
+    }
+
     public void setNombre(String nombre) {
         this.nombre = nombre;
     }
@@ -180,4 +299,31 @@ public abstract class Actividad implements Serializable {
      * @return Cadena con el tipo (ej. "Académica" o "Personal").
      */
     public abstract String getTipoEtiqueta();
+
+    // --- Serialización de Java (formato .ser antiguo) ---
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        historialSesiones = new ArrayList<>(sesiones.tamano());
+        for (int i = 0; i < sesiones.tamano(); i++) {
+            historialSesiones.add(sesiones.getSesion(i));
+        }
+        try {
+            out.defaultWriteObject();
+        } finally {
+            historialSesiones = null;
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        sesiones = new RegistroSesiones();
+        minutosPorTecnica = new int[TECNICAS.length];
+        if (historialSesiones != null) {
+            sesiones.asegurarCapacidad(historialSesiones.size());
+            for (SesionEnfoque s : historialSesiones) {
+                agregarSesion(s);
+            }
+            historialSesiones = null;
+        }
+    }
 }
\ No newline at end of file
@@ -12,6 +12,9 @@ import java.time.LocalDateTime;
  */
 public class ActividadAcademica extends Actividad {
 
+    /** Versión de serialización fijada (ver {@link Actividad}). */
+    private static final long serialVersionUID = -3815395052554129405L;
+
     /** Nombre de la materia o asignatura (ej. "Cálculo", "Programación"). */
     private String asignatura;
 
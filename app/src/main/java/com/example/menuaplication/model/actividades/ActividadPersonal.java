@@ -12,6 +12,9 @@ import java.time.LocalDateTime;
  */
 public class ActividadPersonal extends Actividad {
 
+    /** Versión de serialización fijada (ver {@link Actividad}). */
+    private static final long serialVersionUID = -5625395254912743269L;
+
     /** Ubicación o lugar donde se realiza la actividad (ej. "Gimnasio", "Casa"). */
     private String lugar;
 
@@ -0,0 +1,31 @@
+package com.example.menuaplication.model.actividades;
+
+/**
+ * Enumerado que define los filtros por tipo disponibles en la lista de actividades.
+ * El orden coincide con las opciones del spinner de filtro.
+ *
+ * @author José Paladines
+ * @version 1.0
+ */
+public enum FiltroActividades {
+    /** Académicas y personales. */
+    TODOS,
+
+    /** Solo instancias de {@link ActividadAcademica}. */
+    ACADEMICA,
+
+    /** Solo instancias de {@link ActividadPersonal}. */
+    PERSONAL;
+
+    /**
+     * @param actividad Actividad a evaluar.
+     * @return {@code true} si la actividad es del tipo que deja pasar el filtro.
+     */
+    public boolean acepta(Actividad actividad) {
+        switch (this) {
+            case ACADEMICA: return actividad instanceof ActividadAcademica;
+            case PERSONAL:  return actividad instanceof ActividadPersonal;
+            default:        return true;
+        }
+    }
+}
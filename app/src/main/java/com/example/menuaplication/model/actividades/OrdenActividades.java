@@ -0,0 +1,64 @@
+package com.example.menuaplication.model.actividades;
+
+import java.text.Collator;
+import java.util.Comparator;
+import java.util.Locale;
+
+/**
+ * Enumerado que define los ordenamientos disponibles en la lista de actividades.
+ * El orden coincide con las opciones del spinner de ordenamiento.
+ *
+ * <p>Los nombres se comparan según las reglas del español (sin distinguir mayúsculas) y
+ * los empates se resuelven por ID, para que el orden sea siempre el mismo.</p>
+ *
+ * @author José Paladines
+ * @version 1.1
+ */
+public enum OrdenActividades {
+    /** Nombre de la A a la Z. */
+    NOMBRE_ASC,
+
+    /** Fecha de vencimiento: lo más cercano primero. */
+    FECHA_ASC,
+
+    /** Fecha de vencimiento: lo más lejano primero. */
+    FECHA_DESC,
+
+    /** Avance de menor a mayor (0% a 100%). */
+    AVANCE_ASC,
+
+    /** Avance de mayor a menor (100% a 0%). */
+    AVANCE_DESC;
+
+    /**
+     * @return Comparador que ordena las actividades según este criterio.
+     */
+    public Comparator<Actividad> comparador() {
+        Comparator<Actividad> porFecha = Comparator.comparing(Actividad::getFechaVencimiento)
+                .thenComparingInt(Actividad::getId);
+        Comparator<Actividad> porAvance = Comparator.comparingDouble(Actividad::getPorcentajeAvance)
+                .thenComparingInt(Actividad::getId);
+        switch (this) {
+            case FECHA_ASC:   return porFecha;
+            case FECHA_DESC:  return porFecha.reversed();
+            case AVANCE_ASC:  return porAvance;
+            case AVANCE_DESC: return porAvance.reversed();
+            default:
+                Collator collator = nuevoCollator();
+                return Comparator.comparing(Actividad::getNombre, collator::compare)
+                        .thenComparingInt(Actividad::getId);
+        }
+    }
+
+    /**
+     * Crea el {@link Collator} con el que se ordenan los nombres: español, sin distinguir
+     * mayúsculas de minúsculas (sí las tildes). No es seguro compartirlo entre hilos.
+     *
+     * @return Un collator nuevo.
+     */
+    public static Collator nuevoCollator() {
+        Collator collator = Collator.getInstance(new Locale("es"));
+        collator.setStrength(Collator.SECONDARY);
+        return collator;
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.menuaplication.model.actividades;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Historial de sesiones de enfoque de una actividad, guardado por columnas.
+ *
+ * <p>En lugar de un {@link SesionEnfoque} por sesión (con su {@link LocalDateTime}, que a su
+ * vez son dos objetos más), cada dato va en su propio arreglo primitivo:</p>
+ * <ul>
+ * <li>Fecha y hora: segundos desde la época (UTC del {@link LocalDateTime}, sin zona).</li>
+ * <li>Duración en minutos.</li>
+ * <li>Técnica: un byte con el ordinal + 1 (0 = sin técnica).</li>
+ * <li>Completada: un bit por sesión.</li>
+ * </ul>
+ *
+ * <p>Se recorre por posición ({@code 0} a {@link #tamano()} - 1) con los getters de cada
+ * columna, sin crear objetos por sesión. {@link #getSesion(int)} sigue disponible cuando
+ * realmente hace falta un objeto.</p>
+ *
+ * <p>Solo {@link Actividad} agrega o modifica sesiones (para mantener sus totales); el resto
+ * de la aplicación lo ve como solo lectura.</p>
+ *
+ * @author José Paladines
+ * @version 1.2
+ */
+public class RegistroSesiones {
+
+    /** Valor de {@link #getSegundos(int)} para una sesión sin fecha. */
+    public static final long SIN_FECHA = Long.MIN_VALUE;
+
+    private static final TecnicaEnfoque[] TECNICAS = TecnicaEnfoque.values();
+
+    private static final int CAPACIDAD_INICIAL = 4;
+
+    private long[] segundos = new long[CAPACIDAD_INICIAL];
+    private int[] duraciones = new int[CAPACIDAD_INICIAL];
+    private byte[] tecnicas = new byte[CAPACIDAD_INICIAL];
+
+    /** Bit {@code i} a 1 si la sesión {@code i} se completó. */
+    private long[] completadas = new long[1];
+
+    private int tamano;
+
+    /**
+     * Posición más baja modificada con {@link #modificar} desde la última vez que se
+     * consultó con {@link #tomarMenorModificada()}, o {@link Integer#MAX_VALUE}.
+     */
+    private int menorModificada = Integer.MAX_VALUE;
+
+    // --- CONSULTAS ---
+
+    /** @return Número de sesiones registradas. */
+    public int tamano() {
+        return tamano;
+    }
+
+    /** @return {@code true} si no hay sesiones. */
+    public boolean estaVacio() {
+        return tamano == 0;
+    }
+
+    /**
+     * @param i Posición de la sesión (en orden de registro).
+     * @return Segundos desde la época (UTC) en que finalizó, o {@link #SIN_FECHA}.
+     */
+    public long getSegundos(int i) {
+        verificar(i);
+        return segundos[i];
+    }
+
+    /**
+     * @param i Posición de la sesión.
+     * @return Fecha y hora en que finalizó, o {@code null} si no tiene.
+     */
+    public LocalDateTime getFechaHora(int i) {
+        long s = getSegundos(i);
+        return s == SIN_FECHA ? null : LocalDateTime.ofEpochSecond(s, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * @param i Posición de la sesión.
+     * @return Duración en minutos.
+     */
+    public int getDuracionMinutos(int i) {
+        verificar(i);
+        return duraciones[i];
+    }
+
+    /**
+     * @param i Posición de la sesión.
+     * @return Técnica usada, o {@code null} si no se registró.
+     */
+    public TecnicaEnfoque getTecnica(int i) {
+        verificar(i);
+        int codigo = tecnicas[i];
+        return codigo == 0 ? null : TECNICAS[codigo - 1];
+    }
+
+    /**
+     * @param i Posición de la sesión.
+     * @return {@code true} si el temporizador llegó a cero.
+     */
+    public boolean isCompletada(int i) {
+        verificar(i);
+        return (completadas[i >>> 6] & (1L << i)) != 0;
+    }
+
+    /**
+     * Crea un objeto con los datos de una sesión. Para recorrer el historial es preferible
+     * usar los getters por columna, que no crean objetos.
+     *
+     * @param i Posición de la sesión.
+     * @return Nueva {@link SesionEnfoque} con esos datos.
+     */
+    public SesionEnfoque getSesion(int i) {
+        return new SesionEnfoque(getFechaHora(i), getDuracionMinutos(i), getTecnica(i), isCompletada(i));
+    }
+
+    /**
+     * @return Copia independiente del historial (por ejemplo, para guardarlo en otro hilo).
+     */
+    public RegistroSesiones copia() {
+        return copiaDesde(0);
+    }
+
+    /**
+     * Copia solo las sesiones a partir de una posición; en la copia, la sesión {@code desde}
+     * queda en la posición 0. Sirve para pasar a otro hilo lo que cambió sin copiar todo.
+     *
+     * @param desde Primera sesión a copiar (de 0 a {@link #tamano()}).
+     * @return Copia independiente con {@code tamano() - desde} sesiones.
+     */
+    public RegistroSesiones copiaDesde(int desde) {
+        if (desde < 0 || desde > tamano) throw new IndexOutOfBoundsException("Sesión " + desde + " de " + tamano);
+        RegistroSesiones c = new RegistroSesiones();
+        int cantidad = tamano - desde;
+        int capacidad = Math.max(cantidad, CAPACIDAD_INICIAL);
+        c.segundos = Arrays.copyOfRange(segundos, desde, desde + capacidad);
+        c.duraciones = Arrays.copyOfRange(duraciones, desde, desde + capacidad);
+        c.tecnicas = Arrays.copyOfRange(tecnicas, desde, desde + capacidad);
+        c.completadas = new long[palabrasPara(capacidad)];
+        for (int i = 0; i < cantidad; i++) {
+            if (isCompletada(desde + i)) c.completadas[i >>> 6] |= 1L << i;
+        }
+        c.tamano = cantidad;
+        return c;
+    }
+
+    // --- MODIFICACIONES (solo desde Actividad) ---
+
+    /**
+     * Agrega una sesión al final.
+     *
+     * @param segundosEpoch Segundos desde la época (UTC), o {@link #SIN_FECHA}.
+     * @param duracion      Duración en minutos.
+     * @param tecnica       Técnica usada (puede ser {@code null}).
+     * @param completada    Si se completó.
+     */
+    void agregar(long segundosEpoch, int duracion, TecnicaEnfoque tecnica, boolean completada) {
+        if (tamano == segundos.length) {
+            asegurarCapacidad(tamano * 2);
+        }
+        segundos[tamano] = segundosEpoch;
+        duraciones[tamano] = duracion;
+        tecnicas[tamano] = (byte) (tecnica == null ? 0 : tecnica.ordinal() + 1);
+        if (completada) completadas[tamano >>> 6] |= 1L << tamano;
+        tamano++;
+    }
+
+    /**
+     * Cambia los datos de una sesión existente (la fecha se conserva).
+     *
+     * @param i          Posición de la sesión.
+     * @param duracion   Duración en minutos.
+     * @param tecnica    Técnica usada (puede ser {@code null}).
+     * @param completada Si se completó.
+     */
+    void modificar(int i, int duracion, TecnicaEnfoque tecnica, boolean completada) {
+        verificar(i);
+        duraciones[i] = duracion;
+        tecnicas[i] = (byte) (tecnica == null ? 0 : tecnica.ordinal() + 1);
+        if (completada) {
+            completadas[i >>> 6] |= 1L << i;
+        } else {
+            completadas[i >>> 6] &= ~(1L << i);
+        }
+        menorModificada = Math.min(menorModificada, i);
+    }
+
+    /**
+     * Devuelve la posición más baja modificada desde la llamada anterior y la olvida.
+     * Lo usa el almacenamiento para reescribir solo a partir de esa sesión.
+     *
+     * @return Posición, o {@link Integer#MAX_VALUE} si no se modificó ninguna.
+     */
+    public int tomarMenorModificada() {
+        int menor = menorModificada;
+        menorModificada = Integer.MAX_VALUE;
+        return menor;
+    }
+
+    /**
+     * Reserva espacio para al menos {@code capacidad} sesiones (útil al cargar).
+     *
+     * @param capacidad Número de sesiones esperado.
+     */
+    void asegurarCapacidad(int capacidad) {
+        if (capacidad <= segundos.length) return;
+        segundos = Arrays.copyOf(segundos, capacidad);
+        duraciones = Arrays.copyOf(duraciones, capacidad);
+        tecnicas = Arrays.copyOf(tecnicas, capacidad);
+        completadas = Arrays.copyOf(completadas, palabrasPara(capacidad));
+    }
+
+    /** Convierte una fecha a la representación de {@link #getSegundos(int)}. */
+    static long aSegundos(LocalDateTime fechaHora) {
+        return fechaHora == null ? SIN_FECHA : fechaHora.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static int palabrasPara(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    private void verificar(int i) {
+        if (i < 0 || i >= tamano) throw new IndexOutOfBoundsException("Sesión " + i + " de " + tamano);
+    }
+}
@@ -8,11 +8,17 @@ import java.time.LocalDateTime;
  * Se genera cuando el usuario utiliza el temporizador (Pomodoro o Deep Work).
  * Implementa {@link Serializable} para guardarse junto con la actividad.
  *
+ * <p>Dentro de la actividad las sesiones se guardan por columnas ({@link RegistroSesiones});
+ * este objeto se usa para registrar una sesión nueva y en el formato .ser antiguo.</p>
+ *
  * @author José Paladines
  * @version 1.0
  */
 public class SesionEnfoque implements Serializable {
 
+    /** Versión de serialización fijada (ver {@link Actividad}). */
+    private static final long serialVersionUID = 1933697438611124471L;
+
     /** Fecha y hora en la que finalizó la sesión. */
     private LocalDateTime fechaHora;
 
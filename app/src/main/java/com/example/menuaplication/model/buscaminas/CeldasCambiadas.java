@@ -0,0 +1,55 @@
+package com.example.menuaplication.model.buscaminas;
+
+import java.util.Arrays;
+
+/**
+ * Lista de índices de celdas que cambiaron en una jugada del {@link TableroBuscaminas}.
+ * <p>
+ * El tablero reutiliza siempre la misma instancia para no crear objetos en cada jugada,
+ * así que su contenido solo es válido hasta la siguiente llamada al tablero. La interfaz
+ * la recorre para redibujar únicamente esas celdas.
+ * </p>
+ *
+ * @author José Paladines
+ * @version 1.0
+ */
+public final class CeldasCambiadas {
+
+    private int[] celdas = new int[16];
+    private int tamano;
+
+    CeldasCambiadas() {
+    }
+
+    /**
+     * @return Número de celdas que cambiaron.
+     */
+    public int tamano() {
+        return tamano;
+    }
+
+    /**
+     * @return {@code true} si la jugada no cambió ninguna celda.
+     */
+    public boolean estaVacia() {
+        return tamano == 0;
+    }
+
+    /**
+     * @param i Posición en la lista (de {@code 0} a {@link #tamano()} - 1).
+     * @return Índice de la celda ({@code fila * columnas + columna}).
+     */
+    public int get(int i) {
+        if (i < 0 || i >= tamano) throw new IndexOutOfBoundsException("Cambio " + i + " de " + tamano);
+        return celdas[i];
+    }
+
+    void agregar(int celda) {
+        if (tamano == celdas.length) celdas = Arrays.copyOf(celdas, tamano * 2);
+        celdas[tamano++] = celda;
+    }
+
+    void limpiar() {
+        tamano = 0;
+    }
+}
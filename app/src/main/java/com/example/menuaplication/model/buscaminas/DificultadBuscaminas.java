@@ -0,0 +1,53 @@
+package com.example.menuaplication.model.buscaminas;
+
+/**
+ * Enumerado con las dificultades predefinidas del Buscaminas.
+ * <p>
+ * Los tamaños clásicos se dan en vertical (más filas que columnas) para que aprovechen
+ * la pantalla del teléfono. Los tableros personalizados no usan este enumerado: basta con
+ * respetar {@link #MIN_LADO}, {@link TableroBuscaminas#MAX_LADO} y {@link #maxMinas}.
+ * </p>
+ *
+ * @author José Paladines
+ * @version 1.0
+ */
+public enum DificultadBuscaminas {
+    /** 9x9 con 10 minas. */
+    PRINCIPIANTE("Principiante", 9, 9, 10),
+
+    /** 16x16 con 40 minas. */
+    INTERMEDIO("Intermedio", 16, 16, 40),
+
+    /** 30x16 con 99 minas. */
+    EXPERTO("Experto", 30, 16, 99),
+
+    /** 200x200 con 6000 minas (la densidad de intermedio); se juega con zoom. */
+    EXPERTO_PLUS("Experto+", 200, 200, 6000);
+
+    /** Lado mínimo (filas o columnas) de un tablero personalizado. */
+    public static final int MIN_LADO = 5;
+
+    public final String nombre;
+    public final int filas;
+    public final int columnas;
+    public final int minas;
+
+    DificultadBuscaminas(String nombre, int filas, int columnas, int minas) {
+        this.nombre = nombre;
+        this.filas = filas;
+        this.columnas = columnas;
+        this.minas = minas;
+    }
+
+    /**
+     * Máximo de minas de un tablero, dejando libres la celda del primer toque y sus
+     * ocho vecinas para que siempre abra un área.
+     *
+     * @param filas    Número de filas.
+     * @param columnas Número de columnas.
+     * @return Minas admitidas como máximo.
+     */
+    public static int maxMinas(int filas, int columnas) {
+        return filas * columnas - 9;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.menuaplication.model.buscaminas;
+
+import java.util.Random;
+
+/**
+ * Genera tableros de Buscaminas en los que el primer toque es seguro y que se pueden
+ * resolver sin adivinar.
+ * <p>
+ * Cada intento coloca las minas al azar dejando libre la celda del primer toque y sus
+ * vecinas (así se abre un área), y luego juega la partida con {@link SolucionadorBuscaminas}
+ * revelando solo celdas deducidas. Si el solucionador llega al final, el tablero sirve.
+ * Se reutilizan el mismo tablero y solucionador en todos los intentos.
+ * </p>
+ * <p>
+ * Puede tardar (sobre todo con mucha densidad de minas o en tableros grandes), así que
+ * debe llamarse desde un hilo en segundo plano; se detiene si el hilo se interrumpe y
+ * admite un tiempo máximo.
+ * </p>
+ *
+ * @author José Paladines
+ * @version 1.1
+ */
+public final class GeneradorBuscaminas {
+
+    /** Intentos antes de conformarse con un tablero que solo garantiza el primer toque. */
+    public static final int MAX_INTENTOS = 5000;
+
+    private GeneradorBuscaminas() {
+    }
+
+    /**
+     * Genera un tablero sin adivinar para el primer toque indicado.
+     * <p>
+     * Con la misma semilla en {@code rnd} se obtiene siempre el mismo tablero. Si en
+     * {@link #MAX_INTENTOS} intentos no aparece ninguno resoluble (densidades muy altas),
+     * devuelve el último, que igualmente tiene el primer toque seguro.
+     * </p>
+     *
+     * @param filas        Número de filas.
+     * @param columnas     Número de columnas.
+     * @param minas        Número de minas.
+     * @param celdaInicial Celda del primer toque.
+     * @param rnd          Generador aleatorio.
+     * @return Tablero con las minas colocadas y todo cubierto, o {@code null} si el hilo
+     * se interrumpió.
+     */
+    public static TableroBuscaminas generar(int filas, int columnas, int minas, int celdaInicial, Random rnd) {
+        return generar(filas, columnas, minas, celdaInicial, rnd, Long.MAX_VALUE);
+    }
+
+    /**
+     * Como {@link #generar(int, int, int, int, Random)}, pero deja de buscar al pasar
+     * {@code limiteMillis} y devuelve el último intento (primer toque seguro, aunque quizá
+     * haya que adivinar). Siempre se completa al menos un intento.
+     *
+     * @param limiteMillis Tiempo máximo de búsqueda en milisegundos.
+     */
+    public static TableroBuscaminas generar(int filas, int columnas, int minas, int celdaInicial, Random rnd,
+                                            long limiteMillis) {
+        long inicio = System.nanoTime();
+        long limiteNanos = limiteMillis >= Long.MAX_VALUE / 1_000_000 ? Long.MAX_VALUE : limiteMillis * 1_000_000;
+        TableroBuscaminas prueba = new TableroBuscaminas(filas, columnas, minas);
+        SolucionadorBuscaminas solucionador = new SolucionadorBuscaminas(prueba);
+
+        for (int intento = 0; intento < MAX_INTENTOS; intento++) {
+            if (Thread.currentThread().isInterrupted()) return null;
+            prueba.reiniciar();
+            prueba.colocarMinas(rnd, celdaInicial);
+            if (solucionador.resolverSinAdivinar(celdaInicial)) break;
+            if (System.nanoTime() - inicio >= limiteNanos) break;
+        }
+
+        // El tablero de prueba quedó jugado: se devuelve uno nuevo con las mismas minas
+        int[] posiciones = new int[minas];
+        int k = 0;
+        for (int i = 0; i < prueba.getTotalCeldas(); i++) {
+            if (prueba.esMina(i)) posiciones[k++] = i;
+        }
+        TableroBuscaminas tablero = new TableroBuscaminas(filas, columnas, minas);
+        tablero.colocarMinasEn(posiciones);
+        return tablero;
+    }
+}
@@ -0,0 +1,714 @@
+package com.example.menuaplication.model.buscaminas;
+
+import java.util.Arrays;
+
+/**
+ * Solucionador del Buscaminas por propagación de restricciones.
+ * <p>
+ * Solo usa lo que el jugador puede ver de un {@link TableroBuscaminas}: las celdas
+ * reveladas y sus números (las marcas del jugador se ignoran, pueden estar mal). Cada número
+ * es una restricción "entre estas celdas desconocidas hay exactamente r minas", y se
+ * razona en este orden, pasando al siguiente paso solo cuando el anterior no deduce nada:
+ * </p>
+ * <ol>
+ * <li><b>Reglas de una celda:</b> si r = 0 todas sus vecinas desconocidas son seguras; si r es
+ * igual a la cantidad de desconocidas, todas son minas. Se revisan solo los números cuyas
+ * vecinas cambiaron.</li>
+ * <li><b>Total de minas:</b> si ya se conocen todas, el resto es seguro (y al revés).</li>
+ * <li><b>Pares y subconjuntos:</b> para dos números cercanos A y B, si A necesita tantas minas
+ * más que B como celdas tiene que B no comparte, esas celdas son minas y las de B que A
+ * no comparte son seguras (incluye el caso en que una restricción contiene a la otra).</li>
+ * <li><b>Enumeración de la frontera:</b> las desconocidas junto a algún número se separan en
+ * grupos independientes y se recorren todas las combinaciones válidas de cada grupo
+ * (hasta {@link #MAX_FRONTERA} celdas). Combinando los grupos con el total de minas se
+ * obtiene la probabilidad exacta de mina de cada celda; las de probabilidad 0 o 1 son
+ * deducciones seguras.</li>
+ * </ol>
+ * <p>
+ * Sirve para dar pistas ({@link #pista()}) y para comprobar si un tablero se puede resolver
+ * sin adivinar ({@link #resolverSinAdivinar(int)}), que usa {@link GeneradorBuscaminas}.
+ * No es segura para hilos: cada hilo debe usar su propio solucionador y tablero.
+ * </p>
+ *
+ * @author José Paladines
+ * @version 1.0
+ */
+public class SolucionadorBuscaminas {
+
+    /** Celdas máximas de un grupo de la frontera para enumerarlo. */
+    public static final int MAX_FRONTERA = 48;
+
+    /** Pasos máximos al enumerar un grupo; si se superan, ese grupo no se enumera. */
+    private static final int MAX_NODOS = 250_000;
+
+    /**
+     * Resultado de {@link #pista()}.
+     */
+    public static final class Pista {
+
+        public enum Tipo {
+            /** La celda es segura con certeza: se puede descubrir. */
+            SEGURA,
+            /** La celda es una mina con certeza y el jugador aún no la marcó. */
+            MINA,
+            /** No hay nada seguro: es la celda con menor probabilidad de mina. */
+            MENOR_RIESGO
+        }
+
+        public final Tipo tipo;
+        public final int celda;
+
+        /** Probabilidad de que la celda sea una mina (0 para SEGURA, 1 para MINA). */
+        public final double probabilidadMina;
+
+        Pista(Tipo tipo, int celda, double probabilidadMina) {
+            this.tipo = tipo;
+            this.celda = celda;
+            this.probabilidadMina = probabilidadMina;
+        }
+    }
+
+    // Lo que el solucionador sabe de cada celda
+    private static final byte DESCONOCIDA = 0;
+    private static final byte REVELADA = 1;
+    private static final byte MINA = 2;
+    private static final byte SEGURA = 3;
+
+    private final TableroBuscaminas tablero;
+    private final int filas, columnas, total;
+
+    private final byte[] estado;
+    private int desconocidas;
+    private int minasConocidas;
+
+    /** Números revelados pendientes de revisar con las reglas de una celda. */
+    private final int[] pendientes;
+    private final boolean[] enPendientes;
+    private int totalPendientes;
+
+    /** Celdas deducidas como seguras y aún no reveladas. */
+    private final int[] seguras;
+    private int totalSeguras;
+
+    // Búferes de vecinos (una restricción tiene como mucho 8 celdas)
+    private final int[] vecinosA = new int[8];
+    private final int[] vecinosB = new int[8];
+    private final int[] vecinosC = new int[8];
+
+    // Estructuras de la enumeración (se crean la primera vez que hacen falta)
+    private int[] local;
+    private double[] probabilidades;
+    private double[] logFactorial;
+
+    /**
+     * @param tablero Tablero a analizar. El solucionador lee su estado en cada consulta.
+     */
+    public SolucionadorBuscaminas(TableroBuscaminas tablero) {
+        this.tablero = tablero;
+        this.filas = tablero.getFilas();
+        this.columnas = tablero.getColumnas();
+        this.total = filas * columnas;
+        this.estado = new byte[total];
+        this.pendientes = new int[total];
+        this.enPendientes = new boolean[total];
+        this.seguras = new int[total];
+    }
+
+    // -----------------------------------------------------------------------------------
+    // API
+    // -----------------------------------------------------------------------------------
+
+    /**
+     * Busca una pista para el estado actual de la partida: una celda segura si la hay; si
+     * no, una mina que el jugador aún no marcó; y si tampoco, la celda con menor riesgo.
+     *
+     * @return La pista, o {@code null} si la partida terminó o no quedan celdas por descubrir.
+     */
+    public Pista pista() {
+        if (!tablero.hayMinas() || tablero.haExplotado()) {
+            return null;
+        }
+        sincronizar();
+        if (desconocidas == 0) return null;
+
+        if (desconocidas == total) {
+            // Nada revelado: cualquier celda vale, se sugiere la del centro
+            int centro = tablero.indice(filas / 2, columnas / 2);
+            return new Pista(Pista.Tipo.MENOR_RIESGO, centro, (double) tablero.getMinas() / total);
+        }
+
+        deducir(false);
+        if (totalSeguras > 0) {
+            return new Pista(Pista.Tipo.SEGURA, seguras[0], 0);
+        }
+        for (int i = 0; i < total; i++) {
+            if (estado[i] == MINA && !tablero.estaMarcada(i) && !tablero.estaRevelada(i)) {
+                return new Pista(Pista.Tipo.MINA, i, 1);
+            }
+        }
+
+        double[] p = calcularProbabilidades();
+        int mejor = -1;
+        for (int i = 0; i < total; i++) {
+            if (estado[i] == DESCONOCIDA && (mejor < 0 || p[i] < p[mejor])) mejor = i;
+        }
+        return mejor < 0 ? null : new Pista(Pista.Tipo.MENOR_RIESGO, mejor, p[mejor]);
+    }
+
+    /**
+     * Juega la partida desde {@code celdaInicial} revelando solo celdas deducidas como
+     * seguras. Modifica el tablero (lo deja tal como quedó al atascarse o ganar).
+     *
+     * @param celdaInicial Primera celda que descubre el jugador.
+     * @return {@code true} si se puede ganar sin adivinar nunca.
+     */
+    public boolean resolverSinAdivinar(int celdaInicial) {
+        sincronizar();
+        if (tablero.esMina(celdaInicial)) return false;
+        procesarReveladas(tablero.revelar(celdaInicial));
+        deducir(true);
+        return tablero.estaGanado();
+    }
+
+    /**
+     * Calcula la probabilidad de mina de cada celda según el estado actual de la partida.
+     *
+     * @return Arreglo indexado por celda (0 para las reveladas). Se reutiliza entre llamadas.
+     */
+    public double[] probabilidades() {
+        sincronizar();
+        return calcularProbabilidades();
+    }
+
+    // -----------------------------------------------------------------------------------
+    // Estado
+    // -----------------------------------------------------------------------------------
+
+    /** Copia del tablero lo que ve el jugador y descarta las deducciones anteriores. */
+    private void sincronizar() {
+        desconocidas = 0;
+        minasConocidas = 0;
+        totalPendientes = 0;
+        totalSeguras = 0;
+        Arrays.fill(enPendientes, false);
+        for (int i = 0; i < total; i++) {
+            if (!tablero.estaRevelada(i)) {
+                estado[i] = DESCONOCIDA;
+                desconocidas++;
+            } else if (tablero.esMina(i)) {
+                estado[i] = MINA;
+                minasConocidas++;
+            } else {
+                estado[i] = REVELADA;
+                encolar(i);
+            }
+        }
+    }
+
+    private void encolar(int celda) {
+        if (estado[celda] != REVELADA || enPendientes[celda]) return;
+        enPendientes[celda] = true;
+        pendientes[totalPendientes++] = celda;
+    }
+
+    private void encolarVecinos(int celda) {
+        int k = vecinos(celda, vecinosC);
+        for (int i = 0; i < k; i++) encolar(vecinosC[i]);
+    }
+
+    private void marcar(int celda, byte nuevo) {
+        if (estado[celda] != DESCONOCIDA) return;
+        estado[celda] = nuevo;
+        desconocidas--;
+        if (nuevo == MINA) {
+            minasConocidas++;
+        } else {
+            seguras[totalSeguras++] = celda;
+        }
+        encolarVecinos(celda);
+    }
+
+    /** Registra las celdas que acaba de revelar el tablero. */
+    private void procesarReveladas(CeldasCambiadas cambios) {
+        for (int i = 0; i < cambios.tamano(); i++) {
+            int celda = cambios.get(i);
+            byte antes = estado[celda];
+            if (antes == REVELADA) continue;
+            estado[celda] = REVELADA;
+            if (antes == DESCONOCIDA) {
+                desconocidas--;
+                encolarVecinos(celda);
+            }
+            encolar(celda);
+        }
+    }
+
+    /** Revela en el tablero todas las celdas deducidas como seguras. */
+    private void revelarSeguras() {
+        while (totalSeguras > 0) {
+            int celda = seguras[--totalSeguras];
+            if (!tablero.estaRevelada(celda)) {
+                procesarReveladas(tablero.revelar(celda));
+            }
+        }
+    }
+
+    // -----------------------------------------------------------------------------------
+    // Razonamiento
+    // -----------------------------------------------------------------------------------
+
+    /**
+     * Aplica las reglas en orden hasta que no se deduce nada más.
+     *
+     * @param revelar {@code true} para revelar en el tablero las celdas seguras y seguir;
+     *                {@code false} para detenerse en cuanto hay alguna segura (pistas).
+     */
+    private void deducir(boolean revelar) {
+        while (true) {
+            aplicarReglasSimples();
+            if (totalSeguras > 0) {
+                if (!revelar) return;
+                revelarSeguras();
+                continue;
+            }
+            if (desconocidas == 0) return;
+            if (aplicarTotalDeMinas() || aplicarPares() || enumerarFrontera(null)) continue;
+            return;
+        }
+    }
+
+    /**
+     * Residuo de la restricción de un número: guarda sus vecinas desconocidas en
+     * {@code destino} y devuelve las minas que faltan entre ellas en el bit alto.
+     *
+     * @return {@code (faltan << 4) | desconocidas}.
+     */
+    private int restriccion(int celda, int[] destino) {
+        int k = vecinos(celda, vecinosC);
+        int faltan = tablero.getMinasAlrededor(celda);
+        int u = 0;
+        for (int i = 0; i < k; i++) {
+            int v = vecinosC[i];
+            if (estado[v] == MINA) {
+                faltan--;
+            } else if (estado[v] == DESCONOCIDA) {
+                destino[u++] = v;
+            }
+        }
+        return (faltan << 4) | u;
+    }
+
+    private void aplicarReglasSimples() {
+        while (totalPendientes > 0) {
+            int celda = pendientes[--totalPendientes];
+            enPendientes[celda] = false;
+
+            int r = restriccion(celda, vecinosA);
+            int u = r & 0xF, faltan = r >> 4;
+            if (u == 0) continue;
+            if (faltan == 0) {
+                for (int i = 0; i < u; i++) marcar(vecinosA[i], SEGURA);
+            } else if (faltan == u) {
+                for (int i = 0; i < u; i++) marcar(vecinosA[i], MINA);
+            }
+        }
+    }
+
+    private boolean aplicarTotalDeMinas() {
+        int restantes = tablero.getMinas() - minasConocidas;
+        if (restantes != 0 && restantes != desconocidas) return false;
+        byte nuevo = restantes == 0 ? SEGURA : MINA;
+        for (int i = 0; i < total; i++) {
+            if (estado[i] == DESCONOCIDA) marcar(i, nuevo);
+        }
+        return true;
+    }
+
+    private boolean aplicarPares() {
+        for (int a = 0; a < total; a++) {
+            if (estado[a] != REVELADA) continue;
+            int ra = restriccion(a, vecinosA);
+            int ua = ra & 0xF, faltanA = ra >> 4;
+            if (ua == 0) continue;
+
+            int fa = a / columnas, ca = a % columnas;
+            for (int f = Math.max(0, fa - 2); f <= Math.min(filas - 1, fa + 2); f++) {
+                for (int c = Math.max(0, ca - 2); c <= Math.min(columnas - 1, ca + 2); c++) {
+                    int b = f * columnas + c;
+                    if (b == a || estado[b] != REVELADA) continue;
+                    int rb = restriccion(b, vecinosB);
+                    int ub = rb & 0xF, faltanB = rb >> 4;
+                    if (ub == 0) continue;
+
+                    int compartidas = 0;
+                    for (int i = 0; i < ua; i++) {
+                        if (contiene(vecinosB, ub, vecinosA[i])) compartidas++;
+                    }
+                    if (compartidas == 0) continue;
+                    int soloA = ua - compartidas, soloB = ub - compartidas;
+                    if (soloA + soloB == 0 || faltanA - faltanB != soloA) continue;
+
+                    // Las minas de A que no caben en lo compartido van en lo suyo; B no tiene más
+                    for (int i = 0; i < ua; i++) {
+                        if (!contiene(vecinosB, ub, vecinosA[i])) marcar(vecinosA[i], MINA);
+                    }
+                    for (int i = 0; i < ub; i++) {
+                        if (!contiene(vecinosA, ua, vecinosB[i])) marcar(vecinosB[i], SEGURA);
+                    }
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean contiene(int[] celdas, int n, int celda) {
+        for (int i = 0; i < n; i++) {
+            if (celdas[i] == celda) return true;
+        }
+        return false;
+    }
+
+    // -----------------------------------------------------------------------------------
+    // Enumeración de la frontera
+    // -----------------------------------------------------------------------------------
+
+    /** Un grupo independiente de la frontera y el resultado de enumerarlo. */
+    private static final class Grupo {
+        int[] celdas;
+        int[][] restriccionesDe;   // por celda local: índices de sus restricciones
+        int[] faltan;              // por restricción: minas que faltan
+        int[] libres;              // por restricción: celdas sin asignar
+        boolean[] mina;
+        long nodos;
+        boolean enumerado;
+
+        /** soluciones[m]: combinaciones válidas con m minas. */
+        double[] soluciones;
+        /** minaEn[i][m]: de esas, en cuántas la celda i es mina. */
+        double[][] minaEn;
+    }
+
+    private double[] calcularProbabilidades() {
+        if (probabilidades == null) probabilidades = new double[total];
+        Arrays.fill(probabilidades, 0);
+        for (int i = 0; i < total; i++) {
+            if (estado[i] == MINA) probabilidades[i] = 1;
+        }
+        enumerarFrontera(probabilidades);
+        return probabilidades;
+    }
+
+    /**
+     * Enumera la frontera y combina los grupos con el total de minas.
+     *
+     * @param probabilidadesSalida Si no es {@code null}, se rellena con la probabilidad de
+     *                             mina de cada celda desconocida y no se marca nada.
+     * @return {@code true} si se dedujo alguna celda (solo cuando no se piden probabilidades).
+     */
+    private boolean enumerarFrontera(double[] probabilidadesSalida) {
+        if (local == null) local = new int[total];
+        Arrays.fill(local, -1);
+
+        // 1. Frontera: desconocidas junto a algún número revelado
+        int[] frontera = new int[Math.max(desconocidas, 1)];
+        int enFrontera = 0;
+        for (int i = 0; i < total; i++) {
+            if (estado[i] != DESCONOCIDA) continue;
+            int k = vecinos(i, vecinosA);
+            for (int j = 0; j < k; j++) {
+                if (estado[vecinosA[j]] == REVELADA) {
+                    local[i] = enFrontera;
+                    frontera[enFrontera++] = i;
+                    break;
+                }
+            }
+        }
+
+        // 2. Grupos: dos celdas van juntas si comparten algún número (unión-búsqueda)
+        int[] padre = new int[enFrontera];
+        for (int i = 0; i < enFrontera; i++) padre[i] = i;
+        int[] restricciones = new int[total];
+        int totalRestricciones = 0;
+        for (int c = 0; c < total; c++) {
+            if (estado[c] != REVELADA) continue;
+            int r = restriccion(c, vecinosA);
+            int u = r & 0xF;
+            if (u == 0) continue;
+            restricciones[totalRestricciones++] = c;
+            int raiz = buscar(padre, local[vecinosA[0]]);
+            for (int j = 1; j < u; j++) {
+                int otra = buscar(padre, local[vecinosA[j]]);
+                if (otra != raiz) padre[otra] = raiz;
+            }
+        }
+
+        int[] grupoDe = new int[enFrontera];
+        int[] tamanos = new int[enFrontera];
+        int totalGrupos = 0;
+        int[] indiceGrupo = new int[enFrontera];
+        Arrays.fill(indiceGrupo, -1);
+        for (int i = 0; i < enFrontera; i++) {
+            int raiz = buscar(padre, i);
+            if (indiceGrupo[raiz] < 0) indiceGrupo[raiz] = totalGrupos++;
+            grupoDe[i] = indiceGrupo[raiz];
+            tamanos[grupoDe[i]]++;
+        }
+
+        // 3. Armar cada grupo con sus celdas (en el orden de sus restricciones) y enumerarlo
+        Grupo[] grupos = new Grupo[totalGrupos];
+        int[] llenas = new int[totalGrupos];
+        int[] posEnGrupo = new int[enFrontera];
+        Arrays.fill(posEnGrupo, -1);
+        for (int g = 0; g < totalGrupos; g++) {
+            grupos[g] = new Grupo();
+            grupos[g].celdas = new int[tamanos[g]];
+        }
+        int[][] restriccionesGrupo = new int[totalGrupos][];
+        int[] cuentaRestricciones = new int[totalGrupos];
+        for (int k = 0; k < totalRestricciones; k++) {
+            int r = restriccion(restricciones[k], vecinosA);
+            int g = grupoDe[local[vecinosA[0]]];
+            cuentaRestricciones[g]++;
+            for (int j = 0, u = r & 0xF; j < u; j++) {
+                int l = local[vecinosA[j]];
+                if (posEnGrupo[l] < 0) {
+                    posEnGrupo[l] = llenas[g];
+                    grupos[g].celdas[llenas[g]++] = vecinosA[j];
+                }
+            }
+        }
+        for (int g = 0; g < totalGrupos; g++) {
+            restriccionesGrupo[g] = new int[cuentaRestricciones[g]];
+            cuentaRestricciones[g] = 0;
+        }
+        for (int k = 0; k < totalRestricciones; k++) {
+            restriccion(restricciones[k], vecinosA);
+            int g = grupoDe[local[vecinosA[0]]];
+            restriccionesGrupo[g][cuentaRestricciones[g]++] = restricciones[k];
+        }
+        for (int g = 0; g < totalGrupos; g++) {
+            prepararYEnumerar(grupos[g], restriccionesGrupo[g], local, posEnGrupo);
+        }
+
+        // 4. Combinar los grupos con el total de minas
+        // Las celdas de grupos no enumerados se tratan como interiores: las probabilidades son
+        // aproximadas, pero lo que se deduce sigue siendo correcto (se ignoran restricciones,
+        // nunca se inventan)
+        int interior = desconocidas - enFrontera;
+        for (Grupo g : grupos) {
+            if (!g.enumerado) interior += g.celdas.length;
+        }
+        int restantes = tablero.getMinas() - minasConocidas;
+
+        double[][] previas = new double[totalGrupos + 1][];
+        previas[0] = new double[]{1};
+        for (int g = 0; g < totalGrupos; g++) {
+            previas[g + 1] = grupos[g].enumerado ? convolucion(previas[g], grupos[g].soluciones) : previas[g];
+        }
+        double[][] siguientes = new double[totalGrupos + 1][];
+        siguientes[totalGrupos] = new double[]{1};
+        for (int g = totalGrupos - 1; g >= 0; g--) {
+            siguientes[g] = grupos[g].enumerado ? convolucion(siguientes[g + 1], grupos[g].soluciones) : siguientes[g + 1];
+        }
+        double[] todas = previas[totalGrupos];
+        double[] peso = pesos(todas.length, interior, restantes);
+
+        double z = 0;
+        for (int m = 0; m < todas.length; m++) z += todas[m] * peso[m];
+        if (z == 0) return false; // Estado inconsistente (marcas imposibles); no se deduce nada
+
+        boolean progreso = false;
+        for (int g = 0; g < totalGrupos; g++) {
+            Grupo grupo = grupos[g];
+            if (!grupo.enumerado) continue;
+            double[] otras = convolucion(previas[g], siguientes[g + 1]);
+
+            // factor[a] = peso de que este grupo tenga a minas, sumando sobre los demás
+            double[] factor = new double[grupo.soluciones.length];
+            for (int a = 0; a < factor.length; a++) {
+                for (int b = 0; b < otras.length; b++) factor[a] += otras[b] * peso[a + b];
+            }
+            for (int i = 0; i < grupo.celdas.length; i++) {
+                double numerador = 0;
+                boolean siempreMina = true;
+                for (int a = 0; a < factor.length; a++) {
+                    if (factor[a] == 0 || grupo.soluciones[a] == 0) continue;
+                    numerador += grupo.minaEn[i][a] * factor[a];
+                    if (grupo.minaEn[i][a] != grupo.soluciones[a]) siempreMina = false;
+                }
+                if (probabilidadesSalida != null) {
+                    probabilidadesSalida[grupo.celdas[i]] = numerador / z;
+                } else if (numerador == 0) {
+                    marcar(grupo.celdas[i], SEGURA);
+                    progreso = true;
+                } else if (siempreMina) {
+                    marcar(grupo.celdas[i], MINA);
+                    progreso = true;
+                }
+            }
+        }
+
+        // Celdas interiores (y de grupos no enumerados): todas con la misma probabilidad
+        if (interior > 0) {
+            double numerador = 0;
+            boolean nuncaMina = true, siempreMina = true;
+            for (int m = 0; m < todas.length; m++) {
+                if (todas[m] * peso[m] == 0) continue;
+                numerador += todas[m] * peso[m] * (restantes - m) / interior;
+                if (restantes - m != 0) nuncaMina = false;
+                if (restantes - m != interior) siempreMina = false;
+            }
+            double p = numerador / z;
+            for (int i = 0; i < total; i++) {
+                if (estado[i] != DESCONOCIDA) continue;
+                if (local[i] >= 0 && grupos[grupoDe[local[i]]].enumerado) continue;
+                if (probabilidadesSalida != null) {
+                    probabilidadesSalida[i] = p;
+                } else if (nuncaMina || siempreMina) {
+                    marcar(i, nuncaMina ? SEGURA : MINA);
+                    progreso = true;
+                }
+            }
+        }
+        return progreso;
+    }
+
+    private void prepararYEnumerar(Grupo g, int[] restriccionesGrupo, int[] local, int[] posEnGrupo) {
+        int n = g.celdas.length;
+        if (n > MAX_FRONTERA) return;
+
+        int[] cuenta = new int[n];
+        int[][] celdasDe = new int[restriccionesGrupo.length][];
+        g.faltan = new int[restriccionesGrupo.length];
+        g.libres = new int[restriccionesGrupo.length];
+        for (int k = 0; k < restriccionesGrupo.length; k++) {
+            int r = restriccion(restriccionesGrupo[k], vecinosA);
+            int u = r & 0xF;
+            g.faltan[k] = r >> 4;
+            g.libres[k] = u;
+            celdasDe[k] = new int[u];
+            for (int j = 0; j < u; j++) {
+                int i = posEnGrupo[local[vecinosA[j]]];
+                celdasDe[k][j] = i;
+                cuenta[i]++;
+            }
+        }
+        g.restriccionesDe = new int[n][];
+        for (int i = 0; i < n; i++) g.restriccionesDe[i] = new int[cuenta[i]];
+        Arrays.fill(cuenta, 0);
+        for (int k = 0; k < celdasDe.length; k++) {
+            for (int i : celdasDe[k]) g.restriccionesDe[i][cuenta[i]++] = k;
+        }
+
+        g.mina = new boolean[n];
+        g.soluciones = new double[n + 1];
+        g.minaEn = new double[n][n + 1];
+        g.nodos = 0;
+        g.enumerado = enumerar(g, 0, 0);
+        if (!g.enumerado) {
+            g.soluciones = null;
+            g.minaEn = null;
+        }
+    }
+
+    /**
+     * Backtracking: asigna mina o no a la celda {@code i} y sigue solo si ninguna
+     * restricción queda imposible (faltan más minas que celdas libres, o menos de cero).
+     *
+     * @return {@code false} si se superó {@link #MAX_NODOS}.
+     */
+    private static boolean enumerar(Grupo g, int i, int minas) {
+        if (++g.nodos > MAX_NODOS) return false;
+        if (i == g.celdas.length) {
+            g.soluciones[minas]++;
+            for (int j = 0; j < i; j++) {
+                if (g.mina[j]) g.minaEn[j][minas]++;
+            }
+            return true;
+        }
+        int[] suyas = g.restriccionesDe[i];
+        for (int opcion = 0; opcion <= 1; opcion++) {
+            boolean esMina = opcion == 1;
+            boolean valida = true;
+            for (int k : suyas) {
+                g.libres[k]--;
+                if (esMina) g.faltan[k]--;
+                if (g.faltan[k] < 0 || g.faltan[k] > g.libres[k]) valida = false;
+            }
+            g.mina[i] = esMina;
+            boolean seguir = !valida || enumerar(g, i + 1, esMina ? minas + 1 : minas);
+            for (int k : suyas) {
+                g.libres[k]++;
+                if (esMina) g.faltan[k]++;
+            }
+            if (!seguir) return false;
+        }
+        g.mina[i] = false;
+        return true;
+    }
+
+    private static int buscar(int[] padre, int i) {
+        while (padre[i] != i) {
+            padre[i] = padre[padre[i]];
+            i = padre[i];
+        }
+        return i;
+    }
+
+    private static double[] convolucion(double[] a, double[] b) {
+        double[] r = new double[a.length + b.length - 1];
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == 0) continue;
+            for (int j = 0; j < b.length; j++) r[i + j] += a[i] * b[j];
+        }
+        return r;
+    }
+
+    /**
+     * Peso relativo de que la frontera tenga {@code m} minas: las formas de repartir las
+     * {@code restantes - m} minas en las celdas interiores, C(interior, restantes - m),
+     * escalado para que el mayor valga 1 (en logaritmos, para no desbordar).
+     */
+    private double[] pesos(int longitud, int interior, int restantes) {
+        if (logFactorial == null || logFactorial.length <= total) {
+            logFactorial = new double[total + 1];
+            for (int i = 1; i <= total; i++) logFactorial[i] = logFactorial[i - 1] + Math.log(i);
+        }
+        double[] log = new double[longitud];
+        double maximo = Double.NEGATIVE_INFINITY;
+        for (int m = 0; m < longitud; m++) {
+            int k = restantes - m;
+            if (k < 0 || k > interior) {
+                log[m] = Double.NEGATIVE_INFINITY;
+            } else {
+                log[m] = logFactorial[interior] - logFactorial[k] - logFactorial[interior - k];
+            }
+            maximo = Math.max(maximo, log[m]);
+        }
+        double[] peso = new double[longitud];
+        if (maximo == Double.NEGATIVE_INFINITY) return peso;
+        for (int m = 0; m < longitud; m++) peso[m] = Math.exp(log[m] - maximo);
+        return peso;
+    }
+
+    // -----------------------------------------------------------------------------------
+    // Vecinos
+    // -----------------------------------------------------------------------------------
+
+    /** Guarda en {@code destino} los índices de las vecinas de la celda y devuelve cuántas son. */
+    private int vecinos(int celda, int[] destino) {
+        int f = celda / columnas, c = celda % columnas;
+        int k = 0;
+        for (int df = -1; df <= 1; df++) {
+            int nf = f + df;
+            if (nf < 0 || nf >= filas) continue;
+            for (int dc = -1; dc <= 1; dc++) {
+                int nc = c + dc;
+                if ((df == 0 && dc == 0) || nc < 0 || nc >= columnas) continue;
+                destino[k++] = nf * columnas + nc;
+            }
+        }
+        return k;
+    }
+}
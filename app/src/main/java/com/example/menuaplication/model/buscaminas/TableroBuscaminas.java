@@ -0,0 +1,458 @@
+package com.example.menuaplication.model.buscaminas;
+
+import com.example.menuaplication.model.partidas.EscritorBits;
+import com.example.menuaplication.model.partidas.LectorBits;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Motor del Buscaminas, independiente de la interfaz.
+ * <p>
+ * Todo el tablero es un único arreglo de bytes: cada celda guarda en sus bits si es mina,
+ * si está revelada, si está marcada y, en los cuatro bits altos, cuántas minas tiene
+ * alrededor. El arreglo tiene un borde de una celda alrededor del tablero real, así que
+ * los ocho vecinos de cualquier celda están siempre a los mismos desplazamientos
+ * ({@link #vecinos}), calculados una sola vez y sin comprobar límites.
+ * </p>
+ * <p>
+ * Revelar una celda sin minas alrededor expande el área vacía con una cola (no con
+ * recursión), por lo que funciona igual en tableros grandes (hasta {@link #MAX_LADO} de
+ * lado). Cada jugada devuelve las celdas que cambiaron ({@link CeldasCambiadas}) para que
+ * la interfaz redibuje solo esas.
+ * </p>
+ * <p>
+ * Las jugadas también llevan la cuenta de celdas seguras reveladas y de marcas, así que
+ * saber si se ganó o cuántas minas quedan sin marcar no recorre el tablero.
+ * </p>
+ * <p>
+ * Para guardar una partida, {@link #escribir(EscritorBits)} empaqueta cada celda en 3 bits
+ * (mina, revelada, marcada); los números y los contadores se recalculan al leerla.
+ * </p>
+ * <p>
+ * Fuera de esta clase las celdas se identifican por {@code fila * columnas + columna}.
+ * No es segura para hilos.
+ * </p>
+ *
+ * @author José Paladines
+ * @version 1.2
+ */
+public class TableroBuscaminas {
+
+    /** Lado máximo (filas o columnas) admitido. */
+    public static final int MAX_LADO = 1000;
+
+    // Bits de cada celda
+    private static final int MINA = 1;
+    private static final int REVELADA = 1 << 1;
+    private static final int MARCADA = 1 << 2;
+    private static final int BORDE = 1 << 3;
+    private static final int DESPLAZAMIENTO_CUENTA = 4;
+    private static final int UNA_MINA_CERCA = 1 << DESPLAZAMIENTO_CUENTA;
+
+    /** Una celda con alguno de estos bits no se expande al revelar un área vacía. */
+    private static final int NO_EXPANDIBLE = MINA | REVELADA | MARCADA | BORDE;
+
+    private final int filas;
+    private final int columnas;
+    private final int totalMinas;
+
+    /** Ancho con el borde ({@code columnas + 2}). */
+    private final int ancho;
+
+    /** Estado de cada celda, incluido el borde. */
+    private final byte[] estado;
+
+    /** Desplazamientos en {@link #estado} de los ocho vecinos. */
+    private final int[] vecinos;
+
+    /** Cola del relleno por áreas; se crea una vez y se reutiliza. */
+    private final int[] cola;
+
+    private final CeldasCambiadas cambios = new CeldasCambiadas();
+
+    private boolean minasColocadas = false;
+    private boolean explotado = false;
+
+    /** Celdas sin mina reveladas; la partida se gana al llegar a {@link #celdasSeguras}. */
+    private int reveladasSeguras = 0;
+
+    /** Celdas marcadas en este momento. */
+    private int marcadas = 0;
+
+    /** Celdas sin mina del tablero ({@code filas * columnas - minas}). */
+    private final int celdasSeguras;
+
+    /**
+     * Crea un tablero vacío, sin minas. Hay que llamar a {@link #colocarMinas} antes de jugar.
+     *
+     * @param filas    Número de filas (1 a {@link #MAX_LADO}).
+     * @param columnas Número de columnas (1 a {@link #MAX_LADO}).
+     * @param minas    Número de minas (0 a {@code filas * columnas - 1}).
+     * @throws IllegalArgumentException si algún valor está fuera de rango.
+     */
+    public TableroBuscaminas(int filas, int columnas, int minas) {
+        if (filas < 1 || filas > MAX_LADO || columnas < 1 || columnas > MAX_LADO) {
+            throw new IllegalArgumentException("Tamaño de tablero inválido: " + filas + "x" + columnas);
+        }
+        if (minas < 0 || minas >= filas * columnas) {
+            throw new IllegalArgumentException("Cantidad de minas inválida: " + minas);
+        }
+        this.filas = filas;
+        this.columnas = columnas;
+        this.totalMinas = minas;
+        this.celdasSeguras = filas * columnas - minas;
+        this.ancho = columnas + 2;
+        this.estado = new byte[(filas + 2) * ancho];
+        this.vecinos = new int[]{-ancho - 1, -ancho, -ancho + 1, -1, 1, ancho - 1, ancho, ancho + 1};
+        this.cola = new int[filas * columnas];
+        marcarBorde();
+    }
+
+    private void marcarBorde() {
+        for (int c = 0; c < ancho; c++) {
+            estado[c] = BORDE;
+            estado[(filas + 1) * ancho + c] = BORDE;
+        }
+        for (int f = 1; f <= filas; f++) {
+            estado[f * ancho] = BORDE;
+            estado[f * ancho + columnas + 1] = BORDE;
+        }
+    }
+
+    // -----------------------------------------------------------------------------------
+    // Preparación
+    // -----------------------------------------------------------------------------------
+
+    /**
+     * Coloca las minas al azar y calcula los números de cada celda.
+     * <p>
+     * Si {@code celdaSegura} es válida, esa celda nunca tendrá mina y, si quedan suficientes
+     * celdas libres, tampoco sus vecinas (así el primer toque abre un área).
+     * </p>
+     *
+     * @param rnd         Generador aleatorio (con semilla, la partida es reproducible).
+     * @param celdaSegura Celda que debe quedar libre, o {@code -1} para ninguna.
+     * @throws IllegalStateException si las minas ya estaban colocadas.
+     */
+    public void colocarMinas(Random rnd, int celdaSegura) {
+        if (minasColocadas) throw new IllegalStateException("Las minas ya están colocadas");
+
+        // Candidatas: todas menos la celda segura (y sus vecinas, si caben las minas)
+        int total = filas * columnas;
+        int segura = celdaSegura >= 0 && celdaSegura < total ? interno(celdaSegura) : -1;
+        boolean protegerVecinas = segura >= 0 && total - 9 >= totalMinas;
+
+        int[] candidatas = cola;
+        int n = 0;
+        for (int i = 0; i < total; i++) {
+            int p = interno(i);
+            if (p == segura || (protegerVecinas && esVecina(p, segura))) continue;
+            candidatas[n++] = p;
+        }
+
+        // Fisher-Yates parcial: las primeras totalMinas posiciones quedan mezcladas
+        for (int k = 0; k < totalMinas; k++) {
+            int j = k + rnd.nextInt(n - k);
+            int p = candidatas[j];
+            candidatas[j] = candidatas[k];
+            candidatas[k] = p;
+            ponerMina(p);
+        }
+        minasColocadas = true;
+    }
+
+    /**
+     * Coloca las minas en las celdas indicadas (para partidas generadas o guardadas).
+     *
+     * @param celdas Índices de las celdas con mina; debe haber exactamente {@link #getMinas()}.
+     * @throws IllegalStateException    si las minas ya estaban colocadas.
+     * @throws IllegalArgumentException si la cantidad no coincide o hay celdas repetidas.
+     */
+    public void colocarMinasEn(int[] celdas) {
+        if (minasColocadas) throw new IllegalStateException("Las minas ya están colocadas");
+        if (celdas.length != totalMinas) {
+            throw new IllegalArgumentException("Se esperaban " + totalMinas + " minas y llegaron " + celdas.length);
+        }
+        for (int celda : celdas) {
+            int p = interno(verificar(celda));
+            if ((estado[p] & MINA) != 0) {
+                reiniciar();
+                throw new IllegalArgumentException("Mina repetida en la celda " + celda);
+            }
+            ponerMina(p);
+        }
+        minasColocadas = true;
+    }
+
+    /**
+     * Deja el tablero como recién creado: sin minas, sin marcas y todo cubierto.
+     */
+    public void reiniciar() {
+        Arrays.fill(estado, (byte) 0);
+        marcarBorde();
+        minasColocadas = false;
+        explotado = false;
+        reveladasSeguras = 0;
+        marcadas = 0;
+        cambios.limpiar();
+    }
+
+    private void ponerMina(int p) {
+        estado[p] |= MINA;
+        for (int d : vecinos) {
+            estado[p + d] += UNA_MINA_CERCA;
+        }
+    }
+
+    private boolean esVecina(int p, int centro) {
+        for (int d : vecinos) {
+            if (p == centro + d) return true;
+        }
+        return false;
+    }
+
+    // -----------------------------------------------------------------------------------
+    // Jugadas
+    // -----------------------------------------------------------------------------------
+
+    /**
+     * Revela una celda. Si no tiene minas alrededor, revela también toda el área vacía
+     * conectada y su contorno numerado. Si es una mina, la partida se pierde y se revelan
+     * todas las minas.
+     * <p>
+     * No hace nada si la celda ya está revelada o marcada, o si la partida terminó.
+     * </p>
+     *
+     * @param celda Índice de la celda.
+     * @return Celdas que cambiaron (válido hasta la siguiente jugada).
+     * @throws IllegalStateException si aún no se colocaron las minas.
+     */
+    public CeldasCambiadas revelar(int celda) {
+        if (!minasColocadas) throw new IllegalStateException("Faltan colocar las minas");
+        cambios.limpiar();
+        int p = interno(verificar(celda));
+        if (explotado || (estado[p] & (REVELADA | MARCADA)) != 0) return cambios;
+
+        if ((estado[p] & MINA) != 0) {
+            explotado = true;
+            estado[p] |= REVELADA;
+            cambios.agregar(celda);
+            revelarMinas();
+            return cambios;
+        }
+
+        // Relleno por áreas: cada celda se marca revelada al encolarla, así entra una sola vez
+        estado[p] |= REVELADA;
+        int inicio = 0, fin = 0;
+        cola[fin++] = p;
+        while (inicio < fin) {
+            int q = cola[inicio++];
+            cambios.agregar(externo(q));
+            if ((estado[q] & 0xFF) >>> DESPLAZAMIENTO_CUENTA != 0) continue;
+            for (int d : vecinos) {
+                int r = q + d;
+                if ((estado[r] & NO_EXPANDIBLE) == 0) {
+                    estado[r] |= REVELADA;
+                    cola[fin++] = r;
+                }
+            }
+        }
+        reveladasSeguras += fin;
+        return cambios;
+    }
+
+    /**
+     * Pone o quita la marca de una celda cubierta.
+     *
+     * @param celda Índice de la celda.
+     * @return La celda, si cambió (válido hasta la siguiente jugada).
+     */
+    public CeldasCambiadas alternarMarca(int celda) {
+        cambios.limpiar();
+        int p = interno(verificar(celda));
+        if (explotado || (estado[p] & REVELADA) != 0) return cambios;
+        estado[p] ^= MARCADA;
+        marcadas += (estado[p] & MARCADA) != 0 ? 1 : -1;
+        cambios.agregar(celda);
+        return cambios;
+    }
+
+    private void revelarMinas() {
+        for (int f = 1; f <= filas; f++) {
+            for (int p = f * ancho + 1, finFila = p + columnas; p < finFila; p++) {
+                if ((estado[p] & (MINA | REVELADA)) == MINA) {
+                    estado[p] |= REVELADA;
+                    cambios.agregar(externo(p));
+                }
+            }
+        }
+    }
+
+    // -----------------------------------------------------------------------------------
+    // Consultas
+    // -----------------------------------------------------------------------------------
+
+    public int getFilas() {
+        return filas;
+    }
+
+    public int getColumnas() {
+        return columnas;
+    }
+
+    /** @return Número de celdas del tablero. */
+    public int getTotalCeldas() {
+        return filas * columnas;
+    }
+
+    /** @return Número de minas del tablero. */
+    public int getMinas() {
+        return totalMinas;
+    }
+
+    /**
+     * @param fila    Fila (desde 0).
+     * @param columna Columna (desde 0).
+     * @return Índice de la celda.
+     */
+    public int indice(int fila, int columna) {
+        return fila * columnas + columna;
+    }
+
+    public boolean esMina(int celda) {
+        return (estado[interno(verificar(celda))] & MINA) != 0;
+    }
+
+    public boolean estaRevelada(int celda) {
+        return (estado[interno(verificar(celda))] & REVELADA) != 0;
+    }
+
+    public boolean estaMarcada(int celda) {
+        return (estado[interno(verificar(celda))] & MARCADA) != 0;
+    }
+
+    /**
+     * @param celda Índice de la celda.
+     * @return Número de minas en las ocho celdas vecinas (0 a 8).
+     */
+    public int getMinasAlrededor(int celda) {
+        return (estado[interno(verificar(celda))] & 0xFF) >>> DESPLAZAMIENTO_CUENTA;
+    }
+
+    /** @return {@code true} si ya se colocaron las minas. */
+    public boolean hayMinas() {
+        return minasColocadas;
+    }
+
+    /** @return {@code true} si se reveló una mina. */
+    public boolean haExplotado() {
+        return explotado;
+    }
+
+    /** @return Número de celdas marcadas. */
+    public int getMarcadas() {
+        return marcadas;
+    }
+
+    /**
+     * @return Minas menos marcas (lo que muestra el contador); puede ser negativo si hay
+     * más marcas que minas.
+     */
+    public int getMinasRestantes() {
+        return totalMinas - marcadas;
+    }
+
+    /** @return Número de celdas sin mina ya reveladas. */
+    public int getReveladasSeguras() {
+        return reveladasSeguras;
+    }
+
+    /** @return {@code true} si todas las celdas sin mina están reveladas. */
+    public boolean estaGanado() {
+        return minasColocadas && !explotado && reveladasSeguras == celdasSeguras;
+    }
+
+    // -----------------------------------------------------------------------------------
+    // Guardado
+    // -----------------------------------------------------------------------------------
+
+    /** Bits de cada celda que se guardan; los cuatro altos (la cuenta) se recalculan. */
+    private static final int BITS_GUARDADOS = MINA | REVELADA | MARCADA;
+    private static final int BITS_LADO = EscritorBits.bitsPara(MAX_LADO);
+    private static final int BITS_MINAS = EscritorBits.bitsPara((long) MAX_LADO * MAX_LADO);
+
+    /**
+     * Empaqueta el tablero: tamaño, minas, si ya están colocadas y 3 bits por celda.
+     *
+     * @param salida Destino.
+     */
+    public void escribir(EscritorBits salida) {
+        salida.escribir(filas, BITS_LADO);
+        salida.escribir(columnas, BITS_LADO);
+        salida.escribir(totalMinas, BITS_MINAS);
+        salida.escribirBit(minasColocadas);
+        salida.escribirBit(explotado);
+        for (int f = 1; f <= filas; f++) {
+            for (int p = f * ancho + 1, finFila = p + columnas; p < finFila; p++) {
+                salida.escribir(estado[p] & BITS_GUARDADOS, 3);
+            }
+        }
+    }
+
+    /**
+     * Reconstruye un tablero escrito con {@link #escribir(EscritorBits)}.
+     *
+     * @param entrada Origen, situado donde empieza el tablero.
+     * @return El tablero, con sus números y contadores.
+     * @throws IllegalArgumentException si los datos no forman un tablero válido.
+     */
+    public static TableroBuscaminas leer(LectorBits entrada) {
+        int filas = (int) entrada.leer(BITS_LADO);
+        int columnas = (int) entrada.leer(BITS_LADO);
+        int minas = (int) entrada.leer(BITS_MINAS);
+        TableroBuscaminas t = new TableroBuscaminas(filas, columnas, minas);
+        t.minasColocadas = entrada.leerBit();
+        t.explotado = entrada.leerBit();
+
+        int minasLeidas = 0;
+        for (int f = 1; f <= filas; f++) {
+            for (int p = f * t.ancho + 1, finFila = p + columnas; p < finFila; p++) {
+                int bits = (int) entrada.leer(3);
+                if ((bits & MINA) != 0) {
+                    t.ponerMina(p);
+                    minasLeidas++;
+                } else if ((bits & REVELADA) != 0) {
+                    t.reveladasSeguras++;
+                }
+                if ((bits & MARCADA) != 0) t.marcadas++;
+                t.estado[p] |= (byte) (bits & (REVELADA | MARCADA));
+            }
+        }
+        if (minasLeidas != (t.minasColocadas ? minas : 0)) {
+            throw new IllegalArgumentException("Se leyeron " + minasLeidas + " minas de " + minas);
+        }
+        return t;
+    }
+
+    // -----------------------------------------------------------------------------------
+    // Índices
+    // -----------------------------------------------------------------------------------
+
+    /** Índice externo → posición en {@link #estado}. */
+    private int interno(int celda) {
+        return (celda / columnas + 1) * ancho + celda % columnas + 1;
+    }
+
+    /** Posición en {@link #estado} → índice externo. */
+    private int externo(int p) {
+        return (p / ancho - 1) * columnas + p % ancho - 1;
+    }
+
+    private int verificar(int celda) {
+        if (celda < 0 || celda >= filas * columnas) {
+            throw new IndexOutOfBoundsException("Celda " + celda + " fuera de un tablero de " + filas + "x" + columnas);
+        }
+        return celda;
+    }
+}
@@ -0,0 +1,343 @@
+package com.example.menuaplication.model.hidratacion;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Historial compacto de consumo de agua, indexado por día de la época
+ * ({@link java.time.LocalDate#toEpochDay()}).
+ *
+ * <p>En lugar de mapas con claves {@code "dd/MM/yyyy"} y un objeto {@link RegistroAgua} con
+ * sus propias cadenas de fecha y hora por cada vaso, se guardan solo enteros primitivos:</p>
+ * <ul>
+ * <li>Un arreglo ordenado con los días que tienen datos (búsqueda binaria).</li>
+ * <li>Por cada día, un {@code int[]} con sus registros empaquetados: minuto del día en los
+ * 11 bits altos y mililitros en los 21 bits bajos (ver {@link #empaquetar}).</li>
+ * <li>Por cada día, la meta personalizada o {@link #SIN_META}.</li>
+ * <li>Por cada día, el total consumido, actualizado al agregar cada registro.</li>
+ * <li>Un árbol de Fenwick (sumas de prefijos) sobre los totales, en el orden de los días,
+ * para sumar cualquier rango de fechas en O(log n).</li>
+ * </ul>
+ *
+ * <p>No es segura para hilos: {@code RepositorioHidratacion} la protege con su candado.</p>
+ *
+ * @author SRGM
+ * @version 1.2
+ */
+public class HistorialHidratacion {
+
+    /** Valor de meta que indica que el día usa la meta por defecto. */
+    public static final int SIN_META = -1;
+
+    /** Cantidad máxima representable en un registro (21 bits). */
+    public static final int MAX_ML = (1 << 21) - 1;
+
+    /** Identificador del formato binario ("HIDR"). */
+    private static final int MAGICO = 0x48494452;
+
+    /** Versión del formato binario. */
+    private static final int VERSION = 1;
+
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    /** Días con datos, en orden ascendente. Solo son válidas las primeras {@link #numDias} posiciones. */
+    private int[] dias = new int[CAPACIDAD_INICIAL];
+
+    /** Registros empaquetados de cada día (en orden de inserción). */
+    private int[][] registros = new int[CAPACIDAD_INICIAL][];
+
+    /** Número de registros válidos en cada {@code registros[i]}. */
+    private int[] cantidades = new int[CAPACIDAD_INICIAL];
+
+    /** Meta de cada día, o {@link #SIN_META}. */
+    private int[] metas = new int[CAPACIDAD_INICIAL];
+
+    /** Total en ml de cada día. */
+    private int[] totales = new int[CAPACIDAD_INICIAL];
+
+    /**
+     * Árbol de Fenwick sobre {@link #totales} (índices desde 1). Se reconstruye de forma
+     * perezosa cuando se inserta un día en medio o se amplía la capacidad.
+     */
+    private long[] fenwick = new long[CAPACIDAD_INICIAL + 1];
+
+    /** {@code true} si {@link #fenwick} debe reconstruirse antes de consultarlo. */
+    private boolean fenwickInvalido = false;
+
+    private int numDias;
+
+    // --- EMPAQUETADO ---
+
+    /**
+     * Empaqueta un registro en un solo entero.
+     *
+     * @param minutoDelDia Minuto del día (0 a 1439).
+     * @param ml           Cantidad en mililitros (se limita a {@link #MAX_ML}).
+     * @return Registro empaquetado.
+     */
+    public static int empaquetar(int minutoDelDia, int ml) {
+        int minuto = Math.max(0, Math.min(minutoDelDia, 24 * 60 - 1));
+        return (minuto << 21) | Math.max(0, Math.min(ml, MAX_ML));
+    }
+
+    /** @return Minuto del día de un registro empaquetado. */
+    public static int minutoDe(int registro) {
+        return registro >>> 21;
+    }
+
+    /** @return Mililitros de un registro empaquetado. */
+    public static int mlDe(int registro) {
+        return registro & MAX_ML;
+    }
+
+    // --- CONSULTAS ---
+
+    /** @return Número de días con datos (registros o meta). */
+    public int getNumDias() {
+        return numDias;
+    }
+
+    /**
+     * @param indice Posición entre 0 y {@link #getNumDias()} - 1.
+     * @return Día de la época en esa posición (orden ascendente).
+     */
+    public int getDia(int indice) {
+        return dias[indice];
+    }
+
+    /**
+     * Busca la posición de un día.
+     *
+     * @param dia Día de la época.
+     * @return Posición del día, o un valor negativo ({@code -(punto de inserción) - 1}) si no existe.
+     */
+    public int indiceDe(int dia) {
+        return Arrays.binarySearch(dias, 0, numDias, dia);
+    }
+
+    /**
+     * @param dia Día de la época.
+     * @return Número de registros de ese día.
+     */
+    public int getCantidadRegistros(int dia) {
+        int i = indiceDe(dia);
+        return i < 0 ? 0 : cantidades[i];
+    }
+
+    /**
+     * @param dia    Día de la época.
+     * @param indice Posición del registro dentro del día.
+     * @return Registro empaquetado (ver {@link #minutoDe} y {@link #mlDe}).
+     */
+    public int getRegistro(int dia, int indice) {
+        int i = indiceDe(dia);
+        if (i < 0 || indice >= cantidades[i]) throw new IndexOutOfBoundsException("Registro " + indice);
+        return registros[i][indice];
+    }
+
+    /**
+     * @param dia Día de la época.
+     * @return Meta personalizada del día, o {@link #SIN_META}.
+     */
+    public int getMeta(int dia) {
+        int i = indiceDe(dia);
+        return i < 0 ? SIN_META : metas[i];
+    }
+
+    /**
+     * Total consumido en un día, en O(log n) (búsqueda del día).
+     *
+     * @param dia Día de la época.
+     * @return Total en ml (0 si no hay registros).
+     */
+    public int getTotal(int dia) {
+        int i = indiceDe(dia);
+        return i < 0 ? 0 : totales[i];
+    }
+
+    /**
+     * Total consumido entre dos días, ambos inclusive, en O(log n).
+     *
+     * @param diaInicio Primer día de la época del rango.
+     * @param diaFin    Último día de la época del rango.
+     * @return Suma en ml (0 si el rango está vacío).
+     */
+    public long getTotalEnRango(int diaInicio, int diaFin) {
+        if (diaFin < diaInicio) return 0;
+        int desde = puntoInsercion(diaInicio);         // Primer día >= inicio
+        int hasta = puntoInsercion(diaFin + 1L);       // Primer día > fin
+        return sumaPrefijo(hasta) - sumaPrefijo(desde);
+    }
+
+    /** Posición del primer día mayor o igual que {@code dia}. */
+    private int puntoInsercion(long dia) {
+        if (dia > Integer.MAX_VALUE) return numDias;
+        int i = indiceDe((int) dia);
+        return i >= 0 ? i : -i - 1;
+    }
+
+    /** Suma de los totales de las primeras {@code n} posiciones. */
+    private long sumaPrefijo(int n) {
+        if (fenwickInvalido) reconstruirFenwick();
+        long suma = 0;
+        for (int i = n; i > 0; i -= i & -i) {
+            suma += fenwick[i];
+        }
+        return suma;
+    }
+
+    private void reconstruirFenwick() {
+        if (fenwick.length < dias.length + 1) fenwick = new long[dias.length + 1];
+        Arrays.fill(fenwick, 0);
+        for (int i = 1; i <= numDias; i++) {
+            fenwick[i] += totales[i - 1];
+            int padre = i + (i & -i);
+            if (padre <= numDias) fenwick[padre] += fenwick[i];
+        }
+        fenwickInvalido = false;
+    }
+
+    // --- MODIFICACIONES ---
+
+    /**
+     * Agrega un registro de consumo al final de los registros del día.
+     *
+     * @param dia          Día de la época.
+     * @param minutoDelDia Minuto del día (0 a 1439).
+     * @param ml           Cantidad en mililitros.
+     */
+    public void agregar(int dia, int minutoDelDia, int ml) {
+        int i = asegurarDia(dia);
+        int[] delDia = registros[i];
+        if (delDia == null) {
+            delDia = registros[i] = new int[4];
+        } else if (cantidades[i] == delDia.length) {
+            delDia = registros[i] = Arrays.copyOf(delDia, delDia.length * 2);
+        }
+        int registro = empaquetar(minutoDelDia, ml);
+        delDia[cantidades[i]++] = registro;
+
+        int cantidad = mlDe(registro);
+        totales[i] += cantidad;
+        if (!fenwickInvalido) {
+            for (int k = i + 1; k <= numDias; k += k & -k) {
+                fenwick[k] += cantidad;
+            }
+        }
+    }
+
+    /**
+     * Establece la meta personalizada de un día.
+     *
+     * @param dia  Día de la época.
+     * @param meta Meta en mililitros, o {@link #SIN_META} para volver a la meta por defecto.
+     */
+    public void setMeta(int dia, int meta) {
+        // asegurarDia puede reemplazar o desplazar metas: se lee el arreglo después
+        int i = asegurarDia(dia);
+        metas[i] = meta;
+    }
+
+    /**
+     * Devuelve la posición del día, insertándolo en orden si no existía.
+     * Lo normal es agregar días en orden creciente, que no desplaza nada.
+     */
+    private int asegurarDia(int dia) {
+        int i = indiceDe(dia);
+        if (i >= 0) return i;
+
+        i = -i - 1;
+        if (numDias == dias.length) {
+            int capacidad = dias.length * 2;
+            dias = Arrays.copyOf(dias, capacidad);
+            registros = Arrays.copyOf(registros, capacidad);
+            cantidades = Arrays.copyOf(cantidades, capacidad);
+            metas = Arrays.copyOf(metas, capacidad);
+            totales = Arrays.copyOf(totales, capacidad);
+            fenwickInvalido = true;
+        }
+        int mover = numDias - i;
+        System.arraycopy(dias, i, dias, i + 1, mover);
+        System.arraycopy(registros, i, registros, i + 1, mover);
+        System.arraycopy(cantidades, i, cantidades, i + 1, mover);
+        System.arraycopy(metas, i, metas, i + 1, mover);
+        System.arraycopy(totales, i, totales, i + 1, mover);
+
+        dias[i] = dia;
+        registros[i] = null;
+        cantidades[i] = 0;
+        metas[i] = SIN_META;
+        totales[i] = 0;
+        numDias++;
+
+        // Un día nuevo al final (lo normal) tiene total 0: su nodo del árbol solo cubre
+        // posiciones anteriores, así que se calcula con dos sumas de prefijos.
+        // Un día insertado en medio desplaza posiciones y obliga a reconstruir.
+        if (mover > 0) {
+            fenwickInvalido = true;
+        } else if (!fenwickInvalido) {
+            int nodo = numDias;
+            fenwick[nodo] = sumaPrefijo(nodo - 1) - sumaPrefijo(nodo - (nodo & -nodo));
+        }
+        return i;
+    }
+
+    // --- FORMATO BINARIO ---
+
+    /**
+     * Escribe el historial completo.
+     * Formato: mágico, versión, número de días y, por cada día: día, meta,
+     * número de registros y los registros empaquetados.
+     *
+     * @param out Destino.
+     * @throws IOException Si falla la escritura.
+     */
+    public void escribir(DataOutput out) throws IOException {
+        out.writeInt(MAGICO);
+        out.writeInt(VERSION);
+        out.writeInt(numDias);
+        for (int i = 0; i < numDias; i++) {
+            out.writeInt(dias[i]);
+            out.writeInt(metas[i]);
+            out.writeInt(cantidades[i]);
+            for (int j = 0; j < cantidades[i]; j++) {
+                out.writeInt(registros[i][j]);
+            }
+        }
+    }
+
+    /**
+     * Lee un historial escrito con {@link #escribir}.
+     *
+     * @param in Origen.
+     * @return Historial leído.
+     * @throws IOException Si el formato no es válido o falla la lectura.
+     */
+    public static HistorialHidratacion leer(DataInput in) throws IOException {
+        if (in.readInt() != MAGICO) throw new IOException("No es un historial de hidratación");
+        int version = in.readInt();
+        if (version > VERSION) throw new IOException("Versión de historial no soportada: " + version);
+
+        HistorialHidratacion h = new HistorialHidratacion();
+        int n = in.readInt();
+        for (int k = 0; k < n; k++) {
+            int dia = in.readInt();
+            int i = h.asegurarDia(dia);
+            h.metas[i] = in.readInt();
+            int cantidad = in.readInt();
+            int[] delDia = new int[Math.max(cantidad, 4)];
+            int total = 0;
+            for (int j = 0; j < cantidad; j++) {
+                delDia[j] = in.readInt();
+                total += mlDe(delDia[j]);
+            }
+            h.registros[i] = delDia;
+            h.cantidades[i] = cantidad;
+            h.totales[i] = total;
+        }
+        h.fenwickInvalido = true;
+        return h;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.menuaplication.model.partidas;
+
+import java.util.Arrays;
+
+/**
+ * Escribe valores usando solo los bits que necesitan, uno detrás de otro y sin alinear
+ * a bytes (el primero en los bits altos del primer byte).
+ * <p>
+ * Por ejemplo, una casilla de Tres en Raya (vacía, X u O) ocupa 2 bits y una ficha del
+ * puzzle de 35 piezas, 6. Se lee con {@link LectorBits} en el mismo orden.
+ * </p>
+ *
+ * @author José Paladines
+ * @version 1.0
+ */
+public class EscritorBits {
+
+    private byte[] datos;
+    private int bits;
+
+    public EscritorBits() {
+        this(64);
+    }
+
+    /**
+     * @param capacidadBytes Tamaño inicial del búfer (crece si hace falta).
+     */
+    public EscritorBits(int capacidadBytes) {
+        datos = new byte[Math.max(1, capacidadBytes)];
+    }
+
+    /**
+     * Escribe los {@code cantidad} bits bajos de {@code valor}.
+     *
+     * @param valor    Valor a escribir (debe caber en {@code cantidad} bits, sin signo).
+     * @param cantidad Número de bits (0 a 64).
+     * @throws IllegalArgumentException si el valor no cabe.
+     */
+    public void escribir(long valor, int cantidad) {
+        if (cantidad < 0 || cantidad > 64 || (cantidad < 64 && valor >>> cantidad != 0)) {
+            throw new IllegalArgumentException("El valor " + valor + " no cabe en " + cantidad + " bits");
+        }
+        asegurar(bits + cantidad);
+        for (int i = cantidad - 1; i >= 0; i--) {
+            if ((valor >>> i & 1) != 0) datos[bits >>> 3] |= (byte) (0x80 >>> (bits & 7));
+            bits++;
+        }
+    }
+
+    public void escribirBit(boolean valor) {
+        escribir(valor ? 1 : 0, 1);
+    }
+
+    /** @return Número de bits escritos. */
+    public int getBits() {
+        return bits;
+    }
+
+    /** @return Copia de los bytes escritos (el último, completado con ceros). */
+    public byte[] aBytes() {
+        return Arrays.copyOf(datos, (bits + 7) >>> 3);
+    }
+
+    private void asegurar(int totalBits) {
+        int necesarios = (totalBits + 7) >>> 3;
+        if (necesarios > datos.length) {
+            datos = Arrays.copyOf(datos, Math.max(necesarios, datos.length * 2));
+        }
+    }
+
+    /**
+     * @param maximo Mayor valor que hay que representar (0 o más).
+     * @return Bits necesarios para representar de 0 a {@code maximo} (al menos 1).
+     */
+    public static int bitsPara(long maximo) {
+        return Math.max(1, 64 - Long.numberOfLeadingZeros(maximo));
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.menuaplication.model.partidas;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Foto de una partida en curso, lista para guardar y reanudar.
+ * <p>
+ * Guarda el juego, la semilla aleatoria con la que se preparó la partida, el tiempo
+ * jugado y el tablero, que cada juego empaqueta a su manera con {@link EscritorBits} (solo
+ * los bits que necesita cada casilla). {@link #codificar()} lo deja todo en un arreglo de
+ * bytes con una cabecera fija de {@value #TAMANO_CABECERA} bytes, así que se puede poner
+ * en un {@code Bundle} o escribir en un archivo tal cual.
+ * </p>
+ *
+ * @author José Paladines
+ * @version 1.0
+ */
+public final class InstantaneaPartida {
+
+    /** Marca al inicio de cada instantánea ("PG"). */
+    private static final short MAGICO = 0x5047;
+
+    /** Versión del formato de la cabecera. */
+    public static final int VERSION = 1;
+
+    /** Mágico (2) + versión (1) + juego (1) + semilla (8) + tiempo (8). */
+    public static final int TAMANO_CABECERA = 20;
+
+    private static final JuegoGuardado[] JUEGOS = JuegoGuardado.values();
+
+    private final JuegoGuardado juego;
+    private final long semilla;
+    private final long tiempoMillis;
+    private final byte[] tablero;
+
+    /**
+     * @param juego        Juego al que pertenece.
+     * @param semilla      Semilla con la que se preparó la partida ({@code 0} si no usa azar).
+     * @param tiempoMillis Tiempo jugado en milisegundos ({@code 0} si el juego no lo mide).
+     * @param tablero      Estado del tablero empaquetado por el juego.
+     */
+    public InstantaneaPartida(JuegoGuardado juego, long semilla, long tiempoMillis, byte[] tablero) {
+        this.juego = juego;
+        this.semilla = semilla;
+        this.tiempoMillis = tiempoMillis;
+        this.tablero = tablero;
+    }
+
+    public JuegoGuardado getJuego() {
+        return juego;
+    }
+
+    public long getSemilla() {
+        return semilla;
+    }
+
+    public long getTiempoMillis() {
+        return tiempoMillis;
+    }
+
+    /** @return Lector para desempaquetar el tablero desde el principio. */
+    public LectorBits leerTablero() {
+        return new LectorBits(tablero);
+    }
+
+    /** @return La instantánea completa como bytes. */
+    public byte[] codificar() {
+        ByteBuffer buffer = ByteBuffer.allocate(TAMANO_CABECERA + tablero.length);
+        buffer.putShort(MAGICO);
+        buffer.put((byte) VERSION);
+        buffer.put((byte) juego.ordinal());
+        buffer.putLong(semilla);
+        buffer.putLong(tiempoMillis);
+        buffer.put(tablero);
+        return buffer.array();
+    }
+
+    /**
+     * Reconstruye una instantánea a partir de {@link #codificar()}.
+     *
+     * @param datos Bytes de la instantánea.
+     * @return La instantánea.
+     * @throws IllegalArgumentException si los datos no son una instantánea válida.
+     */
+    public static InstantaneaPartida decodificar(byte[] datos) {
+        if (datos == null || datos.length < TAMANO_CABECERA) {
+            throw new IllegalArgumentException("Instantánea incompleta");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(datos);
+        if (buffer.getShort() != MAGICO) throw new IllegalArgumentException("No es una instantánea de partida");
+        int version = buffer.get();
+        if (version != VERSION) throw new IllegalArgumentException("Versión de instantánea desconocida: " + version);
+        int juego = buffer.get();
+        if (juego < 0 || juego >= JUEGOS.length) throw new IllegalArgumentException("Juego desconocido: " + juego);
+        long semilla = buffer.getLong();
+        long tiempo = buffer.getLong();
+        byte[] tablero = new byte[buffer.remaining()];
+        buffer.get(tablero);
+        return new InstantaneaPartida(JUEGOS[juego], semilla, tiempo, tablero);
+    }
+}
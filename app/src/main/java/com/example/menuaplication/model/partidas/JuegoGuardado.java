@@ -0,0 +1,18 @@
+package com.example.menuaplication.model.partidas;
+
+/**
+ * Enumerado con los juegos cuya partida en curso se puede guardar y reanudar.
+ * <p>
+ * <b>Importante:</b> el ordinal se guarda en cada {@link InstantaneaPartida}. Solo se
+ * pueden agregar valores nuevos al final.
+ * </p>
+ *
+ * @author José Paladines
+ * @version 1.0
+ */
+public enum JuegoGuardado {
+    BUSCAMINAS,
+    PUZZLE_DESLIZANTE,
+    JUEGO_MEMORIA,
+    TRES_EN_RAYA
+}
@@ -0,0 +1,56 @@
+package com.example.menuaplication.model.partidas;
+
+/**
+ * Lee, en el mismo orden, los valores escritos con {@link EscritorBits}.
+ *
+ * @author José Paladines
+ * @version 1.0
+ */
+public class LectorBits {
+
+    private final byte[] datos;
+    private int posicion;
+
+    public LectorBits(byte[] datos) {
+        this.datos = datos;
+    }
+
+    /**
+     * Lee un valor sin signo de {@code cantidad} bits.
+     *
+     * @param cantidad Número de bits (0 a 64).
+     * @return El valor leído.
+     * @throws IllegalArgumentException si no quedan suficientes bits (datos truncados).
+     */
+    public long leer(int cantidad) {
+        if (cantidad < 0 || cantidad > 64 || posicion + cantidad > datos.length * 8L) {
+            throw new IllegalArgumentException("Datos truncados: faltan bits en la posición " + posicion);
+        }
+        long valor = 0;
+        for (int i = 0; i < cantidad; i++) {
+            valor = valor << 1 | (datos[posicion >>> 3] >>> (7 - (posicion & 7)) & 1);
+            posicion++;
+        }
+        return valor;
+    }
+
+    /**
+     * Lee un valor y comprueba que no pase de un máximo (para detectar datos corruptos).
+     *
+     * @param cantidad Número de bits (hasta 31).
+     * @param maximo   Mayor valor válido.
+     * @return El valor leído.
+     * @throws IllegalArgumentException si el valor supera el máximo o faltan bits.
+     */
+    public int leerHasta(int cantidad, int maximo) {
+        int valor = (int) leer(cantidad);
+        if (valor > maximo) {
+            throw new IllegalArgumentException("Valor fuera de rango: " + valor + " > " + maximo);
+        }
+        return valor;
+    }
+
+    public boolean leerBit() {
+        return leer(1) != 0;
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.menuaplication.model.puzzle;
+
+import java.util.Random;
+
+/**
+ * Motor del Puzzle Deslizante, independiente de la interfaz.
+ * <p>
+ * Las fichas van en un arreglo por posición ({@code fila * columnas + columna}); el número
+ * {@link #VACIA} es el hueco. La clase guarda siempre dónde está el hueco y cuántas
+ * posiciones tienen ya su ficha correcta, así que comprobar un movimiento o si el puzzle
+ * está resuelto no recorre el tablero.
+ * </p>
+ * <p>
+ * Las mezclas solo generan tableros resolubles: {@link #mezclar(Random)} baraja y, si la
+ * permutación tiene la paridad equivocada, intercambia dos fichas; {@link #mezclarConPasos(Random, int)}
+ * hace movimientos legales al azar. En posición resuelta la ficha {@code i + 1} está en
+ * la posición {@code i} y el hueco en la última.
+ * </p>
+ * <p>
+ * No es segura para hilos.
+ * </p>
+ *
+ * @author José Paladines
+ * @version 1.0
+ */
+public class TableroPuzzle {
+
+    /** Número que representa el hueco. */
+    public static final int VACIA = 0;
+
+    private final int filas;
+    private final int columnas;
+
+    /** Número de la ficha en cada posición. */
+    private final int[] fichas;
+
+    private int posicionVacia;
+
+    /** Posiciones cuya ficha (o hueco) ya es la de la posición resuelta. */
+    private int enSuSitio;
+
+    /**
+     * Crea un tablero resuelto.
+     *
+     * @param filas    Número de filas (al menos 2).
+     * @param columnas Número de columnas (al menos 2).
+     */
+    public TableroPuzzle(int filas, int columnas) {
+        if (filas < 2 || columnas < 2) {
+            throw new IllegalArgumentException("Tamaño no válido: " + filas + "x" + columnas);
+        }
+        this.filas = filas;
+        this.columnas = columnas;
+        this.fichas = new int[filas * columnas];
+        for (int i = 0; i < fichas.length; i++) fichas[i] = numeroResuelto(i);
+        posicionVacia = fichas.length - 1;
+        enSuSitio = fichas.length;
+    }
+
+    // --- Consultas ---
+
+    public int getFilas() {
+        return filas;
+    }
+
+    public int getColumnas() {
+        return columnas;
+    }
+
+    /** @return Número de posiciones del tablero (fichas más el hueco). */
+    public int getTotal() {
+        return fichas.length;
+    }
+
+    /** @return Número de la ficha en la posición, o {@link #VACIA}. */
+    public int getFicha(int posicion) {
+        return fichas[posicion];
+    }
+
+    public int getPosicionVacia() {
+        return posicionVacia;
+    }
+
+    /** @return Posiciones que ya tienen la ficha (o el hueco) de la posición resuelta. */
+    public int getEnSuSitio() {
+        return enSuSitio;
+    }
+
+    public boolean estaResuelto() {
+        return enSuSitio == fichas.length;
+    }
+
+    /**
+     * Indica si la ficha de la posición está junto al hueco (sin diagonales).
+     *
+     * @param posicion Posición de la ficha.
+     * @return {@code true} si se puede deslizar al hueco.
+     */
+    public boolean puedeMover(int posicion) {
+        if (posicion < 0 || posicion >= fichas.length) return false;
+        int diferencia = Math.abs(posicion - posicionVacia);
+        if (diferencia == columnas) return true;
+        // Misma fila y contiguas
+        return diferencia == 1 && posicion / columnas == posicionVacia / columnas;
+    }
+
+    // --- Jugadas ---
+
+    /**
+     * Desliza al hueco la ficha de la posición, si está junto a él.
+     *
+     * @param posicion Posición de la ficha.
+     * @return {@code true} si se movió; en ese caso el hueco queda en {@code posicion}.
+     */
+    public boolean mover(int posicion) {
+        if (!puedeMover(posicion)) return false;
+        intercambiar(posicion, posicionVacia);
+        posicionVacia = posicion;
+        return true;
+    }
+
+    /**
+     * Baraja las fichas de forma uniforme entre los tableros resolubles (y no resueltos).
+     *
+     * @param rnd Generador aleatorio; con la misma semilla se obtiene el mismo tablero.
+     */
+    public void mezclar(Random rnd) {
+        do {
+            for (int i = fichas.length - 1; i > 0; i--) {
+                int j = rnd.nextInt(i + 1);
+                int temporal = fichas[i];
+                fichas[i] = fichas[j];
+                fichas[j] = temporal;
+            }
+            if (!esResoluble(fichas, columnas)) {
+                // Intercambiar dos fichas (no el hueco) cambia la paridad
+                int a = fichas[0] != VACIA ? 0 : 2;
+                int b = fichas[1] != VACIA ? 1 : 2;
+                int temporal = fichas[a];
+                fichas[a] = fichas[b];
+                fichas[b] = temporal;
+            }
+            recalcular();
+        } while (estaResuelto());
+    }
+
+    /**
+     * Mezcla haciendo movimientos legales al azar desde la posición actual, sin deshacer
+     * nunca el movimiento anterior. Pocos pasos dan tableros fáciles.
+     *
+     * @param rnd   Generador aleatorio.
+     * @param pasos Número de movimientos.
+     */
+    public void mezclarConPasos(Random rnd, int pasos) {
+        int[] candidatas = new int[4];
+        int anterior = -1;
+        for (int paso = 0; paso < pasos; paso++) {
+            int fila = posicionVacia / columnas;
+            int columna = posicionVacia % columnas;
+            int n = 0;
+            if (fila > 0) candidatas[n++] = posicionVacia - columnas;
+            if (fila < filas - 1) candidatas[n++] = posicionVacia + columnas;
+            if (columna > 0) candidatas[n++] = posicionVacia - 1;
+            if (columna < columnas - 1) candidatas[n++] = posicionVacia + 1;
+
+            int elegida;
+            do {
+                elegida = candidatas[rnd.nextInt(n)];
+            } while (elegida == anterior);
+            anterior = posicionVacia;
+            mover(elegida);
+        }
+    }
+
+    /**
+     * Pone las fichas en el orden dado (por ejemplo, de una partida guardada).
+     *
+     * @param orden Número de la ficha en cada posición.
+     * @throws IllegalArgumentException si no es una permutación de {@code 0..getTotal()-1}
+     *                                  o el tablero no se puede resolver.
+     */
+    public void colocar(int[] orden) {
+        if (orden.length != fichas.length) {
+            throw new IllegalArgumentException("Se esperaban " + fichas.length + " fichas");
+        }
+        boolean[] vistas = new boolean[fichas.length];
+        for (int numero : orden) {
+            if (numero < 0 || numero >= fichas.length || vistas[numero]) {
+                throw new IllegalArgumentException("Ficha repetida o fuera de rango: " + numero);
+            }
+            vistas[numero] = true;
+        }
+        if (!esResoluble(orden, columnas)) {
+            throw new IllegalArgumentException("El tablero no se puede resolver");
+        }
+        System.arraycopy(orden, 0, fichas, 0, fichas.length);
+        recalcular();
+    }
+
+    /**
+     * Regla de paridad de las inversiones: con un número impar de columnas el tablero es
+     * resoluble si las inversiones (pares de fichas en orden contrario, sin contar el hueco)
+     * son pares; con un número par, si las inversiones más la fila del hueco contada desde
+     * abajo (empezando en 1) dan un número impar.
+     *
+     * @param orden    Número de la ficha en cada posición.
+     * @param columnas Número de columnas.
+     * @return {@code true} si se puede llegar a la posición resuelta.
+     */
+    public static boolean esResoluble(int[] orden, int columnas) {
+        int inversiones = 0;
+        int posicionVacia = -1;
+        for (int i = 0; i < orden.length; i++) {
+            if (orden[i] == VACIA) {
+                posicionVacia = i;
+                continue;
+            }
+            for (int j = i + 1; j < orden.length; j++) {
+                if (orden[j] != VACIA && orden[j] < orden[i]) inversiones++;
+            }
+        }
+        if (columnas % 2 != 0) return inversiones % 2 == 0;
+        int filaDesdeAbajo = orden.length / columnas - posicionVacia / columnas;
+        return (inversiones + filaDesdeAbajo) % 2 != 0;
+    }
+
+    // --- Internos ---
+
+    /** Número que va en la posición cuando el puzzle está resuelto. */
+    private int numeroResuelto(int posicion) {
+        return posicion == fichas.length - 1 ? VACIA : posicion + 1;
+    }
+
+    private void intercambiar(int a, int b) {
+        if (fichas[a] == numeroResuelto(a)) enSuSitio--;
+        if (fichas[b] == numeroResuelto(b)) enSuSitio--;
+        int temporal = fichas[a];
+        fichas[a] = fichas[b];
+        fichas[b] = temporal;
+        if (fichas[a] == numeroResuelto(a)) enSuSitio++;
+        if (fichas[b] == numeroResuelto(b)) enSuSitio++;
+    }
+
+    /** Recalcula el hueco y el contador tras cambiar todo el tablero. */
+    private void recalcular() {
+        enSuSitio = 0;
+        for (int i = 0; i < fichas.length; i++) {
+            if (fichas[i] == VACIA) posicionVacia = i;
+            if (fichas[i] == numeroResuelto(i)) enSuSitio++;
+        }
+    }
+}
@@ -20,6 +20,8 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.menuaplication.R;
@@ -30,7 +32,9 @@ import com.example.menuaplication.model.actividades.Prioridad;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Adaptador para el RecyclerView que gestiona la visualización de la lista de actividades.
@@ -43,13 +47,35 @@ import java.util.List;
  * <li>Gestionar eventos de clic (Detalles) y clic largo (Opciones rápidas).</li>
  * </ul>
  *
+ * <p>Las listas nuevas se comparan con la anterior en un hilo de fondo ({@link AsyncListDiffer}):
+ * solo se notifican las filas insertadas, eliminadas, movidas o con contenido distinto, y si
+ * llega una lista nueva antes de terminar, el cálculo anterior se descarta. Como las
+ * actividades se modifican en el mismo objeto, cada fila guarda una copia ({@link Fila})
+ * de los campos que muestra, para poder detectar qué cambió.</p>
+ *
  * @author José Paladines
- * @version 1.0
+ * @version 1.1
  */
 public class ActividadAdapter extends RecyclerView.Adapter<ActividadAdapter.ViewHolder> {
 
-    /** Lista de datos a mostrar. */
-    private List<Actividad> actividades;
+    /** Compara por ID y por los campos visibles de cada fila. */
+    private static final DiffUtil.ItemCallback<Fila> COMPARADOR = new DiffUtil.ItemCallback<Fila>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Fila a, @NonNull Fila b) {
+            return a.id == b.id;
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Fila a, @NonNull Fila b) {
+            return Objects.equals(a.nombre, b.nombre)
+                    && a.porcentajeAvance == b.porcentajeAvance
+                    && Objects.equals(a.fechaVencimiento, b.fechaVencimiento)
+                    && a.prioridad == b.prioridad;
+        }
+    };
+
+    /** Calcula las diferencias en segundo plano y mantiene la lista mostrada. */
+    private final AsyncListDiffer<Fila> differ = new AsyncListDiffer<>(this, COMPARADOR);
 
     /** Referencia a la actividad contenedora para manejo de contextos y diálogos. */
     private final Activity activity;
@@ -63,18 +89,23 @@ public class ActividadAdapter extends RecyclerView.Adapter<ActividadAdapter.View
      * @param activity    Actividad que contiene el RecyclerView.
      */
     public ActividadAdapter(List<Actividad> actividades, Activity activity) {
-        this.actividades = actividades;
         this.activity = activity;
+        setActividades(actividades);
     }
 
     /**
-     * Actualiza la lista de datos y notifica al RecyclerView para refrescar la vista.
+     * Envía una nueva lista filtrada u ordenada. La comparación con la lista actual se hace
+     * en segundo plano y solo se actualizan las filas que cambiaron. Si se envía otra lista
+     * antes de terminar, el cálculo pendiente se descarta y gana la más reciente.
      *
      * @param nuevasActividades Nueva lista filtrada u ordenada.
      */
     public void setActividades(List<Actividad> nuevasActividades) {
-        this.actividades = nuevasActividades;
-        notifyDataSetChanged();
+        List<Fila> filas = new ArrayList<>(nuevasActividades.size());
+        for (Actividad a : nuevasActividades) {
+            filas.add(new Fila(a));
+        }
+        differ.submitList(filas);
     }
 
     @NonNull
@@ -93,22 +124,23 @@ public class ActividadAdapter extends RecyclerView.Adapter<ActividadAdapter.View
      */
     @Override
     public void onBindViewHolder(@NonNull ActividadAdapter.ViewHolder holder, int position) {
-        Actividad actividad = actividades.get(position);
+        Fila fila = differ.getCurrentList().get(position);
+        Actividad actividad = fila.actividad;
 
-        holder.tvNombre.setText(actividad.getNombre());
+        holder.tvNombre.setText(fila.nombre);
 
         // Identificar tipo mediante polimorfismo
         String tipo = (actividad instanceof ActividadAcademica) ? "Académica" : "Personal";
         holder.tvTipo.setText(tipo);
 
-        holder.progressBar.setProgress((int) actividad.getPorcentajeAvance());
-        holder.tvPorcentaje.setText((int) actividad.getPorcentajeAvance() + "%");
+        holder.progressBar.setProgress((int) fila.porcentajeAvance);
+        holder.tvPorcentaje.setText((int) fila.porcentajeAvance + "%");
 
         // LÓGICA DE ESTADO (Sin vencidos, ya que se filtran antes)
-        if (actividad.getPorcentajeAvance() >= 100) {
+        if (fila.porcentajeAvance >= 100) {
             holder.tvEstado.setText("COMPLETADA");
             holder.tvEstado.setTextColor(Color.parseColor("#4CAF50")); // Verde
-        } else if (actividad.getPorcentajeAvance() > 0) {
+        } else if (fila.porcentajeAvance > 0) {
             holder.tvEstado.setText("EN PROGRESO");
             holder.tvEstado.setTextColor(Color.parseColor("#FF9800")); // Naranja
         } else {
@@ -117,11 +149,11 @@ public class ActividadAdapter extends RecyclerView.Adapter<ActividadAdapter.View
         }
 
         // Lógica visual de Prioridad
-        holder.tvPrioridad.setText(String.valueOf(actividad.getPrioridad()));
-        if (actividad.getPrioridad() == Prioridad.ALTA) {
+        holder.tvPrioridad.setText(String.valueOf(fila.prioridad));
+        if (fila.prioridad == Prioridad.ALTA) {
             holder.tvPrioridad.setBackgroundColor(Color.parseColor("#FFEBEE"));
             holder.tvPrioridad.setTextColor(Color.RED);
-        } else if (actividad.getPrioridad() == Prioridad.MEDIA) {
+        } else if (fila.prioridad == Prioridad.MEDIA) {
             holder.tvPrioridad.setBackgroundColor(Color.parseColor("#FFF3E0"));
             holder.tvPrioridad.setTextColor(Color.parseColor("#EF6C00"));
         } else {
@@ -131,8 +163,8 @@ public class ActividadAdapter extends RecyclerView.Adapter<ActividadAdapter.View
 
         // Formateo de fecha
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM HH:mm");
-        if (actividad.getFechaVencimiento() != null) {
-            holder.tvFecha.setText("Vence: " + actividad.getFechaVencimiento().format(formatter));
+        if (fila.fechaVencimiento != null) {
+            holder.tvFecha.setText("Vence: " + fila.fechaVencimiento.format(formatter));
             holder.tvFecha.setTextColor(Color.parseColor("#757575"));
         } else {
             holder.tvFecha.setText("Sin fecha");
@@ -142,13 +174,13 @@ public class ActividadAdapter extends RecyclerView.Adapter<ActividadAdapter.View
         holder.itemView.setOnClickListener(v -> {
             Context vCtx = v.getContext();
             Intent intent = new Intent(vCtx, DetalleActividadActivity.class);
-            intent.putExtra("ACTIVIDAD_EXTRA", actividad);
+            intent.putExtra(DetalleActividadActivity.EXTRA_ID_ACTIVIDAD, fila.id);
             vCtx.startActivity(intent);
         });
 
         // Click largo -> Mostrar opciones rápidas (Avance / Eliminar)
         holder.itemView.setOnLongClickListener(v -> {
-            mostrarOpciones(actividad, holder.getAdapterPosition(), v.getContext());
+            mostrarOpciones(actividad, v.getContext());
             return true;
         });
     }
@@ -156,7 +188,7 @@ public class ActividadAdapter extends RecyclerView.Adapter<ActividadAdapter.View
     /**
      * Muestra un cuadro de diálogo con opciones rápidas al mantener pulsada una actividad.
      */
-    private void mostrarOpciones(Actividad actividad, int position, Context viewContext) {
+    private void mostrarOpciones(Actividad actividad, Context viewContext) {
         Context ctx = (viewContext != null) ? viewContext : activity;
         if (!(ctx instanceof Activity)) return;
 
@@ -165,9 +197,9 @@ public class ActividadAdapter extends RecyclerView.Adapter<ActividadAdapter.View
         builder.setTitle(actividad.getNombre());
         builder.setItems(options, (dialog, which) -> {
             if (which == 0) {
-                mostrarDialogoAvance(actividad, position, ctx);
+                mostrarDialogoAvance(actividad, ctx);
             } else {
-                mostrarDialogoEliminar(actividad, position, ctx);
+                mostrarDialogoEliminar(actividad, ctx);
             }
         });
         builder.show();
@@ -178,7 +210,7 @@ public class ActividadAdapter extends RecyclerView.Adapter<ActividadAdapter.View
     /**
      * Muestra el diálogo personalizado para ingresar manualmente un porcentaje de avance.
      */
-    private void mostrarDialogoAvance(Actividad actividad, int position, Context callerContext) {
+    private void mostrarDialogoAvance(Actividad actividad, Context callerContext) {
         Context ctx = (callerContext instanceof Activity) ? callerContext : activity;
         if (!(ctx instanceof Activity)) return;
         Activity dialogActivity = (Activity) ctx;
@@ -215,7 +247,7 @@ public class ActividadAdapter extends RecyclerView.Adapter<ActividadAdapter.View
                         }
 
                         dialog.dismiss();
-                        mostrarConfirmacionAvance(actividad, position, nuevoAvance, callerContext);
+                        mostrarConfirmacionAvance(actividad, nuevoAvance, callerContext);
 
                     } catch (NumberFormatException nfe) {
                         if (etNuevo != null) etNuevo.setError("Número inválido");
@@ -234,7 +266,7 @@ public class ActividadAdapter extends RecyclerView.Adapter<ActividadAdapter.View
     /**
      * Diálogo de confirmación antes de guardar el nuevo avance en el repositorio.
      */
-    private void mostrarConfirmacionAvance(Actividad actividad, int position, double nuevoAvance, Context callerContext) {
+    private void mostrarConfirmacionAvance(Actividad actividad, double nuevoAvance, Context callerContext) {
         Context ctx = (callerContext instanceof Activity) ? callerContext : activity;
         if (!(ctx instanceof Activity)) return;
         Activity dialogActivity = (Activity) ctx;
@@ -258,14 +290,10 @@ public class ActividadAdapter extends RecyclerView.Adapter<ActividadAdapter.View
             if (btnSi != null) {
                 btnSi.setOnClickListener(v -> {
                     actividad.setPorcentajeAvance(nuevoAvance);
-                    // IMPORTANTE: Guardar en repositorio para que persista
+                    // IMPORTANTE: Guardar en repositorio para que persista.
+                    // La fila se actualiza cuando la pantalla recibe el cambio del repositorio.
                     RepositorioActividades.getInstance().actualizarActividad(actividad);
 
-                    if (position >= 0 && position < actividades.size()) {
-                        notifyItemChanged(position);
-                    } else {
-                        notifyDataSetChanged();
-                    }
                     Toast.makeText(dialogActivity, "Progreso actualizado", Toast.LENGTH_SHORT).show();
                     dialog.dismiss();
                 });
@@ -282,7 +310,7 @@ public class ActividadAdapter extends RecyclerView.Adapter<ActividadAdapter.View
     /**
      * Muestra diálogo de advertencia para eliminar definitivamente una actividad.
      */
-    private void mostrarDialogoEliminar(Actividad actividad, int position, Context callerContext) {
+    private void mostrarDialogoEliminar(Actividad actividad, Context callerContext) {
         Context ctx = (callerContext instanceof Activity) ? callerContext : activity;
         if (!(ctx instanceof Activity)) return;
         Activity dialogActivity = (Activity) ctx;
@@ -302,16 +330,10 @@ public class ActividadAdapter extends RecyclerView.Adapter<ActividadAdapter.View
 
             if (btnEliminar != null) {
                 btnEliminar.setOnClickListener(v -> {
-                    // Primero eliminamos del repositorio (disco)
+                    // Eliminamos del repositorio (disco); la fila desaparece cuando
+                    // la pantalla recibe el cambio del repositorio
                     RepositorioActividades.getInstance().eliminarActividad(actividad);
-
-                    // Luego actualizamos la lista visual
-                    if (position >= 0 && position < actividades.size()) {
-                        actividades.remove(position);
-                        notifyItemRemoved(position);
-                        notifyItemRangeChanged(position, actividades.size());
-                        Toast.makeText(dialogActivity, "Actividad eliminada", Toast.LENGTH_SHORT).show();
-                    }
+                    Toast.makeText(dialogActivity, "Actividad eliminada", Toast.LENGTH_SHORT).show();
                     dialog.dismiss();
                 });
             }
@@ -337,7 +359,29 @@ public class ActividadAdapter extends RecyclerView.Adapter<ActividadAdapter.View
 
     @Override
     public int getItemCount() {
-        return actividades != null ? actividades.size() : 0;
+        return differ.getCurrentList().size();
+    }
+
+    /**
+     * Copia inmutable de los campos que muestra una fila, tomada al enviar la lista.
+     * Conserva también la actividad para los clics.
+     */
+    static final class Fila {
+        final Actividad actividad;
+        final int id;
+        final String nombre;
+        final double porcentajeAvance;
+        final LocalDateTime fechaVencimiento;
+        final Prioridad prioridad;
+
+        Fila(Actividad actividad) {
+            this.actividad = actividad;
+            this.id = actividad.getId();
+            this.nombre = actividad.getNombre();
+            this.porcentajeAvance = actividad.getPorcentajeAvance();
+            this.fechaVencimiento = actividad.getFechaVencimiento();
+            this.prioridad = actividad.getPrioridad();
+        }
     }
 
     /**
@@ -2,12 +2,10 @@ package com.example.menuaplication.ui.actividades;
 
 import android.app.Dialog;
 import android.content.Intent;
-import android.content.res.ColorStateList;
 import android.graphics.Color;
 import android.graphics.drawable.ColorDrawable;
 import android.os.Bundle;
 import android.text.TextUtils;
-import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.view.Window;
@@ -15,77 +13,113 @@ import android.widget.Button;
 import android.widget.EditText;
 import android.widget.ImageButton;
 import android.widget.ImageView;
-import android.widget.LinearLayout;
 import android.widget.ProgressBar;
 import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.menuaplication.R;
+import com.example.menuaplication.data.BusCambios;
 import com.example.menuaplication.data.RepositorioActividades;
 import com.example.menuaplication.model.actividades.Actividad;
 import com.example.menuaplication.model.actividades.ActividadAcademica;
 import com.example.menuaplication.model.actividades.ActividadPersonal;
-import com.example.menuaplication.model.actividades.SesionEnfoque;
 import com.example.menuaplication.model.actividades.TecnicaEnfoque;
 
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 /**
  * Pantalla que muestra la información completa de una actividad seleccionada.
  * Desde aquí, el usuario puede ver el historial, editar, eliminar o iniciar
  * una sesión de temporizador (Pomodoro/Deep Work).
  *
+ * <p>Recibe solo el ID de la actividad ({@link #EXTRA_ID_ACTIVIDAD}) y usa la instancia del
+ * repositorio; a las pantallas siguientes también les pasa solo el ID.</p>
+ *
+ * <p>Toda la pantalla es una lista ({@link SesionesAdapter}): los datos de la actividad son
+ * la primera fila y el historial de sesiones, de la más reciente a la más antigua, se carga
+ * por páginas y reutiliza las vistas al desplazarse.</p>
+ *
  * @author José Paladines
- * @version 1.0
+ * @version 1.2
  */
 public class DetalleActividadActivity extends AppCompatActivity {
 
+    /** Extra (int) con el ID de la actividad a mostrar. */
+    public static final String EXTRA_ID_ACTIVIDAD = "ID_ACTIVIDAD";
+
     private static final int REQUEST_CODE_EDITAR = 1001;
 
+    private static final DateTimeFormatter FORMATO_VENCIMIENTO = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    // Colores del estado
+    private static final int COLOR_COMPLETADA = 0xFF4CAF50; // Verde
+    private static final int COLOR_EN_PROGRESO = 0xFFFF9800; // Naranja
+    private static final int COLOR_PENDIENTE = 0xFF757575; // Gris
+
     private Actividad actividad;
     private TextView tvTitulo, tvDesc, tvDetalleExtra, tvAvance, tvId, tvTiempoEst, tvTiempoInv;
     private ImageView imgTipoIcono;
     private ProgressBar pbAvance;
-    private LinearLayout layoutHistorialContainer;
+    private TextView tvHistorialVacio;
+    private SesionesAdapter sesionesAdapter;
     private Button btnPomodoro, btnDeepWork, btnAvance, btnEliminar, btnEditar;
 
+    /** Recarga la pantalla solo cuando el repositorio publica un cambio de esta actividad. */
+    private final BusCambios.Observador observador = this::alCambiarActividades;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_detalle_actividad);
 
-        // Recuperar el objeto pasado por el Intent
-        actividad = (Actividad) getIntent().getSerializableExtra("ACTIVIDAD_EXTRA");
+        // Buscar en el repositorio la actividad cuyo ID llegó en el Intent
+        actividad = RepositorioActividades.getInstance().buscarPorId(getIntent().getIntExtra(EXTRA_ID_ACTIVIDAD, -1));
+        if (actividad == null) {
+            Toast.makeText(this, "La actividad ya no existe", Toast.LENGTH_SHORT).show();
+            finish();
+            return;
+        }
+
+        // La lista contiene el encabezado con los datos y, debajo, el historial
+        RecyclerView recyclerHistorial = findViewById(R.id.recyclerHistorial);
+        View encabezado = getLayoutInflater().inflate(R.layout.encabezado_detalle_actividad, recyclerHistorial, false);
+        sesionesAdapter = new SesionesAdapter(encabezado);
+        recyclerHistorial.setLayoutManager(new LinearLayoutManager(this));
+        recyclerHistorial.setAdapter(sesionesAdapter);
 
         // Vincular Vistas
-        tvId = findViewById(R.id.tvIdActividad);
-        tvTitulo = findViewById(R.id.tvTituloDetalle);
-        tvDesc = findViewById(R.id.tvDescDetalle);
-        tvDetalleExtra = findViewById(R.id.tvExtraDetalle);
-        tvAvance = findViewById(R.id.tvAvanceDetalle);
-        tvTiempoEst = findViewById(R.id.tvTiempoEstimado);
-        tvTiempoInv = findViewById(R.id.tvTiempoInvertido);
-        pbAvance = findViewById(R.id.pbDetalle);
-        layoutHistorialContainer = findViewById(R.id.layoutHistorialContainer);
-
-        imgTipoIcono = findViewById(R.id.imgTipoIcono);
-
-        btnPomodoro = findViewById(R.id.btnPomodoro);
-        btnDeepWork = findViewById(R.id.btnDeepWork);
-        btnAvance = findViewById(R.id.btnRegistrarAvance);
-        btnEliminar = findViewById(R.id.btnEliminar);
-        btnEditar = findViewById(R.id.btnEditarActividad);
+        tvId = encabezado.findViewById(R.id.tvIdActividad);
+        tvTitulo = encabezado.findViewById(R.id.tvTituloDetalle);
+        tvDesc = encabezado.findViewById(R.id.tvDescDetalle);
+        tvDetalleExtra = encabezado.findViewById(R.id.tvExtraDetalle);
+        tvAvance = encabezado.findViewById(R.id.tvAvanceDetalle);
+        tvTiempoEst = encabezado.findViewById(R.id.tvTiempoEstimado);
+        tvTiempoInv = encabezado.findViewById(R.id.tvTiempoInvertido);
+        pbAvance = encabezado.findViewById(R.id.pbDetalle);
+        tvHistorialVacio = encabezado.findViewById(R.id.tvHistorialVacio);
+
+        imgTipoIcono = encabezado.findViewById(R.id.imgTipoIcono);
+
+        btnPomodoro = encabezado.findViewById(R.id.btnPomodoro);
+        btnDeepWork = encabezado.findViewById(R.id.btnDeepWork);
+        btnAvance = encabezado.findViewById(R.id.btnRegistrarAvance);
+        btnEliminar = encabezado.findViewById(R.id.btnEliminar);
+        btnEditar = encabezado.findViewById(R.id.btnEditarActividad);
 
         // Configurar botón volver
-        ImageButton btnBack = findViewById(R.id.btnBackDetalle);
+        ImageButton btnBack = encabezado.findViewById(R.id.btnBackDetalle);
         if(btnBack != null) {
             btnBack.setOnClickListener(v -> finish());
         }
 
         cargarDatos();
+        RepositorioActividades.getInstance().getBusCambios().registrar(observador);
 
         // Listeners
         btnPomodoro.setOnClickListener(v -> irATemporizador(TecnicaEnfoque.POMODORO));
@@ -95,39 +129,48 @@ public class DetalleActividadActivity extends AppCompatActivity {
 
         btnEditar.setOnClickListener(v -> {
             Intent intent = new Intent(DetalleActividadActivity.this, EditarActividadActivity.class);
-            intent.putExtra("actividad_a_editar", actividad);
+            intent.putExtra(EditarActividadActivity.EXTRA_ID_ACTIVIDAD, actividad.getId());
             startActivityForResult(intent, REQUEST_CODE_EDITAR);
         });
     }
 
     /**
      * Método invocado cuando se regresa de la pantalla de edición.
-     * Actualiza los datos mostrados si la actividad fue modificada.
+     * Los datos ya se recargaron al recibir el cambio del repositorio; aquí solo se avisa.
      */
     @Override
     protected void onActivityResult(int requestCode, int resultCode, @Nullable Intent data) {
         super.onActivityResult(requestCode, resultCode, data);
         if (requestCode == REQUEST_CODE_EDITAR && resultCode == RESULT_OK && data != null) {
-            Actividad actividadModificada = (Actividad) data.getSerializableExtra("actividad_actualizada");
-            if (actividadModificada != null) {
-                this.actividad = actividadModificada;
-                cargarDatos();
-                Toast.makeText(this, "Actividad actualizada", Toast.LENGTH_SHORT).show();
-            }
+            Toast.makeText(this, "Actividad actualizada", Toast.LENGTH_SHORT).show();
         }
     }
 
     @Override
-    protected void onResume() {
-        super.onResume();
-        // Recargar datos por si volvimos del Temporizador
-        for (Actividad a : RepositorioActividades.getInstance().getActividades()) {
-            if (a.getId() == actividad.getId()) {
-                this.actividad = a;
-                break;
+    protected void onDestroy() {
+        RepositorioActividades.getInstance().getBusCambios().quitar(observador);
+        super.onDestroy();
+    }
+
+    /**
+     * Reacciona a los cambios del repositorio (edición, temporizador, avance...):
+     * si afectan a esta actividad, recarga sus datos; si fue eliminada, cierra la pantalla.
+     */
+    private void alCambiarActividades(List<BusCambios.Cambio> cambios) {
+        if (actividad == null) return;
+        for (BusCambios.Cambio cambio : cambios) {
+            if (cambio.id != actividad.getId()) continue;
+
+            Actividad actual = cambio.tipo == BusCambios.Tipo.ELIMINADO
+                    ? null : RepositorioActividades.getInstance().buscarPorId(cambio.id);
+            if (actual == null) {
+                if (!isFinishing()) finish();
+            } else {
+                actividad = actual;
+                cargarDatos();
             }
+            return;
         }
-        cargarDatos();
     }
 
     /**
@@ -178,19 +221,19 @@ public class DetalleActividadActivity extends AppCompatActivity {
 
         if (porcentaje >= 100) {
             estadoTexto = "¡COMPLETADA!";
-            colorEstado = Color.parseColor("#4CAF50"); // Verde
+            colorEstado = COLOR_COMPLETADA;
             btnAvance.setVisibility(View.GONE);
             btnPomodoro.setEnabled(false);
             btnDeepWork.setEnabled(false);
         } else if (porcentaje > 0) {
             estadoTexto = "EN PROGRESO";
-            colorEstado = Color.parseColor("#FF9800"); // Naranja
+            colorEstado = COLOR_EN_PROGRESO;
             btnAvance.setVisibility(View.VISIBLE);
             btnPomodoro.setEnabled(true);
             btnDeepWork.setEnabled(true);
         } else {
             estadoTexto = "PENDIENTE";
-            colorEstado = Color.parseColor("#757575"); // Gris
+            colorEstado = COLOR_PENDIENTE;
             btnAvance.setVisibility(View.VISIBLE);
             btnPomodoro.setEnabled(true);
             btnDeepWork.setEnabled(true);
@@ -200,56 +243,24 @@ public class DetalleActividadActivity extends AppCompatActivity {
         tvAvance.setTextColor(colorEstado);
 
         // 5. Polimorfismo (Info extra)
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
         if (actividad instanceof ActividadAcademica) {
             ActividadAcademica ac = (ActividadAcademica) actividad;
             String info = "Materia: " + ac.getAsignatura() + "\n" +
                     "Tipo: " + ac.getTipo() + "\n" +
                     "Prioridad: " + ac.getPrioridad() + "\n" +
-                    "Vence: " + ac.getFechaVencimiento().format(formatter);
+                    "Vence: " + ac.getFechaVencimiento().format(FORMATO_VENCIMIENTO);
             tvDetalleExtra.setText(info);
         } else if (actividad instanceof ActividadPersonal) {
             ActividadPersonal ap = (ActividadPersonal) actividad;
             String info = "Lugar: " + ap.getLugar() + "\n" +
                     "Prioridad: " + ap.getPrioridad() + "\n" +
-                    "Vence: " + ap.getFechaVencimiento().format(formatter);
+                    "Vence: " + ap.getFechaVencimiento().format(FORMATO_VENCIMIENTO);
             tvDetalleExtra.setText(info);
         }
 
-        // 6. Historial de Sesiones (Generación dinámica de vistas)
-        layoutHistorialContainer.removeAllViews();
-        DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("dd MMM, HH:mm");
-
-        if (actividad.getHistorialSesiones().isEmpty()) {
-            TextView vacio = new TextView(this);
-            vacio.setText("No has registrado sesiones de trabajo aún.");
-            vacio.setTextColor(Color.GRAY);
-            vacio.setPadding(8, 8, 8, 8);
-            layoutHistorialContainer.addView(vacio);
-        } else {
-            LayoutInflater inflater = LayoutInflater.from(this);
-            for (SesionEnfoque sesion : actividad.getHistorialSesiones()) {
-                View view = inflater.inflate(R.layout.item_sesion_historial, layoutHistorialContainer, false);
-
-                TextView tvTecnica = view.findViewById(R.id.tvTecnicaSesion);
-                TextView tvFecha = view.findViewById(R.id.tvFechaSesion);
-                TextView tvDuracion = view.findViewById(R.id.tvDuracionSesion);
-                ImageView img = view.findViewById(R.id.imgTipoSesion);
-
-                tvTecnica.setText(sesion.getTecnica().toString().replace("_", " "));
-                tvFecha.setText(sesion.getFechaHora().format(timeFormatter));
-                tvDuracion.setText(sesion.getDuracionMinutos() + " min");
-
-                if (sesion.getTecnica() == TecnicaEnfoque.POMODORO) {
-                    img.setBackgroundTintList(ColorStateList.valueOf(Color.parseColor("#FFEBEE")));
-                    img.setColorFilter(Color.parseColor("#D32F2F"));
-                } else {
-                    img.setBackgroundTintList(ColorStateList.valueOf(Color.parseColor("#EDE7F6")));
-                    img.setColorFilter(Color.parseColor("#673AB7"));
-                }
-                layoutHistorialContainer.addView(view);
-            }
-        }
+        // 6. Historial de Sesiones (solo se dibujan las filas visibles)
+        sesionesAdapter.setSesiones(actividad.getSesiones());
+        tvHistorialVacio.setVisibility(sesionesAdapter.estaVacio() ? View.VISIBLE : View.GONE);
     }
 
     private void mostrarDialogoAvance() {
@@ -308,8 +319,8 @@ public class DetalleActividadActivity extends AppCompatActivity {
 
         btnSi.setOnClickListener(v -> {
             actividad.setPorcentajeAvance(nuevoAvance);
+            // La pantalla se recarga al recibir el cambio del repositorio
             RepositorioActividades.getInstance().actualizarActividad(actividad);
-            cargarDatos();
             Toast.makeText(this, "Progreso actualizado", Toast.LENGTH_SHORT).show();
             dialog.dismiss();
         });
@@ -351,12 +362,12 @@ public class DetalleActividadActivity extends AppCompatActivity {
     }
 
     /**
-     * Inicia la actividad del Temporizador enviando el objeto actividad y la técnica seleccionada.
+     * Inicia la actividad del Temporizador enviando el ID de la actividad y la técnica seleccionada.
      */
     private void irATemporizador(TecnicaEnfoque tecnica) {
         Intent intent = new Intent(this, TemporizadorActivity.class);
-        intent.putExtra("TECNICA", tecnica);
-        intent.putExtra("ACTIVIDAD_OBJ", actividad);
+        intent.putExtra(TemporizadorActivity.EXTRA_TECNICA, tecnica);
+        intent.putExtra(TemporizadorActivity.EXTRA_ID_ACTIVIDAD, actividad.getId());
         startActivity(intent);
     }
 }
\ No newline at end of file
@@ -33,11 +33,16 @@ import java.time.format.DateTimeFormatter;
  * Carga los datos actuales en el formulario y permite guardar cambios.
  * El tipo de actividad (Académica/Personal) no es editable después de creada.
  *
+ * <p>Recibe solo el ID de la actividad ({@link #EXTRA_ID_ACTIVIDAD}) y la obtiene del repositorio.</p>
+ *
  * @author José Paladines
- * @version 1.0
+ * @version 1.1
  */
 public class EditarActividadActivity extends AppCompatActivity {
 
+    /** Extra (int) con el ID de la actividad a editar; también se devuelve en el resultado. */
+    public static final String EXTRA_ID_ACTIVIDAD = "ID_ACTIVIDAD";
+
     private EditText etNombre, etDescripcion, etMateria, etLugar, etTiempoEstimado, tvFecha, tvHora;
     private Spinner spinnerTipoActividad, spinnerPrioridad, spinnerTipoAcademica;
     private Button btnGuardar;
@@ -52,8 +57,9 @@ public class EditarActividadActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_editar_actividad);
 
-        // 1. Recuperar la actividad enviada desde DetalleActividad
-        actividadAEditar = (Actividad) getIntent().getSerializableExtra("actividad_a_editar");
+        // 1. Recuperar la actividad del repositorio con el ID enviado desde DetalleActividad
+        int id = getIntent().getIntExtra(EXTRA_ID_ACTIVIDAD, -1);
+        actividadAEditar = RepositorioActividades.getInstance().buscarPorId(id);
 
         if (actividadAEditar == null) {
             Toast.makeText(this, "Error al cargar la actividad", Toast.LENGTH_SHORT).show();
@@ -191,6 +197,10 @@ public class EditarActividadActivity extends AppCompatActivity {
         }
     }
 
+    /**
+     * Valida el formulario y, solo si todo es correcto, aplica los cambios.
+     * La actividad es la instancia del repositorio, así que no se toca nada antes de validar.
+     */
     private void guardarCambios() {
         // Validaciones
         if (etNombre.getText().toString().trim().isEmpty()) {
@@ -201,36 +211,37 @@ public class EditarActividadActivity extends AppCompatActivity {
             etTiempoEstimado.setError("Requerido");
             return;
         }
+        int tiempoEstimado;
+        try {
+            tiempoEstimado = Integer.parseInt(etTiempoEstimado.getText().toString().trim());
+        } catch (NumberFormatException e) {
+            etTiempoEstimado.setError("Número inválido");
+            return;
+        }
+        if (actividadAEditar instanceof ActividadAcademica && etMateria.getText().toString().trim().isEmpty()) {
+            etMateria.setError("Materia requerida");
+            return;
+        }
+        if (actividadAEditar instanceof ActividadPersonal && etLugar.getText().toString().trim().isEmpty()) {
+            etLugar.setError("Lugar requerido");
+            return;
+        }
 
         // Actualizar datos comunes
         actividadAEditar.setNombre(etNombre.getText().toString().trim());
         actividadAEditar.setDescripcion(etDescripcion.getText().toString().trim());
         actividadAEditar.setFechaVencimiento(fechaSeleccionada);
         actividadAEditar.setPrioridad((Prioridad) spinnerPrioridad.getSelectedItem());
-
-        try {
-            actividadAEditar.setTiempoEstimadoMinutos(Integer.parseInt(etTiempoEstimado.getText().toString().trim()));
-        } catch (NumberFormatException e) {
-            etTiempoEstimado.setError("Número inválido");
-            return;
-        }
+        actividadAEditar.setTiempoEstimadoMinutos(tiempoEstimado);
 
         // Actualizar datos específicos
         if (actividadAEditar instanceof ActividadAcademica) {
             ActividadAcademica aa = (ActividadAcademica) actividadAEditar;
-            if (etMateria.getText().toString().trim().isEmpty()) {
-                etMateria.setError("Materia requerida");
-                return;
-            }
             aa.setAsignatura(etMateria.getText().toString().trim());
             aa.setTipo((TipoAcademica) spinnerTipoAcademica.getSelectedItem());
 
         } else if (actividadAEditar instanceof ActividadPersonal) {
             ActividadPersonal ap = (ActividadPersonal) actividadAEditar;
-            if (etLugar.getText().toString().trim().isEmpty()) {
-                etLugar.setError("Lugar requerido");
-                return;
-            }
             ap.setLugar(etLugar.getText().toString().trim());
         }
 
@@ -241,7 +252,7 @@ public class EditarActividadActivity extends AppCompatActivity {
 
         // Devolver resultado
         Intent resultIntent = new Intent();
-        resultIntent.putExtra("actividad_actualizada", actividadAEditar);
+        resultIntent.putExtra(EXTRA_ID_ACTIVIDAD, actividadAEditar.getId());
         setResult(RESULT_OK, resultIntent);
         finish();
     }
@@ -2,10 +2,15 @@ package com.example.menuaplication.ui.actividades;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.view.View;
 import android.widget.AdapterView;
 import android.widget.ArrayAdapter;
 import android.widget.Button;
+import android.widget.EditText;
 import android.widget.ImageButton;
 import android.widget.Spinner;
 
@@ -14,16 +19,20 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.menuaplication.R;
+import com.example.menuaplication.data.BusCambios;
 import com.example.menuaplication.data.RepositorioActividades;
 import com.example.menuaplication.model.actividades.Actividad;
-import com.example.menuaplication.model.actividades.ActividadAcademica;
-import com.example.menuaplication.model.actividades.ActividadPersonal;
+import com.example.menuaplication.model.actividades.FiltroActividades;
+import com.example.menuaplication.model.actividades.OrdenActividades;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Actividad principal del módulo que muestra la lista de actividades registradas.
@@ -34,17 +43,50 @@ import java.util.List;
  * <li>Filtrar actividades por tipo (Todas, Académicas, Personales).</li>
  * <li>Ordenar actividades por Nombre, Fecha (Asc/Desc) y Avance (Asc/Desc).</li>
  * <li>Filtrar automáticamente las actividades vencidas para que no aparezcan.</li>
+ * <li>Buscar por texto mientras se escribe: la búsqueda espera a que el usuario haga una
+ * pausa y se resuelve en segundo plano con el índice del repositorio.</li>
+ * <li>Aplicar solo los cambios que publica el repositorio ({@link BusCambios}), sin
+ * reconstruir la lista al volver a la pantalla.</li>
  * </ul>
  *
  * @author José Paladines
- * @version 1.1
+ * @version 1.4
  */
 public class ListaActividadesActivity extends AppCompatActivity {
 
+    /** Pausa al escribir tras la cual se lanza la búsqueda. */
+    private static final long RETARDO_BUSQUEDA_MS = 250;
+
     private RecyclerView recyclerView;
     private ActividadAdapter adapter;
     private Spinner spinnerFiltro, spinnerOrden;
     private Button btnCrear;
+    private EditText etBuscar;
+
+    /**
+     * Actividades mostradas, en el orden actual. Tras cada cambio se envía al adaptador,
+     * que calcula en segundo plano qué filas actualizar.
+     */
+    private List<Actividad> visibles = new ArrayList<>();
+
+    /** Momento con el que se calcularon por última vez las vencidas de {@link #visibles}. */
+    private LocalDateTime ultimaRevision;
+
+    private FiltroActividades filtro = FiltroActividades.TODOS;
+    private OrdenActividades orden = OrdenActividades.NOMBRE_ASC;
+
+    /** IDs que coinciden con la búsqueda actual, o {@code null} si no hay búsqueda. */
+    private Set<Integer> resultadoBusqueda;
+
+    /** Se incrementa con cada búsqueda; los resultados de una búsqueda anterior se ignoran. */
+    private int generacionBusqueda = 0;
+
+    private final Handler hiloPrincipal = new Handler(Looper.getMainLooper());
+    private final ExecutorService buscador = Executors.newSingleThreadExecutor();
+    private final Runnable buscar = this::lanzarBusqueda;
+
+    /** Aplica los cambios del repositorio a la lista visible. */
+    private final BusCambios.Observador observador = this::aplicarCambios;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -56,6 +98,7 @@ public class ListaActividadesActivity extends AppCompatActivity {
         spinnerFiltro = findViewById(R.id.spinnerFiltro);
         spinnerOrden = findViewById(R.id.spinnerOrden);
         btnCrear = findViewById(R.id.btnCrear);
+        etBuscar = findViewById(R.id.etBuscar);
 
         // Botón Back (si lo agregaste al XML)
         ImageButton btnBack = findViewById(R.id.btnBackLista);
@@ -84,7 +127,7 @@ public class ListaActividadesActivity extends AppCompatActivity {
 
         // Configurar RecyclerView
         recyclerView.setLayoutManager(new LinearLayoutManager(this));
-        adapter = new ActividadAdapter(new ArrayList<>(), this);
+        adapter = new ActividadAdapter(visibles, this);
         recyclerView.setAdapter(adapter);
 
         // Listeners para los filtros
@@ -102,72 +145,140 @@ public class ListaActividadesActivity extends AppCompatActivity {
             public void onNothingSelected(AdapterView<?> parent) {}
         });
 
+        // Búsqueda mientras se escribe (con espera, para no buscar en cada tecla)
+        etBuscar.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {}
+            @Override
+            public void afterTextChanged(Editable s) {
+                hiloPrincipal.removeCallbacks(buscar);
+                hiloPrincipal.postDelayed(buscar, RETARDO_BUSQUEDA_MS);
+            }
+        });
+
         // Botón para crear
         btnCrear.setOnClickListener(v -> startActivity(new Intent(this, CrearActividadActivity.class)));
+
+        // Los cambios hechos en otras pantallas llegan por el bus del repositorio
+        RepositorioActividades.getInstance().getBusCambios().registrar(observador);
     }
 
     @Override
     protected void onResume() {
         super.onResume();
-        // IMPORTANTE: Refrescar la lista cada vez que volvemos a esta pantalla
-        refrescarLista();
+        // Los cambios ya llegaron por el bus; solo hay que ocultar las que vencieron mientras tanto
+        quitarVencidas();
+    }
+
+    @Override
+    protected void onDestroy() {
+        RepositorioActividades.getInstance().getBusCambios().quitar(observador);
+        hiloPrincipal.removeCallbacks(buscar);
+        buscador.shutdownNow();
+        super.onDestroy();
     }
 
     /**
-     * Obtiene la lista completa de actividades, aplica las reglas de negocio
-     * (eliminar vencidas, filtrar por tipo) y ordena los resultados según la selección.
+     * Pide al repositorio las actividades visibles según el filtro y el orden seleccionados
+     * (las vencidas sin completar se ocultan) y las muestra en el adaptador.
+     * Solo se usa al cambiar un spinner. La posición de cada spinner coincide con
+     * {@link FiltroActividades} y {@link OrdenActividades}.
      */
     private void refrescarLista() {
-        List<Actividad> todas = RepositorioActividades.getInstance().getListaActividades();
-        List<Actividad> filtradas = new ArrayList<>();
-        LocalDateTime ahora = LocalDateTime.now();
+        filtro = FiltroActividades.values()[spinnerFiltro.getSelectedItemPosition()];
+        orden = OrdenActividades.values()[spinnerOrden.getSelectedItemPosition()];
 
-        // 1. Filtro de Tipo y Vencimiento
-        String filtro = spinnerFiltro.getSelectedItem().toString();
+        // Actualizar el adaptador (solo se redibujan las filas que cambian de posición)
+        ultimaRevision = LocalDateTime.now();
+        visibles = RepositorioActividades.getInstance().consultar(filtro, orden, ultimaRevision, resultadoBusqueda);
+        adapter.setActividades(visibles);
+    }
 
-        for (Actividad a : todas) {
-            // --- FILTRO DE VENCIMIENTO ---
-            // Si la fecha ya pasó y NO está al 100%, la ignoramos (no se agrega a la lista)
-            boolean estaVencida = a.getFechaVencimiento().isBefore(ahora) && a.getPorcentajeAvance() < 100;
-            if (estaVencida) {
-                continue; // Salta a la siguiente iteración del bucle
-            }
-            // -----------------------------
+    /**
+     * Busca el texto actual en segundo plano y, al terminar, refresca la lista en el hilo
+     * principal. Si mientras tanto se lanzó otra búsqueda, este resultado se descarta.
+     */
+    private void lanzarBusqueda() {
+        final int generacion = ++generacionBusqueda;
+        final String consulta = etBuscar.getText() != null ? etBuscar.getText().toString() : "";
+        buscador.execute(() -> {
+            Set<Integer> ids = RepositorioActividades.getInstance().buscarIds(consulta);
+            hiloPrincipal.post(() -> {
+                if (generacion != generacionBusqueda || isDestroyed()) return;
+                resultadoBusqueda = ids;
+                refrescarLista();
+            });
+        });
+    }
 
-            if (filtro.equals("Todos")) {
-                filtradas.add(a);
-            } else if (filtro.equals("Académica")) {
-                if (a instanceof ActividadAcademica) filtradas.add(a);
-            } else {
-                if (a instanceof ActividadPersonal) filtradas.add(a);
-            }
+    /**
+     * Aplica a la lista visible los cambios de un fotograma: quita las eliminadas y
+     * coloca las insertadas o actualizadas en su posición según el orden actual.
+     * El lote completo se envía al adaptador una sola vez.
+     */
+    private void aplicarCambios(List<BusCambios.Cambio> cambios) {
+        if (resultadoBusqueda != null) {
+            // Un cambio de texto puede hacer que una actividad entre o salga de la búsqueda
+            lanzarBusqueda();
+            return;
         }
+        RepositorioActividades repositorio = RepositorioActividades.getInstance();
+        LocalDateTime ahora = LocalDateTime.now();
+        Comparator<Actividad> comparador = orden.comparador();
 
-        // 2. Ordenamiento Expandido
-        String orden = spinnerOrden.getSelectedItem().toString();
+        for (BusCambios.Cambio cambio : cambios) {
+            int anterior = posicionDe(cambio.id);
+            if (anterior >= 0) visibles.remove(anterior);
 
-        if (orden.contains("Nombre (A-Z)")) {
-            // Nombre A-Z
-            Collections.sort(filtradas, Comparator.comparing(Actividad::getNombre));
+            Actividad actividad = cambio.tipo == BusCambios.Tipo.ELIMINADO ? null : repositorio.buscarPorId(cambio.id);
+            boolean mostrar = actividad != null && filtro.acepta(actividad)
+                    && !RepositorioActividades.estaVencida(actividad, ahora);
 
-        } else if (orden.equals("Fecha V. (Asc)")) {
-            // Lo más cercano primero (Hoy -> Mañana)
-            Collections.sort(filtradas, (a, b) -> a.getFechaVencimiento().compareTo(b.getFechaVencimiento()));
+            if (mostrar) {
+                visibles.add(posicionDeInsercion(actividad, comparador), actividad);
+            }
+        }
+        adapter.setActividades(visibles);
+    }
 
-        } else if (orden.equals("Fecha V. (Desc)")) {
-            // Lo más lejano primero (El próximo mes -> Hoy)
-            Collections.sort(filtradas, (a, b) -> b.getFechaVencimiento().compareTo(a.getFechaVencimiento()));
+    /**
+     * Quita de la lista visible las actividades que vencieron desde la última revisión.
+     * El repositorio devuelve solo las que vencieron en ese intervalo, sin revisar el resto.
+     */
+    private void quitarVencidas() {
+        if (ultimaRevision == null) return;
+        LocalDateTime ahora = LocalDateTime.now();
+        List<Actividad> recienVencidas = RepositorioActividades.getInstance().getPendientesEntre(ultimaRevision, ahora);
+        ultimaRevision = ahora;
+        if (recienVencidas.isEmpty()) return;
 
-        } else if (orden.equals("Avance (Asc)")) {
-            // De menor a mayor avance (0% -> 100%)
-            Collections.sort(filtradas, (a, b) -> Double.compare(a.getPorcentajeAvance(), b.getPorcentajeAvance()));
+        Set<Integer> ids = new HashSet<>();
+        for (Actividad a : recienVencidas) ids.add(a.getId());
+        if (visibles.removeIf(a -> ids.contains(a.getId()))) {
+            adapter.setActividades(visibles);
+        }
+    }
 
-        } else if (orden.equals("Avance (Desc)")) {
-            // De mayor a menor avance (100% -> 0%)
-            Collections.sort(filtradas, (a, b) -> Double.compare(b.getPorcentajeAvance(), a.getPorcentajeAvance()));
+    private int posicionDe(int id) {
+        for (int i = 0; i < visibles.size(); i++) {
+            if (visibles.get(i).getId() == id) return i;
         }
+        return -1;
+    }
 
-        // Actualizar el adaptador
-        adapter.setActividades(filtradas);
+    /** Búsqueda binaria de la posición tras la última actividad que no va después de {@code actividad}. */
+    private int posicionDeInsercion(Actividad actividad, Comparator<Actividad> comparador) {
+        int bajo = 0, alto = visibles.size();
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (comparador.compare(visibles.get(medio), actividad) <= 0) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,187 @@
+package com.example.menuaplication.ui.actividades;
+
+import android.content.res.ColorStateList;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.menuaplication.R;
+import com.example.menuaplication.model.actividades.RegistroSesiones;
+import com.example.menuaplication.model.actividades.TecnicaEnfoque;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Adaptador del historial de sesiones en {@link DetalleActividadActivity}.
+ *
+ * <p>La primera fila es el encabezado con los datos de la actividad (una vista fija que
+ * arma la pantalla); las demás son las sesiones, de la más reciente a la más antigua.
+ * Solo se infla una vista por fila visible y se reutilizan al desplazarse.</p>
+ *
+ * <p>Las sesiones se muestran por páginas de {@link #TAMANO_PAGINA}: al acercarse al final
+ * de lo mostrado se agrega la página siguiente. Se leen directamente de las columnas del
+ * {@link RegistroSesiones} de la actividad, sin crear objetos por sesión. Como las sesiones
+ * solo se agregan al final, el adaptador recuerda cuántas había y las nuevas aparecen
+ * arriba al llamar de nuevo a {@link #setSesiones(RegistroSesiones)}.</p>
+ *
+ * @author José Paladines
+ * @version 1.0
+ */
+public class SesionesAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+
+    /** Sesiones que se agregan a la lista cada vez. */
+    static final int TAMANO_PAGINA = 50;
+
+    /** Filas antes del final de lo mostrado a partir de las que se carga la página siguiente. */
+    private static final int UMBRAL_PAGINA = 10;
+
+    private static final int TIPO_ENCABEZADO = 0;
+    private static final int TIPO_SESION = 1;
+
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("dd MMM, HH:mm");
+
+    // Colores del icono según la técnica
+    private static final ColorStateList FONDO_POMODORO = ColorStateList.valueOf(0xFFFFEBEE);
+    private static final int ICONO_POMODORO = 0xFFD32F2F;
+    private static final ColorStateList FONDO_DEEP_WORK = ColorStateList.valueOf(0xFFEDE7F6);
+    private static final int ICONO_DEEP_WORK = 0xFF673AB7;
+
+    private final View encabezado;
+
+    private RegistroSesiones sesiones;
+
+    /** Sesiones que había al último {@link #setSesiones}; las posteriores aún no se muestran. */
+    private int total;
+
+    /** Sesiones mostradas (las {@code mostradas} más recientes de {@link #total}). */
+    private int mostradas;
+
+    private RecyclerView recyclerView;
+    private final Runnable cargarPagina = this::cargarPagina;
+
+    /**
+     * @param encabezado Vista con los datos de la actividad, que se muestra como primera fila.
+     */
+    public SesionesAdapter(@NonNull View encabezado) {
+        this.encabezado = encabezado;
+    }
+
+    /**
+     * Muestra el historial de una actividad. Si es el mismo historial que ya se mostraba,
+     * solo se insertan arriba las sesiones nuevas y se redibujan las visibles (por si alguna
+     * se editó); si no, se empieza de nuevo por la primera página.
+     *
+     * @param nuevas Historial de la actividad.
+     */
+    public void setSesiones(@NonNull RegistroSesiones nuevas) {
+        int cantidad = nuevas.tamano();
+        if (nuevas == sesiones && cantidad >= total) {
+            int agregadas = cantidad - total;
+            notifyItemRangeChanged(1, mostradas);
+            total = cantidad;
+            mostradas += agregadas;
+            if (agregadas > 0) notifyItemRangeInserted(1, agregadas);
+            return;
+        }
+        sesiones = nuevas;
+        total = cantidad;
+        mostradas = Math.min(total, TAMANO_PAGINA);
+        notifyDataSetChanged();
+    }
+
+    /** @return {@code true} si la actividad no tiene sesiones. */
+    public boolean estaVacio() {
+        return total == 0;
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        this.recyclerView = recyclerView;
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        recyclerView.removeCallbacks(cargarPagina);
+        this.recyclerView = null;
+    }
+
+    @Override
+    public int getItemCount() {
+        return 1 + mostradas;
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return position == 0 ? TIPO_ENCABEZADO : TIPO_SESION;
+    }
+
+    @NonNull
+    @Override
+    public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        if (viewType == TIPO_ENCABEZADO) {
+            return new RecyclerView.ViewHolder(encabezado) {};
+        }
+        View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_sesion_historial, parent, false);
+        return new SesionViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        if (position == 0) return;
+
+        // Fila 1 = sesión más reciente
+        int i = total - position;
+        SesionViewHolder h = (SesionViewHolder) holder;
+
+        TecnicaEnfoque tecnica = sesiones.getTecnica(i);
+        h.tvTecnica.setText(tecnica != null ? tecnica.toString().replace("_", " ") : "SESIÓN");
+
+        LocalDateTime fecha = sesiones.getFechaHora(i);
+        h.tvFecha.setText(fecha != null ? fecha.format(FORMATO_FECHA) : "");
+        h.tvDuracion.setText(sesiones.getDuracionMinutos(i) + " min");
+
+        if (tecnica == TecnicaEnfoque.POMODORO) {
+            h.img.setBackgroundTintList(FONDO_POMODORO);
+            h.img.setColorFilter(ICONO_POMODORO);
+        } else {
+            h.img.setBackgroundTintList(FONDO_DEEP_WORK);
+            h.img.setColorFilter(ICONO_DEEP_WORK);
+        }
+
+        // Cerca del final: pedir la página siguiente (no se puede notificar durante el layout)
+        if (mostradas < total && position >= mostradas - UMBRAL_PAGINA && recyclerView != null) {
+            recyclerView.removeCallbacks(cargarPagina);
+            recyclerView.post(cargarPagina);
+        }
+    }
+
+    /** Agrega al final la página siguiente de sesiones más antiguas. */
+    private void cargarPagina() {
+        if (mostradas >= total) return;
+        int desde = mostradas;
+        mostradas = Math.min(total, mostradas + TAMANO_PAGINA);
+        notifyItemRangeInserted(1 + desde, mostradas - desde);
+    }
+
+    /**
+     * Referencias a las vistas de una fila del historial.
+     */
+    static class SesionViewHolder extends RecyclerView.ViewHolder {
+        final TextView tvTecnica, tvFecha, tvDuracion;
+        final ImageView img;
+
+        SesionViewHolder(@NonNull View itemView) {
+            super(itemView);
+            tvTecnica = itemView.findViewById(R.id.tvTecnicaSesion);
+            tvFecha = itemView.findViewById(R.id.tvFechaSesion);
+            tvDuracion = itemView.findViewById(R.id.tvDuracionSesion);
+            img = itemView.findViewById(R.id.imgTipoSesion);
+        }
+    }
+}
@@ -32,11 +32,20 @@ import java.util.Random;
  * Gestiona la cuenta regresiva, la interfaz visual dinámica y el registro de la sesión
  * al finalizar el tiempo.
  *
+ * <p>Recibe el ID de la actividad ({@link #EXTRA_ID_ACTIVIDAD}) y la técnica ({@link #EXTRA_TECNICA});
+ * la actividad se obtiene del repositorio.</p>
+ *
  * @author José Paladines
- * @version 1.0
+ * @version 1.1
  */
 public class TemporizadorActivity extends AppCompatActivity {
 
+    /** Extra (int) con el ID de la actividad. */
+    public static final String EXTRA_ID_ACTIVIDAD = "ID_ACTIVIDAD";
+
+    /** Extra ({@link TecnicaEnfoque}) con la técnica a usar. */
+    public static final String EXTRA_TECNICA = "TECNICA";
+
     // Vistas
     private TextView tvTiempo, tvFrase, tvModoTitulo, tvNombreActividad;
     private ProgressBar progressBarTimer;
@@ -71,8 +80,8 @@ public class TemporizadorActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_temporizador);
 
-        actividadActual = (Actividad) getIntent().getSerializableExtra("ACTIVIDAD_OBJ");
-        tecnicaActual = (TecnicaEnfoque) getIntent().getSerializableExtra("TECNICA");
+        actividadActual = RepositorioActividades.getInstance().buscarPorId(getIntent().getIntExtra(EXTRA_ID_ACTIVIDAD, -1));
+        tecnicaActual = (TecnicaEnfoque) getIntent().getSerializableExtra(EXTRA_TECNICA);
 
         // Vincular vistas
         tvTiempo = findViewById(R.id.tvTiempo);
@@ -2,59 +2,124 @@ package com.example.menuaplication.ui.buscaminas;
 
 import android.media.MediaPlayer;
 import android.app.AlertDialog;
+import android.graphics.Color;
+import android.graphics.drawable.ColorDrawable;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.os.SystemClock;
+import android.view.LayoutInflater;
+import android.view.View;
 import android.widget.Chronometer;
+import android.widget.EditText;
 import android.widget.ImageButton;
 import android.widget.TextView;
 import androidx.appcompat.app.AppCompatActivity;
-import androidx.recyclerview.widget.GridLayoutManager;
-import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.menuaplication.R;
-import com.example.menuaplication.model.buscaminas.Celda;
-import com.example.menuaplication.ui.buscaminas.BuscaminasAdapter;
-
-import java.util.ArrayList;
-import java.util.List;
+import com.example.menuaplication.data.RepositorioPartidas;
+import com.example.menuaplication.model.buscaminas.CeldasCambiadas;
+import com.example.menuaplication.model.buscaminas.DificultadBuscaminas;
+import com.example.menuaplication.model.buscaminas.GeneradorBuscaminas;
+import com.example.menuaplication.model.buscaminas.SolucionadorBuscaminas;
+import com.example.menuaplication.model.buscaminas.TableroBuscaminas;
+import com.example.menuaplication.model.partidas.EscritorBits;
+import com.example.menuaplication.model.partidas.InstantaneaPartida;
+import com.example.menuaplication.model.partidas.JuegoGuardado;
+import com.example.menuaplication.model.partidas.LectorBits;
+
+import java.util.Locale;
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Actividad principal que implementa la lógica del juego Buscaminas.
  * <p>
- * Esta clase gestiona el tablero de juego, la colocación aleatoria de minas,
- * la lógica de descubrimiento de celdas (incluyendo la expansión recursiva de áreas vacías),
- * el control del tiempo y la reproducción de música de fondo durante la partida.
+ * Esta clase gestiona la interfaz de la partida, el control del tiempo y la reproducción
+ * de música de fondo. Las reglas (minas, números y expansión de áreas vacías) están en
+ * {@link TableroBuscaminas} y el tablero se dibuja en una sola vista
+ * ({@link VistaTableroBuscaminas}); tras cada jugada solo se redibujan las celdas que cambiaron.
+ * </p>
+ * <p>
+ * Las minas se colocan al primer toque, en segundo plano, con {@link GeneradorBuscaminas}:
+ * el primer toque nunca es una mina y el tablero se puede resolver sin adivinar (en tableros
+ * de más de {@link #MAX_CELDAS_SIN_ADIVINAR} celdas solo se garantiza el primer toque). El botón
+ * de pista usa {@link SolucionadorBuscaminas} para señalar una celda segura, una mina sin
+ * marcar o, si no hay nada seguro, la de menor riesgo.
+ * </p>
+ * <p>
+ * El tamaño y las minas salen de una dificultad ({@link DificultadBuscaminas}) o de un
+ * tablero personalizado de hasta {@link TableroBuscaminas#MAX_LADO} de lado; en tableros
+ * grandes la vista permite hacer zoom y desplazarse.
+ * </p>
+ * <p>
+ * La partida en curso (tablero, dificultad, tiempo y semilla) se guarda al pausar y en
+ * {@link #onSaveInstanceState(Bundle)} con {@link RepositorioPartidas}, y se reanuda al
+ * volver a crear la actividad.
  * </p>
  *
  * @author José Paladines
- * @version 1.0
+ * @version 1.7
  */
 public class BuscaminasActivity extends AppCompatActivity {
 
-    // Constantes de configuración del tablero
-    private final int FILAS = 10;
-    private final int COLUMNAS = 8;
-    private final int TOTAL_BOMBAS = 12;
+    /** Tiempo máximo buscando un tablero sin adivinar antes de aceptar uno cualquiera. */
+    private static final long LIMITE_GENERACION_MS = 3000;
+
+    /**
+     * Por encima de este número de celdas las minas se colocan directamente (primer toque
+     * seguro, pero sin garantizar que no haya que adivinar), así el tablero sale al instante.
+     * Hasta aquí la búsqueda sin adivinar tarda unas decenas de milisegundos en la JVM de
+     * escritorio; en 100x100 ya pasa de 100 ms y, con la densidad de Experto, agota
+     * {@link #LIMITE_GENERACION_MS}. Experto+ (200x200) queda siempre en la colocación directa.
+     */
+    private static final int MAX_CELDAS_SIN_ADIVINAR = 50 * 50;
+
+    private static final DificultadBuscaminas[] DIFICULTADES = DificultadBuscaminas.values();
+
+    /** Bits de la dificultad en la partida guardada (0 = personalizada, si no ordinal + 1). */
+    private static final int BITS_DIFICULTAD = EscritorBits.bitsPara(DIFICULTADES.length);
+
+    // Configuración del tablero (la dificultad elegida)
+    private int filas = DificultadBuscaminas.PRINCIPIANTE.filas;
+    private int columnas = DificultadBuscaminas.PRINCIPIANTE.columnas;
+    private int totalBombas = DificultadBuscaminas.PRINCIPIANTE.minas;
+
+    /** Dificultad elegida, o {@code null} si el tablero es personalizado. */
+    private DificultadBuscaminas dificultad = DificultadBuscaminas.PRINCIPIANTE;
 
     // Elementos de la interfaz de usuario
-    private RecyclerView rvTablero;
-    private TextView tvMinas, tvEstado;
+    private VistaTableroBuscaminas vistaTablero;
+    private TextView tvMinas, tvEstado, tvDificultad;
     private Chronometer cronometro;
-    private ImageButton btnVolver, btnReiniciar;
+    private ImageButton btnVolver, btnReiniciar, btnPista;
 
     // Lógica del juego
-    private List<Celda> tablero;
-    private BuscaminasAdapter adaptador;
+    private TableroBuscaminas tablero;
     private boolean juegoTerminado = false;
     private boolean esPrimerMovimiento = true;
 
+    /** Semilla con la que se colocaron las minas ({@code 0} hasta el primer toque). */
+    private long semillaPartida = 0;
+
+    /** {@code true} mientras se genera el tablero tras el primer toque. */
+    private boolean generando = false;
+
+    /** Se incrementa con cada partida; un tablero generado para otra partida se descarta. */
+    private int generacionPartida = 0;
+
+    private final Handler hiloPrincipal = new Handler(Looper.getMainLooper());
+    private final ExecutorService generador = Executors.newSingleThreadExecutor();
+
     // Componentes multimedia
     private MediaPlayer reproductor;
 
+    private RepositorioPartidas partidas;
+
     /**
      * Método de creación de la actividad.
-     * Inicializa la interfaz gráfica y configura el estado inicial del juego.
+     * Inicializa la interfaz gráfica y reanuda la partida guardada o empieza una nueva.
      *
      * @param savedInstanceState Estado guardado de la instancia anterior.
      */
@@ -62,9 +127,13 @@ public class BuscaminasActivity extends AppCompatActivity {
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_buscaminas);
+        partidas = RepositorioPartidas.getInstance(this);
 
         inicializarVistas();
-        iniciarLogicaJuego();
+        InstantaneaPartida guardada = partidas.cargar(JuegoGuardado.BUSCAMINAS, savedInstanceState);
+        if (guardada == null || !restaurarPartida(guardada)) {
+            iniciarLogicaJuego();
+        }
     }
 
     /**
@@ -73,15 +142,18 @@ public class BuscaminasActivity extends AppCompatActivity {
      */
     private void inicializarVistas() {
         // 1. Vincular vistas con el XML
-        rvTablero = findViewById(R.id.rv_tablero_buscaminas);
+        vistaTablero = findViewById(R.id.vista_tablero_buscaminas);
         tvMinas = findViewById(R.id.tv_minas_restantes);
         tvEstado = findViewById(R.id.tv_estado_juego);
+        tvDificultad = findViewById(R.id.tv_dificultad);
         cronometro = findViewById(R.id.cronometro_juego);
         btnVolver = findViewById(R.id.btn_volver_menu);
         btnReiniciar = findViewById(R.id.btn_reiniciar);
+        btnPista = findViewById(R.id.btn_pista);
 
-        // 2. Configurar LayoutManager para el RecyclerView (Cuadrícula)
-        rvTablero.setLayoutManager(new GridLayoutManager(this, COLUMNAS));
+        // 2. Toque corto: descubrir | Toque largo: marcar
+        vistaTablero.setOnCeldaClickListener(this::manejarClick);
+        vistaTablero.setOnCeldaLongClickListener(this::manejarLongClick);
 
         // 3. Configurar Botones (Listeners)
         btnVolver.setOnClickListener(v -> {
@@ -93,86 +165,43 @@ public class BuscaminasActivity extends AppCompatActivity {
         btnReiniciar.setOnClickListener(v -> {
             iniciarLogicaJuego();
         });
+
+        btnPista.setOnClickListener(v -> mostrarPista());
+        tvDificultad.setOnClickListener(v -> mostrarDialogoDificultad());
     }
 
     /**
      * Configura la lógica inicial de una nueva partida.
      * <p>
-     * Resetea el tablero, coloca las bombas de manera aleatoria, calcula los números
-     * de proximidad y reinicia el cronómetro.
+     * Resetea el tablero (aún sin bombas: se colocan al primer toque) y reinicia el cronómetro.
      * </p>
      */
     private void iniciarLogicaJuego() {
         cronometro.stop();
 
-        tablero = new ArrayList<>();
-        juegoTerminado = false;
+        tablero = new TableroBuscaminas(filas, columnas, totalBombas);
         esPrimerMovimiento = true;
-
-        tvEstado.setText("¡Cuidado con los fantasmas! 👻");
-        tvMinas.setText("💣 " + TOTAL_BOMBAS);
-        cronometro.setBase(SystemClock.elapsedRealtime());
-
-        // Generar celdas vacías
-        for (int i = 0; i < FILAS * COLUMNAS; i++) {
-            tablero.add(new Celda());
-        }
-
-        // Colocar bombas aleatorias
-        int bombasPuestas = 0;
-        Random rnd = new Random();
-        while (bombasPuestas < TOTAL_BOMBAS) {
-            int pos = rnd.nextInt(tablero.size());
-            if (!tablero.get(pos).isEsBomba()) {
-                tablero.get(pos).setEsBomba(true);
-                bombasPuestas++;
-            }
-        }
-
-        // Calcular números de proximidad
-        calcularNumeros();
-
-        // Configurar Adaptador
-        adaptador = new BuscaminasAdapter(tablero, this::manejarClick, this::manejarLongClick);
-        rvTablero.setAdapter(adaptador);
+        semillaPartida = 0;
+        mostrarPartida(0);
     }
 
     /**
-     * Calcula cuántas bombas hay alrededor de cada celda que no sea bomba.
-     * Actualiza el atributo {@code bombasAlrededor} de cada objeto {@link Celda}.
-     */
-    private void calcularNumeros() {
-        for (int i = 0; i < tablero.size(); i++) {
-            if (tablero.get(i).isEsBomba()) continue;
-            int count = 0;
-            for (int vecino : getVecinos(i)) {
-                if (tablero.get(vecino).isEsBomba()) count++;
-            }
-            tablero.get(i).setBombasAlrededor(count);
-        }
-    }
-
-    /**
-     * Obtiene los índices de las celdas adyacentes a una posición dada.
+     * Deja la interfaz lista para jugar el tablero actual (nuevo o reanudado).
      *
-     * @param pos Índice de la celda central.
-     * @return Lista de índices de las celdas vecinas válidas (dentro de los límites del tablero).
+     * @param tiempoJugado Milisegundos que ya lleva la partida.
      */
-    private List<Integer> getVecinos(int pos) {
-        List<Integer> vecinos = new ArrayList<>();
-        int r = pos / COLUMNAS;
-        int c = pos % COLUMNAS;
-
-        for (int i = -1; i <= 1; i++) {
-            for (int j = -1; j <= 1; j++) {
-                int nr = r + i;
-                int nc = c + j;
-                if (nr >= 0 && nr < FILAS && nc >= 0 && nc < COLUMNAS && !(i == 0 && j == 0)) {
-                    vecinos.add(nr * COLUMNAS + nc);
-                }
-            }
-        }
-        return vecinos;
+    private void mostrarPartida(long tiempoJugado) {
+        juegoTerminado = false;
+        generando = false;
+        generacionPartida++;
+
+        tvEstado.setText("¡Cuidado con los fantasmas! 👻");
+        tvMinas.setText("💣 " + tablero.getMinasRestantes());
+        tvDificultad.setText("🎚️ " + (dificultad != null ? dificultad.nombre : "Personalizado"));
+        cronometro.setBase(SystemClock.elapsedRealtime() - tiempoJugado);
+
+        // Mostrar el tablero
+        vistaTablero.setTablero(tablero);
     }
 
     // --- Lógica de Interacción ---
@@ -183,7 +212,7 @@ public class BuscaminasActivity extends AppCompatActivity {
      * @param posicion Índice de la celda pulsada.
      */
     private void manejarClick(int posicion) {
-        if (juegoTerminado) return;
+        if (juegoTerminado || generando) return;
 
         // Iniciar tiempo al primer toque
         if (esPrimerMovimiento) {
@@ -192,19 +221,18 @@ public class BuscaminasActivity extends AppCompatActivity {
             esPrimerMovimiento = false;
         }
 
-        Celda celda = tablero.get(posicion);
-        // No hacer nada si está marcada (protegida) o ya revelada
-        if (celda.isEstaMarcada() || celda.isEstaRevelada()) return;
-
-        celda.setEstaRevelada(true);
-
-        if (celda.isEsBomba()) {
-            perderJuego();
-        } else if (celda.getBombasAlrededor() == 0) {
-            revelarVacias(posicion);
+        // Primer toque: generar el tablero alrededor de esta celda
+        if (!tablero.hayMinas()) {
+            if (!tablero.estaMarcada(posicion)) generarTablero(posicion);
+            return;
         }
 
-        adaptador.notifyDataSetChanged();
+        // El tablero ignora las celdas marcadas (protegidas) o ya reveladas
+        vistaTablero.resaltarCelda(-1);
+        CeldasCambiadas cambios = tablero.revelar(posicion);
+        notificarCambios(cambios);
+
+        if (tablero.haExplotado()) perderJuego();
         if (!juegoTerminado) verificarVictoria();
     }
 
@@ -214,11 +242,10 @@ public class BuscaminasActivity extends AppCompatActivity {
      * @param posicion Índice de la celda pulsada.
      */
     private void manejarLongClick(int posicion) {
-        if (juegoTerminado || tablero.get(posicion).isEstaRevelada()) return;
+        if (juegoTerminado || generando) return;
 
-        Celda celda = tablero.get(posicion);
-        celda.setEstaMarcada(!celda.isEstaMarcada());
-        adaptador.notifyItemChanged(posicion);
+        vistaTablero.resaltarCelda(-1);
+        notificarCambios(tablero.alternarMarca(posicion));
 
         // Actualizar contador visual de minas restantes
         actualizarContadorMinas();
@@ -226,57 +253,241 @@ public class BuscaminasActivity extends AppCompatActivity {
 
     /**
      * Actualiza el texto de la interfaz que muestra cuántas minas quedan por encontrar,
-     * basado en el número de banderas colocadas por el usuario.
+     * basado en el número de banderas colocadas por el usuario (el tablero lleva la cuenta).
      */
     private void actualizarContadorMinas() {
-        int marcadas = 0;
-        for (Celda c : tablero) if (c.isEstaMarcada()) marcadas++;
-        tvMinas.setText("💣 " + (TOTAL_BOMBAS - marcadas));
+        tvMinas.setText("💣 " + tablero.getMinasRestantes());
     }
 
     /**
-     * Algoritmo recursivo (Flood Fill) para revelar automáticamente las celdas vacías adyacentes.
-     * Se detiene al encontrar celdas que tienen bombas cerca (números).
-     *
-     * @param pos Posición inicial desde donde expandir.
+     * Redibuja solo las celdas que cambiaron en la última jugada.
+     */
+    private void notificarCambios(CeldasCambiadas cambios) {
+        vistaTablero.invalidarCeldas(cambios);
+    }
+
+    /**
+     * Genera en segundo plano un tablero sin adivinar cuyo primer toque es {@code posicion}
+     * y, al terminar, descubre esa celda. Las marcas puestas antes se conservan.
+     * <p>
+     * En tableros de más de {@link #MAX_CELDAS_SIN_ADIVINAR} celdas solo se garantiza el
+     * primer toque, y las minas se colocan al instante.
+     * </p>
      */
-    private void revelarVacias(int pos) {
-        for (int vecino : getVecinos(pos)) {
-            Celda v = tablero.get(vecino);
-            if (!v.isEstaRevelada() && !v.isEsBomba()) {
-                v.setEstaRevelada(true);
-                if (v.getBombasAlrededor() == 0) revelarVacias(vecino);
+    private void generarTablero(int posicion) {
+        final long semilla = new Random().nextLong();
+        semillaPartida = semilla;
+        if (tablero.getTotalCeldas() > MAX_CELDAS_SIN_ADIVINAR) {
+            tablero.colocarMinas(new Random(semilla), posicion);
+            manejarClick(posicion);
+            return;
+        }
+
+        generando = true;
+        tvEstado.setText("Preparando el cementerio... 🕯️");
+
+        final int generacion = generacionPartida;
+        final int filas = this.filas, columnas = this.columnas, minas = totalBombas;
+        generador.execute(() -> {
+            TableroBuscaminas nuevo = GeneradorBuscaminas.generar(filas, columnas, minas, posicion,
+                    new Random(semilla), LIMITE_GENERACION_MS);
+            hiloPrincipal.post(() -> {
+                if (nuevo == null || generacion != generacionPartida || isDestroyed()) return;
+                for (int i = 0; i < nuevo.getTotalCeldas(); i++) {
+                    if (tablero.estaMarcada(i)) nuevo.alternarMarca(i);
+                }
+                tablero = nuevo;
+                generando = false;
+                tvEstado.setText("¡Cuidado con los fantasmas! 👻");
+                vistaTablero.setTablero(tablero);
+                manejarClick(posicion);
+            });
+        });
+    }
+
+    /**
+     * Muestra una pista: resalta la celda sugerida y explica en el estado por qué.
+     */
+    private void mostrarPista() {
+        if (juegoTerminado || generando) return;
+        if (!tablero.hayMinas()) {
+            tvEstado.setText("💡 Toca cualquier celda: el primer toque siempre es seguro");
+            return;
+        }
+
+        SolucionadorBuscaminas.Pista pista = new SolucionadorBuscaminas(tablero).pista();
+        if (pista == null) return;
+        vistaTablero.resaltarCelda(pista.celda);
+        switch (pista.tipo) {
+            case SEGURA:
+                tvEstado.setText("💡 Esa celda es segura");
+                break;
+            case MINA:
+                tvEstado.setText("💡 Ahí hay un fantasma: márcalo");
+                break;
+            default:
+                tvEstado.setText(String.format(Locale.getDefault(),
+                        "💡 Nada es seguro: esa tiene un %.0f%% de riesgo", pista.probabilidadMina * 100));
+                break;
+        }
+    }
+
+    // --- Dificultad ---
+
+    /**
+     * Muestra las dificultades predefinidas y la opción de un tablero personalizado.
+     * Elegir una empieza una partida nueva.
+     */
+    private void mostrarDialogoDificultad() {
+        DificultadBuscaminas[] dificultades = DificultadBuscaminas.values();
+        String[] opciones = new String[dificultades.length + 1];
+        for (int i = 0; i < dificultades.length; i++) {
+            DificultadBuscaminas d = dificultades[i];
+            opciones[i] = d.nombre + " (" + d.filas + "x" + d.columnas + ", " + d.minas + " 💣)";
+        }
+        opciones[dificultades.length] = "Personalizado...";
+
+        AlertDialog.Builder builder = new AlertDialog.Builder(this);
+        builder.setTitle("Dificultad");
+        builder.setItems(opciones, (dialog, which) -> {
+            if (which == dificultades.length) {
+                mostrarDialogoPersonalizado();
+            } else {
+                DificultadBuscaminas d = dificultades[which];
+                cambiarDificultad(d.filas, d.columnas, d.minas, d);
             }
+        });
+        builder.show();
+    }
+
+    /**
+     * Pide filas, columnas y minas para un tablero personalizado y valida los rangos.
+     */
+    private void mostrarDialogoPersonalizado() {
+        AlertDialog.Builder builder = new AlertDialog.Builder(this);
+        View view = LayoutInflater.from(this).inflate(R.layout.dialog_buscaminas_personalizado, null);
+        builder.setView(view);
+        AlertDialog dialog = builder.create();
+        if (dialog.getWindow() != null) dialog.getWindow().setBackgroundDrawable(new ColorDrawable(Color.TRANSPARENT));
+
+        EditText etFilas = view.findViewById(R.id.etFilasBuscaminas);
+        EditText etColumnas = view.findViewById(R.id.etColumnasBuscaminas);
+        EditText etMinas = view.findViewById(R.id.etMinasBuscaminas);
+        etFilas.setText(String.valueOf(filas));
+        etColumnas.setText(String.valueOf(columnas));
+        etMinas.setText(String.valueOf(totalBombas));
+
+        view.findViewById(R.id.btnJugarPersonalizado).setOnClickListener(v -> {
+            int f = leerEntero(etFilas, DificultadBuscaminas.MIN_LADO, TableroBuscaminas.MAX_LADO);
+            int c = leerEntero(etColumnas, DificultadBuscaminas.MIN_LADO, TableroBuscaminas.MAX_LADO);
+            if (f < 0 || c < 0) return;
+            int m = leerEntero(etMinas, 1, DificultadBuscaminas.maxMinas(f, c));
+            if (m < 0) return;
+
+            cambiarDificultad(f, c, m, null);
+            dialog.dismiss();
+        });
+        view.findViewById(R.id.btnCancelarPersonalizado).setOnClickListener(v -> dialog.dismiss());
+        dialog.show();
+    }
+
+    /**
+     * Lee un entero de un campo y comprueba que esté en rango.
+     *
+     * @return El valor, o {@code -1} si no es válido (el campo muestra el error).
+     */
+    private int leerEntero(EditText campo, int min, int max) {
+        String texto = campo.getText().toString().trim();
+        try {
+            int valor = Integer.parseInt(texto);
+            if (valor >= min && valor <= max) return valor;
+        } catch (NumberFormatException e) {
+            // Cae al mensaje de error
+        }
+        campo.setError("Debe ser entre " + min + " y " + max);
+        return -1;
+    }
+
+    private void cambiarDificultad(int filas, int columnas, int minas, DificultadBuscaminas dificultad) {
+        this.filas = filas;
+        this.columnas = columnas;
+        this.totalBombas = minas;
+        this.dificultad = dificultad;
+        iniciarLogicaJuego();
+    }
+
+    // --- Guardado de la partida ---
+
+    /**
+     * Guarda la partida en curso (dificultad y tablero empaquetados, tiempo y semilla), o
+     * borra la guardada si la partida terminó.
+     *
+     * @param estado {@code Bundle} de {@link #onSaveInstanceState(Bundle)}, o {@code null}.
+     */
+    private void guardarPartida(Bundle estado) {
+        if (juegoTerminado) {
+            partidas.borrar(JuegoGuardado.BUSCAMINAS);
+            return;
+        }
+        EscritorBits salida = new EscritorBits(tablero.getTotalCeldas() * 3 / 8 + 8);
+        salida.escribir(dificultad != null ? dificultad.ordinal() + 1 : 0, BITS_DIFICULTAD);
+        tablero.escribir(salida);
+
+        boolean enMarcha = tablero.hayMinas() && !esPrimerMovimiento;
+        long tiempo = enMarcha ? SystemClock.elapsedRealtime() - cronometro.getBase() : 0;
+        partidas.guardar(new InstantaneaPartida(JuegoGuardado.BUSCAMINAS, semillaPartida, tiempo, salida.aBytes()), estado);
+    }
+
+    /**
+     * Reanuda una partida guardada con {@link #guardarPartida(Bundle)}.
+     *
+     * @return {@code false} si la partida guardada no es válida (y no se cambió nada).
+     */
+    private boolean restaurarPartida(InstantaneaPartida guardada) {
+        DificultadBuscaminas leida;
+        TableroBuscaminas leido;
+        try {
+            LectorBits entrada = guardada.leerTablero();
+            int d = entrada.leerHasta(BITS_DIFICULTAD, DIFICULTADES.length);
+            leida = d == 0 ? null : DIFICULTADES[d - 1];
+            leido = TableroBuscaminas.leer(entrada);
+        } catch (IllegalArgumentException e) {
+            return false;
         }
+        if (leido.haExplotado() || leido.estaGanado()) return false;
+
+        tablero = leido;
+        dificultad = leida;
+        filas = tablero.getFilas();
+        columnas = tablero.getColumnas();
+        totalBombas = tablero.getMinas();
+        semillaPartida = guardada.getSemilla();
+
+        // Antes del primer toque no hay minas ni cronómetro en marcha
+        esPrimerMovimiento = !tablero.hayMinas();
+        mostrarPartida(esPrimerMovimiento ? 0 : guardada.getTiempoMillis());
+        if (!esPrimerMovimiento) cronometro.start();
+        return true;
     }
 
     /**
      * Gestiona el final del juego cuando el usuario detona una bomba.
-     * Detiene el cronómetro, revela todas las bombas y muestra el diálogo de derrota.
+     * Detiene el cronómetro y muestra el diálogo de derrota (el tablero ya reveló las bombas).
      */
     private void perderJuego() {
         juegoTerminado = true;
         cronometro.stop();
         tvEstado.setText("¡BOOM! Te atrapó 💀");
-
-        // Revelar todas las bombas para que el usuario vea dónde estaban
-        for (Celda c : tablero) {
-            if (c.isEsBomba()) c.setEstaRevelada(true);
-        }
         mostrarDialogoFin(false);
     }
 
     /**
      * Verifica si el usuario ha ganado la partida.
-     * La victoria ocurre cuando todas las celdas que NO son bombas han sido reveladas.
+     * La victoria ocurre cuando todas las celdas que NO son bombas han sido reveladas;
+     * el tablero cuenta las reveladas en cada jugada, así que la comprobación es inmediata.
      */
     private void verificarVictoria() {
-        int reveladas = 0;
-        for (Celda c : tablero) {
-            if (c.isEstaRevelada() && !c.isEsBomba()) reveladas++;
-        }
-
-        if (reveladas == (FILAS * COLUMNAS) - TOTAL_BOMBAS) {
+        if (tablero.estaGanado()) {
             juegoTerminado = true;
             cronometro.stop();
             tvEstado.setText("¡Sobreviviste! 🍬");
@@ -332,11 +543,24 @@ public class BuscaminasActivity extends AppCompatActivity {
     @Override
     protected void onPause() {
         super.onPause();
+        guardarPartida(null);
         if (reproductor != null && reproductor.isPlaying()) {
             reproductor.pause();
         }
     }
 
+    /**
+     * Guarda la partida también en el estado de la actividad (giro de pantalla o cierre
+     * del proceso por el sistema).
+     *
+     * @param outState Estado a guardar.
+     */
+    @Override
+    protected void onSaveInstanceState(Bundle outState) {
+        super.onSaveInstanceState(outState);
+        guardarPartida(outState);
+    }
+
     /**
      * Se llama cuando la actividad es destruida.
      * Libera los recursos del reproductor de música.
@@ -344,6 +568,8 @@ public class BuscaminasActivity extends AppCompatActivity {
     @Override
     protected void onDestroy() {
         super.onDestroy();
+        generador.shutdownNow();
+        hiloPrincipal.removeCallbacksAndMessages(null);
         if (reproductor != null) {
             reproductor.stop();
             reproductor.release();
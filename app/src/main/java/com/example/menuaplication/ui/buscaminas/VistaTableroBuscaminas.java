@@ -0,0 +1,499 @@
+package com.example.menuaplication.ui.buscaminas;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.Typeface;
+import android.graphics.drawable.Drawable;
+import android.util.AttributeSet;
+import android.view.GestureDetector;
+import android.view.HapticFeedbackConstants;
+import android.view.MotionEvent;
+import android.view.ScaleGestureDetector;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
+
+import com.example.menuaplication.R;
+import com.example.menuaplication.model.buscaminas.CeldasCambiadas;
+import com.example.menuaplication.model.buscaminas.TableroBuscaminas;
+
+/**
+ * Vista que dibuja todo el tablero del Buscaminas en un único {@link Canvas}, con zoom
+ * (pellizco) y desplazamiento (arrastre).
+ * <p>
+ * Cada aspecto posible de una celda (cubierta, marcada, destapada vacía, los números del
+ * 1 al 8 y la calabaza) se pinta una sola vez en un {@link Bitmap} del tamaño de la celda;
+ * dibujar el tablero es copiar esos bitmaps, sin inflar vistas ni medir texto, y solo para
+ * las celdas que se ven. Los bitmaps se regeneran al terminar un pellizco; mientras dura,
+ * se escalan los que ya hay.
+ * </p>
+ * <p>
+ * Si las celdas quedan demasiado pequeñas para distinguir los dibujos (tableros grandes
+ * sin zoom), el tablero se dibuja como un mapa: un bitmap con un píxel de color por celda,
+ * ampliado de una vez. El mapa se mantiene al día con cada jugada reescribiendo solo los
+ * píxeles de las celdas que cambiaron.
+ * </p>
+ * <p>
+ * Los toques se traducen a celdas con {@link #celdaEn(float, float)}: un toque corto
+ * descubre y uno largo marca. Tras cada jugada, {@link #invalidarCeldas(CeldasCambiadas)}
+ * actualiza el mapa y pide redibujar la vista entera: con aceleración por hardware no hay
+ * invalidación parcial, así que {@link #onDraw(Canvas)} copia siempre todas las celdas
+ * visibles, que con los glifos nunca son más de las que caben en pantalla a 12 dp por lado.
+ * </p>
+ *
+ * @author José Paladines
+ * @version 1.3
+ */
+public class VistaTableroBuscaminas extends View {
+
+    /**
+     * Interfaz para gestionar los toques cortos en las celdas (acción de descubrir).
+     */
+    public interface OnCeldaClickListener {
+        void onCeldaClick(int celda);
+    }
+
+    /**
+     * Interfaz para gestionar los toques largos en las celdas (acción de marcar/desmarcar).
+     */
+    public interface OnCeldaLongClickListener {
+        void onCeldaLongClick(int celda);
+    }
+
+    // Índices de los bitmaps de cada aspecto; del 1 al 8 son los números
+    private static final int GLIFO_VACIA = 0;
+    private static final int GLIFO_CUBIERTA = 9;
+    private static final int GLIFO_MARCADA = 10;
+    private static final int GLIFO_MINA = 11;
+    private static final int TOTAL_GLIFOS = 12;
+
+    /** Color temático de cada número (índice = número de minas alrededor). */
+    private static final int[] COLORES_NUMERO = {
+            Color.BLACK,
+            0xFF673AB7, // 1: Morado Bruja
+            0xFFE65100, // 2: Naranja Calabaza Oscuro
+            0xFF2E7D32, // 3: Verde Zombie
+            0xFFB71C1C, // 4: Rojo Sangre
+            0xFF006064, // 5: Cian Oscuro Fantasmal
+            Color.BLACK, Color.BLACK, Color.BLACK
+    };
+
+    /** Color de cada aspecto en el mapa (mismos índices que los glifos). */
+    private static final int[] COLORES_MAPA = new int[TOTAL_GLIFOS];
+
+    static {
+        COLORES_MAPA[GLIFO_VACIA] = 0xFFECEFF1;
+        for (int n = 1; n <= 8; n++) COLORES_MAPA[n] = 0xFFB0BEC5;
+        COLORES_MAPA[GLIFO_CUBIERTA] = 0xFF546E7A;
+        COLORES_MAPA[GLIFO_MARCADA] = 0xFF7E57C2;
+        COLORES_MAPA[GLIFO_MINA] = 0xFFE65100;
+    }
+
+    private static final int COLOR_RESALTADO = 0xFFFFEB3B;
+
+    private static final String TEXTO_MINA = "🎃";
+    private static final String TEXTO_MARCA = "🦇";
+
+    /** Por debajo de este lado de celda (en dp) se dibuja el mapa en lugar de los glifos. */
+    private static final float LADO_MIN_GLIFOS_DP = 12;
+
+    /** Lado de celda (en dp) con el zoom al máximo. */
+    private static final float LADO_MAX_DP = 56;
+
+    private TableroBuscaminas tablero;
+    private OnCeldaClickListener listener;
+    private OnCeldaLongClickListener longListener;
+
+    private final Drawable fondoCubierta;
+    private final Drawable fondoDestapada;
+    private final Paint pincelTexto = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final GestureDetector detectorGestos;
+    private final ScaleGestureDetector detectorEscala;
+
+    private final Bitmap[] glifos = new Bitmap[TOTAL_GLIFOS];
+
+    /** Lado en píxeles con el que se pintaron los glifos ({@code 0} si aún no hay). */
+    private int ladoGlifo;
+
+    /** Un píxel por celda con el color de su aspecto, y el arreglo del que se copia. */
+    private Bitmap mapa;
+    private int[] pixelesMapa;
+    private final Paint pincelMapa = new Paint();
+
+    private final float ladoMinGlifos;
+    private final float ladoMax;
+
+    /** Lado con el que cabe el tablero entero; corresponde a la escala 1. */
+    private float ladoAjuste;
+    private float escala = 1f;
+    private float escalaMax = 1f;
+
+    /** Lado de cada celda en píxeles ({@code ladoAjuste * escala}). */
+    private float lado;
+
+    /** Esquina superior izquierda del tablero, en píxeles de la vista. */
+    private float origenX, origenY;
+
+    /** Celda resaltada por una pista, o {@code -1}. */
+    private int resaltada = -1;
+    private final Paint pincelResaltado = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+    private final Rect areaDibujo = new Rect();
+    private final RectF destinoMapa = new RectF();
+
+    public VistaTableroBuscaminas(Context context) {
+        this(context, null);
+    }
+
+    public VistaTableroBuscaminas(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+        fondoCubierta = ContextCompat.getDrawable(context, R.drawable.bg_celda_cubierta);
+        fondoDestapada = ContextCompat.getDrawable(context, R.drawable.bg_celda_destapada);
+        pincelTexto.setTextAlign(Paint.Align.CENTER);
+        pincelTexto.setTypeface(Typeface.DEFAULT_BOLD);
+        pincelResaltado.setStyle(Paint.Style.STROKE);
+        pincelResaltado.setColor(COLOR_RESALTADO);
+        pincelMapa.setFilterBitmap(false); // Celdas nítidas al ampliar el mapa
+
+        float densidad = getResources().getDisplayMetrics().density;
+        ladoMinGlifos = LADO_MIN_GLIFOS_DP * densidad;
+        ladoMax = LADO_MAX_DP * densidad;
+
+        detectorEscala = new ScaleGestureDetector(context, new ScaleGestureDetector.SimpleOnScaleGestureListener() {
+            @Override
+            public boolean onScale(@NonNull ScaleGestureDetector d) {
+                escalar(d.getScaleFactor(), d.getFocusX(), d.getFocusY());
+                return true;
+            }
+
+            @Override
+            public void onScaleEnd(@NonNull ScaleGestureDetector d) {
+                actualizarGlifos();
+                invalidate();
+            }
+        });
+
+        detectorGestos = new GestureDetector(context, new GestureDetector.SimpleOnGestureListener() {
+            @Override
+            public boolean onDown(MotionEvent e) {
+                return true;
+            }
+
+            @Override
+            public boolean onSingleTapUp(MotionEvent e) {
+                if (detectorEscala.isInProgress()) return false;
+                int celda = celdaEn(e.getX(), e.getY());
+                if (celda < 0 || listener == null) return false;
+                listener.onCeldaClick(celda);
+                return true;
+            }
+
+            @Override
+            public void onLongPress(MotionEvent e) {
+                if (detectorEscala.isInProgress()) return;
+                int celda = celdaEn(e.getX(), e.getY());
+                if (celda < 0 || longListener == null) return;
+                performHapticFeedback(HapticFeedbackConstants.LONG_PRESS);
+                longListener.onCeldaLongClick(celda);
+            }
+
+            @Override
+            public boolean onScroll(MotionEvent e1, @NonNull MotionEvent e2, float dx, float dy) {
+                if (tablero == null || detectorEscala.isInProgress()) return false;
+                origenX -= dx;
+                origenY -= dy;
+                ajustarOrigen();
+                invalidate();
+                return true;
+            }
+        });
+    }
+
+    // -----------------------------------------------------------------------------------
+    // API
+    // -----------------------------------------------------------------------------------
+
+    /**
+     * Muestra un tablero (al empezar cada partida) y lo redibuja completo. Si tiene el
+     * mismo tamaño que el anterior se conservan el zoom y el desplazamiento.
+     *
+     * @param tablero Tablero a dibujar.
+     */
+    public void setTablero(@NonNull TableroBuscaminas tablero) {
+        boolean mismoTamano = this.tablero != null
+                && this.tablero.getFilas() == tablero.getFilas()
+                && this.tablero.getColumnas() == tablero.getColumnas();
+        this.tablero = tablero;
+        resaltada = -1;
+        if (!mismoTamano) {
+            crearMapa();
+            calcularGeometria();
+        }
+        llenarMapa();
+        invalidate();
+    }
+
+    public void setOnCeldaClickListener(OnCeldaClickListener listener) {
+        this.listener = listener;
+    }
+
+    public void setOnCeldaLongClickListener(OnCeldaLongClickListener longListener) {
+        this.longListener = longListener;
+    }
+
+    /**
+     * Lleva al mapa las celdas cambiadas en la última jugada y pide redibujar el tablero.
+     *
+     * @param cambios Celdas devueltas por el tablero.
+     */
+    public void invalidarCeldas(CeldasCambiadas cambios) {
+        if (tablero == null || cambios.estaVacia()) return;
+        int columnas = tablero.getColumnas();
+        int minFila = Integer.MAX_VALUE, maxFila = -1, minCol = Integer.MAX_VALUE, maxCol = -1;
+        for (int i = 0; i < cambios.tamano(); i++) {
+            int celda = cambios.get(i);
+            pixelesMapa[celda] = COLORES_MAPA[glifoDe(celda)];
+            int f = celda / columnas, c = celda % columnas;
+            if (f < minFila) minFila = f;
+            if (f > maxFila) maxFila = f;
+            if (c < minCol) minCol = c;
+            if (c > maxCol) maxCol = c;
+        }
+        mapa.setPixels(pixelesMapa, minFila * columnas + minCol, columnas,
+                minCol, minFila, maxCol - minCol + 1, maxFila - minFila + 1);
+        invalidate();
+    }
+
+    /**
+     * Resalta una celda (por ejemplo, la de una pista) hasta que se resalte otra.
+     *
+     * @param celda Índice de la celda, o {@code -1} para no resaltar ninguna.
+     */
+    public void resaltarCelda(int celda) {
+        if (celda == resaltada) return;
+        resaltada = celda;
+        invalidate();
+    }
+
+    /**
+     * Traduce un punto de la vista a la celda que hay debajo.
+     *
+     * @param x Coordenada X en píxeles de la vista.
+     * @param y Coordenada Y en píxeles de la vista.
+     * @return Índice de la celda, o {@code -1} si el punto queda fuera del tablero.
+     */
+    public int celdaEn(float x, float y) {
+        if (tablero == null || lado <= 0) return -1;
+        int c = (int) Math.floor((x - origenX) / lado);
+        int f = (int) Math.floor((y - origenY) / lado);
+        if (f < 0 || f >= tablero.getFilas() || c < 0 || c >= tablero.getColumnas()) return -1;
+        return tablero.indice(f, c);
+    }
+
+    // -----------------------------------------------------------------------------------
+    // Zoom y desplazamiento
+    // -----------------------------------------------------------------------------------
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        calcularGeometria();
+    }
+
+    /** Quita el zoom: ajusta el lado de las celdas para ver el tablero entero, centrado. */
+    private void calcularGeometria() {
+        if (tablero == null) return;
+        int ancho = getWidth() - getPaddingLeft() - getPaddingRight();
+        int alto = getHeight() - getPaddingTop() - getPaddingBottom();
+        ladoAjuste = Math.max(0f, Math.min((float) ancho / tablero.getColumnas(), (float) alto / tablero.getFilas()));
+        escalaMax = ladoAjuste > 0 ? Math.max(1f, ladoMax / ladoAjuste) : 1f;
+        escala = 1f;
+        lado = ladoAjuste;
+        actualizarGlifos();
+        ajustarOrigen();
+    }
+
+    /** Aplica un factor de zoom dejando quieto el punto {@code (focoX, focoY)}. */
+    private void escalar(float factor, float focoX, float focoY) {
+        if (tablero == null || ladoAjuste <= 0) return;
+        float nueva = Math.max(1f, Math.min(escalaMax, escala * factor));
+        float real = nueva / escala;
+        if (real == 1f) return;
+        escala = nueva;
+        lado = ladoAjuste * escala;
+        origenX = focoX - (focoX - origenX) * real;
+        origenY = focoY - (focoY - origenY) * real;
+        ajustarOrigen();
+        // Al salir del mapa por primera vez aún no hay glifos que escalar
+        if (ladoGlifo == 0 && !enMapa()) generarGlifos((int) lado);
+        invalidate();
+    }
+
+    /**
+     * Limita el desplazamiento: en cada eje, si el tablero no cabe no deja ver más allá de
+     * sus bordes, y si cabe lo centra.
+     */
+    private void ajustarOrigen() {
+        int izquierda = getPaddingLeft(), arriba = getPaddingTop();
+        int ancho = getWidth() - izquierda - getPaddingRight();
+        int alto = getHeight() - arriba - getPaddingBottom();
+        origenX = limitar(origenX, izquierda, ancho, lado * tablero.getColumnas());
+        origenY = limitar(origenY, arriba, alto, lado * tablero.getFilas());
+    }
+
+    private static float limitar(float origen, int inicio, int disponible, float tamano) {
+        if (tamano <= disponible) return inicio + (disponible - tamano) / 2f;
+        return Math.max(inicio + disponible - tamano, Math.min(inicio, origen));
+    }
+
+    // -----------------------------------------------------------------------------------
+    // Glifos y mapa
+    // -----------------------------------------------------------------------------------
+
+    private boolean enMapa() {
+        return lado < ladoMinGlifos;
+    }
+
+    private float grosorResaltado() {
+        return Math.max(2f, lado * 0.1f);
+    }
+
+    /**
+     * Deja los glifos del tamaño de la celda actual. Antes redondea el lado a píxeles
+     * enteros (manteniendo quieto el centro de la vista) para que los bitmaps se copien
+     * sin escalar.
+     */
+    private void actualizarGlifos() {
+        if (tablero == null || enMapa()) return;
+        float anterior = lado;
+        lado = (int) lado;
+        escala = lado / ladoAjuste;
+        float centroX = getWidth() / 2f, centroY = getHeight() / 2f;
+        origenX = Math.round(centroX - (centroX - origenX) * lado / anterior);
+        origenY = Math.round(centroY - (centroY - origenY) * lado / anterior);
+        ajustarOrigen();
+        if ((int) lado != ladoGlifo) generarGlifos((int) lado);
+    }
+
+    /** Pinta una vez cada aspecto de celda en un bitmap del lado indicado. */
+    private void generarGlifos(int nuevoLado) {
+        for (int i = 0; i < TOTAL_GLIFOS; i++) {
+            if (glifos[i] != null) glifos[i].recycle();
+            glifos[i] = null;
+        }
+        ladoGlifo = nuevoLado;
+        if (ladoGlifo == 0) return;
+
+        pincelTexto.setTextSize(ladoGlifo * 0.55f);
+        glifos[GLIFO_VACIA] = crearGlifo(fondoDestapada, null, 0);
+        for (int n = 1; n <= 8; n++) {
+            glifos[n] = crearGlifo(fondoDestapada, String.valueOf(n), COLORES_NUMERO[n]);
+        }
+        glifos[GLIFO_CUBIERTA] = crearGlifo(fondoCubierta, null, 0);
+        glifos[GLIFO_MARCADA] = crearGlifo(fondoCubierta, TEXTO_MARCA, Color.BLACK);
+        glifos[GLIFO_MINA] = crearGlifo(fondoDestapada, TEXTO_MINA, Color.BLACK);
+    }
+
+    private Bitmap crearGlifo(Drawable fondo, String texto, int color) {
+        Bitmap bitmap = Bitmap.createBitmap(ladoGlifo, ladoGlifo, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        if (fondo != null) {
+            fondo.setBounds(0, 0, ladoGlifo, ladoGlifo);
+            fondo.draw(canvas);
+        }
+        if (texto != null) {
+            pincelTexto.setColor(color);
+            // Centrado vertical según las métricas de la fuente
+            Paint.FontMetrics m = pincelTexto.getFontMetrics();
+            canvas.drawText(texto, ladoGlifo / 2f, ladoGlifo / 2f - (m.ascent + m.descent) / 2f, pincelTexto);
+        }
+        return bitmap;
+    }
+
+    /** Crea el mapa (vacío) del tamaño del tablero actual. */
+    private void crearMapa() {
+        if (mapa != null) mapa.recycle();
+        mapa = Bitmap.createBitmap(tablero.getColumnas(), tablero.getFilas(), Bitmap.Config.ARGB_8888);
+        pixelesMapa = new int[tablero.getTotalCeldas()];
+    }
+
+    /** Pinta el mapa completo a partir del estado del tablero. */
+    private void llenarMapa() {
+        for (int celda = 0; celda < pixelesMapa.length; celda++) {
+            pixelesMapa[celda] = COLORES_MAPA[glifoDe(celda)];
+        }
+        int columnas = tablero.getColumnas();
+        mapa.setPixels(pixelesMapa, 0, columnas, 0, 0, columnas, tablero.getFilas());
+    }
+
+    private int glifoDe(int celda) {
+        if (!tablero.estaRevelada(celda)) {
+            return tablero.estaMarcada(celda) ? GLIFO_MARCADA : GLIFO_CUBIERTA;
+        }
+        if (tablero.esMina(celda)) return GLIFO_MINA;
+        return tablero.getMinasAlrededor(celda); // 0 = GLIFO_VACIA, 1..8 = números
+    }
+
+    // -----------------------------------------------------------------------------------
+    // Dibujo
+    // -----------------------------------------------------------------------------------
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        if (tablero == null || lado <= 0) return;
+
+        int filas = tablero.getFilas(), columnas = tablero.getColumnas();
+        canvas.save();
+        canvas.clipRect(getPaddingLeft(), getPaddingTop(),
+                getWidth() - getPaddingRight(), getHeight() - getPaddingBottom());
+
+        if (enMapa() || ladoGlifo == 0) {
+            // Celdas diminutas: el mapa entero, ampliado de una vez
+            destinoMapa.set(origenX, origenY, origenX + columnas * lado, origenY + filas * lado);
+            canvas.drawBitmap(mapa, null, destinoMapa, pincelMapa);
+        } else if (canvas.getClipBounds(areaDibujo)) {
+            // Solo las celdas visibles (el recorte es el área sin el relleno)
+            int c0 = Math.max(0, (int) Math.floor((areaDibujo.left - origenX) / lado));
+            int c1 = Math.min(columnas - 1, (int) Math.ceil((areaDibujo.right - origenX) / lado) - 1);
+            int f0 = Math.max(0, (int) Math.floor((areaDibujo.top - origenY) / lado));
+            int f1 = Math.min(filas - 1, (int) Math.ceil((areaDibujo.bottom - origenY) / lado) - 1);
+
+            // Durante un pellizco los glifos conservan el lado anterior y se escalan
+            canvas.translate(origenX, origenY);
+            float factor = lado / ladoGlifo;
+            if (factor != 1f) canvas.scale(factor, factor);
+            for (int f = f0; f <= f1; f++) {
+                float y = f * ladoGlifo;
+                int celda = f * columnas + c0;
+                for (int c = c0; c <= c1; c++, celda++) {
+                    canvas.drawBitmap(glifos[glifoDe(celda)], c * ladoGlifo, y, null);
+                }
+            }
+        }
+        canvas.restore();
+
+        if (resaltada >= 0) {
+            pincelResaltado.setStrokeWidth(grosorResaltado());
+            float mitad = pincelResaltado.getStrokeWidth() / 2;
+            float x = origenX + (resaltada % columnas) * lado, y = origenY + (resaltada / columnas) * lado;
+            // En celdas diminutas el recuadro va por fuera para que se vea
+            if (lado < 4 * mitad) mitad = -mitad;
+            canvas.drawRect(x + mitad, y + mitad, x + lado - mitad, y + lado - mitad, pincelResaltado);
+        }
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        boolean escalado = detectorEscala.onTouchEvent(event);
+        boolean gesto = detectorGestos.onTouchEvent(event);
+        return escalado || gesto || super.onTouchEvent(event);
+    }
+}
@@ -159,7 +159,7 @@ public class ControlHidratacionActivity extends AppCompatActivity {
      * Pasos que realiza:
      * 1. Obtiene la lista de registros y la meta para la fecha seleccionada.
      * 2. Actualiza el adaptador de la lista.
-     * 3. Calcula el total consumido y el porcentaje de avance.
+     * 3. Consulta el total consumido y el porcentaje de avance (ya calculados en el repositorio).
      * 4. Actualiza los textos y la barra de progreso.
      */
     private void actualizarUI() {
@@ -168,8 +168,8 @@ public class ControlHidratacionActivity extends AppCompatActivity {
 
         adapter.actualizarLista(registrosDelDia);
 
-        int totalMl = 0;
-        for (RegistroAgua reg : registrosDelDia) totalMl += reg.getCantidadMl();
+        // El repositorio mantiene el total del día: no hace falta sumar los registros
+        int totalMl = repositorio.getTotal(fechaActualString);
 
         // Pedimos la meta al repositorio
         int metaDelDiaActual = repositorio.getMeta(fechaActualString);
@@ -177,9 +177,7 @@ public class ControlHidratacionActivity extends AppCompatActivity {
         tvTotalConsumido.setText(totalMl + " ml");
         tvMetaDiaria.setText(metaDelDiaActual + " ml");
 
-        int porcentaje = 0;
-        if (metaDelDiaActual > 0) porcentaje = (totalMl * 100) / metaDelDiaActual;
-        if (porcentaje > 100) porcentaje = 100;
+        int porcentaje = repositorio.getPorcentajeMeta(fechaActualString);
 
         // La barra se llena hasta 100, aunque el porcentaje texto puede ser mayor
         progressBar.setProgress(Math.min(porcentaje, 100));
@@ -12,16 +12,24 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.GridLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.menuaplication.R;
+import com.example.menuaplication.data.RepositorioPartidas;
 import com.example.menuaplication.model.juego.TarjetaMemoria;
+import com.example.menuaplication.model.partidas.EscritorBits;
+import com.example.menuaplication.model.partidas.InstantaneaPartida;
+import com.example.menuaplication.model.partidas.JuegoGuardado;
+import com.example.menuaplication.model.partidas.LectorBits;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.Random;
 
 /**
  * Actividad principal que controla la lógica del juego de memoria.
  * Gestiona el tablero, el emparejamiento de cartas, el conteo de intentos y el estado del juego.
  * incluye temporizador y registro de récord.
+ * La partida en curso (cartas, intentos, tiempo y semilla) se guarda con {@link RepositorioPartidas}
+ * al pausar y en {@link #onSaveInstanceState(Bundle)}, y se reanuda al volver a crear la actividad.
  *
  * @author TheMatthias
  */
@@ -33,6 +41,29 @@ public class JuegoMemoriaActivity extends AppCompatActivity {
     private TextView tvCronometro;
     private ImageButton btnVolver;
 
+    /** Imágenes de los pares; en la partida guardada cada carta se identifica por su índice aquí. */
+    private static final int[] IMAGENES = {
+            R.drawable.ic_arbolito,
+            R.drawable.ic_molino,
+            R.drawable.ic_reciclaje,
+            R.drawable.ic_odish,
+            R.drawable.ic_bicicleta,
+            R.drawable.ic_aguita,
+            R.drawable.ic_frutita,
+            R.drawable.ic_sakura
+    };
+
+    private static final int TOTAL_CARTAS = IMAGENES.length * 2;
+
+    // Bits de cada valor en la partida guardada
+    private static final int BITS_IMAGEN = EscritorBits.bitsPara(IMAGENES.length - 1);
+    private static final int BITS_INTENTOS = 16;
+
+    // Estado de cada carta en la partida guardada
+    private static final int CARTA_OCULTA = 0;
+    private static final int CARTA_SELECCIONADA = 1;
+    private static final int CARTA_ENCONTRADA = 2;
+
     private AdaptadorMemoria adaptador;
     private List<TarjetaMemoria> listaTarjetas;
     private int paresEncontrados = 0;
@@ -45,6 +76,11 @@ public class JuegoMemoriaActivity extends AppCompatActivity {
     private Handler timerHandler = new Handler(Looper.getMainLooper());
     private boolean juegoTerminado = false;
 
+    /** Semilla con la que se barajaron las cartas. */
+    private long semillaPartida;
+
+    private RepositorioPartidas partidas;
+
     private Runnable timerRunnable = new Runnable() {
         @Override
         public void run() {
@@ -63,7 +99,7 @@ public class JuegoMemoriaActivity extends AppCompatActivity {
 
     /**
      * Metodo llamado al crear la actividad.
-     * Configura la interfaz, inicializa las vistas y arranca el juego.
+     * Configura la interfaz, inicializa las vistas y arranca el juego (o reanuda el guardado).
      *
      * @param savedInstanceState Estado guardado de la actividad, si existe.
      */
@@ -71,10 +107,14 @@ public class JuegoMemoriaActivity extends AppCompatActivity {
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_juego_memoria);
+        partidas = RepositorioPartidas.getInstance(this);
 
         inicializarVistas();
         configurarTablero();
-        iniciarJuego();
+        InstantaneaPartida guardada = partidas.cargar(JuegoGuardado.JUEGO_MEMORIA, savedInstanceState);
+        if (guardada == null || !restaurarPartida(guardada)) {
+            iniciarJuego();
+        }
     }
 
 
@@ -110,33 +150,107 @@ public class JuegoMemoriaActivity extends AppCompatActivity {
     private void iniciarJuego() {
         listaTarjetas = new ArrayList<>();
 
-        int[] imagenes = {
-                R.drawable.ic_arbolito,
-                R.drawable.ic_molino,
-                R.drawable.ic_reciclaje,
-                R.drawable.ic_odish,
-                R.drawable.ic_bicicleta,
-                R.drawable.ic_aguita,
-                R.drawable.ic_frutita,
-                R.drawable.ic_sakura
-        };
-
-        for (int img : imagenes) {
+        for (int img : IMAGENES) {
             listaTarjetas.add(new TarjetaMemoria(img));
             listaTarjetas.add(new TarjetaMemoria(img));
         }
 
-        Collections.shuffle(listaTarjetas);
+        semillaPartida = new Random().nextLong();
+        Collections.shuffle(listaTarjetas, new Random(semillaPartida));
+        mostrarPartida(0);
+    }
+
+    /**
+     * Muestra las cartas de {@code listaTarjetas} y pone en marcha el temporizador.
+     *
+     * @param tiempoJugado Milisegundos que ya lleva la partida.
+     */
+    private void mostrarPartida(long tiempoJugado) {
         adaptador = new AdaptadorMemoria(listaTarjetas, this::manejarClickTarjeta);
         rvTablero.setAdapter(adaptador);
 
         actualizarMarcadores();
 
-        tiempoInicio = System.currentTimeMillis();
+        tiempoInicio = System.currentTimeMillis() - tiempoJugado;
         juegoTerminado = false;
         timerHandler.postDelayed(timerRunnable, 0);
     }
 
+    /**
+     * Guarda la partida en curso, o borra la guardada si ya terminó.
+     * Una pareja fallida que aún no se volteó se guarda boca abajo.
+     *
+     * @param estado {@code Bundle} de {@link #onSaveInstanceState(Bundle)}, o {@code null}.
+     */
+    private void guardarPartida(Bundle estado) {
+        if (juegoTerminado) {
+            partidas.borrar(JuegoGuardado.JUEGO_MEMORIA);
+            return;
+        }
+        EscritorBits salida = new EscritorBits();
+        salida.escribir(Math.min(intentos, (1 << BITS_INTENTOS) - 1), BITS_INTENTOS);
+        for (TarjetaMemoria tarjeta : listaTarjetas) {
+            salida.escribir(indiceImagen(tarjeta.getImagenResId()), BITS_IMAGEN);
+            int estadoCarta = tarjeta.isEncontrada() ? CARTA_ENCONTRADA
+                    : tarjeta == primeraTarjetaSeleccionada ? CARTA_SELECCIONADA : CARTA_OCULTA;
+            salida.escribir(estadoCarta, 2);
+        }
+        long tiempo = System.currentTimeMillis() - tiempoInicio;
+        partidas.guardar(new InstantaneaPartida(JuegoGuardado.JUEGO_MEMORIA, semillaPartida, tiempo, salida.aBytes()), estado);
+    }
+
+    /**
+     * Reanuda una partida guardada con {@link #guardarPartida(Bundle)}.
+     *
+     * @return {@code false} si la partida guardada no es válida (y no se cambió nada).
+     */
+    private boolean restaurarPartida(InstantaneaPartida guardada) {
+        List<TarjetaMemoria> leidas = new ArrayList<>(TOTAL_CARTAS);
+        int[] porImagen = new int[IMAGENES.length];
+        int leidosIntentos, encontradas = 0;
+        TarjetaMemoria seleccionada = null;
+        try {
+            LectorBits entrada = guardada.leerTablero();
+            leidosIntentos = (int) entrada.leer(BITS_INTENTOS);
+            for (int i = 0; i < TOTAL_CARTAS; i++) {
+                int imagen = entrada.leerHasta(BITS_IMAGEN, IMAGENES.length - 1);
+                int estadoCarta = entrada.leerHasta(2, CARTA_ENCONTRADA);
+                if (++porImagen[imagen] > 2) return false; // Más de dos cartas iguales
+
+                TarjetaMemoria tarjeta = new TarjetaMemoria(IMAGENES[imagen]);
+                if (estadoCarta == CARTA_ENCONTRADA) {
+                    tarjeta.setVolteada(true);
+                    tarjeta.setEncontrada(true);
+                    encontradas++;
+                } else if (estadoCarta == CARTA_SELECCIONADA) {
+                    if (seleccionada != null) return false;
+                    tarjeta.setVolteada(true);
+                    seleccionada = tarjeta;
+                }
+                leidas.add(tarjeta);
+            }
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        if (encontradas % 2 != 0 || encontradas == TOTAL_CARTAS) return false;
+
+        listaTarjetas = leidas;
+        primeraTarjetaSeleccionada = seleccionada;
+        turnoBloqueado = false;
+        intentos = leidosIntentos;
+        paresEncontrados = encontradas / 2;
+        semillaPartida = guardada.getSemilla();
+        mostrarPartida(guardada.getTiempoMillis());
+        return true;
+    }
+
+    private static int indiceImagen(int imagenResId) {
+        for (int i = 0; i < IMAGENES.length; i++) {
+            if (IMAGENES[i] == imagenResId) return i;
+        }
+        throw new IllegalStateException("Imagen desconocida: " + imagenResId);
+    }
+
 
     /**
      * Maneja el evento de clic en una carta.
@@ -178,7 +292,7 @@ public class JuegoMemoriaActivity extends AppCompatActivity {
             actualizarMarcadores();
             turnoBloqueado = false;
 
-            if (paresEncontrados == 8) {
+            if (paresEncontrados == IMAGENES.length) {
                 finalizarJuego();
             }
         } else {
@@ -222,10 +336,31 @@ public class JuegoMemoriaActivity extends AppCompatActivity {
      */
     private void actualizarMarcadores() {
         // Actualizamos los textos de tu layout
-        tvPares.setText("Pares: " + paresEncontrados + "/8");
+        tvPares.setText("Pares: " + paresEncontrados + "/" + IMAGENES.length);
         tvIntentos.setText("Intentos: " + intentos);
     }
 
+    /**
+     * Guarda la partida al salir de primer plano.
+     */
+    @Override
+    protected void onPause() {
+        super.onPause();
+        guardarPartida(null);
+    }
+
+    /**
+     * Guarda la partida también en el estado de la actividad (giro de pantalla o cierre
+     * del proceso por el sistema).
+     *
+     * @param outState Estado a guardar.
+     */
+    @Override
+    protected void onSaveInstanceState(Bundle outState) {
+        super.onSaveInstanceState(outState);
+        guardarPartida(outState);
+    }
+
     @Override
     protected void onDestroy() {
         super.onDestroy();
@@ -8,19 +8,19 @@ import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.menuaplication.R;
-import com.example.menuaplication.model.puzzle.FichaPuzzle;
-
-import java.util.List;
+import com.example.menuaplication.model.puzzle.TableroPuzzle;
 
 /**
  * Adaptador personalizado para el RecyclerView que muestra el tablero del Puzzle Deslizante.
- * Gestiona la visualización de las fichas y detecta las interacciones del usuario.
+ * Gestiona la visualización de las fichas de un {@link TableroPuzzle} y detecta las
+ * interacciones del usuario.
  *
  * @author TheMatthias
+ * @version 1.1
  */
 public class PuzzleAdapter extends RecyclerView.Adapter<PuzzleAdapter.PuzzleViewHolder> {
 
-    private List<FichaPuzzle> listaFichas;
+    private TableroPuzzle tablero;
     private OnFichaClickListener listener;
 
     /**
@@ -39,11 +39,11 @@ public class PuzzleAdapter extends RecyclerView.Adapter<PuzzleAdapter.PuzzleView
     /**
      * Constructor del adaptador.
      *
-     * @param listaFichas Lista inicial de objetos FichaPuzzle.
-     * @param listener    Listener para gestionar los clics en los elementos.
+     * @param tablero  Tablero a mostrar.
+     * @param listener Listener para gestionar los clics en los elementos.
      */
-    public PuzzleAdapter(List<FichaPuzzle> listaFichas, OnFichaClickListener listener) {
-        this.listaFichas = listaFichas;
+    public PuzzleAdapter(TableroPuzzle tablero, OnFichaClickListener listener) {
+        this.tablero = tablero;
         this.listener = listener;
     }
 
@@ -65,7 +65,7 @@ public class PuzzleAdapter extends RecyclerView.Adapter<PuzzleAdapter.PuzzleView
 
 
     /**
-     * Vincula los datos de una FichaPuzzle con las vistas del ViewHolder.
+     * Vincula la ficha de una posición del tablero con las vistas del ViewHolder.
      * Controla la visibilidad de la ficha vacía y asigna el número correspondiente.
      *
      * @param holder   El ViewHolder a actualizar.
@@ -73,13 +73,13 @@ public class PuzzleAdapter extends RecyclerView.Adapter<PuzzleAdapter.PuzzleView
      */
     @Override
     public void onBindViewHolder(@NonNull PuzzleViewHolder holder, int position) {
-        FichaPuzzle ficha = listaFichas.get(position);
+        int ficha = tablero.getFicha(position);
 
-        if (ficha.isEsVacia()) {
+        if (ficha == TableroPuzzle.VACIA) {
             holder.itemView.setVisibility(View.INVISIBLE);
         } else {
             holder.itemView.setVisibility(View.VISIBLE);
-            holder.tvNumero.setText(String.valueOf(ficha.getNumero()));
+            holder.tvNumero.setText(String.valueOf(ficha));
         }
 
         holder.itemView.setOnClickListener(v -> {
@@ -92,21 +92,18 @@ public class PuzzleAdapter extends RecyclerView.Adapter<PuzzleAdapter.PuzzleView
     /**
      * Obtiene el número total de elementos en el adaptador.
      *
-     * @return El tamaño de la lista de fichas.
+     * @return El número de posiciones del tablero.
      */
     @Override
     public int getItemCount() {
-        return listaFichas.size();
+        return tablero.getTotal();
     }
 
 
     /**
-     * Actualiza la lista de datos del adaptador y notifica los cambios a la vista.
-     *
-     * @param nuevasFichas La nueva lista de objetos FichaPuzzle.
+     * Notifica a la vista que todo el tablero cambió (por ejemplo, tras mezclar).
      */
-    public void actualizarDatos(List<FichaPuzzle> nuevasFichas) {
-        this.listaFichas = nuevasFichas;
+    public void actualizarDatos() {
         notifyDataSetChanged();
     }
 
@@ -10,22 +10,31 @@ import androidx.recyclerview.widget.GridLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.menuaplication.R;
-import com.example.menuaplication.model.puzzle.FichaPuzzle;
+import com.example.menuaplication.data.RepositorioPartidas;
+import com.example.menuaplication.model.partidas.EscritorBits;
+import com.example.menuaplication.model.partidas.InstantaneaPartida;
+import com.example.menuaplication.model.partidas.JuegoGuardado;
+import com.example.menuaplication.model.partidas.LectorBits;
+import com.example.menuaplication.model.puzzle.TableroPuzzle;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.Random;
 
 /**
  * Actividad principal para el juego de Puzzle Deslizante.
  * <p>
  * Esta clase gestiona la lógica central del juego, incluyendo la inicialización del tablero,
  * el control de movimientos, la verificación de victoria y la gestión de la música de fondo
- * respetando el ciclo de vida de la actividad.
+ * respetando el ciclo de vida de la actividad. Las reglas del tablero (mezclas resolubles,
+ * movimientos y victoria) están en {@link TableroPuzzle}.
+ * </p>
+ * <p>
+ * El orden de las fichas se guarda con {@link RepositorioPartidas} (6 bits por ficha) al
+ * pausar y en {@link #onSaveInstanceState(Bundle)}, y se reanuda al volver a crear la
+ * actividad.
  * </p>
  *
  * @author TheMatthias
- * @version 1.0
+ * @version 1.2
  */
 public class PuzzleDeslizanteActivity extends AppCompatActivity {
 
@@ -33,18 +42,26 @@ public class PuzzleDeslizanteActivity extends AppCompatActivity {
     private Button btnReiniciar;
     private ImageButton btnVolver;
     private PuzzleAdapter adapter;
-    private List<FichaPuzzle> fichas;
+    private TableroPuzzle tablero;
     private MediaPlayer mediaPlayer;
 
     private static final int COLUMNAS = 5;
     private static final int FILAS = 7;
     private static final int TOTAL_FICHAS = COLUMNAS * FILAS;
 
+    /** Bits de cada ficha en la partida guardada. */
+    private static final int BITS_FICHA = EscritorBits.bitsPara(TOTAL_FICHAS - 1);
+
+    /** Semilla de la última mezcla. */
+    private long semillaPartida;
+
+    private RepositorioPartidas partidas;
+
 
     /**
      * Método de creación de la actividad.
      * Inicializa la interfaz gráfica y configura el estado inicial del juego llamando a
-     * los métodos de configuración de vistas y lógica.
+     * los métodos de configuración de vistas y lógica; si hay una partida guardada, la reanuda.
      *
      * @param savedInstanceState Estado guardado de la instancia anterior, si existe.
      */
@@ -52,9 +69,10 @@ public class PuzzleDeslizanteActivity extends AppCompatActivity {
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_puzzle_deslizante);
+        partidas = RepositorioPartidas.getInstance(this);
 
         inicializarVistas();
-        configurarJuego();
+        configurarJuego(partidas.cargar(JuegoGuardado.PUZZLE_DESLIZANTE, savedInstanceState));
     }
 
     /**
@@ -87,11 +105,24 @@ public class PuzzleDeslizanteActivity extends AppCompatActivity {
     @Override
     protected void onPause() {
         super.onPause();
+        guardarPartida(null);
         if (mediaPlayer != null && mediaPlayer.isPlaying()) {
             mediaPlayer.pause();
         }
     }
 
+    /**
+     * Guarda la partida también en el estado de la actividad (giro de pantalla o cierre
+     * del proceso por el sistema).
+     *
+     * @param outState Estado a guardar.
+     */
+    @Override
+    protected void onSaveInstanceState(Bundle outState) {
+        super.onSaveInstanceState(outState);
+        guardarPartida(outState);
+    }
+
     /**
      * Se llama antes de que la actividad sea destruida.
      * <p>
@@ -129,119 +160,96 @@ public class PuzzleDeslizanteActivity extends AppCompatActivity {
     /**
      * Configura la lógica inicial del juego.
      * <p>
-     * Crea la lista de fichas numéricas y la ficha vacía, configura el {@link RecyclerView}
-     * con un {@link GridLayoutManager} para la cuadrícula y mezcla el tablero para comenzar la partida.
+     * Crea el tablero, configura el {@link RecyclerView} con un {@link GridLayoutManager}
+     * para la cuadrícula y mezcla el tablero para comenzar la partida, salvo que se reanude
+     * una guardada.
      * </p>
+     *
+     * @param guardada Partida guardada a reanudar, o {@code null}.
      */
-    private void configurarJuego() {
-        fichas = new ArrayList<>();
-
-        for (int i = 1; i < TOTAL_FICHAS; i++) {
-            fichas.add(new FichaPuzzle(i, false));
-        }
+    private void configurarJuego(InstantaneaPartida guardada) {
+        tablero = new TableroPuzzle(FILAS, COLUMNAS);
+        boolean reanudada = guardada != null && leerFichas(guardada);
+        if (reanudada) semillaPartida = guardada.getSemilla();
 
-        // Agregamos la ficha vacía al final (posición 0 visualmente o lógica según implementación)
-        fichas.add(new FichaPuzzle(0, true));
-
-        adapter = new PuzzleAdapter(fichas, this::onFichaClick);
+        adapter = new PuzzleAdapter(tablero, this::onFichaClick);
         rvTablero.setLayoutManager(new GridLayoutManager(this, COLUMNAS));
         rvTablero.setAdapter(adapter);
 
-        mezclarTablero();
+        if (!reanudada) mezclarTablero();
     }
 
-
     /**
-     * Maneja el evento de clic en una ficha del tablero.
-     * <p>
-     * Verifica si el movimiento hacia la casilla vacía es válido. Si lo es, realiza el intercambio
-     * en la lista de datos, notifica al adaptador para actualizar la vista y verifica si el
-     * jugador ha ganado la partida.
-     * </p>
+     * Guarda el orden de las fichas, o borra la partida guardada si el puzzle está resuelto.
      *
-     * @param posicionClick La posición de la ficha seleccionada en la lista del adaptador.
+     * @param estado {@code Bundle} de {@link #onSaveInstanceState(Bundle)}, o {@code null}.
      */
-    private void onFichaClick(int posicionClick) {
-        int posicionVacia = obtenerPosicionVacia();
-
-        if (esMovimientoValido(posicionClick, posicionVacia)) {
-
-            Collections.swap(fichas, posicionClick, posicionVacia);
-
-            // Notificamos cambios solo en las posiciones afectadas para mejor rendimiento
-            adapter.notifyItemChanged(posicionClick);
-            adapter.notifyItemChanged(posicionVacia);
-
-            if (verificarVictoria()) {
-                Toast.makeText(this, "¡Felicidades! Completaste el puzzle.", Toast.LENGTH_LONG).show();
-            }
+    private void guardarPartida(Bundle estado) {
+        if (tablero.estaResuelto()) {
+            partidas.borrar(JuegoGuardado.PUZZLE_DESLIZANTE);
+            return;
         }
+        EscritorBits salida = new EscritorBits(TOTAL_FICHAS * BITS_FICHA / 8 + 1);
+        for (int i = 0; i < TOTAL_FICHAS; i++) {
+            salida.escribir(tablero.getFicha(i), BITS_FICHA);
+        }
+        partidas.guardar(new InstantaneaPartida(JuegoGuardado.PUZZLE_DESLIZANTE, semillaPartida, 0, salida.aBytes()), estado);
     }
 
-
     /**
-     * Busca y retorna la posición actual de la ficha vacía en el tablero.
+     * Coloca en el tablero las fichas de una partida guardada.
      *
-     * @return El índice de la ficha vacía en la lista, o -1 si no se encuentra (caso de error).
+     * @return {@code false} si los datos no son un tablero válido y resoluble (y no se cambió nada).
      */
-    private int obtenerPosicionVacia() {
-        for (int i = 0; i < fichas.size(); i++) {
-            if (fichas.get(i).isEsVacia()) {
-                return i;
+    private boolean leerFichas(InstantaneaPartida guardada) {
+        int[] orden = new int[TOTAL_FICHAS];
+        try {
+            LectorBits entrada = guardada.leerTablero();
+            for (int i = 0; i < TOTAL_FICHAS; i++) {
+                orden[i] = entrada.leerHasta(BITS_FICHA, TOTAL_FICHAS - 1);
             }
+            tablero.colocar(orden);
+        } catch (IllegalArgumentException e) {
+            return false;
         }
-        return -1;
+        return true;
     }
 
 
     /**
-     * Verifica si el movimiento intentado por el usuario es válido.
+     * Maneja el evento de clic en una ficha del tablero.
      * <p>
-     * Un movimiento se considera válido únicamente si la ficha seleccionada es adyacente
-     * ortogonalmente (arriba, abajo, izquierda o derecha) a la ficha vacía.
-     * Se utiliza la distancia Manhattan para simplificar este cálculo.
+     * Si la ficha está junto al hueco, la desliza en el tablero, notifica al adaptador para
+     * actualizar la vista y verifica si el jugador ha ganado la partida. El tablero conoce la
+     * posición del hueco y cuántas fichas están en su sitio, así que nada de esto recorre las fichas.
      * </p>
      *
-     * @param posClick La posición de la ficha que se quiere mover.
-     * @param posVacia La posición actual de la ficha vacía.
-     * @return true si el movimiento es válido, false en caso contrario.
+     * @param posicionClick La posición de la ficha seleccionada en la lista del adaptador.
      */
-    private boolean esMovimientoValido(int posClick, int posVacia) {
-        int filaClick = posClick / COLUMNAS;
-        int colClick = posClick % COLUMNAS;
-        int filaVacia = posVacia / COLUMNAS;
-        int colVacia = posVacia % COLUMNAS;
-
-        // Distancia Manhattan == 1 implica adyacencia directa (sin diagonales)
-        return (Math.abs(filaClick - filaVacia) + Math.abs(colClick - colVacia)) == 1;
-    }
+    private void onFichaClick(int posicionClick) {
+        int posicionVacia = tablero.getPosicionVacia();
 
+        if (tablero.mover(posicionClick)) {
 
-    /**
-     * Mezcla aleatoriamente las fichas del tablero y actualiza la vista.
-     * Utiliza {@link Collections#shuffle(List)} para aleatorizar el orden.
-     */
-    private void mezclarTablero() {
-        Collections.shuffle(fichas);
-        adapter.actualizarDatos(fichas);
+            // Notificamos cambios solo en las posiciones afectadas para mejor rendimiento
+            adapter.notifyItemChanged(posicionClick);
+            adapter.notifyItemChanged(posicionVacia);
+
+            if (tablero.estaResuelto()) {
+                Toast.makeText(this, "¡Felicidades! Completaste el puzzle.", Toast.LENGTH_LONG).show();
+            }
+        }
     }
 
 
     /**
-     * Comprueba si el jugador ha completado el puzzle correctamente.
-     * <p>
-     * El puzzle se considera resuelto si todas las fichas numéricas están en orden
-     * estrictamente ascendente (1, 2, 3...).
-     * </p>
-     *
-     * @return true si el puzzle está resuelto, false si aún hay fichas desordenadas.
+     * Mezcla aleatoriamente las fichas del tablero y actualiza la vista.
+     * Utiliza {@link TableroPuzzle#mezclar(Random)}, que solo genera tableros resolubles, con
+     * una semilla nueva que se guarda con la partida.
      */
-    private boolean verificarVictoria() {
-        for (int i = 0; i < TOTAL_FICHAS - 1; i++) {
-            if (fichas.get(i).getNumero() != (i + 1)) {
-                return false;
-            }
-        }
-        return true;
+    private void mezclarTablero() {
+        semillaPartida = new Random().nextLong();
+        tablero.mezclar(new Random(semillaPartida));
+        adapter.actualizarDatos();
     }
-}
\ No newline at end of file
+}
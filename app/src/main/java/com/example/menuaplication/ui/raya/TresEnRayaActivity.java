@@ -8,6 +8,11 @@ import android.widget.TextView;
 import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 import com.example.menuaplication.R;
+import com.example.menuaplication.data.RepositorioPartidas;
+import com.example.menuaplication.model.partidas.EscritorBits;
+import com.example.menuaplication.model.partidas.InstantaneaPartida;
+import com.example.menuaplication.model.partidas.JuegoGuardado;
+import com.example.menuaplication.model.partidas.LectorBits;
 
 /**
  * Actividad que implementa la lógica y la interfaz del juego Tres en Raya (Tic-Tac-Toe).
@@ -15,9 +20,13 @@ import com.example.menuaplication.R;
  * Gestiona el tablero de juego, los turnos de los jugadores (X y O), la detección
  * de victorias o empates y la actualización visual de la interfaz.
  * </p>
+ * <p>
+ * La partida en curso se guarda con {@link RepositorioPartidas} (2 bits por casilla y el turno)
+ * y se reanuda al volver a abrir la actividad.
+ * </p>
  *
  * @author SRGM
- * @version 1.0
+ * @version 1.1
  */
 public class TresEnRayaActivity extends AppCompatActivity {
 
@@ -49,6 +58,8 @@ public class TresEnRayaActivity extends AppCompatActivity {
     private Button[] botones = new Button[9];
     private TextView tvTurno;
 
+    private RepositorioPartidas partidas;
+
     /**
      * Método de creación de la actividad.
      * Inicializa el layout y los componentes visuales.
@@ -59,8 +70,11 @@ public class TresEnRayaActivity extends AppCompatActivity {
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_tres_en_raya);
+        partidas = RepositorioPartidas.getInstance(this);
 
         inicializarVistas();
+        InstantaneaPartida guardada = partidas.cargar(JuegoGuardado.TRES_EN_RAYA, savedInstanceState);
+        if (guardada != null) restaurarPartida(guardada);
     }
 
     /**
@@ -103,8 +117,7 @@ public class TresEnRayaActivity extends AppCompatActivity {
         tablero[posicion] = turnoX ? 1 : 2;
 
         // Actualizar visual
-        botones[posicion].setText(turnoX ? "X" : "O");
-        botones[posicion].setTextColor(turnoX ? Color.parseColor("#1976D2") : Color.parseColor("#E57373")); // Azul para X, Rojo para O
+        pintarCasilla(posicion);
 
         // Verificar estado del juego tras el movimiento
         if (verificarGanador()) {
@@ -122,6 +135,21 @@ public class TresEnRayaActivity extends AppCompatActivity {
         }
     }
 
+    /**
+     * Muestra en su botón la ficha de una casilla del tablero.
+     *
+     * @param posicion Índice (0-8) de la casilla.
+     */
+    private void pintarCasilla(int posicion) {
+        if (tablero[posicion] == 0) {
+            botones[posicion].setText("");
+            return;
+        }
+        boolean esX = tablero[posicion] == 1;
+        botones[posicion].setText(esX ? "X" : "O");
+        botones[posicion].setTextColor(esX ? Color.parseColor("#1976D2") : Color.parseColor("#E57373")); // Azul para X, Rojo para O
+    }
+
     /**
      * Comprueba si el jugador actual ha completado una línea ganadora.
      *
@@ -170,4 +198,80 @@ public class TresEnRayaActivity extends AppCompatActivity {
             btn.setText("");
         }
     }
+
+    /**
+     * Guarda la partida en curso; si terminó o aún no empezó, borra la guardada.
+     * No hay reloj ni azar, así que el tiempo y la semilla se guardan a cero.
+     *
+     * @param estado {@code Bundle} de {@link #onSaveInstanceState(Bundle)}, o {@code null}.
+     */
+    private void guardarPartida(Bundle estado) {
+        EscritorBits salida = new EscritorBits();
+        boolean vacio = true;
+        for (int casilla : tablero) {
+            salida.escribir(casilla, 2);
+            if (casilla != 0) vacio = false;
+        }
+        if (!juegoActivo || vacio) {
+            partidas.borrar(JuegoGuardado.TRES_EN_RAYA);
+            return;
+        }
+        salida.escribirBit(turnoX);
+        partidas.guardar(new InstantaneaPartida(JuegoGuardado.TRES_EN_RAYA, 0, 0, salida.aBytes()), estado);
+    }
+
+    /**
+     * Reanuda una partida guardada con {@link #guardarPartida(Bundle)}. Si no es una
+     * partida en curso válida, se deja el tablero vacío.
+     */
+    private void restaurarPartida(InstantaneaPartida guardada) {
+        int[] leido = new int[tablero.length];
+        boolean leidoTurnoX;
+        int fichasX = 0, fichasO = 0;
+        try {
+            LectorBits entrada = guardada.leerTablero();
+            for (int i = 0; i < leido.length; i++) {
+                leido[i] = entrada.leerHasta(2, 2);
+                if (leido[i] == 1) fichasX++;
+                else if (leido[i] == 2) fichasO++;
+            }
+            leidoTurnoX = entrada.leerBit();
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        // X siempre empieza: le toca a X si hay tantas fichas de cada una
+        if (leidoTurnoX != (fichasX == fichasO) || fichasX - fichasO > 1 || fichasX < fichasO) return;
+
+        int[] anterior = tablero;
+        tablero = leido;
+        if (verificarGanador() || verificarEmpate()) {
+            tablero = anterior;
+            return;
+        }
+        turnoX = leidoTurnoX;
+        juegoActivo = true;
+        for (int i = 0; i < botones.length; i++) pintarCasilla(i);
+        tvTurno.setText("Turno: " + (turnoX ? "X" : "O"));
+    }
+
+    /**
+     * Guarda la partida al salir de primer plano.
+     */
+    @Override
+    protected void onPause() {
+        super.onPause();
+        guardarPartida(null);
+    }
+
+    /**
+     * Guarda la partida también en el estado de la actividad (giro de pantalla o cierre
+     * del proceso por el sistema).
+     *
+     * @param outState Estado a guardar.
+     */
+    @Override
+    protected void onSaveInstanceState(Bundle outState) {
+        super.onSaveInstanceState(outState);
+        guardarPartida(outState);
+    }
 }
\ No newline at end of file
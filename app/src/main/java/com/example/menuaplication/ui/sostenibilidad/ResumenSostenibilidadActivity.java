@@ -21,7 +21,7 @@ import com.example.menuaplication.model.sostenibilidad.RegistroSostenibilidad;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
-import java.util.List;
+import java.util.Collection;
 
 /**
  * Actividad encargada de visualizar el resumen semanal de las actividades de sostenibilidad.
@@ -225,7 +225,7 @@ public class ResumenSostenibilidadActivity extends AppCompatActivity {
         tvNumeroSemana.setText("Semana " + semanaActualIndex);
         tvRangoFechas.setText(String.format("%s - %s (2026)", inicioSemana.format(formato), finSemana.format(formato)));
 
-        List<RegistroSostenibilidad> registrosSemana = repositorio.obtenerRegistrosEnRango(inicioSemana, finSemana);
+        Collection<RegistroSostenibilidad> registrosSemana = repositorio.vistaRango(inicioSemana, finSemana).values();
 
         int cTransporte = 0, cImpresiones = 0, cEnvases = 0, cReciclaje = 0;
         int diasConAccion = 0, diasPerfectos = 0;
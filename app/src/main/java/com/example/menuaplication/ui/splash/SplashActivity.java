@@ -2,13 +2,12 @@ package com.example.menuaplication.ui.splash;
 
 import android.content.Intent;
 import android.os.Bundle;
-import android.os.Handler;
-import android.os.Looper;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.app.AppCompatDelegate;
 
 import com.example.menuaplication.ui.menu.MainActivity;
 import com.example.menuaplication.R;
+import com.example.menuaplication.data.OrquestadorArranque;
 import com.example.menuaplication.data.RepositorioActividades;
 
 /**
@@ -18,24 +17,33 @@ import com.example.menuaplication.data.RepositorioActividades;
  * Sus responsabilidades técnicas y visuales son:
  * - Mostrar la identidad visual de la aplicación (Logo) mientras se carga el sistema.
  * - Forzar la configuración de tema (modo claro) para asegurar consistencia visual.
- * - Inicializar la capa de datos: Crea la instancia del {@link RepositorioActividades}
- * para cargar los datos desde el almacenamiento local antes de que el usuario interactúe con la app.
- * - Gestionar la transición automática hacia el menú principal ({@link MainActivity}) tras un breve retraso.
+ * - Inicializar la capa de datos: pide al {@link OrquestadorArranque} que cargue los repositorios
+ * en paralelo, en segundo plano, antes de que el usuario interactúe con la app.
+ * - Gestionar la transición automática hacia el menú principal ({@link MainActivity}) en cuanto
+ * el {@link RepositorioActividades} termina de cargar.
  *
  * @author SRGM
- * @version 1.0
+ * @version 1.1
  */
 public class SplashActivity extends AppCompatActivity {
 
-    /** Duración de la pantalla de carga en milisegundos (3 segundos). */
-    private static final int SPLASH_DELAY_MS = 3000;
+    /** Navegación al menú principal, registrada en el orquestador hasta que los datos estén listos. */
+    private final Runnable irAlMenu = new Runnable() {
+        @Override
+        public void run() {
+            Intent intent = new Intent(SplashActivity.this, MainActivity.class);
+            startActivity(intent);
+            // Finalizar SplashActivity para que el usuario no pueda volver a ella con el botón "Atrás"
+            finish();
+        }
+    };
 
     /**
      * Método de creación de la actividad.
      * Se encarga de:
      * 1. Configurar la UI (layout, ocultar ActionBar, desactivar modo noche).
-     * 2. Inicializar el Singleton de {@link RepositorioActividades} pasando el contexto de la aplicación.
-     * 3. Programar un {@link Handler} para ejecutar la navegación a la siguiente pantalla después de 3 segundos.
+     * 2. Lanzar la carga en paralelo de los repositorios mediante {@link OrquestadorArranque}.
+     * 3. Navegar a la siguiente pantalla en cuanto los datos críticos estén cargados.
      *
      * @param savedInstanceState Estado guardado de la actividad, si existe.
      */
@@ -53,21 +61,19 @@ public class SplashActivity extends AppCompatActivity {
         }
 
         // -----------------------------------------------------------
-        // INICIALIZACIÓN DE DATOS CRÍTICOS
-        // Inicializamos el repositorio aquí para que lea el archivo de datos
-        // mientras el usuario ve el logo. Así, al llegar al menú, los datos ya existen.
+        // INICIALIZACIÓN DE DATOS
+        // Los repositorios se cargan en segundo plano mientras el usuario ve el logo.
+        // Al terminar el de actividades se pasa al menú; los demás siguen en segundo plano.
         // -----------------------------------------------------------
-        RepositorioActividades.getInstance(this);
+        OrquestadorArranque orquestador = OrquestadorArranque.getInstance();
+        orquestador.iniciar(this);
+        orquestador.cuandoEsteListo(irAlMenu);
+    }
 
-        // Programar la transición a MainActivity después del delay definido
-        new Handler(Looper.getMainLooper()).postDelayed(new Runnable() {
-            @Override
-            public void run() {
-                Intent intent = new Intent(SplashActivity.this, MainActivity.class);
-                startActivity(intent);
-                // Finalizar SplashActivity para que el usuario no pueda volver a ella con el botón "Atrás"
-                finish();
-            }
-        }, 3000);
+    @Override
+    protected void onDestroy() {
+        // Si se destruye antes de navegar (p. ej. al rotar), no debe abrir el menú
+        OrquestadorArranque.getInstance().cancelar(irAlMenu);
+        super.onDestroy();
     }
-}
\ No newline at end of file
+}
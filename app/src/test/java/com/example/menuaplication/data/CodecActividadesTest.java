@@ -0,0 +1,171 @@
+package com.example.menuaplication.data;
+
+import com.example.menuaplication.model.actividades.Actividad;
+import com.example.menuaplication.model.actividades.ActividadAcademica;
+import com.example.menuaplication.model.actividades.ActividadPersonal;
+import com.example.menuaplication.model.actividades.Prioridad;
+import com.example.menuaplication.model.actividades.SesionEnfoque;
+import com.example.menuaplication.model.actividades.TecnicaEnfoque;
+import com.example.menuaplication.model.actividades.TipoAcademica;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de ida y vuelta (codificar + decodificar) de {@link CodecActividades}.
+ */
+public class CodecActividadesTest {
+
+    private static byte[] codificar(List<Actividad> lista) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            CodecActividades.escribirLista(out, lista);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<Actividad> decodificar(byte[] datos) throws IOException {
+        return CodecActividades.leerLista(new DataInputStream(new ByteArrayInputStream(datos)));
+    }
+
+    private static void assertMismaActividad(Actividad esperada, Actividad real) {
+        assertEquals(esperada.getClass(), real.getClass());
+        assertEquals(esperada.getId(), real.getId());
+        assertEquals(esperada.getNombre(), real.getNombre());
+        assertEquals(esperada.getDescripcion(), real.getDescripcion());
+        assertEquals(esperada.getFechaVencimiento(), real.getFechaVencimiento());
+        assertEquals(esperada.getPrioridad(), real.getPrioridad());
+        assertEquals(esperada.getPorcentajeAvance(), real.getPorcentajeAvance(), 0.0);
+        assertEquals(esperada.getEstado(), real.getEstado());
+        assertEquals(esperada.getTiempoEstimadoMinutos(), real.getTiempoEstimadoMinutos());
+
+        if (esperada instanceof ActividadAcademica) {
+            ActividadAcademica a = (ActividadAcademica) esperada;
+            ActividadAcademica b = (ActividadAcademica) real;
+            assertEquals(a.getAsignatura(), b.getAsignatura());
+            assertEquals(a.getTipo(), b.getTipo());
+        } else {
+            assertEquals(((ActividadPersonal) esperada).getLugar(), ((ActividadPersonal) real).getLugar());
+        }
+
+        assertEquals(esperada.getSesiones().tamano(), real.getSesiones().tamano());
+        for (int i = 0; i < esperada.getSesiones().tamano(); i++) {
+            SesionEnfoque a = esperada.getSesiones().getSesion(i);
+            SesionEnfoque b = real.getSesiones().getSesion(i);
+            assertEquals(a.getFechaHora(), b.getFechaHora());
+            assertEquals(a.getDuracionMinutos(), b.getDuracionMinutos());
+            assertEquals(a.getTecnica(), b.getTecnica());
+            assertEquals(a.isCompletada(), b.isCompletada());
+        }
+    }
+
+    @Test
+    public void listaVacia_idaYVuelta() throws IOException {
+        assertTrue(decodificar(codificar(new ArrayList<>())).isEmpty());
+    }
+
+    @Test
+    public void actividadesConSesiones_idaYVuelta() throws IOException {
+        ActividadAcademica proyecto = new ActividadAcademica("Proyecto POO", "Desarrollo App",
+                LocalDateTime.of(2026, 1, 30, 23, 59), Prioridad.ALTA, 300, "POO", TipoAcademica.PROYECTO);
+        proyecto.agregarSesion(new SesionEnfoque(LocalDateTime.of(2026, 1, 15, 10, 0), 25, TecnicaEnfoque.POMODORO, true));
+        proyecto.agregarSesion(new SesionEnfoque(LocalDateTime.of(2026, 1, 16, 11, 0), 90, TecnicaEnfoque.DEEP_WORK, false));
+        // Sesión anterior a la previa: la diferencia codificada es negativa
+        proyecto.agregarSesion(new SesionEnfoque(LocalDateTime.of(2025, 12, 31, 8, 30, 15), 5, TecnicaEnfoque.POMODORO, true));
+        proyecto.setPorcentajeAvance(70.5);
+
+        ActividadPersonal cita = new ActividadPersonal("Cita Médica", "Chequeo general",
+                LocalDateTime.of(2026, 1, 20, 10, 0), Prioridad.BAJA, 60, "Hospital Kennedy");
+        cita.setPorcentajeAvance(100);
+
+        List<Actividad> originales = Arrays.asList(proyecto, cita);
+        List<Actividad> leidas = decodificar(codificar(originales));
+
+        assertEquals(originales.size(), leidas.size());
+        for (int i = 0; i < originales.size(); i++) {
+            assertMismaActividad(originales.get(i), leidas.get(i));
+        }
+    }
+
+    @Test
+    public void valoresNulosYTextosUnicode_idaYVuelta() throws IOException {
+        ActividadAcademica rara = new ActividadAcademica(null, "Ñandú, acentuación y 😀 emoji",
+                null, null, 0, "", null);
+        rara.setId(123456789);
+        rara.agregarSesion(new SesionEnfoque(LocalDateTime.of(1969, 7, 20, 20, 17, 40), 0, null, false));
+
+        List<Actividad> leidas = decodificar(codificar(Arrays.asList(rara)));
+        assertMismaActividad(rara, leidas.get(0));
+    }
+
+    @Test
+    public void fechaConNanosegundos_seConserva() throws IOException {
+        ActividadPersonal a = new ActividadPersonal("Gym", "", LocalDateTime.of(2026, 3, 1, 7, 0, 0, 123456789),
+                Prioridad.MEDIA, 45, "Gimnasio");
+        Actividad leida = decodificar(codificar(Arrays.asList(a))).get(0);
+        assertEquals(a.getFechaVencimiento(), leida.getFechaVencimiento());
+    }
+
+    @Test
+    public void varints_idaYVuelta() throws IOException {
+        int[] enteros = {0, 1, 127, 128, 16383, 16384, Integer.MAX_VALUE, -1, Integer.MIN_VALUE};
+        long[] largos = {0, 1, -1, 63, -64, 64, Long.MAX_VALUE, Long.MIN_VALUE, 1767225600L};
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (int v : enteros) CodecActividades.escribirVarInt(out, v);
+        for (long v : largos) CodecActividades.escribirVarLongZigZag(out, v);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        for (int v : enteros) assertEquals(v, CodecActividades.leerVarInt(in));
+        for (long v : largos) assertEquals(v, CodecActividades.leerVarLongZigZag(in));
+        assertEquals(0, in.available());
+    }
+
+    @Test(expected = IOException.class)
+    public void cabeceraInvalida_lanzaExcepcion() throws IOException {
+        decodificar(new byte[]{0, 0, 0, 0, 1, 0});
+    }
+
+    @Test(expected = IOException.class)
+    public void versionFutura_lanzaExcepcion() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(CodecActividades.MAGICO);
+        CodecActividades.escribirVarInt(out, CodecActividades.VERSION + 1);
+        CodecActividades.escribirVarInt(out, 0);
+        decodificar(bytes.toByteArray());
+    }
+
+    @Test
+    public void formatoBinario_esMasPequenoQueSerializacionJava() throws IOException {
+        ActividadAcademica a = new ActividadAcademica("Tesis", "Capítulo 3",
+                LocalDateTime.of(2026, 6, 1, 23, 59), Prioridad.ALTA, 6000, "Seminario", TipoAcademica.PROYECTO);
+        LocalDateTime inicio = LocalDateTime.of(2026, 1, 1, 8, 0);
+        for (int i = 0; i < 500; i++) {
+            a.agregarSesion(new SesionEnfoque(inicio.plusMinutes(30L * i), 25, TecnicaEnfoque.POMODORO, i % 7 != 0));
+        }
+        List<Actividad> lista = new ArrayList<>(Arrays.asList(a));
+
+        ByteArrayOutputStream java = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(java)) {
+            oos.writeObject(lista);
+        }
+        byte[] binario = codificar(lista);
+
+        assertTrue(binario.length * 5 < java.size());
+        assertMismaActividad(a, decodificar(binario).get(0));
+    }
+}
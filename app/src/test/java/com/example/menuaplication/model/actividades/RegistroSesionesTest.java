@@ -0,0 +1,118 @@
+package com.example.menuaplication.model.actividades;
+
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de {@link RegistroSesiones}: crecimiento de las columnas, bits de completada,
+ * modificaciones, posición menor modificada y copias.
+ */
+public class RegistroSesionesTest {
+
+    private static final TecnicaEnfoque[] TECNICAS = TecnicaEnfoque.values();
+
+    /** Llena un registro con datos que dependen de la posición. */
+    private static RegistroSesiones llenar(int cantidad) {
+        RegistroSesiones r = new RegistroSesiones();
+        for (int i = 0; i < cantidad; i++) {
+            r.agregar(1_700_000_000L + i * 60L, i + 1, i % 3 == 0 ? null : TECNICAS[i % TECNICAS.length], i % 5 == 0);
+        }
+        return r;
+    }
+
+    @Test
+    public void agregar_creceYConservaLasSesiones() {
+        RegistroSesiones r = llenar(1000);
+
+        assertEquals(1000, r.tamano());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(1_700_000_000L + i * 60L, r.getSegundos(i));
+            assertEquals(i + 1, r.getDuracionMinutos(i));
+            assertEquals(i % 3 == 0 ? null : TECNICAS[i % TECNICAS.length], r.getTecnica(i));
+            assertEquals(i % 5 == 0, r.isCompletada(i));
+        }
+    }
+
+    @Test
+    public void completada_funcionaPasadasLas64Sesiones() {
+        RegistroSesiones r = new RegistroSesiones();
+        for (int i = 0; i < 200; i++) r.agregar(RegistroSesiones.SIN_FECHA, 25, null, i == 64 || i == 130);
+
+        for (int i = 0; i < 200; i++) {
+            assertEquals("Sesión " + i, i == 64 || i == 130, r.isCompletada(i));
+        }
+
+        // Cambiar la sesión 64 no toca la 0, que comparte la misma posición de bit
+        r.modificar(0, 25, null, true);
+        r.modificar(64, 25, null, false);
+        assertTrue(r.isCompletada(0));
+        assertFalse(r.isCompletada(64));
+        assertTrue(r.isCompletada(130));
+    }
+
+    @Test
+    public void modificar_cambiaLosDatosYConservaLaFecha() {
+        RegistroSesiones r = llenar(10);
+        LocalDateTime fecha = r.getFechaHora(4);
+
+        r.modificar(4, 50, TecnicaEnfoque.values()[0], true);
+
+        assertEquals(fecha, r.getFechaHora(4));
+        assertEquals(50, r.getDuracionMinutos(4));
+        assertEquals(TecnicaEnfoque.values()[0], r.getTecnica(4));
+        assertTrue(r.isCompletada(4));
+        assertEquals(4, r.getDuracionMinutos(3));
+    }
+
+    @Test
+    public void tomarMenorModificada_devuelveLaMenorYLaOlvida() {
+        RegistroSesiones r = llenar(10);
+        assertEquals(Integer.MAX_VALUE, r.tomarMenorModificada());
+
+        r.modificar(7, 1, null, false);
+        r.modificar(2, 1, null, false);
+        r.modificar(5, 1, null, false);
+        assertEquals(2, r.tomarMenorModificada());
+        assertEquals(Integer.MAX_VALUE, r.tomarMenorModificada());
+
+        // Agregar no cuenta como modificar
+        r.agregar(RegistroSesiones.SIN_FECHA, 1, null, false);
+        assertEquals(Integer.MAX_VALUE, r.tomarMenorModificada());
+    }
+
+    @Test
+    public void copia_esIndependiente() {
+        RegistroSesiones r = llenar(70);
+        RegistroSesiones c = r.copia();
+
+        r.modificar(69, 99, null, true);
+        r.agregar(RegistroSesiones.SIN_FECHA, 1, null, false);
+
+        assertEquals(70, c.tamano());
+        assertEquals(70, c.getDuracionMinutos(69));
+        assertFalse(c.isCompletada(69));
+    }
+
+    @Test
+    public void copiaDesde_empiezaEnLaPosicionIndicada() {
+        RegistroSesiones r = llenar(150);
+
+        RegistroSesiones c = r.copiaDesde(70);
+        assertEquals(80, c.tamano());
+        for (int i = 0; i < c.tamano(); i++) {
+            assertEquals(r.getSegundos(70 + i), c.getSegundos(i));
+            assertEquals(r.getDuracionMinutos(70 + i), c.getDuracionMinutos(i));
+            assertEquals(r.getTecnica(70 + i), c.getTecnica(i));
+            assertEquals(r.isCompletada(70 + i), c.isCompletada(i));
+        }
+        assertTrue(r.copiaDesde(150).estaVacio());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void posicionFueraDeRango_falla() {
+        llenar(3).getDuracionMinutos(3);
+    }
+}
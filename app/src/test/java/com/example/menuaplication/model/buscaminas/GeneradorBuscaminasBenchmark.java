@@ -0,0 +1,65 @@
+package com.example.menuaplication.model.buscaminas;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Medición en la JVM de cuántos tableros sin adivinar genera {@link GeneradorBuscaminas}
+ * por segundo en varios tamaños. No compara contra un umbral (depende de la máquina): solo
+ * imprime los resultados. Tarda varios segundos, así que no corre con las pruebas unitarias;
+ * se lanza a mano con {@link #main} (o quitando el {@link Ignore}).
+ */
+public class GeneradorBuscaminasBenchmark {
+
+    /** {filas, columnas, minas}: principiante, intermedio, experto y dos tableros grandes. */
+    private static final int[][] TAMANOS = {
+            {9, 9, 10},
+            {16, 16, 40},
+            {16, 30, 99},
+            {50, 50, 400},
+            {100, 100, 1600},
+    };
+
+    /** Tiempo de medición por tamaño (tras el calentamiento). */
+    private static final long DURACION_NS = 1_000_000_000L;
+
+    @Ignore("Medición manual: tarda varios segundos y no comprueba nada")
+    @Test
+    public void tablerosPorSegundo() {
+        for (int[] t : TAMANOS) {
+            medir(t[0], t[1], t[2]);
+        }
+    }
+
+    private static void medir(int filas, int columnas, int minas) {
+        Random rnd = new Random(1);
+        int centro = (filas / 2) * columnas + columnas / 2;
+
+        // Calentamiento para que el JIT compile el generador y el solucionador
+        long fin = System.nanoTime() + DURACION_NS / 4;
+        while (System.nanoTime() < fin) {
+            GeneradorBuscaminas.generar(filas, columnas, minas, centro, rnd);
+        }
+
+        int generados = 0;
+        long inicio = System.nanoTime();
+        fin = inicio + DURACION_NS;
+        long ahora;
+        do {
+            GeneradorBuscaminas.generar(filas, columnas, minas, centro, rnd);
+            generados++;
+            ahora = System.nanoTime();
+        } while (ahora < fin);
+
+        double segundos = (ahora - inicio) / 1e9;
+        System.out.println(String.format(Locale.ROOT, "%4dx%-4d %5d minas: %9.1f tableros/s",
+                filas, columnas, minas, generados / segundos));
+    }
+
+    public static void main(String[] args) {
+        new GeneradorBuscaminasBenchmark().tablerosPorSegundo();
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.menuaplication.model.buscaminas;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de {@link SolucionadorBuscaminas} y {@link GeneradorBuscaminas}.
+ */
+public class SolucionadorBuscaminasTest {
+
+    @Test
+    public void pista_patronUnoDosUno_encuentraLaCeldaSegura() {
+        // Fila de abajo revelada con 1-2-1: la celda sobre el 2 es segura
+        // * . *
+        // 1 2 1
+        TableroBuscaminas t = new TableroBuscaminas(2, 3, 2);
+        t.colocarMinasEn(new int[]{t.indice(0, 0), t.indice(0, 2)});
+        t.revelar(t.indice(1, 0));
+        t.revelar(t.indice(1, 1));
+        t.revelar(t.indice(1, 2));
+
+        SolucionadorBuscaminas.Pista pista = new SolucionadorBuscaminas(t).pista();
+
+        assertEquals(SolucionadorBuscaminas.Pista.Tipo.SEGURA, pista.tipo);
+        assertEquals(t.indice(0, 1), pista.celda);
+    }
+
+    @Test
+    public void pista_sinNadaSeguro_devuelveLaDeMenorRiesgo() {
+        // Dos celdas cubiertas, una mina y un 1 que toca a ambas: 50% cada una
+        TableroBuscaminas t = new TableroBuscaminas(2, 2, 1);
+        t.colocarMinasEn(new int[]{t.indice(0, 0)});
+        t.revelar(t.indice(1, 0));
+        t.revelar(t.indice(1, 1));
+
+        SolucionadorBuscaminas.Pista pista = new SolucionadorBuscaminas(t).pista();
+
+        assertEquals(SolucionadorBuscaminas.Pista.Tipo.MENOR_RIESGO, pista.tipo);
+        assertEquals(0.5, pista.probabilidadMina, 1e-9);
+    }
+
+    @Test
+    public void probabilidades_usanElTotalDeMinas() {
+        // Un 1 junto a tres celdas y otras cinco celdas lejos, con 2 minas en total
+        // . . . . .
+        // . . . . .
+        // 1 . . . .   (solo se revela la esquina inferior izquierda)
+        TableroBuscaminas t = new TableroBuscaminas(3, 5, 2);
+        t.colocarMinasEn(new int[]{t.indice(1, 0), t.indice(0, 4)});
+        t.revelar(t.indice(2, 0));
+
+        double[] p = new SolucionadorBuscaminas(t).probabilidades();
+
+        // Frontera: 3 celdas con exactamente 1 mina; interior: 11 celdas con la otra
+        assertEquals(1.0 / 3, p[t.indice(1, 0)], 1e-9);
+        assertEquals(1.0 / 11, p[t.indice(0, 4)], 1e-9);
+    }
+
+    @Test
+    public void resolverSinAdivinar_nuncaRevelaUnaMina() {
+        Random rnd = new Random(11);
+        for (int i = 0; i < 500; i++) {
+            TableroBuscaminas t = new TableroBuscaminas(9, 9, 10 + rnd.nextInt(15));
+            int inicio = rnd.nextInt(81);
+            t.colocarMinas(rnd, inicio);
+            new SolucionadorBuscaminas(t).resolverSinAdivinar(inicio);
+            assertFalse(t.haExplotado());
+        }
+    }
+
+    @Test
+    public void generar_produceTablerosSinAdivinarYConPrimerToqueSeguro() {
+        Random rnd = new Random(3);
+        for (int i = 0; i < 20; i++) {
+            int inicio = rnd.nextInt(16 * 16);
+            TableroBuscaminas t = GeneradorBuscaminas.generar(16, 16, 40, inicio, rnd);
+
+            assertFalse(t.esMina(inicio));
+            assertEquals(0, t.getMinasAlrededor(inicio));
+            assertTrue(new SolucionadorBuscaminas(t).resolverSinAdivinar(inicio));
+        }
+    }
+
+    @Test
+    public void generar_conLaMismaSemilla_esReproducible() {
+        TableroBuscaminas a = GeneradorBuscaminas.generar(16, 30, 99, 0, new Random(42));
+        TableroBuscaminas b = GeneradorBuscaminas.generar(16, 30, 99, 0, new Random(42));
+        for (int i = 0; i < a.getTotalCeldas(); i++) {
+            assertEquals(a.esMina(i), b.esMina(i));
+        }
+    }
+}
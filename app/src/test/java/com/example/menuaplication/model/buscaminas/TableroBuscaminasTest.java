@@ -0,0 +1,128 @@
+package com.example.menuaplication.model.buscaminas;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas del motor {@link TableroBuscaminas}: números, expansión de áreas vacías y
+ * celdas cambiadas.
+ */
+public class TableroBuscaminasTest {
+
+    private static Set<Integer> aConjunto(CeldasCambiadas cambios) {
+        Set<Integer> celdas = new HashSet<>();
+        for (int i = 0; i < cambios.tamano(); i++) celdas.add(cambios.get(i));
+        assertEquals("Celda repetida en los cambios", cambios.tamano(), celdas.size());
+        return celdas;
+    }
+
+    @Test
+    public void numeros_cuentanLasMinasVecinas() {
+        // . * .
+        // . . .
+        // * . *
+        TableroBuscaminas t = new TableroBuscaminas(3, 3, 3);
+        t.colocarMinasEn(new int[]{t.indice(0, 1), t.indice(2, 0), t.indice(2, 2)});
+
+        assertEquals(1, t.getMinasAlrededor(t.indice(0, 0)));
+        assertEquals(3, t.getMinasAlrededor(t.indice(1, 1)));
+        assertEquals(2, t.getMinasAlrededor(t.indice(1, 0)));
+        assertEquals(2, t.getMinasAlrededor(t.indice(2, 1)));
+    }
+
+    @Test
+    public void revelar_expandeElAreaVaciaYSuContorno() {
+        // Una sola mina en la esquina: todo lo demás se abre de un toque
+        TableroBuscaminas t = new TableroBuscaminas(4, 5, 1);
+        t.colocarMinasEn(new int[]{t.indice(3, 4)});
+
+        Set<Integer> cambiadas = aConjunto(t.revelar(t.indice(0, 0)));
+
+        assertEquals(t.getTotalCeldas() - 1, cambiadas.size());
+        assertFalse(cambiadas.contains(t.indice(3, 4)));
+        assertTrue(t.estaGanado());
+    }
+
+    @Test
+    public void revelar_noAbreCeldasMarcadas() {
+        TableroBuscaminas t = new TableroBuscaminas(1, 5, 0);
+        t.colocarMinasEn(new int[0]);
+        t.alternarMarca(2);
+
+        Set<Integer> cambiadas = aConjunto(t.revelar(0));
+
+        assertEquals(new HashSet<>(Arrays.asList(0, 1)), cambiadas);
+        assertFalse(t.estaRevelada(3));
+        assertTrue(t.revelar(1).estaVacia());
+    }
+
+    @Test
+    public void revelarMina_pierdeYMuestraTodasLasMinas() {
+        TableroBuscaminas t = new TableroBuscaminas(10, 10, 15);
+        t.colocarMinas(new Random(7), -1);
+        int mina = -1;
+        for (int i = 0; i < t.getTotalCeldas() && mina < 0; i++) if (t.esMina(i)) mina = i;
+
+        Set<Integer> cambiadas = aConjunto(t.revelar(mina));
+
+        assertTrue(t.haExplotado());
+        assertEquals(15, cambiadas.size());
+        for (int celda : cambiadas) assertTrue(t.esMina(celda));
+        assertTrue(t.revelar(0).estaVacia());
+    }
+
+    @Test
+    public void colocarMinas_respetaLaCeldaSeguraYSusVecinas() {
+        for (int semilla = 0; semilla < 50; semilla++) {
+            TableroBuscaminas t = new TableroBuscaminas(9, 9, 40);
+            int segura = t.indice(4, 4);
+            t.colocarMinas(new Random(semilla), segura);
+
+            int minas = 0;
+            for (int i = 0; i < t.getTotalCeldas(); i++) if (t.esMina(i)) minas++;
+            assertEquals(40, minas);
+            assertEquals(0, t.getMinasAlrededor(segura));
+            assertFalse(t.esMina(segura));
+        }
+    }
+
+    @Test
+    public void contadores_coincidenConElTablero() {
+        Random rnd = new Random(5);
+        for (int partida = 0; partida < 200; partida++) {
+            TableroBuscaminas t = new TableroBuscaminas(12, 9, 15);
+            t.colocarMinas(rnd, rnd.nextInt(t.getTotalCeldas()));
+
+            while (!t.haExplotado() && !t.estaGanado()) {
+                int celda = rnd.nextInt(t.getTotalCeldas());
+                if (rnd.nextInt(4) == 0) t.alternarMarca(celda);
+                else t.revelar(celda);
+
+                int reveladas = 0, marcadas = 0;
+                for (int i = 0; i < t.getTotalCeldas(); i++) {
+                    if (t.estaRevelada(i) && !t.esMina(i)) reveladas++;
+                    if (t.estaMarcada(i)) marcadas++;
+                }
+                assertEquals(reveladas, t.getReveladasSeguras());
+                assertEquals(marcadas, t.getMarcadas());
+                assertEquals(15 - marcadas, t.getMinasRestantes());
+                assertEquals(reveladas == t.getTotalCeldas() - 15 && !t.haExplotado(), t.estaGanado());
+            }
+        }
+    }
+
+    @Test
+    public void tableroGrande_seAbreSinDesbordarLaPila() {
+        TableroBuscaminas t = new TableroBuscaminas(500, 500, 0);
+        t.colocarMinasEn(new int[0]);
+
+        assertEquals(500 * 500, t.revelar(t.indice(250, 250)).tamano());
+        assertTrue(t.estaGanado());
+    }
+}
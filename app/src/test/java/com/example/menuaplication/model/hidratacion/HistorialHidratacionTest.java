@@ -0,0 +1,106 @@
+package com.example.menuaplication.model.hidratacion;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de {@link HistorialHidratacion}: días nuevos al final y en medio (también al
+ * ampliar la capacidad), metas, totales por día y sumas por rango.
+ */
+public class HistorialHidratacionTest {
+
+    /** Comprueba metas, totales y sumas por rango contra un modelo simple. */
+    private static void comprobar(HistorialHidratacion h, TreeMap<Integer, Integer> metas,
+                                  TreeMap<Integer, Integer> totales) {
+        assertEquals(metas.size(), h.getNumDias());
+        for (int dia : metas.keySet()) {
+            assertEquals("Meta del día " + dia, (int) metas.get(dia), h.getMeta(dia));
+            assertEquals("Total del día " + dia, (int) totales.get(dia), h.getTotal(dia));
+        }
+        int primero = metas.firstKey() - 1, ultimo = metas.lastKey() + 1;
+        for (int inicio = primero; inicio <= ultimo; inicio += 3) {
+            for (int fin = inicio; fin <= ultimo; fin += 5) {
+                long esperado = 0;
+                for (int total : totales.subMap(inicio, true, fin, true).values()) esperado += total;
+                assertEquals("Rango " + inicio + ".." + fin, esperado, h.getTotalEnRango(inicio, fin));
+            }
+        }
+    }
+
+    @Test
+    public void setMeta_enDiasNuevosAlFinal_cruzaLaCapacidad() {
+        HistorialHidratacion h = new HistorialHidratacion();
+        TreeMap<Integer, Integer> metas = new TreeMap<>(), totales = new TreeMap<>();
+
+        // 40 días distintos: se amplía la capacidad en el 17.º y el 33.º
+        for (int dia = 100; dia < 140; dia++) {
+            h.setMeta(dia, 2000 + dia);
+            metas.put(dia, 2000 + dia);
+            h.agregar(dia, 600, dia);
+            totales.put(dia, dia);
+        }
+        comprobar(h, metas, totales);
+    }
+
+    @Test
+    public void setMeta_enDiasNuevosEnMedio_cruzaLaCapacidad() {
+        HistorialHidratacion h = new HistorialHidratacion();
+        TreeMap<Integer, Integer> metas = new TreeMap<>(), totales = new TreeMap<>();
+
+        // Días pares con registros y luego los impares solo con meta, insertados en medio
+        for (int dia = 0; dia < 30; dia += 2) {
+            h.agregar(dia, 480, 250 + dia);
+            metas.put(dia, HistorialHidratacion.SIN_META);
+            totales.put(dia, 250 + dia);
+        }
+        for (int dia = 29; dia > 0; dia -= 2) {
+            h.setMeta(dia, 3000 + dia);
+            metas.put(dia, 3000 + dia);
+            totales.put(dia, 0);
+        }
+        comprobar(h, metas, totales);
+
+        // El árbol sigue siendo correcto al agregar tras las inserciones
+        h.agregar(15, 700, 100);
+        totales.put(15, 100);
+        comprobar(h, metas, totales);
+    }
+
+    @Test
+    public void operacionesAlAzar_coincidenConElModelo() throws IOException {
+        Random rnd = new Random(8);
+        HistorialHidratacion h = new HistorialHidratacion();
+        TreeMap<Integer, Integer> metas = new TreeMap<>(), totales = new TreeMap<>();
+
+        for (int k = 0; k < 400; k++) {
+            int dia = rnd.nextInt(120);
+            metas.putIfAbsent(dia, HistorialHidratacion.SIN_META);
+            totales.putIfAbsent(dia, 0);
+            if (rnd.nextBoolean()) {
+                int meta = 1000 + rnd.nextInt(3000);
+                h.setMeta(dia, meta);
+                metas.put(dia, meta);
+            } else {
+                int ml = rnd.nextInt(600);
+                h.agregar(dia, rnd.nextInt(1440), ml);
+                totales.put(dia, totales.get(dia) + ml);
+            }
+        }
+        comprobar(h, metas, totales);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        h.escribir(new DataOutputStream(bytes));
+        HistorialHidratacion leido = HistorialHidratacion.leer(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        comprobar(leido, metas, totales);
+    }
+}
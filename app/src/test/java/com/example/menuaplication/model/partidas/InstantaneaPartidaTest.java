@@ -0,0 +1,92 @@
+package com.example.menuaplication.model.partidas;
+
+import com.example.menuaplication.model.buscaminas.TableroBuscaminas;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas del formato de partidas guardadas: bits, cabecera y tablero de Buscaminas.
+ */
+public class InstantaneaPartidaTest {
+
+    @Test
+    public void bits_seLeenComoSeEscribieron() {
+        EscritorBits salida = new EscritorBits(1);
+        salida.escribir(5, 3);
+        salida.escribirBit(true);
+        salida.escribir(0x1234_5678_9ABCL, 48);
+        salida.escribir(0, 1);
+        assertEquals(53, salida.getBits());
+
+        LectorBits entrada = new LectorBits(salida.aBytes());
+        assertEquals(5, entrada.leer(3));
+        assertTrue(entrada.leerBit());
+        assertEquals(0x1234_5678_9ABCL, entrada.leer(48));
+        assertFalse(entrada.leerBit());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void bits_valorQueNoCabe_falla() {
+        new EscritorBits().escribir(8, 3);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void bits_datosTruncados_falla() {
+        new LectorBits(new byte[1]).leer(9);
+    }
+
+    @Test
+    public void instantanea_codificarYDecodificar() {
+        byte[] tablero = {1, 2, 3};
+        InstantaneaPartida original = new InstantaneaPartida(JuegoGuardado.JUEGO_MEMORIA, -42L, 90_000L, tablero);
+
+        byte[] datos = original.codificar();
+        assertEquals(InstantaneaPartida.TAMANO_CABECERA + tablero.length, datos.length);
+
+        InstantaneaPartida leida = InstantaneaPartida.decodificar(datos);
+        assertEquals(JuegoGuardado.JUEGO_MEMORIA, leida.getJuego());
+        assertEquals(-42L, leida.getSemilla());
+        assertEquals(90_000L, leida.getTiempoMillis());
+        LectorBits entrada = leida.leerTablero();
+        assertEquals(1, entrada.leer(8));
+        assertEquals(2, entrada.leer(8));
+        assertEquals(3, entrada.leer(8));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void instantanea_datosAjenos_falla() {
+        InstantaneaPartida.decodificar(new byte[InstantaneaPartida.TAMANO_CABECERA]);
+    }
+
+    @Test
+    public void buscaminas_partidaEmpezada_seRecuperaIgual() {
+        Random rnd = new Random(3);
+        TableroBuscaminas t = new TableroBuscaminas(16, 30, 99);
+        t.colocarMinas(rnd, t.indice(8, 15));
+        t.revelar(t.indice(8, 15));
+        for (int i = 0; i < 40; i++) {
+            int celda = rnd.nextInt(t.getTotalCeldas());
+            if (t.esMina(celda)) t.alternarMarca(celda);
+        }
+
+        EscritorBits salida = new EscritorBits();
+        t.escribir(salida);
+        TableroBuscaminas leido = TableroBuscaminas.leer(new LectorBits(salida.aBytes()));
+
+        assertEquals(t.getFilas(), leido.getFilas());
+        assertEquals(t.getColumnas(), leido.getColumnas());
+        for (int i = 0; i < t.getTotalCeldas(); i++) {
+            assertEquals(t.esMina(i), leido.esMina(i));
+            assertEquals(t.estaRevelada(i), leido.estaRevelada(i));
+            assertEquals(t.estaMarcada(i), leido.estaMarcada(i));
+            assertEquals(t.getMinasAlrededor(i), leido.getMinasAlrededor(i));
+        }
+        assertEquals(t.getReveladasSeguras(), leido.getReveladasSeguras());
+        assertEquals(t.getMarcadas(), leido.getMarcadas());
+        assertEquals(t.haExplotado(), leido.haExplotado());
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.menuaplication.model.puzzle;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas del motor {@link TableroPuzzle}: mezclas resolubles, movimientos y contador de
+ * fichas en su sitio.
+ */
+public class TableroPuzzleTest {
+
+    private static int[] copiar(TableroPuzzle t) {
+        int[] orden = new int[t.getTotal()];
+        for (int i = 0; i < orden.length; i++) orden[i] = t.getFicha(i);
+        return orden;
+    }
+
+    /** Cuenta a mano lo que el tablero lleva como contadores. */
+    private static void comprobarContadores(TableroPuzzle t) {
+        int enSuSitio = 0;
+        for (int i = 0; i < t.getTotal(); i++) {
+            int esperado = i == t.getTotal() - 1 ? TableroPuzzle.VACIA : i + 1;
+            if (t.getFicha(i) == esperado) enSuSitio++;
+            if (t.getFicha(i) == TableroPuzzle.VACIA) assertEquals(i, t.getPosicionVacia());
+        }
+        assertEquals(enSuSitio, t.getEnSuSitio());
+        assertEquals(enSuSitio == t.getTotal(), t.estaResuelto());
+    }
+
+    @Test
+    public void esResoluble_coincideConLaBusquedaCompleta() {
+        // En 2x3 (columnas impares) y 3x2 (pares) se exploran todos los estados alcanzables
+        for (int[] tamano : new int[][]{{2, 3}, {3, 2}}) {
+            TableroPuzzle t = new TableroPuzzle(tamano[0], tamano[1]);
+            Set<String> alcanzables = new HashSet<>();
+            ArrayDeque<int[]> cola = new ArrayDeque<>();
+            cola.add(copiar(t));
+            alcanzables.add(Arrays.toString(copiar(t)));
+            while (!cola.isEmpty()) {
+                int[] orden = cola.poll();
+                assertTrue(TableroPuzzle.esResoluble(orden, tamano[1]));
+                for (int p = 0; p < orden.length; p++) {
+                    t.colocar(orden);
+                    if (t.mover(p) && alcanzables.add(Arrays.toString(copiar(t)))) cola.add(copiar(t));
+                }
+            }
+            // La mitad de las 6! permutaciones
+            assertEquals(360, alcanzables.size());
+        }
+    }
+
+    @Test
+    public void mezclar_soloGeneraTablerosResolublesSinResolver() {
+        Random rnd = new Random(11);
+        for (int i = 0; i < 500; i++) {
+            TableroPuzzle t = new TableroPuzzle(7, 5);
+            t.mezclar(rnd);
+            assertTrue(TableroPuzzle.esResoluble(copiar(t), 5));
+            assertFalse(t.estaResuelto());
+            comprobarContadores(t);
+        }
+        TableroPuzzle par = new TableroPuzzle(4, 4);
+        for (int i = 0; i < 500; i++) {
+            par.mezclar(rnd);
+            assertTrue(TableroPuzzle.esResoluble(copiar(par), 4));
+        }
+    }
+
+    @Test
+    public void mover_soloJuntoAlHuecoYLlevaLosContadores() {
+        TableroPuzzle t = new TableroPuzzle(7, 5);
+        int hueco = t.getPosicionVacia(); // Esquina inferior derecha
+
+        assertFalse(t.mover(hueco - 2));
+        assertFalse(t.mover(hueco - 5 - 1)); // Diagonal
+        assertTrue(t.mover(hueco - 1));
+        assertEquals(hueco - 1, t.getPosicionVacia());
+        assertEquals(t.getTotal() - 2, t.getEnSuSitio());
+        assertTrue(t.mover(hueco));
+        assertTrue(t.estaResuelto());
+
+        // Hueco al final de la fila 5: la posición siguiente es el principio de la fila 6
+        assertTrue(t.mover(hueco - 5));
+        assertFalse(t.mover(hueco - 4));
+        comprobarContadores(t);
+    }
+
+    @Test
+    public void mezclarConPasos_mantieneLosContadores() {
+        Random rnd = new Random(2);
+        TableroPuzzle t = new TableroPuzzle(7, 5);
+        for (int i = 0; i < 200; i++) {
+            t.mezclarConPasos(rnd, rnd.nextInt(30));
+            comprobarContadores(t);
+            assertTrue(TableroPuzzle.esResoluble(copiar(t), 5));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void colocar_tableroSinSolucion_falla() {
+        TableroPuzzle t = new TableroPuzzle(7, 5);
+        int[] orden = copiar(t);
+        orden[0] = 2;
+        orden[1] = 1;
+        t.colocar(orden);
+    }
+}